@@ -1,18 +1,73 @@
 package org.metadatacenter.cedar.artifact;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.jaxrs.cbor.JacksonCBORProvider;
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
 import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoDatabase;
+import io.dropwizard.lifecycle.ExecutorServiceManager;
+import io.dropwizard.lifecycle.Managed;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
+import io.dropwizard.util.Duration;
 import org.metadatacenter.bridge.CedarDataServices;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchemaCache;
+import org.metadatacenter.cedar.artifact.cache.TemplateCache;
+import org.metadatacenter.cedar.artifact.cache.ValidInstanceVersions;
+import org.metadatacenter.cedar.artifact.config.CompressionConfig;
+import org.metadatacenter.cedar.artifact.config.JsonLdConfig;
+import org.metadatacenter.cedar.artifact.config.RequestExecutorConfig;
+import org.metadatacenter.cedar.artifact.config.StorageType;
+import org.metadatacenter.cedar.artifact.config.ThreadType;
+import org.metadatacenter.cedar.artifact.config.TotalCountConfig;
 import org.metadatacenter.cedar.artifact.health.ArtifactServerHealthCheck;
+import org.metadatacenter.cedar.artifact.health.MongoPoolMonitor;
+import org.metadatacenter.cedar.artifact.http.BinaryJsonRequestFilter;
+import org.metadatacenter.cedar.artifact.http.CompressionFilter;
+import org.metadatacenter.cedar.artifact.http.ConcurrencyLimitedExecutorService;
+import org.metadatacenter.cedar.artifact.http.JsonFormat;
+import org.metadatacenter.cedar.artifact.http.RawArtifactWriter;
+import org.metadatacenter.cedar.artifact.http.RequestExecutor;
+import org.metadatacenter.cedar.artifact.http.RequestInflationFilter;
+import org.metadatacenter.cedar.artifact.http.VirtualThreads;
+import org.metadatacenter.cedar.artifact.jsonld.PreloadedDocumentLoader;
+import org.metadatacenter.cedar.artifact.memory.*;
+import org.metadatacenter.cedar.artifact.metrics.StageMetrics;
+import org.metadatacenter.cedar.artifact.paging.TotalCounter;
 import org.metadatacenter.cedar.artifact.resources.*;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+import org.metadatacenter.cedar.artifact.store.MongoArtifactStore;
+import org.metadatacenter.cedar.artifact.validation.ModelValidatorPool;
 import org.metadatacenter.cedar.util.dw.CedarMicroserviceApplicationWithMongo;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.config.MongoConfig;
+import org.metadatacenter.model.CedarResourceType;
 import org.metadatacenter.model.ServerName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.DispatcherType;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 
 public class ArtifactServerApplication extends CedarMicroserviceApplicationWithMongo<ArtifactServerConfiguration> {
 
+  private static final Logger logger = LoggerFactory.getLogger(ArtifactServerApplication.class);
+  private static final MongoPoolMonitor poolMonitor = new MongoPoolMonitor();
+
+  private static ArtifactStore templateFieldStore;
+  private static ArtifactStore templateElementStore;
+  private static ArtifactStore templateStore;
+  private static ArtifactStore templateInstanceStore;
+  private static MongoDatabase documentsDatabase;
+  private static MongoClient mongoClientForDocuments;
+
   public static void main(String[] args) throws Exception {
     new ArtifactServerApplication().run(args);
   }
@@ -31,34 +86,203 @@ public class ArtifactServerApplication extends CedarMicroserviceApplicationWithM
     MongoConfig artifactServerConfig = cedarConfig.getArtifactServerConfig();
     CedarDataServices.initializeMongoClientFactoryForDocuments(artifactServerConfig.getMongoConnection());
 
-    MongoClient mongoClientForDocuments = CedarDataServices.getMongoClientFactoryForDocuments().getClient();
+    mongoClientForDocuments = withPoolMonitor(CedarDataServices.getMongoClientFactoryForDocuments().getClient(),
+        poolMonitor);
 
     initMongoServices(mongoClientForDocuments, artifactServerConfig);
+    initArtifactStores(mongoClientForDocuments, artifactServerConfig);
+  }
+
+  // The client of the factory is built without connection pool listeners, which can only be given to a new client, so
+  // the client is rebuilt with the same servers, credentials and options, and the listener. The client of the factory
+  // is closed, so that its server monitors and connections are not kept open; every use of the documents database goes
+  // through the rebuilt client, which is closed at shutdown.
+  private static MongoClient withPoolMonitor(MongoClient client, MongoPoolMonitor poolMonitor) {
+    MongoClientOptions options = MongoClientOptions.builder(client.getMongoClientOptions())
+        .addConnectionPoolListener(poolMonitor)
+        .build();
+    List<ServerAddress> addresses = client.getServerAddressList();
+    MongoClient monitoredClient;
+    if (addresses.size() == 1) {
+      monitoredClient = new MongoClient(addresses.get(0), client.getCredentialsList(), options);
+    } else {
+      monitoredClient = new MongoClient(addresses, client.getCredentialsList(), options);
+    }
+    client.close();
+    return monitoredClient;
+  }
+
+  private static void initArtifactStores(MongoClient mongoClient, MongoConfig config) {
+    MongoDatabase database = mongoClient.getDatabase(config.getDatabaseName());
+    documentsDatabase = database;
+    templateFieldStore = new MongoArtifactStore(
+        database.getCollection(config.getMongoCollectionName(CedarResourceType.FIELD)));
+    templateElementStore = new MongoArtifactStore(
+        database.getCollection(config.getMongoCollectionName(CedarResourceType.ELEMENT)));
+    templateStore = new MongoArtifactStore(
+        database.getCollection(config.getMongoCollectionName(CedarResourceType.TEMPLATE)));
+    templateInstanceStore = new MongoArtifactStore(
+        database.getCollection(config.getMongoCollectionName(CedarResourceType.INSTANCE)));
+  }
+
+  // The MongoDB services are created before the configuration is read, and are replaced here. The MongoDB client
+  // does not need a reachable database until it is used.
+  private void useInMemoryStorage() {
+    logger.warn("The artifacts are stored in memory, and are lost on shutdown");
+    InMemoryCollection fieldCollection = new InMemoryCollection();
+    InMemoryCollection elementCollection = new InMemoryCollection();
+    InMemoryCollection templateCollection = new InMemoryCollection();
+    InMemoryCollection instanceCollection = new InMemoryCollection();
+    templateFieldService = new InMemoryTemplateFieldService(fieldCollection);
+    templateElementService = new InMemoryTemplateElementService(elementCollection);
+    templateService = new InMemoryTemplateService(templateCollection);
+    templateInstanceService = new InMemoryTemplateInstanceService(instanceCollection);
+    templateFieldStore = new InMemoryArtifactStore(fieldCollection);
+    templateElementStore = new InMemoryArtifactStore(elementCollection);
+    templateStore = new InMemoryArtifactStore(templateCollection);
+    templateInstanceStore = new InMemoryArtifactStore(instanceCollection);
   }
 
   @Override
   public void runApp(ArtifactServerConfiguration configuration, Environment environment) {
 
+    // Also with the in-memory storage, as the client is created before the configuration is read
+    environment.lifecycle().manage(new Managed() {
+      @Override
+      public void start() {
+      }
+
+      @Override
+      public void stop() {
+        mongoClientForDocuments.close();
+      }
+    });
+
+    final boolean inMemoryStorage = configuration.getStorage().getType() == StorageType.MEMORY;
+    if (inMemoryStorage) {
+      useInMemoryStorage();
+    }
+
+    final TemplateCache templateCache = new TemplateCache(templateService, configuration.getTemplateCache());
+    templateCache.registerMetrics(environment.metrics());
+    final InstanceSchemaCache instanceSchemaCache = new InstanceSchemaCache(templateCache,
+        configuration.getInstanceSchemaCache());
+    instanceSchemaCache.registerMetrics(environment.metrics());
+
+    final ValidInstanceVersions validInstanceVersions = new ValidInstanceVersions(
+        configuration.getIncrementalValidation());
+    validInstanceVersions.registerMetrics(environment.metrics());
+
+    final ModelValidatorPool validatorPool = new ModelValidatorPool(configuration.getValidatorPool(),
+        environment.metrics());
+
+    // The validations of a batch run in parallel, but not on more threads than there are validators
+    final ExecutorService validationExecutor = environment.lifecycle().executorService("artifact-validation-%d")
+        .minThreads(validatorPool.getSize())
+        .maxThreads(validatorPool.getSize())
+        .build();
+
+    final PreloadedDocumentLoader documentLoader = createDocumentLoader(configuration.getJsonLd());
+
+    final TotalCountConfig totalCountConfig = configuration.getTotalCount();
+
+    final StageMetrics stageMetrics = new StageMetrics(environment.metrics(), configuration.getStageMetrics());
+
+    final CompressionConfig compressionConfig = configuration.getCompression();
+    if (compressionConfig.isEnabled()) {
+      environment.jersey().register(new CompressionFilter(compressionConfig, environment.metrics()));
+      environment.servlets()
+          .addFilter("request-inflation", new RequestInflationFilter(
+              compressionConfig.getMaximumInflatedRequestBytes(), environment.metrics()))
+          .addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/*");
+    }
+
+    // Smile and CBOR, for the calls between the servers: the request bodies are turned into JSON text before they
+    // reach the resources, with the size limit of the inflated bodies, the responses are written in the negotiated
+    // format with the configuration of the JSON responses
+    environment.servlets()
+        .addFilter("binary-json", new BinaryJsonRequestFilter(compressionConfig.getMaximumInflatedRequestBytes()))
+        .addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/*");
+    environment.jersey().register(new RawArtifactWriter());
+    final ObjectMapper jsonMapper = environment.getObjectMapper();
+    environment.jersey().register(new JacksonSmileProvider(JsonFormat.SMILE.createMapper(jsonMapper)));
+    environment.jersey().register(new JacksonCBORProvider(JsonFormat.CBOR.createMapper(jsonMapper)));
+
+    final RequestExecutor requestExecutor = createRequestExecutor(configuration.getRequestExecutor(), environment);
+    environment.jersey().register(requestExecutor);
+
     final IndexResource index = new IndexResource();
     environment.jersey().register(index);
 
-    final TemplateFieldsResource fields = new TemplateFieldsResource(cedarConfig, templateFieldService);
+    final TemplateFieldsResource fields = new TemplateFieldsResource(cedarConfig, validatorPool, requestExecutor,
+        templateFieldService, templateFieldStore, new TotalCounter(templateFieldStore, totalCountConfig), stageMetrics);
     environment.jersey().register(fields);
 
-    final TemplateElementsResource elements = new TemplateElementsResource(cedarConfig, templateElementService);
+    final TemplateElementsResource elements = new TemplateElementsResource(cedarConfig, validatorPool,
+        requestExecutor, templateElementService, templateElementStore,
+        new TotalCounter(templateElementStore, totalCountConfig), stageMetrics);
     environment.jersey().register(elements);
 
-    final TemplatesResource templates = new TemplatesResource(cedarConfig, templateService, templateInstanceService);
+    final TemplatesResource templates = new TemplatesResource(cedarConfig, validatorPool, requestExecutor,
+        templateService, templateStore, new TotalCounter(templateStore, totalCountConfig), templateInstanceService,
+        templateInstanceStore, instanceSchemaCache, stageMetrics);
     environment.jersey().register(templates);
 
-    final TemplateInstancesResource instances = new TemplateInstancesResource(cedarConfig, templateInstanceService,
-        templateService);
+    final TemplateInstancesResource instances = new TemplateInstancesResource(cedarConfig, validatorPool,
+        requestExecutor, templateInstanceService, templateInstanceStore,
+        new TotalCounter(templateInstanceStore, totalCountConfig), instanceSchemaCache, documentLoader,
+        validationExecutor, configuration.getBulk(), configuration.getIncrementalValidation(), validInstanceVersions,
+        stageMetrics);
     environment.jersey().register(instances);
 
-    final CommandResource commands = new CommandResource(cedarConfig, templateService);
+    final CommandResource commands = new CommandResource(cedarConfig, validatorPool, requestExecutor,
+        instanceSchemaCache, validationExecutor, configuration.getBulk());
     environment.jersey().register(commands);
 
-    final ArtifactServerHealthCheck healthCheck = new ArtifactServerHealthCheck();
-    environment.healthChecks().register("message", healthCheck);
+    if (!inMemoryStorage) {
+      // A single thread, so that a database which does not answer holds at most one thread
+      final ExecutorService pingExecutor = environment.lifecycle().executorService("mongo-health-check-%d")
+          .minThreads(1)
+          .maxThreads(1)
+          .build();
+      final ArtifactServerHealthCheck healthCheck = new ArtifactServerHealthCheck(documentsDatabase, poolMonitor,
+          pingExecutor, configuration.getMongoHealthCheck());
+      environment.healthChecks().register("mongo", healthCheck);
+    }
+  }
+
+  private static RequestExecutor createRequestExecutor(RequestExecutorConfig config, Environment environment) {
+    if (!config.isEnabled()) {
+      return new RequestExecutor(null, null, config.getTimeoutSeconds(), environment.metrics());
+    }
+    if (config.getThreadType() == ThreadType.VIRTUAL) {
+      if (VirtualThreads.isAvailable()) {
+        final ExecutorService virtualThreads = new ConcurrencyLimitedExecutorService(
+            VirtualThreads.newThreadPerTaskExecutor("artifact-request-"), config.getMaximumConcurrentRequests());
+        environment.lifecycle().manage(new ExecutorServiceManager(virtualThreads, Duration.seconds(5),
+            "artifact-request"));
+        logger.info("The resources run on virtual threads");
+        return new RequestExecutor(virtualThreads, null, config.getTimeoutSeconds(), environment.metrics());
+      }
+      logger.warn("Virtual threads are not available in Java " + System.getProperty("java.version")
+          + ", the resources run on a pool of " + config.getThreads() + " threads");
+    }
+    final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+    final ExecutorService pool = environment.lifecycle().executorService("artifact-request-%d")
+        .minThreads(config.getThreads())
+        .maxThreads(config.getThreads())
+        .workQueue(queue)
+        .build();
+    return new RequestExecutor(pool, queue, config.getTimeoutSeconds(), environment.metrics());
+  }
+
+  private static PreloadedDocumentLoader createDocumentLoader(JsonLdConfig config) {
+    try {
+      PreloadedDocumentLoader documentLoader = PreloadedDocumentLoader.fromClasspath(config.isAllowRemoteContexts());
+      logger.info("Preloaded JSON-LD contexts: " + documentLoader.size());
+      return documentLoader;
+    } catch (IOException e) {
+      throw new IllegalStateException("The JSON-LD contexts can not be preloaded", e);
+    }
   }
 }
@@ -1,6 +1,130 @@
 package org.metadatacenter.cedar.artifact;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.metadatacenter.cedar.artifact.config.BulkConfig;
+import org.metadatacenter.cedar.artifact.config.CompressionConfig;
+import org.metadatacenter.cedar.artifact.config.IncrementalValidationConfig;
+import org.metadatacenter.cedar.artifact.config.InstanceSchemaCacheConfig;
+import org.metadatacenter.cedar.artifact.config.JsonLdConfig;
+import org.metadatacenter.cedar.artifact.config.RequestExecutorConfig;
+import org.metadatacenter.cedar.artifact.config.MongoHealthCheckConfig;
+import org.metadatacenter.cedar.artifact.config.StageMetricsConfig;
+import org.metadatacenter.cedar.artifact.config.StorageConfig;
+import org.metadatacenter.cedar.artifact.config.TemplateCacheConfig;
+import org.metadatacenter.cedar.artifact.config.TotalCountConfig;
+import org.metadatacenter.cedar.artifact.config.ValidatorPoolConfig;
 import org.metadatacenter.cedar.util.dw.CedarMicroserviceConfiguration;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
 public class ArtifactServerConfiguration extends CedarMicroserviceConfiguration {
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private TemplateCacheConfig templateCache = new TemplateCacheConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private InstanceSchemaCacheConfig instanceSchemaCache = new InstanceSchemaCacheConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private ValidatorPoolConfig validatorPool = new ValidatorPoolConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private TotalCountConfig totalCount = new TotalCountConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private JsonLdConfig jsonLd = new JsonLdConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private BulkConfig bulk = new BulkConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private IncrementalValidationConfig incrementalValidation = new IncrementalValidationConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private MongoHealthCheckConfig mongoHealthCheck = new MongoHealthCheckConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private StageMetricsConfig stageMetrics = new StageMetricsConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private StorageConfig storage = new StorageConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private CompressionConfig compression = new CompressionConfig();
+
+  @Valid
+  @NotNull
+  @JsonProperty
+  private RequestExecutorConfig requestExecutor = new RequestExecutorConfig();
+
+  public TemplateCacheConfig getTemplateCache() {
+    return templateCache;
+  }
+
+  public InstanceSchemaCacheConfig getInstanceSchemaCache() {
+    return instanceSchemaCache;
+  }
+
+  public ValidatorPoolConfig getValidatorPool() {
+    return validatorPool;
+  }
+
+  public TotalCountConfig getTotalCount() {
+    return totalCount;
+  }
+
+  public JsonLdConfig getJsonLd() {
+    return jsonLd;
+  }
+
+  public BulkConfig getBulk() {
+    return bulk;
+  }
+
+  public IncrementalValidationConfig getIncrementalValidation() {
+    return incrementalValidation;
+  }
+
+  public MongoHealthCheckConfig getMongoHealthCheck() {
+    return mongoHealthCheck;
+  }
+
+  public StageMetricsConfig getStageMetrics() {
+    return stageMetrics;
+  }
+
+  public StorageConfig getStorage() {
+    return storage;
+  }
+
+  public CompressionConfig getCompression() {
+    return compression;
+  }
+
+  public RequestExecutorConfig getRequestExecutor() {
+    return requestExecutor;
+  }
 }
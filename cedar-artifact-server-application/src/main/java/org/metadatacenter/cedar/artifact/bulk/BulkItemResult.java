@@ -0,0 +1,70 @@
+package org.metadatacenter.cedar.artifact.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.metadatacenter.model.validation.report.ValidationReport;
+
+import javax.ws.rs.core.Response;
+
+/**
+ * Outcome of one item of a bulk request. The status is the HTTP status the item would have got as a single request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+
+  private final int index;
+  private final int status;
+  private final String id;
+  private final String errorMessage;
+  private final ValidationReport validationReport;
+
+  private BulkItemResult(int index, int status, String id, String errorMessage, ValidationReport validationReport) {
+    this.index = index;
+    this.status = status;
+    this.id = id;
+    this.errorMessage = errorMessage;
+    this.validationReport = validationReport;
+  }
+
+  public static BulkItemResult created(int index, String id) {
+    return new BulkItemResult(index, Response.Status.CREATED.getStatusCode(), id, null, null);
+  }
+
+  public static BulkItemResult badRequest(int index, String errorMessage) {
+    return new BulkItemResult(index, Response.Status.BAD_REQUEST.getStatusCode(), null, errorMessage, null);
+  }
+
+  public static BulkItemResult invalid(int index, String errorMessage, ValidationReport validationReport) {
+    return new BulkItemResult(index, Response.Status.BAD_REQUEST.getStatusCode(), null, errorMessage,
+        validationReport);
+  }
+
+  public static BulkItemResult failed(int index, String errorMessage) {
+    return new BulkItemResult(index, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), null, errorMessage, null);
+  }
+
+  @JsonProperty
+  public int getIndex() {
+    return index;
+  }
+
+  @JsonProperty
+  public int getStatus() {
+    return status;
+  }
+
+  @JsonProperty("@id")
+  public String getId() {
+    return id;
+  }
+
+  @JsonProperty
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  @JsonProperty
+  public ValidationReport getValidationReport() {
+    return validationReport;
+  }
+}
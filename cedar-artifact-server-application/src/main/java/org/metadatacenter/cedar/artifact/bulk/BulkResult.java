@@ -0,0 +1,40 @@
+package org.metadatacenter.cedar.artifact.bulk;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class BulkResult {
+
+  private final List<BulkItemResult> items;
+  private final int succeeded;
+  private final int failed;
+
+  public BulkResult(BulkItemResult[] items, int successStatus) {
+    this.items = Arrays.asList(items);
+    int succeededCount = 0;
+    for (BulkItemResult item : items) {
+      if (item.getStatus() == successStatus) {
+        succeededCount++;
+      }
+    }
+    this.succeeded = succeededCount;
+    this.failed = items.length - succeededCount;
+  }
+
+  @JsonProperty
+  public int getSucceeded() {
+    return succeeded;
+  }
+
+  @JsonProperty
+  public int getFailed() {
+    return failed;
+  }
+
+  @JsonProperty
+  public List<BulkItemResult> getItems() {
+    return items;
+  }
+}
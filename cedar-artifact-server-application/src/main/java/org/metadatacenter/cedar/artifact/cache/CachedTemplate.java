@@ -0,0 +1,46 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.hash.Hashing;
+import org.metadatacenter.util.json.JsonMapper;
+
+/**
+ * A template as held by the {@link TemplateCache}, together with the hash of its content, its serialized size, and
+ * the schema which its instances are validated against.
+ */
+public final class CachedTemplate {
+
+  private final JsonNode template;
+  private final String contentHash;
+  private final int size;
+  private final InstanceSchema instanceSchema;
+
+  private CachedTemplate(String templateId, JsonNode template, String contentHash, int size) {
+    this.template = template;
+    this.contentHash = contentHash;
+    this.size = size;
+    this.instanceSchema = new InstanceSchema(new InstanceSchemaKey(templateId, contentHash), template);
+  }
+
+  public static CachedTemplate of(String templateId, JsonNode template) throws JsonProcessingException {
+    byte[] content = JsonMapper.MAPPER.writeValueAsBytes(template);
+    return new CachedTemplate(templateId, template, Hashing.sha256().hashBytes(content).toString(), content.length);
+  }
+
+  public JsonNode getTemplate() {
+    return template;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public InstanceSchema getInstanceSchema() {
+    return instanceSchema;
+  }
+}
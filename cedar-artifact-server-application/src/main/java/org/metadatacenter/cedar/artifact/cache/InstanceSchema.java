@@ -0,0 +1,41 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.model.validation.report.ValidationReport;
+
+/**
+ * The schema used to validate the instances of one template version. The schemas are shared, held by the
+ * {@link TemplateCache} for the stored templates and by the {@link InstanceSchemaCache} for the schemas sent by the
+ * client, and must not be modified.
+ */
+public final class InstanceSchema {
+
+  private final InstanceSchemaKey key;
+  private final JsonNode schema;
+  private volatile ValidationReport schemaValidationReport;
+
+  InstanceSchema(InstanceSchemaKey key, JsonNode schema) {
+    this.key = key;
+    this.schema = schema;
+  }
+
+  public InstanceSchemaKey getKey() {
+    return key;
+  }
+
+  public JsonNode getSchema() {
+    return schema;
+  }
+
+  /**
+   * The result of validating the schema itself as a template. Only computed for schemas sent by the client, since
+   * stored templates are validated when they are written.
+   */
+  public ValidationReport getSchemaValidationReport() {
+    return schemaValidationReport;
+  }
+
+  public void setSchemaValidationReport(ValidationReport schemaValidationReport) {
+    this.schemaValidationReport = schemaValidationReport;
+  }
+}
@@ -0,0 +1,80 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.metadatacenter.cedar.artifact.config.InstanceSchemaCacheConfig;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Looks up the schemas used to validate template instances, which are identified by template id and template content
+ * hash.
+ * <p>
+ * The schema of a stored template is the template itself, and is held with it by the {@link TemplateCache}: the model
+ * validator takes the schema as a JSON node, and has no compiled form of it to keep. Only the schemas sent by the
+ * client with a validation request are cached here, keyed by their own content hash, together with the result of
+ * validating the schema itself, so that the same schema is only checked once.
+ */
+public class InstanceSchemaCache implements InstanceSchemaLookup {
+
+  private static final String USER_SCHEMA_ID = "";
+
+  private final TemplateCache templateCache;
+  private final Cache<InstanceSchemaKey, InstanceSchema> cache;
+
+  public InstanceSchemaCache(TemplateCache templateCache, InstanceSchemaCacheConfig config) {
+    this.templateCache = checkNotNull(templateCache);
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(config.getMaximumEntries())
+        .expireAfterAccess(config.getExpireAfterAccessSeconds(), TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+  }
+
+  @Override
+  public InstanceSchema forTemplate(String templateId) throws IOException {
+    CachedTemplate cachedTemplate = templateCache.getCachedTemplate(templateId);
+    return cachedTemplate != null ? cachedTemplate.getInstanceSchema() : null;
+  }
+
+  /**
+   * Returns the instance schema for a schema supplied in a request.
+   */
+  public InstanceSchema forSchema(JsonNode schema) throws IOException {
+    JsonNode idNode = schema.get(LinkedData.ID);
+    String schemaId = idNode != null && idNode.isTextual() ? idNode.asText() : USER_SCHEMA_ID;
+    String contentHash = Hashing.sha256().hashBytes(JsonMapper.MAPPER.writeValueAsBytes(schema)).toString();
+    return get(new InstanceSchemaKey(schemaId, contentHash), schema);
+  }
+
+  // The schemas sent by the client are keyed by their content, and are never stale
+  public void invalidate(String templateId) {
+    templateCache.invalidate(templateId);
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(InstanceSchemaCache.class, "hits"),
+        (Gauge<Long>) () -> cache.stats().hitCount());
+    metrics.register(MetricRegistry.name(InstanceSchemaCache.class, "misses"),
+        (Gauge<Long>) () -> cache.stats().missCount());
+    metrics.register(MetricRegistry.name(InstanceSchemaCache.class, "size"), (Gauge<Long>) cache::size);
+  }
+
+  private InstanceSchema get(InstanceSchemaKey key, JsonNode schema) throws IOException {
+    try {
+      return cache.get(key, () -> new InstanceSchema(key, schema));
+    } catch (ExecutionException e) {
+      throw new IOException("Unable to cache the instance schema " + key, e.getCause());
+    }
+  }
+}
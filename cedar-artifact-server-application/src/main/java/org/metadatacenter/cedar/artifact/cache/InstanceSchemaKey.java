@@ -0,0 +1,48 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import java.util.Objects;
+
+/**
+ * Identifies one version of an instance schema: the id of the template it was derived from, and the hash of the
+ * template content.
+ */
+public final class InstanceSchemaKey {
+
+  private final String templateId;
+  private final String version;
+
+  public InstanceSchemaKey(String templateId, String version) {
+    this.templateId = templateId;
+    this.version = version;
+  }
+
+  public String getTemplateId() {
+    return templateId;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    InstanceSchemaKey that = (InstanceSchemaKey) o;
+    return templateId.equals(that.templateId) && version.equals(that.version);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(templateId, version);
+  }
+
+  @Override
+  public String toString() {
+    return templateId + "@" + version;
+  }
+}
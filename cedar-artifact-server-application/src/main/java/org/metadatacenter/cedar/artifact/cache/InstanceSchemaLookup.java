@@ -0,0 +1,13 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface InstanceSchemaLookup {
+
+  /**
+   * Returns the instance schema of the current version of a stored template, or null if the template does not exist.
+   */
+  InstanceSchema forTemplate(String templateId) throws IOException;
+
+}
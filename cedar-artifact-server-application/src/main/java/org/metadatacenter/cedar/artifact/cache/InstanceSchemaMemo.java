@@ -0,0 +1,46 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Instance schema lookup for the items of one batch. Each template is looked up once, even when several items which
+ * reference it are processed at the same time, and all the items see the same version of the template.
+ */
+public class InstanceSchemaMemo implements InstanceSchemaLookup {
+
+  private final InstanceSchemaLookup lookup;
+  private final ConcurrentMap<String, FutureTask<InstanceSchema>> instanceSchemas = new ConcurrentHashMap<>();
+
+  public InstanceSchemaMemo(InstanceSchemaLookup lookup) {
+    this.lookup = checkNotNull(lookup);
+  }
+
+  @Override
+  public InstanceSchema forTemplate(String templateId) throws IOException {
+    FutureTask<InstanceSchema> task = new FutureTask<>(() -> lookup.forTemplate(templateId));
+    FutureTask<InstanceSchema> existingTask = instanceSchemas.putIfAbsent(templateId, task);
+    if (existingTask == null) {
+      task.run();
+    } else {
+      task = existingTask;
+    }
+    try {
+      return task.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException("Unable to look up the instance schema of " + templateId, e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while looking up the instance schema of " + templateId);
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.metadatacenter.cedar.artifact.config.TemplateCacheConfig;
+import org.metadatacenter.cedar.artifact.store.MongoDocuments;
+import org.metadatacenter.server.service.TemplateService;
+import org.metadatacenter.util.mongo.MongoUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Size-bounded cache of templates, used to resolve the schema of template instances during validation.
+ * <p>
+ * The cached templates are shared between requests and must be treated as read-only by the callers.
+ * <p>
+ * Invalidation only reaches the cache of this node. Another node keeps using the version it has cached until the entry
+ * expires, see {@link TemplateCacheConfig#getExpireAfterWriteSeconds()}.
+ */
+public class TemplateCache {
+
+  private final TemplateService<String, JsonNode> templateService;
+  private final boolean enabled;
+  private final Cache<String, CachedTemplate> cache;
+
+  // Incremented on every invalidation. A load which overlaps an invalidation is not kept, so a concurrent reader can
+  // not put back a template version which was replaced in the meantime.
+  private final AtomicLong invalidationEpoch = new AtomicLong();
+
+  public TemplateCache(TemplateService<String, JsonNode> templateService, TemplateCacheConfig config) {
+    this.templateService = checkNotNull(templateService);
+    this.enabled = config.isEnabled();
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(config.getMaximumSizeBytes())
+        .weigher((String id, CachedTemplate cachedTemplate) -> cachedTemplate.getSize())
+        .expireAfterWrite(config.getExpireAfterWriteSeconds(), TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+  }
+
+  public CachedTemplate getCachedTemplate(String templateId) throws IOException {
+    if (!enabled) {
+      return loadTemplate(templateId);
+    }
+    CachedTemplate cachedTemplate = cache.getIfPresent(templateId);
+    if (cachedTemplate == null) {
+      long epoch = invalidationEpoch.get();
+      cachedTemplate = loadTemplate(templateId);
+      if (cachedTemplate != null && epoch == invalidationEpoch.get()) {
+        cache.put(templateId, cachedTemplate);
+        // An invalidation between the check and the put would otherwise be lost
+        if (epoch != invalidationEpoch.get()) {
+          cache.asMap().remove(templateId, cachedTemplate);
+        }
+      }
+    }
+    return cachedTemplate;
+  }
+
+  public void invalidate(String templateId) {
+    invalidationEpoch.incrementAndGet();
+    cache.invalidate(templateId);
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(TemplateCache.class, "hits"), (Gauge<Long>) () -> cache.stats().hitCount());
+    metrics.register(MetricRegistry.name(TemplateCache.class, "misses"),
+        (Gauge<Long>) () -> cache.stats().missCount());
+    metrics.register(MetricRegistry.name(TemplateCache.class, "evictions"),
+        (Gauge<Long>) () -> cache.stats().evictionCount());
+    metrics.register(MetricRegistry.name(TemplateCache.class, "hitRate"),
+        (Gauge<Double>) () -> cache.stats().hitRate());
+    metrics.register(MetricRegistry.name(TemplateCache.class, "size"), (Gauge<Long>) cache::size);
+  }
+
+  private CachedTemplate loadTemplate(String templateId) throws IOException {
+    JsonNode template = templateService.findTemplate(templateId);
+    if (template == null) {
+      return null;
+    }
+    MongoUtils.removeIdField(template);
+    ((ObjectNode) template).remove(MongoDocuments.REVISION);
+    return CachedTemplate.of(templateId, template);
+  }
+}
@@ -0,0 +1,65 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.metadatacenter.cedar.artifact.config.IncrementalValidationConfig;
+
+import javax.ws.rs.core.EntityTag;
+
+/**
+ * Remembers the instance versions which were found valid, by instance id. A version is identified by the entity tag
+ * of the instance and by the version of the schema it was validated against, so a change of either of them, made by
+ * this server or by any other, is never taken for a valid version.
+ * <p>
+ * Only the changes made to a valid version can be validated incrementally, since the unchanged values are not checked
+ * again.
+ */
+public class ValidInstanceVersions {
+
+  private final Cache<String, ValidVersion> cache;
+
+  public ValidInstanceVersions(IncrementalValidationConfig config) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(config.getMaximumEntries())
+        .recordStats()
+        .build();
+  }
+
+  public boolean isValid(String instanceId, EntityTag entityTag, InstanceSchemaKey schemaKey) {
+    ValidVersion validVersion = cache.getIfPresent(instanceId);
+    return validVersion != null && validVersion.matches(entityTag, schemaKey);
+  }
+
+  public void markValid(String instanceId, EntityTag entityTag, InstanceSchemaKey schemaKey) {
+    cache.put(instanceId, new ValidVersion(entityTag, schemaKey));
+  }
+
+  public void invalidate(String instanceId) {
+    cache.invalidate(instanceId);
+  }
+
+  public void registerMetrics(MetricRegistry metrics) {
+    metrics.register(MetricRegistry.name(ValidInstanceVersions.class, "hits"),
+        (Gauge<Long>) () -> cache.stats().hitCount());
+    metrics.register(MetricRegistry.name(ValidInstanceVersions.class, "misses"),
+        (Gauge<Long>) () -> cache.stats().missCount());
+    metrics.register(MetricRegistry.name(ValidInstanceVersions.class, "size"), (Gauge<Long>) cache::size);
+  }
+
+  private static final class ValidVersion {
+
+    private final EntityTag entityTag;
+    private final InstanceSchemaKey schemaKey;
+
+    private ValidVersion(EntityTag entityTag, InstanceSchemaKey schemaKey) {
+      this.entityTag = entityTag;
+      this.schemaKey = schemaKey;
+    }
+
+    private boolean matches(EntityTag entityTag, InstanceSchemaKey schemaKey) {
+      return this.entityTag.equals(entityTag) && this.schemaKey.equals(schemaKey);
+    }
+  }
+}
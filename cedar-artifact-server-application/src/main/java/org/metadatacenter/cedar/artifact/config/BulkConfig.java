@@ -0,0 +1,16 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class BulkConfig {
+
+  @Min(1)
+  @JsonProperty
+  private int maximumItems = 1000;
+
+  public int getMaximumItems() {
+    return maximumItems;
+  }
+}
@@ -0,0 +1,55 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+public class CompressionConfig {
+
+  // If false, responses are sent and request bodies are read as they are
+  @JsonProperty
+  private boolean enabled = true;
+
+  // Responses smaller than this are sent uncompressed, since compressing them costs more than it saves
+  @Min(0)
+  @JsonProperty
+  private int minimumSizeBytes = 1024;
+
+  // The deflate level, from 1 (fastest) to 9 (smallest)
+  @Min(1)
+  @Max(9)
+  @JsonProperty
+  private int level = 6;
+
+  // The number of idle compressors kept for reuse
+  @Min(0)
+  @JsonProperty
+  private int pooledCompressors = 32;
+
+  // A compressed request body which inflates to more than this is refused, as is a Smile or CBOR body which is
+  // larger than this as JSON text. The latter limit also applies when compression is disabled
+  @Min(1)
+  @JsonProperty
+  private long maximumInflatedRequestBytes = 268435456;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public int getMinimumSizeBytes() {
+    return minimumSizeBytes;
+  }
+
+  public int getLevel() {
+    return level;
+  }
+
+  public int getPooledCompressors() {
+    return pooledCompressors;
+  }
+
+  public long getMaximumInflatedRequestBytes() {
+    return maximumInflatedRequestBytes;
+  }
+}
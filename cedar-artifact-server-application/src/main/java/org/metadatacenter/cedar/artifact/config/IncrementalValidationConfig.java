@@ -0,0 +1,25 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class IncrementalValidationConfig {
+
+  // If true, an instance update which only changes values is validated against the changed parts of the schema
+  @JsonProperty
+  private boolean enabled = false;
+
+  // Number of instance versions remembered as valid
+  @Min(0)
+  @JsonProperty
+  private long maximumEntries = 10000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getMaximumEntries() {
+    return maximumEntries;
+  }
+}
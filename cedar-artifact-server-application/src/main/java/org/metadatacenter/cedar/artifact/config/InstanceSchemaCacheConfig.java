@@ -0,0 +1,24 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class InstanceSchemaCacheConfig {
+
+  @Min(0)
+  @JsonProperty
+  private long maximumEntries = 1000;
+
+  @Min(1)
+  @JsonProperty
+  private long expireAfterAccessSeconds = 3600;
+
+  public long getMaximumEntries() {
+    return maximumEntries;
+  }
+
+  public long getExpireAfterAccessSeconds() {
+    return expireAfterAccessSeconds;
+  }
+}
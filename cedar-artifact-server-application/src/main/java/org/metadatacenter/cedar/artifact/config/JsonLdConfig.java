@@ -0,0 +1,16 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class JsonLdConfig {
+
+  // If false, the RDF conversion only uses the contexts preloaded from the classpath. Only applies to the conversions
+  // which are handed the preloaded loader; keep it true until every context in use is listed in
+  // jsonld-contexts.properties
+  @JsonProperty
+  private boolean allowRemoteContexts = true;
+
+  public boolean isAllowRemoteContexts() {
+    return allowRemoteContexts;
+  }
+}
@@ -0,0 +1,35 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class MongoHealthCheckConfig {
+
+  // A ping which takes longer than this is reported as failed
+  @Min(1)
+  @JsonProperty
+  private long pingTimeoutMillis = 2000;
+
+  // A ping which takes longer than this is reported as degraded
+  @Min(1)
+  @JsonProperty
+  private long degradedLatencyMillis = 500;
+
+  // More threads than this waiting for a pooled connection is reported as degraded
+  @Min(0)
+  @JsonProperty
+  private int degradedWaitQueueSize = 20;
+
+  public long getPingTimeoutMillis() {
+    return pingTimeoutMillis;
+  }
+
+  public long getDegradedLatencyMillis() {
+    return degradedLatencyMillis;
+  }
+
+  public int getDegradedWaitQueueSize() {
+    return degradedWaitQueueSize;
+  }
+}
@@ -0,0 +1,64 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class RequestExecutorConfig {
+
+  // If false, the resources run on the request threads of the server
+  @JsonProperty
+  private boolean enabled = true;
+
+  // PLATFORM for a fixed pool of threads, VIRTUAL for a virtual thread per request on Java 21 and later. Virtual
+  // threads fall back to the pool on older JDKs.
+  @NotNull
+  @JsonProperty
+  private ThreadType threadType = ThreadType.PLATFORM;
+
+  // The platform threads which run the resources, and wait for the database
+  @Min(1)
+  @JsonProperty
+  private int threads = 64;
+
+  // Requests which arrive when all the threads are busy and the queue is full are answered with 503
+  @Min(1)
+  @JsonProperty
+  private int queueCapacity = 256;
+
+  // With virtual threads, the requests which run at once. Requests beyond it are answered with 503.
+  @Min(1)
+  @JsonProperty
+  private int maximumConcurrentRequests = 4096;
+
+  // Requests which are not answered within this time, including the time in the queue, are answered with 504, or with
+  // 503 if they have not been run yet. 0 for no limit
+  @Min(0)
+  @JsonProperty
+  private long timeoutSeconds = 30;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public ThreadType getThreadType() {
+    return threadType;
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public int getMaximumConcurrentRequests() {
+    return maximumConcurrentRequests;
+  }
+
+  public long getTimeoutSeconds() {
+    return timeoutSeconds;
+  }
+}
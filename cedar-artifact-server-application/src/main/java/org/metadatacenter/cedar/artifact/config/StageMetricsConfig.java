@@ -0,0 +1,14 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class StageMetricsConfig {
+
+  // If true, the durations of the stages of a write are also sent in a Server-Timing response header
+  @JsonProperty
+  private boolean serverTimingHeader = false;
+
+  public boolean isServerTimingHeader() {
+    return serverTimingHeader;
+  }
+}
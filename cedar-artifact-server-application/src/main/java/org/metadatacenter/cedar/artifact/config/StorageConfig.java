@@ -0,0 +1,16 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.NotNull;
+
+public class StorageConfig {
+
+  @NotNull
+  @JsonProperty
+  private StorageType type = StorageType.MONGO;
+
+  public StorageType getType() {
+    return type;
+  }
+}
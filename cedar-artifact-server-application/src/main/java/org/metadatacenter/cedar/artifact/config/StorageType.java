@@ -0,0 +1,14 @@
+package org.metadatacenter.cedar.artifact.config;
+
+/**
+ * Where the artifacts are stored.
+ */
+public enum StorageType {
+
+  // The MongoDB collections of the CEDAR configuration
+  MONGO,
+
+  // Collections held in memory, lost on shutdown. For benchmarks and tests which should not depend on a database.
+  MEMORY
+
+}
@@ -0,0 +1,33 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class TemplateCacheConfig {
+
+  @JsonProperty
+  private boolean enabled = true;
+
+  @Min(0)
+  @JsonProperty
+  private long maximumSizeBytes = 64L * 1024 * 1024;
+
+  // Upper bound on how long a node may validate against a template that was updated or deleted through another node:
+  // invalidation only clears the cache of the node which handled the write
+  @Min(1)
+  @JsonProperty
+  private long expireAfterWriteSeconds = 300;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long getMaximumSizeBytes() {
+    return maximumSizeBytes;
+  }
+
+  public long getExpireAfterWriteSeconds() {
+    return expireAfterWriteSeconds;
+  }
+}
@@ -0,0 +1,15 @@
+package org.metadatacenter.cedar.artifact.config;
+
+/**
+ * The kind of threads which run the resources.
+ */
+public enum ThreadType {
+
+  // A fixed pool of threads of the operating system, with a bounded queue
+  PLATFORM,
+
+  // A virtual thread per request, on Java 21 and later. The threads are cheap to block, so the number of requests
+  // waiting for the database at once is only bounded by the maximum concurrent requests.
+  VIRTUAL
+
+}
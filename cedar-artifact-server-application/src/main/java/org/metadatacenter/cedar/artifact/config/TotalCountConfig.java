@@ -0,0 +1,27 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.metadatacenter.cedar.artifact.paging.TotalCountStrategy;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+public class TotalCountConfig {
+
+  @NotNull
+  @JsonProperty
+  private TotalCountStrategy strategy = TotalCountStrategy.EXACT;
+
+  // Only used by the CACHED strategy
+  @Min(1)
+  @JsonProperty
+  private long cacheTtlSeconds = 10;
+
+  public TotalCountStrategy getStrategy() {
+    return strategy;
+  }
+
+  public long getCacheTtlSeconds() {
+    return cacheTtlSeconds;
+  }
+}
@@ -0,0 +1,33 @@
+package org.metadatacenter.cedar.artifact.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Min;
+
+public class ValidatorPoolConfig {
+
+  // 0 means one validator per available processor
+  @Min(0)
+  @JsonProperty
+  private int size = 0;
+
+  // A request which does not get a validator within this time is answered with 503
+  @Min(1)
+  @JsonProperty
+  private long acquireTimeoutMillis = 10000;
+
+  @JsonProperty
+  private boolean warmUp = true;
+
+  public int getSize() {
+    return size;
+  }
+
+  public long getAcquireTimeoutMillis() {
+    return acquireTimeoutMillis;
+  }
+
+  public boolean isWarmUp() {
+    return warmUp;
+  }
+}
@@ -0,0 +1,13 @@
+package org.metadatacenter.cedar.artifact.constant;
+
+public final class ArtifactMediaTypes {
+
+  public static final String APPLICATION_NDJSON = "application/x-ndjson";
+  public static final String APPLICATION_JSON_PATCH = "application/json-patch+json";
+  public static final String APPLICATION_MERGE_PATCH = "application/merge-patch+json";
+  public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+  public static final String APPLICATION_CBOR = "application/cbor";
+
+  private ArtifactMediaTypes() {
+  }
+}
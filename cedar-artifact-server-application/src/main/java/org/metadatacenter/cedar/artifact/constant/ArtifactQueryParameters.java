@@ -0,0 +1,10 @@
+package org.metadatacenter.cedar.artifact.constant;
+
+public final class ArtifactQueryParameters {
+
+  public static final String QP_CURSOR = "cursor";
+  public static final String QP_COUNT = "count";
+
+  private ArtifactQueryParameters() {
+  }
+}
@@ -1,17 +1,86 @@
 package org.metadatacenter.cedar.artifact.health;
 
 import com.codahale.metrics.health.HealthCheck;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.metadatacenter.cedar.artifact.config.MongoHealthCheckConfig;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Checks that the documents database answers, and answers fast enough.
+ * <p>
+ * The database is pinged with a timeout. A ping which fails or times out is reported as down. A slow ping, or too many
+ * threads waiting for a pooled connection, is reported as degraded. Both are unhealthy, so that a load balancer stops
+ * routing requests to the node before they time out.
+ */
 public class ArtifactServerHealthCheck extends HealthCheck {
 
-  public ArtifactServerHealthCheck() {
+  private static final Document PING = new Document("ping", 1);
+
+  private final MongoDatabase database;
+  private final MongoPoolMonitor poolMonitor;
+  private final ExecutorService pingExecutor;
+  private final MongoHealthCheckConfig config;
+
+  public ArtifactServerHealthCheck(MongoDatabase database, MongoPoolMonitor poolMonitor, ExecutorService pingExecutor,
+                                   MongoHealthCheckConfig config) {
+    this.database = checkNotNull(database);
+    this.poolMonitor = checkNotNull(poolMonitor);
+    this.pingExecutor = checkNotNull(pingExecutor);
+    this.config = checkNotNull(config);
   }
 
   @Override
   protected Result check() throws Exception {
-    if (2 * 2 == 5) {
-      return Result.unhealthy("Unhealthy, because 2 * 2 == 5");
+    MongoPoolStatistics poolStatistics = poolMonitor.getStatistics();
+    ResultBuilder result = Result.builder();
+    if (poolStatistics.isAvailable()) {
+      result.withDetail("poolSize", poolStatistics.getSize())
+          .withDetail("poolCheckedOut", poolStatistics.getCheckedOutCount())
+          .withDetail("poolWaitQueueSize", poolStatistics.getWaitQueueSize());
+    }
+
+    long start = System.nanoTime();
+    Future<Document> ping = pingExecutor.submit(() -> database.runCommand(PING));
+    try {
+      ping.get(config.getPingTimeoutMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      ping.cancel(true);
+      return result.unhealthy()
+          .withMessage("The database did not answer within " + config.getPingTimeoutMillis() + " ms")
+          .withDetail("status", "down")
+          .build();
+    } catch (ExecutionException e) {
+      return result.unhealthy(e.getCause())
+          .withDetail("status", "down")
+          .build();
+    }
+    long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    result.withDetail("latencyMillis", latencyMillis);
+
+    if (latencyMillis > config.getDegradedLatencyMillis()) {
+      return result.unhealthy()
+          .withMessage("The database answered in " + latencyMillis + " ms, more than "
+              + config.getDegradedLatencyMillis() + " ms")
+          .withDetail("status", "degraded")
+          .build();
+    }
+    if (poolStatistics.getWaitQueueSize() > config.getDegradedWaitQueueSize()) {
+      return result.unhealthy()
+          .withMessage(poolStatistics.getWaitQueueSize() + " threads are waiting for a database connection, more than "
+              + config.getDegradedWaitQueueSize())
+          .withDetail("status", "degraded")
+          .build();
     }
-    return Result.healthy();
+    return result.healthy()
+        .withDetail("status", "up")
+        .build();
   }
 }
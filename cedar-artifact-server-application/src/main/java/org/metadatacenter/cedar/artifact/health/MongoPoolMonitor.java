@@ -0,0 +1,69 @@
+package org.metadatacenter.cedar.artifact.health;
+
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the connections of the MongoDB driver pools, summed over the pools of all the servers, from the events of the
+ * pools. It has to be added to the options of the client when the client is built.
+ */
+public class MongoPoolMonitor extends ConnectionPoolListenerAdapter {
+
+  private final AtomicInteger pools = new AtomicInteger();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger checkedOutCount = new AtomicInteger();
+  private final AtomicInteger waitQueueSize = new AtomicInteger();
+
+  @Override
+  public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+    pools.incrementAndGet();
+  }
+
+  @Override
+  public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+    pools.decrementAndGet();
+  }
+
+  @Override
+  public void connectionAdded(ConnectionAddedEvent event) {
+    size.incrementAndGet();
+  }
+
+  @Override
+  public void connectionRemoved(ConnectionRemovedEvent event) {
+    size.decrementAndGet();
+  }
+
+  @Override
+  public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+    checkedOutCount.incrementAndGet();
+  }
+
+  @Override
+  public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+    checkedOutCount.decrementAndGet();
+  }
+
+  @Override
+  public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+    waitQueueSize.incrementAndGet();
+  }
+
+  @Override
+  public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+    waitQueueSize.decrementAndGet();
+  }
+
+  public MongoPoolStatistics getStatistics() {
+    return new MongoPoolStatistics(pools.get(), size.get(), checkedOutCount.get(), waitQueueSize.get());
+  }
+}
@@ -0,0 +1,36 @@
+package org.metadatacenter.cedar.artifact.health;
+
+/**
+ * Connection pool usage of the MongoDB driver, summed over the pools of all the servers, as counted by a
+ * {@link MongoPoolMonitor}. The statistics are unavailable until the client has opened a pool.
+ */
+public final class MongoPoolStatistics {
+
+  private final int pools;
+  private final int size;
+  private final int checkedOutCount;
+  private final int waitQueueSize;
+
+  MongoPoolStatistics(int pools, int size, int checkedOutCount, int waitQueueSize) {
+    this.pools = pools;
+    this.size = size;
+    this.checkedOutCount = checkedOutCount;
+    this.waitQueueSize = waitQueueSize;
+  }
+
+  public boolean isAvailable() {
+    return pools > 0;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getCheckedOutCount() {
+    return checkedOutCount;
+  }
+
+  public int getWaitQueueSize() {
+    return waitQueueSize;
+  }
+}
@@ -0,0 +1,111 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Turns Smile and CBOR request bodies into JSON text. The CEDAR request context, which the resources read their
+ * bodies from, only reads JSON text, so the binary bodies are transcoded before the request reaches Jersey. The
+ * transcoding copies the parser events to the JSON generator, without building a tree. The JSON text is buffered, and
+ * is refused with 413 beyond the same limit as the inflated request bodies.
+ */
+public class BinaryJsonRequestFilter implements Filter {
+
+  private final long maximumJsonBytes;
+
+  public BinaryJsonRequestFilter(long maximumJsonBytes) {
+    this.maximumJsonBytes = maximumJsonBytes;
+  }
+
+  @Override
+  public void init(FilterConfig filterConfig) {
+  }
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    HttpServletRequest httpRequest = (HttpServletRequest) request;
+    JsonFormat format = getFormat(httpRequest.getContentType());
+    if (format == null || format == JsonFormat.JSON) {
+      chain.doFilter(request, response);
+      return;
+    }
+    LimitedByteArrayOutputStream json = new LimitedByteArrayOutputStream(maximumJsonBytes);
+    try (JsonParser parser = format.getFactory().createParser(httpRequest.getInputStream());
+         JsonGenerator generator = JsonMapper.MAPPER.getFactory().createGenerator(json)) {
+      while (parser.nextToken() != null) {
+        generator.copyCurrentStructure(parser);
+      }
+    } catch (RequestBodyTooLargeException e) {
+      ((HttpServletResponse) response).sendError(Response.Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode(),
+          "The request body is larger than " + maximumJsonBytes + " bytes as JSON");
+      return;
+    } catch (JsonProcessingException e) {
+      ((HttpServletResponse) response).sendError(Response.Status.BAD_REQUEST.getStatusCode(),
+          "The request body is not valid " + format.getMediaType() + ": " + e.getOriginalMessage());
+      return;
+    }
+    chain.doFilter(new ReplacedBodyRequest(httpRequest, new ByteArrayInputStream(json.toByteArray()),
+        MediaType.APPLICATION_JSON), response);
+  }
+
+  @Override
+  public void destroy() {
+  }
+
+  private static JsonFormat getFormat(String contentType) {
+    if (contentType == null) {
+      return null;
+    }
+    try {
+      return JsonFormat.forMediaType(MediaType.valueOf(contentType));
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static class LimitedByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private final long maximumBytes;
+
+    private LimitedByteArrayOutputStream(long maximumBytes) {
+      this.maximumBytes = maximumBytes;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+      if (count + 1L > maximumBytes) {
+        throw new RequestBodyTooLargeException();
+      }
+      super.write(b);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+      if (count + (long) len > maximumBytes) {
+        throw new RequestBodyTooLargeException();
+      }
+      super.write(b, off, len);
+    }
+  }
+
+  // Unchecked, as the output stream does not declare IOException, and passed on unchanged by the JSON generator
+  private static class RequestBodyTooLargeException extends RuntimeException {
+  }
+}
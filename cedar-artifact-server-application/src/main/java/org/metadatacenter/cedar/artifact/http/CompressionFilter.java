@@ -0,0 +1,179 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.metadatacenter.cedar.artifact.config.CompressionConfig;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.rdf.NQuadsStreamingOutput;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Compresses the JSON, NDJSON and N-Quads responses with gzip when the client accepts it.
+ * <p>
+ * A response is held back until it reaches the minimum size: a smaller one is sent as it is. The compression time, the
+ * time spent in the deflater only, and the ratio of the compressed to the uncompressed size are recorded in the
+ * metrics.
+ */
+public class CompressionFilter implements ContainerResponseFilter, WriterInterceptor {
+
+  private static final String COMPRESS_PROPERTY = CompressionFilter.class.getName() + ".compress";
+  private static final List<MediaType> COMPRESSIBLE_TYPES = Arrays.asList(
+      MediaType.APPLICATION_JSON_TYPE,
+      MediaType.valueOf(ArtifactMediaTypes.APPLICATION_NDJSON),
+      MediaType.valueOf(NQuadsStreamingOutput.MEDIA_TYPE),
+      MediaType.valueOf("application/ld+json"));
+
+  private final int minimumSizeBytes;
+  private final DeflaterPool deflaterPool;
+  private final Timer compressionTime;
+  private final Histogram compressionRatio;
+  private final Meter uncompressedResponses;
+
+  public CompressionFilter(CompressionConfig config, MetricRegistry metrics) {
+    checkNotNull(metrics);
+    this.minimumSizeBytes = config.getMinimumSizeBytes();
+    this.deflaterPool = new DeflaterPool(config.getLevel(), config.getPooledCompressors());
+    this.compressionTime = metrics.timer(MetricRegistry.name(CompressionFilter.class, "compressionTime"));
+    this.compressionRatio = metrics.histogram(MetricRegistry.name(CompressionFilter.class, "compressionRatioPercent"));
+    this.uncompressedResponses = metrics.meter(MetricRegistry.name(CompressionFilter.class, "belowMinimumSize"));
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+    if (!responseContext.hasEntity() || responseContext.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)
+        || !isCompressible(responseContext.getMediaType())) {
+      return;
+    }
+    responseContext.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    String acceptEncoding = requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+    if (ContentEncodingUtil.accepts(acceptEncoding, ContentEncodingUtil.GZIP)) {
+      requestContext.setProperty(COMPRESS_PROPERTY, Boolean.TRUE);
+    }
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    if (!Boolean.TRUE.equals(context.getProperty(COMPRESS_PROPERTY))) {
+      context.proceed();
+      return;
+    }
+    ThresholdOutputStream out = new ThresholdOutputStream(context.getOutputStream(), context.getHeaders());
+    context.setOutputStream(out);
+    try {
+      context.proceed();
+      out.finish();
+    } finally {
+      out.release();
+    }
+  }
+
+  private static boolean isCompressible(MediaType mediaType) {
+    if (mediaType == null) {
+      return false;
+    }
+    for (MediaType compressibleType : COMPRESSIBLE_TYPES) {
+      if (compressibleType.isCompatible(mediaType)) {
+        return true;
+      }
+    }
+    return mediaType.getSubtype().endsWith("+json");
+  }
+
+  /**
+   * Holds the response back until it reaches the minimum size, and then compresses it. The Content-Encoding header,
+   * and the entity tag of the compressed representation, are set before the first byte is sent.
+   */
+  private class ThresholdOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final MultivaluedMap<String, Object> headers;
+    private final byte[] pending = new byte[minimumSizeBytes];
+    private int pendingCount;
+    private GzipCompressingOutputStream gzip;
+    private boolean released;
+
+    private ThresholdOutputStream(OutputStream out, MultivaluedMap<String, Object> headers) {
+      this.out = out;
+      this.headers = headers;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      if (gzip == null && pendingCount + len <= pending.length) {
+        System.arraycopy(b, off, pending, pendingCount, len);
+        pendingCount += len;
+        return;
+      }
+      if (gzip == null) {
+        startCompressing();
+      }
+      gzip.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      // Below the minimum size, the response is held back until it is complete
+      if (gzip != null) {
+        gzip.flush();
+      }
+    }
+
+    private void startCompressing() throws IOException {
+      headers.putSingle(HttpHeaders.CONTENT_ENCODING, ContentEncodingUtil.GZIP);
+      headers.remove(HttpHeaders.CONTENT_LENGTH);
+      // The compressed bytes differ from the identity ones, so a strong tag must not be shared with them
+      Object entityTag = headers.getFirst(HttpHeaders.ETAG);
+      if (entityTag != null) {
+        EntityTag identityTag = entityTag instanceof EntityTag ? (EntityTag) entityTag
+            : EntityTag.valueOf(entityTag.toString());
+        headers.putSingle(HttpHeaders.ETAG, EntityTagUtil.forGzip(identityTag));
+      }
+      gzip = new GzipCompressingOutputStream(out, deflaterPool.borrow());
+      gzip.write(pending, 0, pendingCount);
+      pendingCount = 0;
+    }
+
+    private void finish() throws IOException {
+      if (gzip == null) {
+        out.write(pending, 0, pendingCount);
+        uncompressedResponses.mark();
+        return;
+      }
+      gzip.finish();
+      compressionTime.update(gzip.getDeflateNanos(), TimeUnit.NANOSECONDS);
+      if (gzip.getUncompressedBytes() > 0) {
+        compressionRatio.update((int) (gzip.getCompressedBytes() * 100 / gzip.getUncompressedBytes()));
+      }
+    }
+
+    private void release() {
+      if (gzip != null && !released) {
+        deflaterPool.release(gzip.getDeflater());
+        released = true;
+      }
+    }
+  }
+}
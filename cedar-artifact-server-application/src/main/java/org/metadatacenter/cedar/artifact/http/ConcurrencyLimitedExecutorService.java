@@ -0,0 +1,69 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs at most a given number of tasks at once on an executor which does not bound them itself, such as one which
+ * starts a virtual thread per task. A task beyond the limit is rejected.
+ */
+public class ConcurrencyLimitedExecutorService extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final int maximumConcurrentTasks;
+  private final Semaphore permits;
+
+  public ConcurrencyLimitedExecutorService(ExecutorService delegate, int maximumConcurrentTasks) {
+    this.delegate = delegate;
+    this.maximumConcurrentTasks = maximumConcurrentTasks;
+    this.permits = new Semaphore(maximumConcurrentTasks);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (!permits.tryAcquire()) {
+      throw new RejectedExecutionException("Already " + maximumConcurrentTasks + " tasks running");
+    }
+    try {
+      delegate.execute(() -> {
+        try {
+          command.run();
+        } finally {
+          permits.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
@@ -0,0 +1,40 @@
+package org.metadatacenter.cedar.artifact.http;
+
+public final class ContentEncodingUtil {
+
+  public static final String GZIP = "gzip";
+
+  private ContentEncodingUtil() {
+  }
+
+  /**
+   * Tells whether the given Accept-Encoding header value accepts the encoding. Codings refused with a zero quality
+   * value are not accepted, and the '*' wildcard is ignored.
+   */
+  public static boolean accepts(String acceptEncoding, String encoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.trim().split(";");
+      if (parts[0].trim().equalsIgnoreCase(encoding)) {
+        return !isZeroQuality(parts);
+      }
+    }
+    return false;
+  }
+
+  private static boolean isZeroQuality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2)) == 0;
+        } catch (NumberFormatException e) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,39 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Raw deflaters of one compression level, kept for reuse. A deflater holds native memory which is only freed when it
+ * is ended, so creating one per response is costly.
+ */
+public class DeflaterPool {
+
+  private final int level;
+  private final BlockingQueue<Deflater> idle;
+
+  public DeflaterPool(int level, int capacity) {
+    this.level = level;
+    this.idle = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+  }
+
+  /**
+   * Returns an idle deflater, or a new one if there is none.
+   */
+  public Deflater borrow() {
+    Deflater deflater = idle.poll();
+    // The deflaters write raw deflate data, the gzip header and trailer are written by the stream
+    return deflater != null ? deflater : new Deflater(level, true);
+  }
+
+  /**
+   * Takes back a deflater for reuse. It is ended if the pool is full.
+   */
+  public void release(Deflater deflater) {
+    deflater.reset();
+    if (!idle.offer(deflater)) {
+      deflater.end();
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.metadatacenter.cedar.artifact.store.CanonicalJsonVisitor;
+import org.metadatacenter.cedar.artifact.store.JsonNodeArtifact;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+
+import javax.ws.rs.core.EntityTag;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+public final class EntityTagUtil {
+
+  private static final String ANY = "*";
+  private static final String WEAK_PREFIX = "W/";
+  private static final String GZIP_SUFFIX = "-" + ContentEncodingUtil.GZIP;
+
+  private EntityTagUtil() {
+  }
+
+  /**
+   * Builds a strong entity tag from the content of the artifact, so that it changes with every change of the stored
+   * document. The order of the fields and the representation of the numbers do not change the tag, so a document
+   * written and read back has the same tag.
+   */
+  public static EntityTag of(JsonNode artifact) {
+    return of(new JsonNodeArtifact(artifact));
+  }
+
+  /**
+   * Builds the entity tag of an artifact read as it is stored. It is the same tag as the one of the artifact read as
+   * JSON.
+   */
+  public static EntityTag of(RawArtifact artifact) {
+    HashingVisitor visitor = new HashingVisitor();
+    artifact.accept(visitor);
+    return new EntityTag(visitor.hasher.hash().toString());
+  }
+
+  /**
+   * Builds the entity tag of the artifact written in the given format. The JSON representation has the tag of the
+   * content, and the binary ones have it with the name of the format appended, as the bytes they are sent as differ.
+   */
+  public static EntityTag of(JsonNode artifact, JsonFormat format) {
+    return forFormat(of(artifact), format);
+  }
+
+  /**
+   * Builds the entity tag of an artifact read as it is stored, written in the given format.
+   */
+  public static EntityTag of(RawArtifact artifact, JsonFormat format) {
+    return forFormat(of(artifact), format);
+  }
+
+  /**
+   * Returns the tag of the gzip encoding of a representation with the given tag. As the compressed bytes differ, a
+   * strong tag gets a suffix, which the comparisons with the If-Match and If-None-Match headers ignore, so that a
+   * client can send back the tag of a compressed response. A weak tag is unchanged.
+   */
+  public static EntityTag forGzip(EntityTag entityTag) {
+    if (entityTag.isWeak()) {
+      return entityTag;
+    }
+    return new EntityTag(entityTag.getValue() + GZIP_SUFFIX);
+  }
+
+  /**
+   * Tells whether an If-Match header value matches the entity tag, using the strong comparison.
+   */
+  public static boolean matchesStrongly(String ifMatch, EntityTag entityTag) {
+    return matches(ifMatch, entityTag, false);
+  }
+
+  /**
+   * Tells whether an If-None-Match header value matches the entity tag, using the weak comparison.
+   */
+  public static boolean matchesWeakly(String ifNoneMatch, EntityTag entityTag) {
+    return matches(ifNoneMatch, entityTag, true);
+  }
+
+  private static EntityTag forFormat(EntityTag entityTag, JsonFormat format) {
+    if (format == JsonFormat.JSON) {
+      return entityTag;
+    }
+    return new EntityTag(entityTag.getValue() + "-" + format.name().toLowerCase(Locale.ROOT));
+  }
+
+  private static boolean matches(String headerValue, EntityTag entityTag, boolean weak) {
+    if (headerValue == null) {
+      return false;
+    }
+    for (String tag : headerValue.split(",")) {
+      tag = tag.trim();
+      if (tag.equals(ANY)) {
+        return true;
+      }
+      if (tag.startsWith(WEAK_PREFIX)) {
+        if (!weak) {
+          continue;
+        }
+        tag = tag.substring(WEAK_PREFIX.length());
+      }
+      // The tag of a gzip response stands for the same representation
+      if (tag.endsWith(GZIP_SUFFIX + "\"")) {
+        tag = tag.substring(0, tag.length() - GZIP_SUFFIX.length() - 1) + "\"";
+      }
+      if (tag.equals("\"" + entityTag.getValue() + "\"")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Every value inside an object or an array is followed by a comma
+  private static final class HashingVisitor implements CanonicalJsonVisitor {
+
+    private final Hasher hasher = Hashing.sha256().newHasher();
+    private int depth;
+
+    @Override
+    public void startObject() {
+      hasher.putChar('{');
+      depth++;
+    }
+
+    @Override
+    public void fieldName(String name) {
+      hasher.putInt(name.length()).putString(name, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void endObject() {
+      depth--;
+      hasher.putChar('}');
+      endValue();
+    }
+
+    @Override
+    public void startArray() {
+      hasher.putChar('[');
+      depth++;
+    }
+
+    @Override
+    public void endArray() {
+      depth--;
+      hasher.putChar(']');
+      endValue();
+    }
+
+    @Override
+    public void number(BigDecimal value) {
+      hasher.putChar('n').putString(value.stripTrailingZeros().toPlainString(), StandardCharsets.UTF_8);
+      endValue();
+    }
+
+    @Override
+    public void text(String value) {
+      hasher.putChar('s').putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+      endValue();
+    }
+
+    @Override
+    public void literal(String value) {
+      hasher.putChar('v').putString(value, StandardCharsets.UTF_8);
+      endValue();
+    }
+
+    private void endValue() {
+      if (depth > 0) {
+        hasher.putChar(',');
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes gzip data with a pooled deflater. Unlike {@link java.util.zip.GZIPOutputStream}, it counts the time spent in
+ * the deflater, apart from the time spent writing the compressed data, so that the CPU cost of the compression can
+ * be measured.
+ */
+class GzipCompressingOutputStream extends OutputStream {
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final byte[] HEADER = {
+      0x1f, (byte) 0x8b,  // Magic number
+      Deflater.DEFLATED,  // Compression method
+      0,                  // Flags
+      0, 0, 0, 0,         // Modification time
+      0,                  // Extra flags
+      (byte) 0xff         // Operating system: unknown
+  };
+
+  private final OutputStream out;
+  private final Deflater deflater;
+  private final CRC32 crc = new CRC32();
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private final byte[] singleByte = new byte[1];
+  private long deflateNanos;
+  private boolean finished;
+
+  GzipCompressingOutputStream(OutputStream out, Deflater deflater) throws IOException {
+    this.out = out;
+    this.deflater = deflater;
+    out.write(HEADER);
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    singleByte[0] = (byte) b;
+    write(singleByte, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return;
+    }
+    crc.update(b, off, len);
+    deflater.setInput(b, off, len);
+    while (!deflater.needsInput()) {
+      deflate(Deflater.NO_FLUSH);
+    }
+  }
+
+  /**
+   * Sends what has been written so far, so that a streamed response does not wait in the deflater.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (!finished) {
+      // A full buffer means that there may be more output
+      int length;
+      do {
+        length = deflate(Deflater.SYNC_FLUSH);
+      } while (length == buffer.length);
+    }
+    out.flush();
+  }
+
+  /**
+   * Completes the gzip data, without closing the underlying stream.
+   */
+  public void finish() throws IOException {
+    if (finished) {
+      return;
+    }
+    deflater.finish();
+    while (!deflater.finished()) {
+      deflate(Deflater.NO_FLUSH);
+    }
+    writeIntLittleEndian((int) crc.getValue());
+    writeIntLittleEndian((int) deflater.getBytesRead());
+    finished = true;
+  }
+
+  public Deflater getDeflater() {
+    return deflater;
+  }
+
+  public long getUncompressedBytes() {
+    return deflater.getBytesRead();
+  }
+
+  public long getCompressedBytes() {
+    // The deflate data, the header and the trailer
+    return deflater.getBytesWritten() + HEADER.length + 8;
+  }
+
+  public long getDeflateNanos() {
+    return deflateNanos;
+  }
+
+  private int deflate(int flush) throws IOException {
+    long start = System.nanoTime();
+    int length = deflater.deflate(buffer, 0, buffer.length, flush);
+    deflateNanos += System.nanoTime() - start;
+    if (length > 0) {
+      out.write(buffer, 0, length);
+    }
+    return length;
+  }
+
+  private void writeIntLittleEndian(int value) throws IOException {
+    out.write(value & 0xff);
+    out.write((value >> 8) & 0xff);
+    out.write((value >> 16) & 0xff);
+    out.write((value >> 24) & 0xff);
+  }
+}
@@ -0,0 +1,117 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.dropwizard.jackson.Jackson;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * The encodings of the JSON documents of the API. The binary ones carry the same structure as the JSON text, and
+ * are cheaper to parse and to write, for the calls between the CEDAR servers.
+ */
+public enum JsonFormat {
+
+  // JSON text
+  JSON(MediaType.APPLICATION_JSON_TYPE, JsonMapper.MAPPER.getFactory()),
+  // The binary JSON of Jackson, with back references to repeated field names and short strings
+  SMILE(MediaType.valueOf(ArtifactMediaTypes.APPLICATION_SMILE), new SmileFactory()),
+  // The Concise Binary Object Representation of RFC 7049
+  CBOR(MediaType.valueOf(ArtifactMediaTypes.APPLICATION_CBOR), new CBORFactory());
+
+  private final MediaType mediaType;
+  private final JsonFactory factory;
+
+  JsonFormat(MediaType mediaType, JsonFactory factory) {
+    this.mediaType = mediaType;
+    this.factory = factory;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public JsonFactory getFactory() {
+    return factory;
+  }
+
+  /**
+   * Returns a mapper which writes and reads this format with the modules, the features and the inclusion rules of the
+   * given JSON mapper, so that a response has the same content in every format.
+   */
+  public ObjectMapper createMapper(ObjectMapper jsonMapper) {
+    // The factory is copied, as the mapper becomes its codec
+    ObjectMapper mapper = Jackson.newObjectMapper(factory.copy());
+    mapper.setConfig(jsonMapper.getSerializationConfig());
+    mapper.setConfig(jsonMapper.getDeserializationConfig());
+    return mapper;
+  }
+
+  /**
+   * Returns the format a response to a request with the given Accept header is written in: the format of the most
+   * preferred acceptable media type, the more specific one first when the quality is the same, and JSON for a wildcard,
+   * as the content negotiation of the resources chooses. Without an Accept header, the response is JSON.
+   */
+  public static JsonFormat forAccept(String accept) {
+    JsonFormat bestFormat = JSON;
+    if (accept == null) {
+      return bestFormat;
+    }
+    double bestQuality = 0;
+    int bestSpecificity = -1;
+    for (String element : accept.split(",")) {
+      MediaType mediaType;
+      try {
+        mediaType = MediaType.valueOf(element.trim());
+      } catch (IllegalArgumentException e) {
+        continue;
+      }
+      double quality = quality(mediaType);
+      int specificity = mediaType.isWildcardType() ? 0 : mediaType.isWildcardSubtype() ? 1 : 2;
+      if (quality == 0 || quality < bestQuality || (quality == bestQuality && specificity <= bestSpecificity)) {
+        continue;
+      }
+      for (JsonFormat format : values()) {
+        if (mediaType.isCompatible(format.mediaType)) {
+          bestFormat = format;
+          bestQuality = quality;
+          bestSpecificity = specificity;
+          break;
+        }
+      }
+    }
+    return bestFormat;
+  }
+
+  private static double quality(MediaType mediaType) {
+    String quality = mediaType.getParameters().get("q");
+    if (quality == null) {
+      return 1;
+    }
+    try {
+      return Double.parseDouble(quality);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Returns the format of the media type, whatever its parameters, or null if it is not one of the formats.
+   */
+  public static JsonFormat forMediaType(MediaType mediaType) {
+    if (mediaType == null) {
+      return null;
+    }
+    for (JsonFormat format : values()) {
+      if (format.mediaType.getType().equalsIgnoreCase(mediaType.getType())
+          && format.mediaType.getSubtype().equalsIgnoreCase(mediaType.getSubtype())) {
+        return format;
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,48 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * Writes a stored artifact to the response while it is read, in the negotiated JSON format, without building a JSON
+ * tree of it.
+ */
+@Provider
+@Produces({MediaType.APPLICATION_JSON, ArtifactMediaTypes.APPLICATION_SMILE, ArtifactMediaTypes.APPLICATION_CBOR})
+public class RawArtifactWriter implements MessageBodyWriter<RawArtifact> {
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return RawArtifact.class.isAssignableFrom(type) && JsonFormat.forMediaType(mediaType) != null;
+  }
+
+  @Override
+  public long getSize(RawArtifact artifact, Class<?> type, Type genericType, Annotation[] annotations,
+                      MediaType mediaType) {
+    return -1;
+  }
+
+  @Override
+  public void writeTo(RawArtifact artifact, Class<?> type, Type genericType, Annotation[] annotations,
+                      MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+      throws IOException {
+    // The format depends on the Accept header, so caches have to keep the formats apart
+    httpHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    JsonGenerator generator = JsonFormat.forMediaType(mediaType).getFactory().createGenerator(entityStream);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    artifact.writeJson(generator);
+    generator.close();
+  }
+}
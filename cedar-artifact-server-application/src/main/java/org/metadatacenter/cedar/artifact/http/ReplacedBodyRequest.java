@@ -0,0 +1,152 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.ws.rs.core.HttpHeaders;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * A request whose body is replaced, such as by its inflated content. The Content-Encoding and Content-Length headers
+ * of the original body are hidden, and the Content-Type can be replaced too.
+ * <p>
+ * The body has to be replaced before the request reaches Jersey, since the CEDAR request context reads it from the
+ * servlet request, not through the JAX-RS entity stream.
+ */
+class ReplacedBodyRequest extends HttpServletRequestWrapper {
+
+  private final ServletInputStream body;
+  private final String contentType;
+  private BufferedReader reader;
+
+  ReplacedBodyRequest(HttpServletRequest request, InputStream body, String contentType) {
+    super(request);
+    this.body = new BodyInputStream(body);
+    this.contentType = contentType != null ? contentType : request.getContentType();
+  }
+
+  @Override
+  public ServletInputStream getInputStream() {
+    return body;
+  }
+
+  @Override
+  public BufferedReader getReader() {
+    if (reader == null) {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+      reader = new BufferedReader(new InputStreamReader(body, charset));
+    }
+    return reader;
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public int getContentLength() {
+    return -1;
+  }
+
+  @Override
+  public long getContentLengthLong() {
+    return -1;
+  }
+
+  @Override
+  public String getHeader(String name) {
+    if (isHidden(name)) {
+      return null;
+    }
+    if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+      return contentType;
+    }
+    return super.getHeader(name);
+  }
+
+  @Override
+  public Enumeration<String> getHeaders(String name) {
+    if (isHidden(name)) {
+      return Collections.emptyEnumeration();
+    }
+    if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+      return contentType != null ? Collections.enumeration(Collections.singletonList(contentType))
+          : Collections.emptyEnumeration();
+    }
+    return super.getHeaders(name);
+  }
+
+  @Override
+  public Enumeration<String> getHeaderNames() {
+    List<String> names = new ArrayList<>();
+    Enumeration<String> headerNames = super.getHeaderNames();
+    while (headerNames.hasMoreElements()) {
+      String name = headerNames.nextElement();
+      if (!isHidden(name)) {
+        names.add(name);
+      }
+    }
+    return Collections.enumeration(names);
+  }
+
+  private static boolean isHidden(String name) {
+    return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+  }
+
+  private static class BodyInputStream extends ServletInputStream {
+
+    private final InputStream in;
+    private boolean finished;
+
+    private BodyInputStream(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = in.read();
+      finished = b < 0;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int length = in.read(b, off, len);
+      finished = length < 0;
+      return length;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+
+    @Override
+    public boolean isFinished() {
+      return finished;
+    }
+
+    // The body is read in blocking mode only
+    @Override
+    public boolean isReady() {
+      return true;
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      throw new UnsupportedOperationException("Non-blocking reads are not supported");
+    }
+  }
+}
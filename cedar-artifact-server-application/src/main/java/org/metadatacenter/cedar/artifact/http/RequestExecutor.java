@@ -0,0 +1,195 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.glassfish.jersey.server.ManagedAsyncExecutor;
+import org.glassfish.jersey.spi.ExecutorServiceProvider;
+import org.metadatacenter.util.http.CedarResponse;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Runs the resource methods, which are {@link org.glassfish.jersey.server.ManagedAsync}, on a bounded pool of their
+ * own, or on virtual threads, so that the request threads of the server are given back while the resources wait for
+ * the database.
+ * <p>
+ * A request which finds the pool and its queue full, or which has waited in the queue longer than the timeout, is
+ * answered with 503 and a Retry-After header, as it has not been run. A request which is run but not answered in time
+ * is answered with 504 and no Retry-After header: the resource keeps running and may still write, so that a retry
+ * could write twice. The queue depth, the busy threads, the time in the queue, the rejected and the timed out requests
+ * are recorded in the metrics.
+ */
+@ManagedAsyncExecutor
+public class RequestExecutor implements ExecutorServiceProvider {
+
+  private static final ThreadLocal<QueuedTask> CURRENT_TASK = new ThreadLocal<>();
+  private static final String RETRY_AFTER_SECONDS = "1";
+
+  private final ExecutorService executorService;
+  private final long timeoutNanos;
+  private final AtomicInteger busyThreads = new AtomicInteger();
+  private final Timer queueTime;
+  private final Meter rejectedRequests;
+  private final Meter timedOutRequests;
+
+  /**
+   * @param pool  the pool which runs the resources, or null to run them on the request threads
+   * @param queue the work queue of the pool, or null if it has none
+   */
+  public RequestExecutor(ExecutorService pool, BlockingQueue<Runnable> queue, long timeoutSeconds,
+                         MetricRegistry metrics) {
+    checkNotNull(metrics);
+    this.executorService = new QueueTimingExecutorService(pool != null ? pool :
+        MoreExecutors.newDirectExecutorService());
+    this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+    this.queueTime = metrics.timer(MetricRegistry.name(RequestExecutor.class, "queueTime"));
+    this.rejectedRequests = metrics.meter(MetricRegistry.name(RequestExecutor.class, "rejected"));
+    this.timedOutRequests = metrics.meter(MetricRegistry.name(RequestExecutor.class, "timedOut"));
+    metrics.register(MetricRegistry.name(RequestExecutor.class, "queueDepth"),
+        (Gauge<Integer>) () -> queue != null ? queue.size() : 0);
+    metrics.register(MetricRegistry.name(RequestExecutor.class, "busyThreads"), (Gauge<Integer>) busyThreads::get);
+  }
+
+  @Override
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+  @Override
+  public void dispose(ExecutorService executorService) {
+    // The pool is stopped with the application
+  }
+
+  /**
+   * Resumes the request with the response of the producer, with 503 if the request was rejected or has already waited
+   * longer than the timeout, or with 504 if the producer does not answer within the rest of the timeout.
+   */
+  public void respond(AsyncResponse asyncResponse, ResponseProducer producer) {
+    QueuedTask task = CURRENT_TASK.get();
+    long remainingNanos = timeoutNanos - (task != null ? task.queuedNanos : 0);
+    if (task != null && task.rejected) {
+      asyncResponse.resume(serviceUnavailable("The server is busy"));
+      return;
+    }
+    if (timeoutNanos > 0) {
+      if (remainingNanos <= 0) {
+        timedOutRequests.mark();
+        asyncResponse.resume(serviceUnavailable("The request has waited too long to be run"));
+        return;
+      }
+      asyncResponse.setTimeoutHandler(response -> {
+        timedOutRequests.mark();
+        // The producer is still running, and may still commit its write
+        response.resume(CedarResponse.status(Response.Status.GATEWAY_TIMEOUT)
+            .errorMessage("The request has not been answered in time")
+            .build());
+      });
+      asyncResponse.setTimeout(remainingNanos, TimeUnit.NANOSECONDS);
+    }
+    try {
+      asyncResponse.resume(producer.produce());
+    } catch (Throwable t) {
+      // Mapped to a response as if the resource method had thrown it
+      asyncResponse.resume(t);
+    }
+  }
+
+  private static Response serviceUnavailable(String message) {
+    return CedarResponse.status(Response.Status.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+        .errorMessage(message)
+        .build();
+  }
+
+  /**
+   * Records the time each task waits in the queue, and makes it known to {@link #respond} through the thread. A task
+   * which the pool rejects is run on the request thread, where it answers with 503 at once.
+   */
+  private class QueueTimingExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+
+    private QueueTimingExecutorService(ExecutorService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      QueuedTask task = new QueuedTask(command);
+      try {
+        delegate.execute(task);
+      } catch (RejectedExecutionException e) {
+        rejectedRequests.mark();
+        task.rejected = true;
+        task.run();
+      }
+    }
+
+    @Override
+    public void shutdown() {
+      delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+      return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+      return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+      return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+      return delegate.awaitTermination(timeout, unit);
+    }
+  }
+
+  private class QueuedTask implements Runnable {
+
+    private final Runnable command;
+    private final long queuedAt = System.nanoTime();
+    private long queuedNanos;
+    private boolean rejected;
+
+    private QueuedTask(Runnable command) {
+      this.command = command;
+    }
+
+    @Override
+    public void run() {
+      queuedNanos = System.nanoTime() - queuedAt;
+      if (!rejected) {
+        queueTime.update(queuedNanos, TimeUnit.NANOSECONDS);
+      }
+      busyThreads.incrementAndGet();
+      CURRENT_TASK.set(this);
+      try {
+        command.run();
+      } finally {
+        CURRENT_TASK.remove();
+        busyThreads.decrementAndGet();
+      }
+    }
+  }
+}
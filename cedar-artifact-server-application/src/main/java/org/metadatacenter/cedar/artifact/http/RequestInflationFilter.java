@@ -0,0 +1,121 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Inflates gzip request bodies, for the large POST and PUT payloads. An empty body is passed on, as there is nothing
+ * to inflate. Other content encodings are refused.
+ */
+public class RequestInflationFilter implements Filter {
+
+  private static final String IDENTITY = "identity";
+  private static final String X_GZIP = "x-gzip";
+
+  private final long maximumInflatedBytes;
+  private final Meter inflatedRequests;
+
+  public RequestInflationFilter(long maximumInflatedBytes, MetricRegistry metrics) {
+    this.maximumInflatedBytes = maximumInflatedBytes;
+    this.inflatedRequests = metrics.meter(MetricRegistry.name(RequestInflationFilter.class, "inflatedRequests"));
+  }
+
+  @Override
+  public void init(FilterConfig filterConfig) {
+  }
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    HttpServletRequest httpRequest = (HttpServletRequest) request;
+    String contentEncoding = httpRequest.getHeader(HttpHeaders.CONTENT_ENCODING);
+    if (contentEncoding == null || contentEncoding.equalsIgnoreCase(IDENTITY)) {
+      chain.doFilter(request, response);
+    } else if (isGzip(contentEncoding)) {
+      PushbackInputStream encodedBody = new PushbackInputStream(httpRequest.getInputStream());
+      int firstByte = encodedBody.read();
+      if (firstByte < 0) {
+        // An empty body has no gzip header to read, and is passed on as it is
+        chain.doFilter(new ReplacedBodyRequest(httpRequest, encodedBody, null), response);
+        return;
+      }
+      encodedBody.unread(firstByte);
+      InputStream body;
+      try {
+        body = new LimitedInputStream(new GZIPInputStream(encodedBody), maximumInflatedBytes);
+      } catch (IOException e) {
+        ((HttpServletResponse) response).sendError(Response.Status.BAD_REQUEST.getStatusCode(),
+            "The request body is not gzip data");
+        return;
+      }
+      inflatedRequests.mark();
+      chain.doFilter(new ReplacedBodyRequest(httpRequest, body, null), response);
+    } else {
+      ((HttpServletResponse) response).sendError(Response.Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode(),
+          "Unsupported content encoding: " + contentEncoding);
+    }
+  }
+
+  @Override
+  public void destroy() {
+  }
+
+  private static boolean isGzip(String contentEncoding) {
+    return contentEncoding.equalsIgnoreCase(ContentEncodingUtil.GZIP) || contentEncoding.equalsIgnoreCase(X_GZIP);
+  }
+
+  private static class LimitedInputStream extends FilterInputStream {
+
+    private final long maximumBytes;
+    private long readBytes;
+
+    private LimitedInputStream(InputStream in, long maximumBytes) {
+      super(in);
+      this.maximumBytes = maximumBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        count(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int length = super.read(b, off, len);
+      if (length > 0) {
+        count(length);
+      }
+      return length;
+    }
+
+    // Thrown while the body is read, which the resource methods do not catch, so that it becomes the response
+    private void count(int length) {
+      readBytes += length;
+      if (readBytes > maximumBytes) {
+        throw new WebApplicationException("The inflated request body is larger than " + maximumBytes + " bytes",
+            Response.Status.REQUEST_ENTITY_TOO_LARGE);
+      }
+    }
+  }
+}
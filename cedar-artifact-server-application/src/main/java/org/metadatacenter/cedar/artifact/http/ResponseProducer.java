@@ -0,0 +1,14 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import org.metadatacenter.exception.CedarException;
+
+import javax.ws.rs.core.Response;
+
+/**
+ * The work of a resource method, which the {@link RequestExecutor} runs and resumes the request with.
+ */
+@FunctionalInterface
+public interface ResponseProducer {
+
+  Response produce() throws CedarException;
+}
@@ -0,0 +1,59 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors of virtual threads when the JDK has them. The server is built for Java 8, so the virtual thread
+ * API of Java 21 is called by reflection.
+ */
+public final class VirtualThreads {
+
+  private static final int FIRST_FEATURE_VERSION = 21;
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * Tells whether the JDK has virtual threads as a final feature. Java 19 and 20 already have the API, but as a preview
+   * which fails unless it is enabled, so only Java 21 and later are accepted.
+   */
+  public static boolean isAvailable() {
+    return isAvailable(System.getProperty("java.specification.version"));
+  }
+
+  static boolean isAvailable(String specificationVersion) {
+    return featureVersion(specificationVersion) >= FIRST_FEATURE_VERSION;
+  }
+
+  // "1.8" up to Java 8, then "9", "10", ...
+  private static int featureVersion(String specificationVersion) {
+    String version = specificationVersion.startsWith("1.") ? specificationVersion.substring(2) : specificationVersion;
+    try {
+      return Integer.parseInt(version);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * Returns an executor which starts a virtual thread for each task, named with the prefix and a counter.
+   *
+   * @throws IllegalStateException if the JDK has no virtual threads
+   */
+  public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+      ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      return (ExecutorService) newExecutor.invoke(null, threadFactory);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual threads are not available in Java " +
+          System.getProperty("java.version"), e);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package org.metadatacenter.cedar.artifact.jsonld;
+
+import com.github.jsonldjava.core.DocumentLoader;
+import com.github.jsonldjava.core.JsonLdError;
+import com.github.jsonldjava.core.RemoteDocument;
+import com.github.jsonldjava.utils.JsonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * JSON-LD document loader which serves the remote contexts from documents parsed once at startup. The contexts and
+ * their classpath locations are listed in {@value #CONTEXTS_RESOURCE}.
+ * <p>
+ * A context which is not preloaded is fetched by the default loader only if remote contexts are allowed. Otherwise
+ * the conversion fails, without any network access.
+ */
+public class PreloadedDocumentLoader extends DocumentLoader {
+
+  public static final String CONTEXTS_RESOURCE = "jsonld-contexts.properties";
+
+  private final Map<String, RemoteDocument> documents;
+  private final boolean allowRemoteContexts;
+
+  private PreloadedDocumentLoader(Map<String, RemoteDocument> documents, boolean allowRemoteContexts) {
+    this.documents = Collections.unmodifiableMap(documents);
+    this.allowRemoteContexts = allowRemoteContexts;
+  }
+
+  public static PreloadedDocumentLoader fromClasspath(boolean allowRemoteContexts) throws IOException {
+    return fromClasspath(CONTEXTS_RESOURCE, allowRemoteContexts);
+  }
+
+  public static PreloadedDocumentLoader fromClasspath(String contextsResource, boolean allowRemoteContexts)
+      throws IOException {
+    ClassLoader classLoader = PreloadedDocumentLoader.class.getClassLoader();
+    Properties contexts = new Properties();
+    try (InputStream in = classLoader.getResourceAsStream(contextsResource)) {
+      if (in != null) {
+        contexts.load(in);
+      }
+    }
+    Map<String, RemoteDocument> documents = new HashMap<>();
+    for (String url : contexts.stringPropertyNames()) {
+      String resourcePath = contexts.getProperty(url);
+      try (InputStream in = classLoader.getResourceAsStream(resourcePath)) {
+        if (in == null) {
+          throw new IOException("The JSON-LD context of " + url + " can not be found at " + resourcePath);
+        }
+        documents.put(url, new RemoteDocument(url, JsonUtils.fromInputStream(in)));
+      }
+    }
+    return new PreloadedDocumentLoader(documents, allowRemoteContexts);
+  }
+
+  @Override
+  public RemoteDocument loadDocument(String url) throws JsonLdError {
+    RemoteDocument document = documents.get(url);
+    if (document != null) {
+      return document;
+    }
+    if (allowRemoteContexts) {
+      return super.loadDocument(url);
+    }
+    throw new JsonLdError(JsonLdError.Error.LOADING_REMOTE_CONTEXT_FAILED,
+        "The context is not preloaded and remote contexts are not allowed: " + url);
+  }
+
+  public int size() {
+    return documents.size();
+  }
+}
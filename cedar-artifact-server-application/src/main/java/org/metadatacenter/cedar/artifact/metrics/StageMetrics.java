@@ -0,0 +1,40 @@
+package org.metadatacenter.cedar.artifact.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.metadatacenter.cedar.artifact.config.StageMetricsConfig;
+import org.metadatacenter.model.CedarResourceType;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Timers of the stages of the artifact write pipeline, one per resource type and stage. A request measures its stages
+ * with the {@link StageTimings} returned by {@link #start(CedarResourceType)}.
+ */
+public class StageMetrics {
+
+  public static final String AUTHORIZE = "authorize";
+  public static final String PARSE = "parse";
+  public static final String ENFORCE = "enforce";
+  public static final String PROVENANCE = "provenance";
+  public static final String SCHEMA = "schema";
+  public static final String VALIDATE = "validate";
+  public static final String FIELD_IDS = "fieldIds";
+  public static final String STORE = "store";
+
+  private final MetricRegistry metrics;
+  private final boolean serverTimingHeader;
+
+  public StageMetrics(MetricRegistry metrics, StageMetricsConfig config) {
+    this.metrics = checkNotNull(metrics);
+    this.serverTimingHeader = config.isServerTimingHeader();
+  }
+
+  public StageTimings start(CedarResourceType resourceType) {
+    return new StageTimings(this, resourceType, serverTimingHeader);
+  }
+
+  Timer timer(CedarResourceType resourceType, String stage) {
+    return metrics.timer(MetricRegistry.name(StageMetrics.class, resourceType.getValue(), stage));
+  }
+}
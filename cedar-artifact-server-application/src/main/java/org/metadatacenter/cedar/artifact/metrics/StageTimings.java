@@ -0,0 +1,55 @@
+package org.metadatacenter.cedar.artifact.metrics;
+
+import org.metadatacenter.model.CedarResourceType;
+
+import javax.ws.rs.core.Response;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durations of the stages of one write request. Each stage runs from the previous mark, or from the start of the
+ * request, to its own mark.
+ */
+public final class StageTimings {
+
+  public static final String SERVER_TIMING = "Server-Timing";
+
+  private final StageMetrics stageMetrics;
+  private final CedarResourceType resourceType;
+  private final StringBuilder serverTiming;
+  private long lastMark;
+
+  StageTimings(StageMetrics stageMetrics, CedarResourceType resourceType, boolean serverTimingHeader) {
+    this.stageMetrics = stageMetrics;
+    this.resourceType = resourceType;
+    this.serverTiming = serverTimingHeader ? new StringBuilder() : null;
+    this.lastMark = System.nanoTime();
+  }
+
+  /**
+   * Ends a stage, which is recorded in the timer of the stage and, if enabled, in the Server-Timing header.
+   */
+  public void mark(String stage) {
+    long now = System.nanoTime();
+    long duration = now - lastMark;
+    lastMark = now;
+    stageMetrics.timer(resourceType, stage).update(duration, TimeUnit.NANOSECONDS);
+    if (serverTiming != null) {
+      if (serverTiming.length() > 0) {
+        serverTiming.append(", ");
+      }
+      serverTiming.append(stage).append(";dur=")
+          .append(String.format(Locale.ROOT, "%.3f", duration / 1_000_000.0));
+    }
+  }
+
+  /**
+   * Adds the Server-Timing header to the response, if it is enabled and at least one stage ended.
+   */
+  public Response addServerTiming(Response response) {
+    if (serverTiming == null || serverTiming.length() == 0) {
+      return response;
+    }
+    return Response.fromResponse(response).header(SERVER_TIMING, serverTiming.toString()).build();
+  }
+}
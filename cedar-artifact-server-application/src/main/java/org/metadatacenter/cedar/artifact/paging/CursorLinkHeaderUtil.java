@@ -0,0 +1,38 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+import javax.ws.rs.core.UriBuilder;
+
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_CURSOR;
+import static org.metadatacenter.constant.CedarQueryParameters.QP_LIMIT;
+import static org.metadatacenter.constant.CedarQueryParameters.QP_OFFSET;
+
+/**
+ * Builds the Link header of keyset-paged listings. The links keep all the query parameters of the request, and only
+ * replace the cursor.
+ */
+public final class CursorLinkHeaderUtil {
+
+  private CursorLinkHeaderUtil() {
+  }
+
+  public static String getCursorLinkHeader(UriBuilder requestUriBuilder, int limit, PageCursor nextCursor) {
+    StringBuilder sb = new StringBuilder();
+    appendLink(sb, requestUriBuilder, limit, PageCursor.FIRST, "first");
+    if (nextCursor != null) {
+      sb.append(", ");
+      appendLink(sb, requestUriBuilder, limit, nextCursor, "next");
+    }
+    return sb.toString();
+  }
+
+  private static void appendLink(StringBuilder sb, UriBuilder requestUriBuilder, int limit, PageCursor cursor,
+                                 String rel) {
+    String url = requestUriBuilder.clone()
+        .replaceQueryParam(QP_OFFSET)
+        .replaceQueryParam(QP_LIMIT, limit)
+        .replaceQueryParam(QP_CURSOR, cursor.encode())
+        .build()
+        .toString();
+    sb.append('<').append(url).append(">; rel=\"").append(rel).append('"');
+  }
+}
@@ -0,0 +1,39 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+import javax.ws.rs.core.UriBuilder;
+
+import static org.metadatacenter.constant.CedarQueryParameters.QP_LIMIT;
+import static org.metadatacenter.constant.CedarQueryParameters.QP_OFFSET;
+
+/**
+ * Builds the Link header of offset-paged listings when the total count is not known exactly. There is no 'last'
+ * link, and the 'next' link is present if the current page is full.
+ */
+public final class OffsetLinkHeaderUtil {
+
+  private OffsetLinkHeaderUtil() {
+  }
+
+  public static String getPagingLinkHeader(UriBuilder requestUriBuilder, int limit, int offset, boolean hasNext) {
+    StringBuilder sb = new StringBuilder();
+    appendLink(sb, requestUriBuilder, limit, 0, "first");
+    if (offset > 0) {
+      sb.append(", ");
+      appendLink(sb, requestUriBuilder, limit, Math.max(0, offset - limit), "prev");
+    }
+    if (hasNext) {
+      sb.append(", ");
+      appendLink(sb, requestUriBuilder, limit, offset + limit, "next");
+    }
+    return sb.toString();
+  }
+
+  private static void appendLink(StringBuilder sb, UriBuilder requestUriBuilder, int limit, int offset, String rel) {
+    String url = requestUriBuilder.clone()
+        .replaceQueryParam(QP_LIMIT, limit)
+        .replaceQueryParam(QP_OFFSET, offset)
+        .build()
+        .toString();
+    sb.append('<').append(url).append(">; rel=\"").append(rel).append('"');
+  }
+}
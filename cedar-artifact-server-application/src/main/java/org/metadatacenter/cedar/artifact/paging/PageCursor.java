@@ -0,0 +1,68 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+import org.metadatacenter.error.CedarErrorKey;
+import org.metadatacenter.error.CedarErrorPack;
+import org.metadatacenter.exception.CedarBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_CURSOR;
+
+/**
+ * Opaque position in a keyset-paged listing. The empty cursor denotes the first page; any other cursor wraps the
+ * store key of the last artifact of the previous page.
+ */
+public final class PageCursor {
+
+  public static final PageCursor FIRST = new PageCursor(null);
+
+  private static final String PREFIX = "k:";
+
+  private final String key;
+
+  private PageCursor(String key) {
+    this.key = key;
+  }
+
+  public static PageCursor afterKey(String key) {
+    return new PageCursor(key);
+  }
+
+  public static PageCursor decode(String cursor) throws CedarBadRequestException {
+    if (cursor == null || cursor.isEmpty()) {
+      return FIRST;
+    }
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw invalidCursor(cursor);
+    }
+    if (!decoded.startsWith(PREFIX) || decoded.length() == PREFIX.length()) {
+      throw invalidCursor(cursor);
+    }
+    return new PageCursor(decoded.substring(PREFIX.length()));
+  }
+
+  public static CedarBadRequestException invalidCursor(String cursor) {
+    return new CedarBadRequestException(new CedarErrorPack()
+        .message("The value of parameter '" + QP_CURSOR + "' is not a valid paging cursor!")
+        .parameter(QP_CURSOR, cursor)
+        .errorKey(CedarErrorKey.INVALID_INPUT));
+  }
+
+  /**
+   * @return the key to continue after, null for the first page
+   */
+  public String getKey() {
+    return key;
+  }
+
+  public String encode() {
+    if (key == null) {
+      return "";
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + key).getBytes(StandardCharsets.UTF_8));
+  }
+}
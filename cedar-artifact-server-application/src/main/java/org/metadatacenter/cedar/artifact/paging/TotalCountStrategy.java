@@ -0,0 +1,20 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+/**
+ * How the total count of a listing is computed.
+ */
+public enum TotalCountStrategy {
+
+  // Count the documents on every request
+  EXACT,
+
+  // Read the document count from the collection metadata
+  ESTIMATED,
+
+  // Count the documents exactly, but reuse the result for a configurable time
+  CACHED,
+
+  // Do not compute a total count
+  NONE
+
+}
@@ -0,0 +1,52 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import org.metadatacenter.cedar.artifact.config.TotalCountConfig;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Computes the total count of one artifact listing with the configured strategy.
+ */
+public class TotalCounter {
+
+  private final TotalCountStrategy strategy;
+  private final Supplier<Long> counter;
+
+  public TotalCounter(ArtifactStore store, TotalCountConfig config) {
+    checkNotNull(store);
+    this.strategy = config.getStrategy();
+    switch (strategy) {
+      case ESTIMATED:
+        this.counter = store::estimatedCount;
+        break;
+      case CACHED:
+        this.counter = Suppliers.memoizeWithExpiration(store::count, config.getCacheTtlSeconds(), TimeUnit.SECONDS);
+        break;
+      case NONE:
+        this.counter = () -> null;
+        break;
+      default:
+        this.counter = store::count;
+    }
+  }
+
+  /**
+   * Returns the total count, or null if the strategy does not compute one.
+   */
+  public Long count() {
+    return counter.get();
+  }
+
+  /**
+   * Tells whether the returned count is the current number of artifacts, and can be used to check the paging
+   * parameters.
+   */
+  public boolean isExact() {
+    return strategy == TotalCountStrategy.EXACT;
+  }
+}
@@ -0,0 +1,49 @@
+package org.metadatacenter.cedar.artifact.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSON Merge Patch, as defined by RFC 7396.
+ */
+public final class JsonMergePatch {
+
+  private JsonMergePatch() {
+  }
+
+  /**
+   * Applies the patch to the target. The target is not modified.
+   */
+  public static JsonNode apply(JsonNode target, JsonNode patch) {
+    if (!patch.isObject()) {
+      return patch.deepCopy();
+    }
+    ObjectNode result = target != null && target.isObject() ? ((ObjectNode) target).deepCopy()
+        : JsonMapper.MAPPER.createObjectNode();
+    mergeInto(result, patch);
+    return result;
+  }
+
+  private static void mergeInto(ObjectNode target, JsonNode patch) {
+    Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JsonNode value = field.getValue();
+      if (value.isNull()) {
+        target.remove(field.getKey());
+      } else if (value.isObject()) {
+        JsonNode current = target.get(field.getKey());
+        ObjectNode merged = current != null && current.isObject() ? (ObjectNode) current
+            : JsonMapper.MAPPER.createObjectNode();
+        mergeInto(merged, value);
+        target.set(field.getKey(), merged);
+      } else {
+        target.set(field.getKey(), value.deepCopy());
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package org.metadatacenter.cedar.artifact.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON Patch, as defined by RFC 6902, with the JSON Pointers of RFC 6901.
+ */
+public final class JsonPatch {
+
+  private static final String OP = "op";
+  private static final String PATH = "path";
+  private static final String FROM = "from";
+  private static final String VALUE = "value";
+  private static final String APPEND_INDEX = "-";
+
+  private JsonPatch() {
+  }
+
+  /**
+   * Applies the operations of the patch in order. The target is not modified.
+   *
+   * @throws IllegalArgumentException if the patch is malformed, or if one of its operations can not be applied
+   */
+  public static JsonNode apply(JsonNode target, JsonNode patch) {
+    if (!patch.isArray()) {
+      throw new IllegalArgumentException("A JSON Patch must be an array of operations");
+    }
+    JsonNode result = target.deepCopy();
+    for (JsonNode operation : patch) {
+      result = applyOperation(result, operation);
+    }
+    return result;
+  }
+
+  private static JsonNode applyOperation(JsonNode document, JsonNode operation) {
+    String op = getMember(operation, OP).asText();
+    List<String> path = parsePointer(getMember(operation, PATH).asText());
+    switch (op) {
+      case "add":
+        return add(document, path, getMember(operation, VALUE).deepCopy());
+      case "remove":
+        remove(document, path);
+        return document;
+      case "replace":
+        return replace(document, path, getMember(operation, VALUE).deepCopy());
+      case "move": {
+        String from = getMember(operation, FROM).asText();
+        List<String> fromPath = parsePointer(from);
+        if (path.size() > fromPath.size() && path.subList(0, fromPath.size()).equals(fromPath)) {
+          throw new IllegalArgumentException("A value can not be moved into itself: " + from);
+        }
+        JsonNode value = get(document, fromPath);
+        remove(document, fromPath);
+        return add(document, path, value);
+      }
+      case "copy":
+        return add(document, path, get(document, parsePointer(getMember(operation, FROM).asText())).deepCopy());
+      case "test":
+        if (!get(document, path).equals(getMember(operation, VALUE))) {
+          throw new IllegalArgumentException("Test failed for path: " + getMember(operation, PATH).asText());
+        }
+        return document;
+      default:
+        throw new IllegalArgumentException("Unknown JSON Patch operation: " + op);
+    }
+  }
+
+  private static JsonNode add(JsonNode document, List<String> path, JsonNode value) {
+    if (path.isEmpty()) {
+      return value;
+    }
+    JsonNode parent = get(document, path.subList(0, path.size() - 1));
+    String token = path.get(path.size() - 1);
+    if (parent.isObject()) {
+      ((ObjectNode) parent).set(token, value);
+    } else if (parent.isArray()) {
+      ArrayNode array = (ArrayNode) parent;
+      if (APPEND_INDEX.equals(token)) {
+        array.add(value);
+      } else {
+        array.insert(parseIndex(token, array.size()), value);
+      }
+    } else {
+      throw new IllegalArgumentException("Can not add a value to a scalar: " + token);
+    }
+    return document;
+  }
+
+  private static JsonNode replace(JsonNode document, List<String> path, JsonNode value) {
+    if (path.isEmpty()) {
+      return value;
+    }
+    JsonNode parent = get(document, path.subList(0, path.size() - 1));
+    String token = path.get(path.size() - 1);
+    // The value is replaced in place, so that the order of the fields is kept
+    if (parent.isObject() && parent.has(token)) {
+      ((ObjectNode) parent).set(token, value);
+    } else if (parent.isArray()) {
+      ((ArrayNode) parent).set(parseIndex(token, parent.size() - 1), value);
+    } else {
+      throw new IllegalArgumentException("No value to replace: " + token);
+    }
+    return document;
+  }
+
+  private static void remove(JsonNode document, List<String> path) {
+    if (path.isEmpty()) {
+      throw new IllegalArgumentException("The whole document can not be removed");
+    }
+    JsonNode parent = get(document, path.subList(0, path.size() - 1));
+    String token = path.get(path.size() - 1);
+    if (parent.isObject() && parent.has(token)) {
+      ((ObjectNode) parent).remove(token);
+    } else if (parent.isArray()) {
+      ((ArrayNode) parent).remove(parseIndex(token, parent.size() - 1));
+    } else {
+      throw new IllegalArgumentException("No value to remove: " + token);
+    }
+  }
+
+  private static JsonNode get(JsonNode document, List<String> path) {
+    JsonNode node = document;
+    for (String token : path) {
+      if (node.isObject() && node.has(token)) {
+        node = node.get(token);
+      } else if (node.isArray()) {
+        node = node.get(parseIndex(token, node.size() - 1));
+      } else {
+        throw new IllegalArgumentException("No value at path token: " + token);
+      }
+    }
+    return node;
+  }
+
+  private static int parseIndex(String token, int maximum) {
+    if (!token.matches("0|[1-9][0-9]*")) {
+      throw new IllegalArgumentException("Invalid array index: " + token);
+    }
+    int index;
+    try {
+      index = Integer.parseInt(token);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid array index: " + token);
+    }
+    if (index > maximum) {
+      throw new IllegalArgumentException("Array index out of bounds: " + token);
+    }
+    return index;
+  }
+
+  private static List<String> parsePointer(String pointer) {
+    List<String> tokens = new ArrayList<>();
+    if (pointer.isEmpty()) {
+      return tokens;
+    }
+    if (!pointer.startsWith("/")) {
+      throw new IllegalArgumentException("Invalid JSON Pointer: " + pointer);
+    }
+    for (String token : pointer.substring(1).split("/", -1)) {
+      tokens.add(token.replace("~1", "/").replace("~0", "~"));
+    }
+    return tokens;
+  }
+
+  private static JsonNode getMember(JsonNode operation, String name) {
+    JsonNode member = operation.get(name);
+    if (member == null) {
+      throw new IllegalArgumentException("Missing '" + name + "' member in JSON Patch operation: " + operation);
+    }
+    return member;
+  }
+}
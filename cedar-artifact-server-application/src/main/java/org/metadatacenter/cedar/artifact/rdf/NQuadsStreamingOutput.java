@@ -0,0 +1,59 @@
+package org.metadatacenter.cedar.artifact.rdf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.jsonldjava.core.DocumentLoader;
+import com.github.jsonldjava.core.JsonLdError;
+import com.github.jsonldjava.core.JsonLdOptions;
+import com.github.jsonldjava.core.JsonLdProcessor;
+import com.github.jsonldjava.core.RDFDataset;
+import com.github.jsonldjava.core.RDFDatasetUtils;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a JSON-LD document as N-Quads, one quad at a time, instead of building the whole N-Quads document as a
+ * string. Unlike {@link org.metadatacenter.model.trimmer.JsonLdDocument#asRdf()}, the quads are not sorted.
+ * <p>
+ * The conversion to RDF is done when the output is created, so that conversion errors can still be reported with a
+ * proper error response. Only the serialization is deferred to the response writing.
+ */
+public class NQuadsStreamingOutput implements StreamingOutput {
+
+  public static final String MEDIA_TYPE = "application/n-quads";
+
+  private static final String DEFAULT_GRAPH = "@default";
+
+  private final RDFDataset dataset;
+
+  private NQuadsStreamingOutput(RDFDataset dataset) {
+    this.dataset = dataset;
+  }
+
+  public static NQuadsStreamingOutput of(JsonNode jsonLdDocument, DocumentLoader documentLoader)
+      throws JsonLdError {
+    Object input = JsonMapper.MAPPER.convertValue(jsonLdDocument, Object.class);
+    JsonLdOptions options = new JsonLdOptions();
+    options.setDocumentLoader(documentLoader);
+    RDFDataset dataset = (RDFDataset) JsonLdProcessor.toRDF(input, options);
+    return new NQuadsStreamingOutput(dataset);
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    for (String graphName : dataset.graphNames()) {
+      String quadGraphName = DEFAULT_GRAPH.equals(graphName) ? null : graphName;
+      for (RDFDataset.Quad quad : dataset.getQuads(graphName)) {
+        writer.write(RDFDatasetUtils.toNQuad(quad, quadGraphName));
+      }
+    }
+    writer.flush();
+  }
+}
@@ -2,8 +2,28 @@ package org.metadatacenter.cedar.artifact.resources;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchema;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchemaLookup;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.http.EntityTagUtil;
+import org.metadatacenter.cedar.artifact.http.JsonFormat;
+import org.metadatacenter.cedar.artifact.http.RequestExecutor;
+import org.metadatacenter.cedar.artifact.http.ResponseProducer;
+import org.metadatacenter.cedar.artifact.paging.CursorLinkHeaderUtil;
+import org.metadatacenter.cedar.artifact.paging.OffsetLinkHeaderUtil;
+import org.metadatacenter.cedar.artifact.paging.PageCursor;
+import org.metadatacenter.cedar.artifact.paging.TotalCounter;
+import org.metadatacenter.cedar.artifact.patch.JsonMergePatch;
+import org.metadatacenter.cedar.artifact.patch.JsonPatch;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+import org.metadatacenter.cedar.artifact.store.MongoDocuments;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.cedar.artifact.validation.ModelValidatorPool;
 import org.metadatacenter.cedar.util.dw.CedarMicroserviceResource;
 import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.constant.CustomHttpConstants;
+import org.metadatacenter.constant.HttpConstants;
 import org.metadatacenter.constant.LinkedData;
 import org.metadatacenter.error.CedarErrorKey;
 import org.metadatacenter.error.CedarErrorPack;
@@ -12,18 +32,25 @@ import org.metadatacenter.exception.CedarException;
 import org.metadatacenter.exception.CedarProcessingException;
 import org.metadatacenter.exception.CedarRequestBodyMissingFieldException;
 import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.model.CreateOrUpdate;
 import org.metadatacenter.model.core.CedarModelVocabulary;
-import org.metadatacenter.model.validation.CedarValidator;
-import org.metadatacenter.model.validation.ModelValidator;
 import org.metadatacenter.model.validation.report.ErrorItem;
 import org.metadatacenter.model.validation.report.ValidationReport;
+import org.metadatacenter.rest.context.CedarRequestContext;
 import org.metadatacenter.rest.exception.CedarAssertionException;
 import org.metadatacenter.server.model.provenance.ProvenanceInfo;
-import org.metadatacenter.server.service.TemplateService;
+import org.metadatacenter.server.service.FieldNameInEx;
 import org.metadatacenter.util.JsonPointerValuePair;
 import org.metadatacenter.util.ModelUtil;
+import org.metadatacenter.util.http.CedarResponse;
+import org.metadatacenter.util.http.LinkHeaderUtil;
 import org.metadatacenter.util.mongo.MongoUtils;
 
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -31,15 +58,27 @@ import java.util.List;
 import java.util.Optional;
 
 import static com.fasterxml.jackson.databind.node.JsonNodeType.NULL;
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_CURSOR;
+import static org.metadatacenter.rest.assertion.GenericAssertions.ValidId;
 
 public class AbstractArtifactServerResource extends CedarMicroserviceResource {
 
   protected static List<String> FIELD_NAMES_EXCLUSION_LIST;
 
-  protected AbstractArtifactServerResource(CedarConfig cedarConfig) {
+  private static final MediaType JSON_PATCH_MEDIA_TYPE = MediaType.valueOf(ArtifactMediaTypes.APPLICATION_JSON_PATCH);
+
+  private final ModelValidatorPool validatorPool;
+  private final RequestExecutor requestExecutor;
+
+  protected AbstractArtifactServerResource(CedarConfig cedarConfig, ModelValidatorPool validatorPool,
+                                           RequestExecutor requestExecutor) {
     super(cedarConfig);
+    this.validatorPool = validatorPool;
+    this.requestExecutor = requestExecutor;
     FIELD_NAMES_EXCLUSION_LIST = new ArrayList<>();
     FIELD_NAMES_EXCLUSION_LIST.addAll(cedarConfig.getArtifactRESTAPI().getExcludedFields());
+    // The revision of the artifacts written through a store is not part of the artifact
+    FIELD_NAMES_EXCLUSION_LIST.add(MongoDocuments.REVISION);
   }
 
   protected void setProvenanceAndId(CedarResourceType cedarResourceType, JsonNode element, ProvenanceInfo pi) {
@@ -75,6 +114,204 @@ public class AbstractArtifactServerResource extends CedarMicroserviceResource {
     return null;
   }
 
+  protected static PageCursor getAndCheckCursor(Optional<String> cursorParam, Optional<Integer> offsetParam)
+      throws CedarException {
+    if (cursorParam == null || !cursorParam.isPresent()) {
+      return null;
+    }
+    if (offsetParam != null && offsetParam.isPresent()) {
+      throw new CedarAssertionException(
+          "It is not allowed to specify parameter 'offset' and also parameter '" + QP_CURSOR + "'!");
+    }
+    return PageCursor.decode(cursorParam.get());
+  }
+
+  protected static ArtifactPage findPage(ArtifactStore store, PageCursor cursor, Integer limit, boolean summary,
+                                         List<String> summaryFieldNames, List<String> fieldNameList)
+      throws IOException, CedarException {
+    try {
+      if (summary) {
+        return store.findPage(cursor.getKey(), limit, summaryFieldNames, FieldNameInEx.INCLUDE);
+      } else if (fieldNameList != null) {
+        return store.findPage(cursor.getKey(), limit, fieldNameList, FieldNameInEx.INCLUDE);
+      } else {
+        return store.findPage(cursor.getKey(), limit, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+      }
+    } catch (IllegalArgumentException e) {
+      throw PageCursor.invalidCursor(cursor.encode());
+    }
+  }
+
+  /**
+   * Replaces the artifact with the given id, or creates it if there is none, in a single round trip. A missing
+   * artifact is only created if the id is valid for a new artifact; otherwise the id check fails as it did before.
+   */
+  protected static CreateOrUpdate saveArtifact(CedarRequestContext c, ArtifactStore store, String id,
+                                               JsonNode artifact) throws IOException, CedarException {
+    boolean validId = true;
+    try {
+      c.must(id).be(ValidId);
+    } catch (CedarAssertionException e) {
+      validId = false;
+    }
+    CreateOrUpdate createOrUpdate = store.save(id, artifact, validId);
+    if (createOrUpdate == null) {
+      c.must(id).be(ValidId);
+    }
+    return createOrUpdate;
+  }
+
+  /**
+   * Replaces the artifact only if the If-Match header matches the stored artifact in the format of the response. The
+   * write itself is conditional on the revision read with it, so a change made in between is not overwritten either.
+   *
+   * @return the update, or null if the precondition failed
+   */
+  protected static CreateOrUpdate saveArtifactIfMatch(ArtifactStore store, String id, JsonNode artifact,
+                                                      VersionedArtifact currentArtifact, String ifMatch,
+                                                      JsonFormat format) throws IOException {
+    if (!matchesIfMatch(currentArtifact, ifMatch, format)) {
+      return null;
+    }
+    boolean replaced = store.replaceIfRevision(id, currentArtifact.getRevision(), artifact);
+    return replaced ? CreateOrUpdate.UPDATE : null;
+  }
+
+  /**
+   * Deletes the artifact only if the If-Match header matches the stored artifact, conditional on the revision read
+   * with it.
+   *
+   * @return whether the artifact was deleted
+   */
+  protected static boolean deleteArtifactIfMatch(ArtifactStore store, String id, VersionedArtifact currentArtifact,
+                                                 String ifMatch, JsonFormat format) throws IOException {
+    if (!matchesIfMatch(currentArtifact, ifMatch, format)) {
+      return false;
+    }
+    return store.deleteIfRevision(id, currentArtifact.getRevision());
+  }
+
+  /**
+   * Writes the differences between the artifact as it was read and its new version, conditional on the revision read.
+   *
+   * @return the update, or null if the artifact has been changed in between
+   */
+  protected static CreateOrUpdate updateArtifactIfUnchanged(ArtifactStore store, String id,
+                                                            VersionedArtifact currentArtifact, JsonNode newArtifact)
+      throws IOException {
+    boolean updated = store.updateIfRevision(id, currentArtifact.getRevision(), currentArtifact.getArtifact(),
+        newArtifact);
+    return updated ? CreateOrUpdate.UPDATE : null;
+  }
+
+  /**
+   * Applies a JSON Patch or a JSON Merge Patch to the artifact, depending on the content type of the request. The
+   * artifact is not modified.
+   */
+  protected static JsonNode applyPatch(String contentType, JsonNode artifact, JsonNode patch)
+      throws CedarBadRequestException {
+    JsonNode patchedArtifact;
+    try {
+      if (contentType != null && MediaType.valueOf(contentType).isCompatible(JSON_PATCH_MEDIA_TYPE)) {
+        patchedArtifact = JsonPatch.apply(artifact, patch);
+      } else {
+        patchedArtifact = JsonMergePatch.apply(artifact, patch);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new CedarBadRequestException(new CedarErrorPack()
+          .message("The patch can not be applied: " + e.getMessage())
+          .errorKey(CedarErrorKey.INVALID_INPUT));
+    }
+    if (!patchedArtifact.isObject()) {
+      throw new CedarBadRequestException(new CedarErrorPack()
+          .message("The patched artifact must be a JSON object")
+          .errorKey(CedarErrorKey.INVALID_INPUT));
+    }
+    return patchedArtifact;
+  }
+
+  /**
+   * Tells whether the If-Match header matches the stored artifact, comparing it with the tag of the artifact in the
+   * format the response is written in, which is the tag a read with the same Accept header returns.
+   */
+  protected static boolean matchesIfMatch(VersionedArtifact currentArtifact, String ifMatch, JsonFormat format) {
+    if (currentArtifact == null) {
+      return false;
+    }
+    return EntityTagUtil.matchesStrongly(ifMatch, EntityTagUtil.of(currentArtifact.getArtifact(), format));
+  }
+
+  /**
+   * Removes the fields which are not part of the artifact from an artifact read through an artifact service: its
+   * storage key, and the revision of the artifacts written through a store.
+   */
+  protected static void removeStorageFields(JsonNode artifact) {
+    MongoUtils.removeIdField(artifact);
+    ((ObjectNode) artifact).remove(MongoDocuments.REVISION);
+  }
+
+  protected static Response preconditionFailed(String id, CedarErrorKey errorKey) {
+    return CedarResponse.status(Response.Status.PRECONDITION_FAILED)
+        .id(id)
+        .errorKey(errorKey)
+        .errorMessage("The artifact has been changed since it was read, or it does not exist. id:" + id)
+        .build();
+  }
+
+  protected static Long getTotalCount(TotalCounter counter, Optional<Boolean> countParam) {
+    if (countParam != null && countParam.isPresent() && !countParam.get()) {
+      return null;
+    }
+    return counter.count();
+  }
+
+  /**
+   * Answers an asynchronous request with the response of the producer, within the timeout of the requests.
+   */
+  protected void respond(AsyncResponse asyncResponse, ResponseProducer producer) {
+    requestExecutor.respond(asyncResponse, producer);
+  }
+
+  protected Response buildCursorPagedResponse(ArtifactPage page, Integer limit, Long total) {
+    PageCursor nextCursor = page.hasMore() ? PageCursor.afterKey(page.getNextKey()) : null;
+    String linkHeader = CursorLinkHeaderUtil.getCursorLinkHeader(uriInfo.getRequestUriBuilder(), limit, nextCursor);
+    Response.ResponseBuilder responseBuilder = Response.ok().entity(page.getItems());
+    if (total != null) {
+      responseBuilder.header(CustomHttpConstants.HEADER_TOTAL_COUNT, String.valueOf(total));
+    }
+    responseBuilder.header(HttpConstants.HTTP_HEADER_LINK, linkHeader);
+    return responseBuilder.build();
+  }
+
+  protected Response buildOffsetPagedResponse(List<JsonNode> items, Integer limit, Integer offset, Long total,
+                                              boolean exactTotal) throws CedarException {
+    return buildOffsetPagedResponse(uriInfo.getAbsolutePathBuilder(), uriInfo.getRequestUriBuilder(), items, limit,
+        offset, total, exactTotal);
+  }
+
+  protected static Response buildOffsetPagedResponse(UriBuilder absolutePathBuilder, UriBuilder requestUriBuilder,
+                                                     List<JsonNode> items, Integer limit, Integer offset, Long total,
+                                                     boolean exactTotal) throws CedarException {
+    String linkHeader;
+    if (total != null && exactTotal) {
+      checkPagingParametersAgainstTotal(offset, total);
+      String absoluteUrl = absolutePathBuilder.build().toString();
+      linkHeader = LinkHeaderUtil.getPagingLinkHeader(absoluteUrl, total, limit, offset);
+    } else {
+      // An estimated or cached total can be off, so the links only rely on the current page
+      boolean hasNext = items != null && items.size() >= limit;
+      linkHeader = OffsetLinkHeaderUtil.getPagingLinkHeader(requestUriBuilder, limit, offset, hasNext);
+    }
+    Response.ResponseBuilder responseBuilder = Response.ok().entity(items);
+    if (total != null) {
+      responseBuilder.header(CustomHttpConstants.HEADER_TOTAL_COUNT, String.valueOf(total));
+    }
+    if (!linkHeader.isEmpty()) {
+      responseBuilder.header(HttpConstants.HTTP_HEADER_LINK, linkHeader);
+    }
+    return responseBuilder.build();
+  }
+
   protected static void checkPagingParametersAgainstTotal(Integer offset, long total) throws CedarException {
     if (offset != 0 && offset > total - 1) {
       throw new CedarProcessingException(
@@ -85,41 +322,34 @@ public class AbstractArtifactServerResource extends CedarMicroserviceResource {
   }
 
   protected ValidationReport validateTemplate(JsonNode template) throws CedarException {
-    try {
-      return newModelValidator().validateTemplate(template);
-    } catch (Exception e) {
-      throw newCedarException(e.getMessage());
-    }
+    return validate(CedarResourceType.TEMPLATE, validator -> validator.validateTemplate(template));
   }
 
   protected ValidationReport validateTemplateElement(JsonNode templateElement) throws CedarException {
-    try {
-      return newModelValidator().validateTemplateElement(templateElement);
-    } catch (Exception e) {
-      throw newCedarException(e.getMessage());
-    }
+    return validate(CedarResourceType.ELEMENT, validator -> validator.validateTemplateElement(templateElement));
   }
 
   protected ValidationReport validateTemplateField(JsonNode templateField) throws CedarException {
-    try {
-      return newModelValidator().validateTemplateField(templateField);
-    } catch (Exception e) {
-      throw newCedarException(e.getMessage());
-    }
+    return validate(CedarResourceType.FIELD, validator -> validator.validateTemplateField(templateField));
   }
 
   protected ValidationReport validateTemplateInstance(JsonNode templateInstance, JsonNode instanceSchema) throws CedarException {
+    return validate(CedarResourceType.INSTANCE,
+        validator -> validator.validateTemplateInstance(templateInstance, instanceSchema));
+  }
+
+  private ValidationReport validate(CedarResourceType resourceType, ModelValidatorPool.ValidationCall call)
+      throws CedarException {
     try {
-      return newModelValidator().validateTemplateInstance(templateInstance, instanceSchema);
+      return validatorPool.validate(resourceType, call);
+    } catch (WebApplicationException e) {
+      // No validator is available, which is answered as it is
+      throw e;
     } catch (Exception e) {
       throw newCedarException(e.getMessage());
     }
   }
 
-  private static ModelValidator newModelValidator() {
-    return new CedarValidator();
-  }
-
   protected static CedarException newCedarException(String message) {
     return new CedarException(message) {
     };
@@ -168,12 +398,17 @@ public class AbstractArtifactServerResource extends CedarMicroserviceResource {
     }
   }
 
-  protected static JsonNode getSchemaSource(TemplateService<String, JsonNode> templateService, JsonNode templateInstance) throws IOException,
-      CedarException {
+  protected static JsonNode getSchemaSource(InstanceSchemaLookup instanceSchemaLookup, JsonNode templateInstance)
+      throws IOException, CedarException {
+    return getInstanceSchema(instanceSchemaLookup, templateInstance).getSchema();
+  }
+
+  protected static InstanceSchema getInstanceSchema(InstanceSchemaLookup instanceSchemaLookup,
+                                                    JsonNode templateInstance) throws IOException, CedarException {
     checkInstanceSchemaExists(templateInstance);
     String templateRefId = templateInstance.get(CedarModelVocabulary.SCHEMA_IS_BASED_ON).asText();
-    JsonNode template = templateService.findTemplate(templateRefId);
-    if (template == null) {
+    InstanceSchema instanceSchema = instanceSchemaLookup.forTemplate(templateRefId);
+    if (instanceSchema == null) {
       throw new CedarBadRequestException(
           new CedarErrorPack()
               .message("The artifact that this instance is based on can not be found.")
@@ -181,8 +416,7 @@ public class AbstractArtifactServerResource extends CedarMicroserviceResource {
               .errorKey(CedarErrorKey.INVALID_INPUT)
       );
     }
-    MongoUtils.removeIdField(template);
-    return template;
+    return instanceSchema;
   }
 
   protected static JsonNode checkInstanceSchemaExists(JsonNode templateInstance) throws CedarException {
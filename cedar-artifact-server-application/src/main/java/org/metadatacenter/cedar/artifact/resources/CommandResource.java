@@ -2,15 +2,24 @@ package org.metadatacenter.cedar.artifact.resources;
 
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.glassfish.jersey.server.ManagedAsync;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchema;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchemaCache;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchemaLookup;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchemaMemo;
+import org.metadatacenter.cedar.artifact.config.BulkConfig;
+import org.metadatacenter.cedar.artifact.http.RequestExecutor;
+import org.metadatacenter.cedar.artifact.validation.BatchValidationResult;
+import org.metadatacenter.cedar.artifact.validation.ModelValidatorPool;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.error.CedarErrorKey;
 import org.metadatacenter.error.CedarErrorPack;
+import org.metadatacenter.exception.CedarBadRequestException;
 import org.metadatacenter.exception.CedarException;
 import org.metadatacenter.model.request.ResourceType;
 import org.metadatacenter.model.request.ResourceTypeDetector;
 import org.metadatacenter.model.validation.report.ValidationReport;
 import org.metadatacenter.rest.context.CedarRequestContext;
-import org.metadatacenter.server.service.TemplateService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,9 +27,16 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.metadatacenter.constant.CedarQueryParameters.QP_RESOURCE_TYPE;
@@ -32,27 +48,104 @@ public class CommandResource extends AbstractArtifactServerResource {
 
   private static final Logger log = LoggerFactory.getLogger(CommandResource.class);
 
-  private final TemplateService<String, JsonNode> templateService;
-
-  public CommandResource(CedarConfig cedarConfig, TemplateService<String, JsonNode> templateService) {
-    super(cedarConfig);
-    this.templateService = checkNotNull(templateService);
+  private static final String BATCH_RESOURCE_TYPE = "resourceType";
+  private static final String BATCH_RESOURCE = "resource";
+
+  private final InstanceSchemaCache instanceSchemaCache;
+  private final ExecutorService validationExecutor;
+  private final BulkConfig bulkConfig;
+
+  public CommandResource(CedarConfig cedarConfig, ModelValidatorPool validatorPool,
+                         RequestExecutor requestExecutor,
+                         InstanceSchemaCache instanceSchemaCache, ExecutorService validationExecutor,
+                         BulkConfig bulkConfig) {
+    super(cedarConfig, validatorPool, requestExecutor);
+    this.instanceSchemaCache = checkNotNull(instanceSchemaCache);
+    this.validationExecutor = checkNotNull(validationExecutor);
+    this.bulkConfig = checkNotNull(bulkConfig);
   }
 
   @POST
   @Timed
   @Path("/validate")
-  public Response validateResource(@QueryParam(QP_RESOURCE_TYPE) String type) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-
-    ResourceType resourceType = ResourceTypeDetector.detectType(type);
-    JsonNode resourceNode = c.request().getRequestBody().asJson();
-    ValidationReport validationReport = validateResource(resourceNode, resourceType);
-    return Response.ok().entity(validationReport).build();
+  @ManagedAsync
+  public void validateResource(@Suspended AsyncResponse asyncResponse, @QueryParam(QP_RESOURCE_TYPE) String type) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+
+      ResourceType resourceType = ResourceTypeDetector.detectType(type);
+      JsonNode resourceNode = c.request().getRequestBody().asJson();
+      ValidationReport validationReport = validateResource(resourceNode, resourceType, instanceSchemaCache);
+      return Response.ok().entity(validationReport).build();
+    });
   }
 
-  private ValidationReport validateResource(JsonNode resource, ResourceType type) throws CedarException {
+  @POST
+  @Timed
+  @Path("/validate-batch")
+  @ManagedAsync
+  public void validateResources(@Suspended AsyncResponse asyncResponse) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+
+      JsonNode items = c.request().getRequestBody().asJson();
+      if (!items.isArray()) {
+        throw new CedarBadRequestException(new CedarErrorPack()
+            .message("The request body must be an array of {\"" + BATCH_RESOURCE_TYPE + "\", \"" + BATCH_RESOURCE
+                + "\"} objects")
+            .errorKey(CedarErrorKey.INVALID_INPUT));
+      }
+      if (items.size() > bulkConfig.getMaximumItems()) {
+        throw new CedarBadRequestException(new CedarErrorPack()
+            .message("The request can not contain more than " + bulkConfig.getMaximumItems() + " items")
+            .parameter("maximumItems", bulkConfig.getMaximumItems())
+            .errorKey(CedarErrorKey.INVALID_INPUT));
+      }
+
+      // The items referencing the same template share one lookup
+      InstanceSchemaMemo instanceSchemaMemo = new InstanceSchemaMemo(instanceSchemaCache);
+      List<Future<BatchValidationResult>> validations = new ArrayList<>(items.size());
+      for (int i = 0; i < items.size(); i++) {
+        int index = i;
+        JsonNode item = items.get(i);
+        validations.add(validationExecutor.submit(() -> validateBatchItem(index, item, instanceSchemaMemo)));
+      }
+      List<BatchValidationResult> results = new ArrayList<>(items.size());
+      for (int i = 0; i < validations.size(); i++) {
+        try {
+          results.add(validations.get(i).get());
+        } catch (ExecutionException e) {
+          results.add(BatchValidationResult.failed(i, 0, e.getCause().getMessage()));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          results.add(BatchValidationResult.failed(i, 0, "The validation was interrupted"));
+        }
+      }
+      return Response.ok().entity(results).build();
+    });
+  }
+
+  private BatchValidationResult validateBatchItem(int index, JsonNode item,
+                                                  InstanceSchemaLookup instanceSchemaLookup) {
+    long start = System.nanoTime();
+    try {
+      JsonNode resource = item.path(BATCH_RESOURCE);
+      if (!resource.isObject()) {
+        return BatchValidationResult.failed(index, System.nanoTime() - start,
+            "The '" + BATCH_RESOURCE + "' of the item must be a JSON object");
+      }
+      ResourceType resourceType = ResourceTypeDetector.detectType(item.path(BATCH_RESOURCE_TYPE).asText(null));
+      ValidationReport validationReport = validateResource(resource, resourceType, instanceSchemaLookup);
+      return BatchValidationResult.validated(index, System.nanoTime() - start, validationReport);
+    } catch (CedarException e) {
+      return BatchValidationResult.failed(index, System.nanoTime() - start, e.getMessage());
+    }
+  }
+
+  private ValidationReport validateResource(JsonNode resource, ResourceType type,
+                                            InstanceSchemaLookup instanceSchemaLookup) throws CedarException {
     ValidationReport validationReport = null;
     if (type == ResourceType.TEMPLATE) {
       validationReport = validateTemplate(resource);
@@ -61,7 +154,7 @@ public class CommandResource extends AbstractArtifactServerResource {
     } else if (type == ResourceType.FIELD) {
       validationReport = validateTemplateField(resource);
     } else if (type == ResourceType.INSTANCE) {
-      validationReport = validateTemplateInstance(resource);
+      validationReport = validateTemplateInstance(resource, instanceSchemaLookup);
     } else {
       CedarErrorPack errorPack = new CedarErrorPack()
           .errorKey(CedarErrorKey.METHOD_NOT_IMPLEMENTED)
@@ -72,14 +165,15 @@ public class CommandResource extends AbstractArtifactServerResource {
     return validationReport;
   }
 
-  private ValidationReport validateTemplateInstance(JsonNode payload) throws CedarException {
+  private ValidationReport validateTemplateInstance(JsonNode payload, InstanceSchemaLookup instanceSchemaLookup)
+      throws CedarException {
     try {
       ValidationReport validationReport = null;
       JsonNode instanceObject = getInstanceObject(payload);
       if (hasUserSpecifiedSchema(payload)) {
         validationReport = validateUsingUserSpecifiedSchema(payload, instanceObject);
       } else {
-        validationReport = validateUsingInstanceSpecifiedSchema(instanceObject);
+        validationReport = validateUsingInstanceSpecifiedSchema(instanceObject, instanceSchemaLookup);
       }
       return validationReport;
     } catch (IOException e) {
@@ -91,17 +185,24 @@ public class CommandResource extends AbstractArtifactServerResource {
     return !payload.path("schema").isMissingNode() && !payload.path("schema").isNull();
   }
 
-  private ValidationReport validateUsingUserSpecifiedSchema(JsonNode payload, JsonNode instanceObject) throws CedarException {
-    JsonNode instanceSchema = payload.get("schema");
-    ValidationReport schemaValidationReport = validateTemplate(instanceSchema); // validate the input schema
+  private ValidationReport validateUsingUserSpecifiedSchema(JsonNode payload, JsonNode instanceObject) throws IOException,
+      CedarException {
+    InstanceSchema instanceSchema = instanceSchemaCache.forSchema(payload.get("schema"));
+    ValidationReport schemaValidationReport = instanceSchema.getSchemaValidationReport();
+    if (schemaValidationReport == null) {
+      schemaValidationReport = validateTemplate(instanceSchema.getSchema()); // validate the input schema
+      instanceSchema.setSchemaValidationReport(schemaValidationReport);
+    }
     if (schemaValidationReport.getValidationStatus().equals("false")) {
       return schemaValidationReport; // return schema validation report instead
     }
-    return validateTemplateInstance(instanceObject, instanceSchema);
+    return validateTemplateInstance(instanceObject, instanceSchema.getSchema());
   }
 
-  private ValidationReport validateUsingInstanceSpecifiedSchema(JsonNode instanceObject) throws IOException, CedarException {
-    JsonNode instanceSchema = getSchemaSource(templateService, instanceObject);
+  private ValidationReport validateUsingInstanceSpecifiedSchema(JsonNode instanceObject,
+                                                                InstanceSchemaLookup instanceSchemaLookup)
+      throws IOException, CedarException {
+    JsonNode instanceSchema = getSchemaSource(instanceSchemaLookup, instanceObject);
     return validateTemplateInstance(instanceObject, instanceSchema);
   }
 
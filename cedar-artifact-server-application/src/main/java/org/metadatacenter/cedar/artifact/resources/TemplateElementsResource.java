@@ -2,9 +2,23 @@ package org.metadatacenter.cedar.artifact.resources;
 
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.glassfish.jersey.server.ManagedAsync;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.http.EntityTagUtil;
+import org.metadatacenter.cedar.artifact.http.JsonFormat;
+import org.metadatacenter.cedar.artifact.http.PATCH;
+import org.metadatacenter.cedar.artifact.http.RequestExecutor;
+import org.metadatacenter.cedar.artifact.metrics.StageMetrics;
+import org.metadatacenter.cedar.artifact.metrics.StageTimings;
+import org.metadatacenter.cedar.artifact.paging.PageCursor;
+import org.metadatacenter.cedar.artifact.paging.TotalCounter;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.cedar.artifact.validation.ModelValidatorPool;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.constant.CustomHttpConstants;
-import org.metadatacenter.constant.HttpConstants;
 import org.metadatacenter.constant.LinkedData;
 import org.metadatacenter.error.CedarErrorKey;
 import org.metadatacenter.error.CedarErrorReasonKey;
@@ -23,88 +37,118 @@ import org.metadatacenter.server.service.TemplateElementService;
 import org.metadatacenter.util.ModelUtil;
 import org.metadatacenter.util.http.CedarResponse;
 import org.metadatacenter.util.http.CedarUrlUtil;
-import org.metadatacenter.util.http.LinkHeaderUtil;
 import org.metadatacenter.util.http.PagedQuery;
-import org.metadatacenter.util.mongo.MongoUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
 
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_COUNT;
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_CURSOR;
 import static org.metadatacenter.constant.CedarPathParameters.PP_ID;
 import static org.metadatacenter.constant.CedarQueryParameters.*;
 import static org.metadatacenter.rest.assertion.GenericAssertions.*;
 
 @Path("/template-elements")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, ArtifactMediaTypes.APPLICATION_SMILE, ArtifactMediaTypes.APPLICATION_CBOR})
 public class TemplateElementsResource extends AbstractArtifactServerResource {
 
   private static final Logger logger = LoggerFactory.getLogger(TemplateInstancesResource.class);
 
   private static TemplateElementService<String, JsonNode> templateElementService;
+  private static ArtifactStore templateElementStore;
+  private static TotalCounter templateElementCounter;
+  private static StageMetrics stageMetrics;
 
   protected static List<String> FIELD_NAMES_SUMMARY_LIST;
 
-  public TemplateElementsResource(CedarConfig cedarConfig, TemplateElementService<String, JsonNode> templateElementService) {
-    super(cedarConfig);
+  public TemplateElementsResource(CedarConfig cedarConfig, ModelValidatorPool validatorPool,
+                                  RequestExecutor requestExecutor,
+                                  TemplateElementService<String, JsonNode> templateElementService,
+                                  ArtifactStore templateElementStore,
+                                  TotalCounter templateElementCounter,
+                                  StageMetrics stageMetrics) {
+    super(cedarConfig, validatorPool, requestExecutor);
     TemplateElementsResource.templateElementService = templateElementService;
+    TemplateElementsResource.templateElementStore = templateElementStore;
+    TemplateElementsResource.templateElementCounter = templateElementCounter;
+    TemplateElementsResource.stageMetrics = stageMetrics;
     FIELD_NAMES_SUMMARY_LIST = new ArrayList<>();
     FIELD_NAMES_SUMMARY_LIST.addAll(cedarConfig.getArtifactRESTAPI().getSummaries().getElement().getFields());
   }
 
   @POST
   @Timed
-  public Response createTemplateElement() throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_CREATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
+  @ManagedAsync
+  public void createTemplateElement(@Suspended AsyncResponse asyncResponse,
+                                    @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      StageTimings timings = stageMetrics.start(CedarResourceType.ELEMENT);
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_CREATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+      timings.mark(StageMetrics.AUTHORIZE);
 
-    JsonNode templateElement = c.request().getRequestBody().asJson();
+      JsonNode templateElement = c.request().getRequestBody().asJson();
+      timings.mark(StageMetrics.PARSE);
 
-    enforceMandatoryNullOrMissingId(templateElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_CREATED);
-    enforceMandatoryName(templateElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_CREATED);
+      enforceMandatoryNullOrMissingId(templateElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_CREATED);
+      enforceMandatoryName(templateElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_CREATED);
+      timings.mark(StageMetrics.ENFORCE);
 
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    setProvenanceAndId(CedarResourceType.ELEMENT, templateElement, pi);
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      setProvenanceAndId(CedarResourceType.ELEMENT, templateElement, pi);
+      timings.mark(StageMetrics.PROVENANCE);
 
-    Response response = null;
-    if (cedarConfig.getValidationConfig().isEnabled()) {
-      ValidationReport validationReport = validateTemplateElement(templateElement);
-      ReportUtils.outputLogger(logger, validationReport, true);
-      String validationStatus = validationReport.getValidationStatus();
-      if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
-        response = storeTemplateElementInDatabase(templateElement, pi);
+      Response response = null;
+      if (cedarConfig.getValidationConfig().isEnabled()) {
+        ValidationReport validationReport = validateTemplateElement(templateElement);
+        timings.mark(StageMetrics.VALIDATE);
+        ReportUtils.outputLogger(logger, validationReport, true);
+        String validationStatus = validationReport.getValidationStatus();
+        if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
+          response = storeTemplateElementInDatabase(templateElement, pi, timings, JsonFormat.forAccept(accept));
+          timings.mark(StageMetrics.STORE);
+        } else {
+          response = CedarResponse.badRequest()
+              .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
+              .errorKey(CedarErrorKey.INVALID_DATA)
+              .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
+              .errorMessage(concatenateValidationMessages(validationReport))
+              .object("validationReport", validationReport)
+              .build();
+        }
       } else {
-        response = CedarResponse.badRequest()
-            .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
-            .errorKey(CedarErrorKey.INVALID_DATA)
-            .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
-            .errorMessage(concatenateValidationMessages(validationReport))
-            .object("validationReport", validationReport)
-            .build();
+        response = storeTemplateElementInDatabase(templateElement, pi, timings, JsonFormat.forAccept(accept));
+        timings.mark(StageMetrics.STORE);
       }
-    } else {
-      response = storeTemplateElementInDatabase(templateElement, pi);
-    }
-    return response;
+      return timings.addServerTiming(response);
+    });
   }
 
-  private Response storeTemplateElementInDatabase(JsonNode templateElement, ProvenanceInfo pi) {
+  private Response storeTemplateElementInDatabase(JsonNode templateElement, ProvenanceInfo pi,
+                                                  StageTimings timings, JsonFormat format) {
     try {
       ModelUtil.ensureFieldIdsRecursively(templateElement, pi, provenanceUtil, linkedDataUtil);
-      JsonNode createdTemplateElement = templateElementService.createTemplateElement(templateElement);
-      MongoUtils.removeIdField(createdTemplateElement);
-      String id = createdTemplateElement.get(LinkedData.ID).asText();
+      timings.mark(StageMetrics.FIELD_IDS);
+      // Written through the store, so that the element has a revision for the conditional writes from the start
+      templateElementStore.insert(templateElement);
+      String id = templateElement.get(LinkedData.ID).asText();
       URI createdElementUri = CedarUrlUtil.getIdURI(uriInfo, id);
       return CedarResponse.created(createdElementUri)
           .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_VALID)
-          .entity(createdTemplateElement).build();
+          .header(HttpHeaders.ETAG, EntityTagUtil.of(templateElement, format).toString())
+          .entity(templateElement).build();
     } catch (IOException e) {
       return CedarResponse.internalServerError()
           .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_CREATED)
@@ -117,111 +161,194 @@ public class TemplateElementsResource extends AbstractArtifactServerResource {
   @GET
   @Timed
   @Path("/{id}")
-  public Response findTemplateElement(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_READ);
-    c.must(id).be(ValidUrl);
+  @ManagedAsync
+  public void findTemplateElement(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                  @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                  @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_READ);
+      c.must(id).be(ValidUrl);
 
-    JsonNode templateElement = null;
-    try {
-      templateElement = templateElementService.findTemplateElement(id);
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
-          .errorMessage("The artifact element can not be found by id:" + id)
-          .exception(e)
-          .build();
-    }
-    if (templateElement == null) {
-      return CedarResponse.notFound()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
-          .errorMessage("The artifact element can not be found by id:" + id)
-          .build();
-    } else {
-      MongoUtils.removeIdField(templateElement);
-      return Response.ok().entity(templateElement).build();
-    }
+      RawArtifact templateElement;
+      try {
+        templateElement = templateElementStore.findRaw(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
+            .errorMessage("The artifact element can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (templateElement == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
+            .errorMessage("The artifact element can not be found by id:" + id)
+            .build();
+      } else {
+        // Every format has its own tag, so the response is sent in the format the tag is built for
+        JsonFormat format = JsonFormat.forAccept(accept);
+        EntityTag entityTag = EntityTagUtil.of(templateElement, format);
+        if (EntityTagUtil.matchesWeakly(ifNoneMatch, entityTag)) {
+          return Response.notModified(entityTag).build();
+        }
+        return Response.ok(templateElement, format.getMediaType()).tag(entityTag).build();
+      }
+    });
   }
 
   @GET
   @Timed
-  public Response findAllTemplateElements(@QueryParam(QP_LIMIT) Optional<Integer> limitParam,
-                                          @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
-                                          @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
-                                          @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam) throws CedarException {
-
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_READ);
-
-    PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
-        .limit(limitParam)
-        .offset(offsetParam);
-    pagedQuery.validate();
-
-    Integer limit = pagedQuery.getLimit();
-    Integer offset = pagedQuery.getOffset();
-    Boolean summary = ensureSummary(summaryParam);
-
-    List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
-    Map<String, Object> r = new HashMap<>();
-    List<JsonNode> elements = null;
-    try {
-      if (summary) {
-        elements = templateElementService.findAllTemplateElements(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
-      } else if (fieldNameList != null) {
-        elements = templateElementService.findAllTemplateElements(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
-      } else {
-        elements = templateElementService.findAllTemplateElements(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+  @ManagedAsync
+  public void findAllTemplateElements(@Suspended AsyncResponse asyncResponse,
+                                      @QueryParam(QP_LIMIT) Optional<Integer> limitParam,
+                                      @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
+                                      @QueryParam(QP_CURSOR) Optional<String> cursorParam,
+                                      @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
+                                      @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam,
+                                      @QueryParam(QP_COUNT) Optional<Boolean> countParam) {
+    respond(asyncResponse, () -> {
+
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_READ);
+
+      PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
+          .limit(limitParam)
+          .offset(offsetParam);
+      pagedQuery.validate();
+      PageCursor cursor = getAndCheckCursor(cursorParam, offsetParam);
+
+      Integer limit = pagedQuery.getLimit();
+      Integer offset = pagedQuery.getOffset();
+      Boolean summary = ensureSummary(summaryParam);
+
+      List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
+      Map<String, Object> r = new HashMap<>();
+      List<JsonNode> elements = null;
+      ArtifactPage page = null;
+      try {
+        if (cursor != null) {
+          page = findPage(templateElementStore, cursor, limit, summary, FIELD_NAMES_SUMMARY_LIST, fieldNameList);
+        } else if (summary) {
+          elements = templateElementService.findAllTemplateElements(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
+        } else if (fieldNameList != null) {
+          elements = templateElementService.findAllTemplateElements(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
+        } else {
+          elements = templateElementService.findAllTemplateElements(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+        }
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .errorKey(CedarErrorKey.TEMPLATE_ELEMENTS_NOT_LISTED)
+            .errorMessage("The artifact elements can not be listed")
+            .exception(e)
+            .build();
       }
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .errorKey(CedarErrorKey.TEMPLATE_ELEMENTS_NOT_LISTED)
-          .errorMessage("The artifact elements can not be listed")
-          .exception(e)
-          .build();
-    }
-    long total = templateElementService.count();
-    checkPagingParametersAgainstTotal(offset, total);
-
-    String absoluteUrl = uriInfo.getAbsolutePathBuilder().build().toString();
-    String linkHeader = LinkHeaderUtil.getPagingLinkHeader(absoluteUrl, total, limit, offset);
-    Response.ResponseBuilder responseBuilder = Response.ok().entity(elements);
-    responseBuilder.header(CustomHttpConstants.HEADER_TOTAL_COUNT, String.valueOf(total));
-    if (!linkHeader.isEmpty()) {
-      responseBuilder.header(HttpConstants.HTTP_HEADER_LINK, linkHeader);
-    }
-    return responseBuilder.build();
+      Long total = getTotalCount(templateElementCounter, countParam);
+      if (page != null) {
+        return buildCursorPagedResponse(page, limit, total);
+      }
+      return buildOffsetPagedResponse(elements, limit, offset, total, templateElementCounter.isExact());
+    });
   }
 
   @PUT
   @Timed
   @Path("/{id}")
-  public Response updateTemplateElement(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(id).be(ValidUrl);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_UPDATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
+  @ManagedAsync
+  public void updateTemplateElement(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                    @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                    @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode newElement = c.request().getRequestBody().asJson();
+
+      enforceMandatoryFieldsInPut(id, newElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
+      enforceMandatoryName(newElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
+
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newElement, pi);
+
+      return validateAndUpdateTemplateElement(id, newElement, pi, c, ifMatch, null, JsonFormat.forAccept(accept));
+    });
+  }
+
+  @PATCH
+  @Timed
+  @Path("/{id}")
+  @Consumes({ArtifactMediaTypes.APPLICATION_MERGE_PATCH, ArtifactMediaTypes.APPLICATION_JSON_PATCH})
+  @ManagedAsync
+  public void patchTemplateElement(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                   @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+                                   @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                   @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode patch = c.request().getRequestBody().asJson();
+
+      VersionedArtifact currentTemplateElement;
+      try {
+        currentTemplateElement = templateElementStore.findVersioned(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
+            .errorMessage("The artifact element can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (currentTemplateElement == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
+            .errorMessage("The artifact element can not be found by id:" + id)
+            .build();
+      }
+      JsonFormat format = JsonFormat.forAccept(accept);
+      if (ifMatch != null && !matchesIfMatch(currentTemplateElement, ifMatch, format)) {
+        return preconditionFailed(id, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
+      }
 
-    JsonNode newElement = c.request().getRequestBody().asJson();
+      JsonNode newElement = applyPatch(contentType, currentTemplateElement.getArtifact(), patch);
 
-    enforceMandatoryFieldsInPut(id, newElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
-    enforceMandatoryName(newElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
+      enforceMandatoryFieldsInPut(id, newElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
+      enforceMandatoryName(newElement, CedarResourceType.ELEMENT, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
 
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    provenanceUtil.patchProvenanceInfo(newElement, pi);
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newElement, pi);
 
+      return validateAndUpdateTemplateElement(id, newElement, pi, c, null, currentTemplateElement, format);
+    });
+  }
+
+  /**
+   * Validates the new version of the artifact and stores it. A patched artifact comes with the version it was patched
+   * from, so that only the differences are written.
+   */
+  private Response validateAndUpdateTemplateElement(String id, JsonNode newElement, ProvenanceInfo pi,
+                                                    CedarRequestContext c, String ifMatch,
+                                                    VersionedArtifact currentTemplateElement, JsonFormat format)
+      throws CedarException {
     Response response = null;
     if (cedarConfig.getValidationConfig().isEnabled()) {
       ValidationReport validationReport = validateTemplateElement(newElement);
       ReportUtils.outputLogger(logger, validationReport, true);
       String validationStatus = validationReport.getValidationStatus();
       if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
-        response = updateTemplateElementInDatabase(id, newElement, pi, c);
+        response = updateTemplateElementInDatabase(id, newElement, pi, c, ifMatch, currentTemplateElement, format);
       } else {
         response = CedarResponse.badRequest()
             .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
@@ -232,26 +359,30 @@ public class TemplateElementsResource extends AbstractArtifactServerResource {
             .build();
       }
     } else {
-      response = updateTemplateElementInDatabase(id, newElement, pi, c);
+      response = updateTemplateElementInDatabase(id, newElement, pi, c, ifMatch, currentTemplateElement, format);
     }
     return response;
   }
 
-  private Response updateTemplateElementInDatabase(String elementId, JsonNode updatedElement, ProvenanceInfo pi, CedarRequestContext c) throws CedarException {
-    JsonNode outputTemplateElement = null;
-    CreateOrUpdate createOrUpdate = null;
+  private Response updateTemplateElementInDatabase(String elementId, JsonNode updatedElement, ProvenanceInfo pi,
+                                                   CedarRequestContext c, String ifMatch,
+                                                   VersionedArtifact currentTemplateElement, JsonFormat format)
+      throws CedarException {
     try {
-      JsonNode currentTemplateElement = templateElementService.findTemplateElement(elementId);
       ModelUtil.ensureFieldIdsRecursively(updatedElement, pi, provenanceUtil, linkedDataUtil);
+      CreateOrUpdate createOrUpdate;
       if (currentTemplateElement != null) {
-        createOrUpdate = CreateOrUpdate.UPDATE;
-        outputTemplateElement = templateElementService.updateTemplateElement(elementId, updatedElement);
+        createOrUpdate = updateArtifactIfUnchanged(templateElementStore, elementId,
+            currentTemplateElement, updatedElement);
+      } else if (ifMatch != null) {
+        createOrUpdate = saveArtifactIfMatch(templateElementStore, elementId, updatedElement,
+            templateElementStore.findVersioned(elementId), ifMatch, format);
       } else {
-        c.must(elementId).be(ValidId);
-        createOrUpdate = CreateOrUpdate.CREATE;
-        outputTemplateElement = templateElementService.createTemplateElement(updatedElement);
+        createOrUpdate = saveArtifact(c, templateElementStore, elementId, updatedElement);
+      }
+      if (createOrUpdate == null) {
+        return preconditionFailed(elementId, CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED);
       }
-      MongoUtils.removeIdField(outputTemplateElement);
       CedarResponse.CedarResponseBuilder responseBuilder = null;
       if (createOrUpdate == CreateOrUpdate.UPDATE) {
         responseBuilder = CedarResponse.ok();
@@ -261,51 +392,55 @@ public class TemplateElementsResource extends AbstractArtifactServerResource {
       }
       return responseBuilder
           .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_VALID)
-          .entity(outputTemplateElement)
+          .header(HttpHeaders.ETAG, EntityTagUtil.of(updatedElement, format).toString())
+          .entity(updatedElement)
           .build();
-    } catch (IOException | ArtifactServerResourceNotFoundException e) {
-      CedarResponse.CedarResponseBuilder responseBuilder = CedarResponse.internalServerError()
+    } catch (IOException e) {
+      return CedarResponse.internalServerError()
           .id(elementId)
-          .exception(e);
-      if (createOrUpdate == CreateOrUpdate.CREATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_CREATED)
-            .errorMessage("The artifact element can not be created using id:" + elementId);
-      } else if (createOrUpdate == CreateOrUpdate.UPDATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED)
-            .errorMessage("The artifact element can not be updated by id:" + elementId);
-      }
-      return responseBuilder.build();
+          .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_UPDATED)
+          .errorMessage("The artifact element can not be created or updated using id:" + elementId)
+          .exception(e)
+          .build();
     }
   }
 
   @DELETE
   @Timed
   @Path("/{id}")
-  public Response deleteTemplateElement(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_DELETE);
-    c.must(id).be(ValidUrl);
+  @ManagedAsync
+  public void deleteTemplateElement(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                    @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                    @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_ELEMENT_DELETE);
+      c.must(id).be(ValidUrl);
 
-    try {
-      templateElementService.deleteTemplateElement(id);
-    } catch (ArtifactServerResourceNotFoundException e) {
-      return CedarResponse.notFound()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
-          .errorMessage("The artifact element can not be found by id:" + id)
-          .exception(e)
-          .build();
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_DELETED)
-          .errorMessage("The artifact element can not be deleted by id:" + id)
-          .exception(e)
-          .build();
-    }
-    return CedarResponse.noContent().build();
+      try {
+        if (ifMatch == null) {
+          templateElementService.deleteTemplateElement(id);
+        } else if (!deleteArtifactIfMatch(templateElementStore, id, templateElementStore.findVersioned(id), ifMatch,
+            JsonFormat.forAccept(accept))) {
+          return preconditionFailed(id, CedarErrorKey.TEMPLATE_ELEMENT_NOT_DELETED);
+        }
+      } catch (ArtifactServerResourceNotFoundException e) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_FOUND)
+            .errorMessage("The artifact element can not be found by id:" + id)
+            .exception(e)
+            .build();
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_ELEMENT_NOT_DELETED)
+            .errorMessage("The artifact element can not be deleted by id:" + id)
+            .exception(e)
+            .build();
+      }
+      return CedarResponse.noContent().build();
+    });
   }
 }
@@ -2,9 +2,23 @@ package org.metadatacenter.cedar.artifact.resources;
 
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.glassfish.jersey.server.ManagedAsync;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.http.EntityTagUtil;
+import org.metadatacenter.cedar.artifact.http.JsonFormat;
+import org.metadatacenter.cedar.artifact.http.PATCH;
+import org.metadatacenter.cedar.artifact.http.RequestExecutor;
+import org.metadatacenter.cedar.artifact.metrics.StageMetrics;
+import org.metadatacenter.cedar.artifact.metrics.StageTimings;
+import org.metadatacenter.cedar.artifact.paging.PageCursor;
+import org.metadatacenter.cedar.artifact.paging.TotalCounter;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.cedar.artifact.validation.ModelValidatorPool;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.constant.CustomHttpConstants;
-import org.metadatacenter.constant.HttpConstants;
 import org.metadatacenter.error.CedarErrorKey;
 import org.metadatacenter.error.CedarErrorReasonKey;
 import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
@@ -21,87 +35,115 @@ import org.metadatacenter.server.service.FieldNameInEx;
 import org.metadatacenter.server.service.TemplateFieldService;
 import org.metadatacenter.util.http.CedarResponse;
 import org.metadatacenter.util.http.CedarUrlUtil;
-import org.metadatacenter.util.http.LinkHeaderUtil;
 import org.metadatacenter.util.http.PagedQuery;
-import org.metadatacenter.util.mongo.MongoUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
 
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_COUNT;
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_CURSOR;
 import static org.metadatacenter.constant.CedarPathParameters.PP_ID;
 import static org.metadatacenter.constant.CedarQueryParameters.*;
 import static org.metadatacenter.rest.assertion.GenericAssertions.*;
 
 @Path("/template-fields")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, ArtifactMediaTypes.APPLICATION_SMILE, ArtifactMediaTypes.APPLICATION_CBOR})
 public class TemplateFieldsResource extends AbstractArtifactServerResource {
 
   private static final Logger logger = LoggerFactory.getLogger(TemplateFieldsResource.class);
 
   private static TemplateFieldService<String, JsonNode> templateFieldService;
+  private static ArtifactStore templateFieldStore;
+  private static TotalCounter templateFieldCounter;
+  private static StageMetrics stageMetrics;
 
   protected static List<String> FIELD_NAMES_SUMMARY_LIST;
 
-  public TemplateFieldsResource(CedarConfig cedarConfig, TemplateFieldService<String, JsonNode> templateFieldService) {
-    super(cedarConfig);
+  public TemplateFieldsResource(CedarConfig cedarConfig, ModelValidatorPool validatorPool,
+                                RequestExecutor requestExecutor,
+                                TemplateFieldService<String, JsonNode> templateFieldService,
+                                ArtifactStore templateFieldStore,
+                                TotalCounter templateFieldCounter,
+                                StageMetrics stageMetrics) {
+    super(cedarConfig, validatorPool, requestExecutor);
     TemplateFieldsResource.templateFieldService = templateFieldService;
+    TemplateFieldsResource.templateFieldStore = templateFieldStore;
+    TemplateFieldsResource.templateFieldCounter = templateFieldCounter;
+    TemplateFieldsResource.stageMetrics = stageMetrics;
     FIELD_NAMES_SUMMARY_LIST = new ArrayList<>();
     FIELD_NAMES_SUMMARY_LIST.addAll(cedarConfig.getArtifactRESTAPI().getSummaries().getField().getFields());
   }
 
   @POST
   @Timed
-  public Response createTemplateField() throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_CREATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
+  @ManagedAsync
+  public void createTemplateField(@Suspended AsyncResponse asyncResponse,
+                                  @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      StageTimings timings = stageMetrics.start(CedarResourceType.FIELD);
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_CREATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+      timings.mark(StageMetrics.AUTHORIZE);
 
-    JsonNode templateField = c.request().getRequestBody().asJson();
+      JsonNode templateField = c.request().getRequestBody().asJson();
+      timings.mark(StageMetrics.PARSE);
 
-    enforceMandatoryNullOrMissingId(templateField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_CREATED);
-    enforceMandatoryName(templateField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_CREATED);
+      enforceMandatoryNullOrMissingId(templateField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_CREATED);
+      enforceMandatoryName(templateField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_CREATED);
+      timings.mark(StageMetrics.ENFORCE);
 
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    setProvenanceAndId(CedarResourceType.FIELD, templateField, pi);
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      setProvenanceAndId(CedarResourceType.FIELD, templateField, pi);
+      timings.mark(StageMetrics.PROVENANCE);
 
-    Response response = null;
-    if (cedarConfig.getValidationConfig().isEnabled()) {
-      ValidationReport validationReport = validateTemplateField(templateField);
-      ReportUtils.outputLogger(logger, validationReport, true);
-      String validationStatus = validationReport.getValidationStatus();
-      if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
-        response = storeTemplateFieldInDatabase(templateField);
+      Response response = null;
+      if (cedarConfig.getValidationConfig().isEnabled()) {
+        ValidationReport validationReport = validateTemplateField(templateField);
+        timings.mark(StageMetrics.VALIDATE);
+        ReportUtils.outputLogger(logger, validationReport, true);
+        String validationStatus = validationReport.getValidationStatus();
+        if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
+          response = storeTemplateFieldInDatabase(templateField, JsonFormat.forAccept(accept));
+          timings.mark(StageMetrics.STORE);
+        } else {
+          response = CedarResponse.badRequest()
+              .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
+              .errorKey(CedarErrorKey.INVALID_DATA)
+              .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
+              .errorMessage(concatenateValidationMessages(validationReport))
+              .object("validationReport", validationReport)
+              .build();
+        }
       } else {
-        response = CedarResponse.badRequest()
-            .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
-            .errorKey(CedarErrorKey.INVALID_DATA)
-            .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
-            .errorMessage(concatenateValidationMessages(validationReport))
-            .object("validationReport", validationReport)
-            .build();
+        response = storeTemplateFieldInDatabase(templateField, JsonFormat.forAccept(accept));
+        timings.mark(StageMetrics.STORE);
       }
-    } else {
-      response = storeTemplateFieldInDatabase(templateField);
-    }
-    return response;
+      return timings.addServerTiming(response);
+    });
   }
 
-  private Response storeTemplateFieldInDatabase(JsonNode templateField) {
+  private Response storeTemplateFieldInDatabase(JsonNode templateField, JsonFormat format) {
     try {
-      JsonNode createdTemplateField = templateFieldService.createTemplateField(templateField);
-      MongoUtils.removeIdField(createdTemplateField);
-      String id = createdTemplateField.get("@id").asText();
+      // Written through the store, so that the field has a revision for the conditional writes from the start
+      templateFieldStore.insert(templateField);
+      String id = templateField.get("@id").asText();
       URI createdFieldUri = CedarUrlUtil.getIdURI(uriInfo, id);
       return CedarResponse.created(createdFieldUri)
           .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_VALID)
-          .entity(createdTemplateField).build();
+          .header(HttpHeaders.ETAG, EntityTagUtil.of(templateField, format).toString())
+          .entity(templateField).build();
     } catch (IOException e) {
       return CedarResponse.internalServerError()
           .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_CREATED)
@@ -114,111 +156,194 @@ public class TemplateFieldsResource extends AbstractArtifactServerResource {
   @GET
   @Timed
   @Path("/{id}")
-  public Response findTemplateField(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_READ);
-    c.must(id).be(ValidUrl);
+  @ManagedAsync
+  public void findTemplateField(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_READ);
+      c.must(id).be(ValidUrl);
 
-    JsonNode templateField = null;
-    try {
-      templateField = templateFieldService.findTemplateField(id);
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
-          .errorMessage("The artifact field can not be found by id:" + id)
-          .exception(e)
-          .build();
-    }
-    if (templateField == null) {
-      return CedarResponse.notFound()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
-          .errorMessage("The artifact field can not be found by id:" + id)
-          .build();
-    } else {
-      MongoUtils.removeIdField(templateField);
-      return Response.ok().entity(templateField).build();
-    }
+      RawArtifact templateField;
+      try {
+        templateField = templateFieldStore.findRaw(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
+            .errorMessage("The artifact field can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (templateField == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
+            .errorMessage("The artifact field can not be found by id:" + id)
+            .build();
+      } else {
+        // Every format has its own tag, so the response is sent in the format the tag is built for
+        JsonFormat format = JsonFormat.forAccept(accept);
+        EntityTag entityTag = EntityTagUtil.of(templateField, format);
+        if (EntityTagUtil.matchesWeakly(ifNoneMatch, entityTag)) {
+          return Response.notModified(entityTag).build();
+        }
+        return Response.ok(templateField, format.getMediaType()).tag(entityTag).build();
+      }
+    });
   }
 
   @GET
   @Timed
-  public Response findAllTemplateFields(@QueryParam(QP_LIMIT) Optional<Integer> limitParam,
-                                        @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
-                                        @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
-                                        @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam) throws CedarException {
-
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_READ);
-
-    PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
-        .limit(limitParam)
-        .offset(offsetParam);
-    pagedQuery.validate();
-
-    Integer limit = pagedQuery.getLimit();
-    Integer offset = pagedQuery.getOffset();
-    Boolean summary = ensureSummary(summaryParam);
-
-    List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
-    Map<String, Object> r = new HashMap<>();
-    List<JsonNode> fields = null;
-    try {
-      if (summary) {
-        fields = templateFieldService.findAllTemplateFields(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
-      } else if (fieldNameList != null) {
-        fields = templateFieldService.findAllTemplateFields(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
-      } else {
-        fields = templateFieldService.findAllTemplateFields(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+  @ManagedAsync
+  public void findAllTemplateFields(@Suspended AsyncResponse asyncResponse,
+                                    @QueryParam(QP_LIMIT) Optional<Integer> limitParam,
+                                    @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
+                                    @QueryParam(QP_CURSOR) Optional<String> cursorParam,
+                                    @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
+                                    @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam,
+                                    @QueryParam(QP_COUNT) Optional<Boolean> countParam) {
+    respond(asyncResponse, () -> {
+
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_READ);
+
+      PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
+          .limit(limitParam)
+          .offset(offsetParam);
+      pagedQuery.validate();
+      PageCursor cursor = getAndCheckCursor(cursorParam, offsetParam);
+
+      Integer limit = pagedQuery.getLimit();
+      Integer offset = pagedQuery.getOffset();
+      Boolean summary = ensureSummary(summaryParam);
+
+      List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
+      Map<String, Object> r = new HashMap<>();
+      List<JsonNode> fields = null;
+      ArtifactPage page = null;
+      try {
+        if (cursor != null) {
+          page = findPage(templateFieldStore, cursor, limit, summary, FIELD_NAMES_SUMMARY_LIST, fieldNameList);
+        } else if (summary) {
+          fields = templateFieldService.findAllTemplateFields(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
+        } else if (fieldNameList != null) {
+          fields = templateFieldService.findAllTemplateFields(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
+        } else {
+          fields = templateFieldService.findAllTemplateFields(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+        }
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .errorKey(CedarErrorKey.TEMPLATE_FIELDS_NOT_LISTED)
+            .errorMessage("The artifact fields can not be listed")
+            .exception(e)
+            .build();
       }
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .errorKey(CedarErrorKey.TEMPLATE_FIELDS_NOT_LISTED)
-          .errorMessage("The artifact fields can not be listed")
-          .exception(e)
-          .build();
-    }
-    long total = templateFieldService.count();
-    checkPagingParametersAgainstTotal(offset, total);
-
-    String absoluteUrl = uriInfo.getAbsolutePathBuilder().build().toString();
-    String linkHeader = LinkHeaderUtil.getPagingLinkHeader(absoluteUrl, total, limit, offset);
-    Response.ResponseBuilder responseBuilder = Response.ok().entity(fields);
-    responseBuilder.header(CustomHttpConstants.HEADER_TOTAL_COUNT, String.valueOf(total));
-    if (!linkHeader.isEmpty()) {
-      responseBuilder.header(HttpConstants.HTTP_HEADER_LINK, linkHeader);
-    }
-    return responseBuilder.build();
+      Long total = getTotalCount(templateFieldCounter, countParam);
+      if (page != null) {
+        return buildCursorPagedResponse(page, limit, total);
+      }
+      return buildOffsetPagedResponse(fields, limit, offset, total, templateFieldCounter.isExact());
+    });
   }
 
   @PUT
   @Timed
   @Path("/{id}")
-  public Response updateTemplateField(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(id).be(ValidUrl);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_UPDATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
+  @ManagedAsync
+  public void updateTemplateField(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                  @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                  @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode newField = c.request().getRequestBody().asJson();
+
+      enforceMandatoryFieldsInPut(id, newField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
+      enforceMandatoryName(newField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
+
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newField, pi);
+
+      return validateAndUpdateTemplateField(id, newField, pi, c, ifMatch, null, JsonFormat.forAccept(accept));
+    });
+  }
+
+  @PATCH
+  @Timed
+  @Path("/{id}")
+  @Consumes({ArtifactMediaTypes.APPLICATION_MERGE_PATCH, ArtifactMediaTypes.APPLICATION_JSON_PATCH})
+  @ManagedAsync
+  public void patchTemplateField(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                 @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+                                 @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                 @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode patch = c.request().getRequestBody().asJson();
+
+      VersionedArtifact currentTemplateField;
+      try {
+        currentTemplateField = templateFieldStore.findVersioned(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
+            .errorMessage("The artifact field can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (currentTemplateField == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
+            .errorMessage("The artifact field can not be found by id:" + id)
+            .build();
+      }
+      JsonFormat format = JsonFormat.forAccept(accept);
+      if (ifMatch != null && !matchesIfMatch(currentTemplateField, ifMatch, format)) {
+        return preconditionFailed(id, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
+      }
 
-    JsonNode newField = c.request().getRequestBody().asJson();
+      JsonNode newField = applyPatch(contentType, currentTemplateField.getArtifact(), patch);
 
-    enforceMandatoryFieldsInPut(id, newField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
-    enforceMandatoryName(newField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
+      enforceMandatoryFieldsInPut(id, newField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
+      enforceMandatoryName(newField, CedarResourceType.FIELD, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
 
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    provenanceUtil.patchProvenanceInfo(newField, pi);
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newField, pi);
 
+      return validateAndUpdateTemplateField(id, newField, pi, c, null, currentTemplateField, format);
+    });
+  }
+
+  /**
+   * Validates the new version of the artifact and stores it. A patched artifact comes with the version it was patched
+   * from, so that only the differences are written.
+   */
+  private Response validateAndUpdateTemplateField(String id, JsonNode newField, ProvenanceInfo pi,
+                                                  CedarRequestContext c, String ifMatch,
+                                                  VersionedArtifact currentTemplateField, JsonFormat format)
+      throws CedarException {
     Response response = null;
     if (cedarConfig.getValidationConfig().isEnabled()) {
       ValidationReport validationReport = validateTemplateField(newField);
       ReportUtils.outputLogger(logger, validationReport, true);
       String validationStatus = validationReport.getValidationStatus();
       if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
-        response = updateTemplateFieldInDatabase(id, newField, pi, c);
+        response = updateTemplateFieldInDatabase(id, newField, pi, c, ifMatch, currentTemplateField, format);
       } else {
         response = CedarResponse.badRequest()
             .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
@@ -229,25 +354,30 @@ public class TemplateFieldsResource extends AbstractArtifactServerResource {
             .build();
       }
     } else {
-      response = updateTemplateFieldInDatabase(id, newField, pi, c);
+      response = updateTemplateFieldInDatabase(id, newField, pi, c, ifMatch, currentTemplateField, format);
     }
     return response;
   }
 
-  private Response updateTemplateFieldInDatabase(String fieldId, JsonNode updatedField, ProvenanceInfo pi, CedarRequestContext c) throws CedarException {
-    JsonNode outputTemplateField = null;
-    CreateOrUpdate createOrUpdate = null;
+  private Response updateTemplateFieldInDatabase(String fieldId, JsonNode updatedField, ProvenanceInfo pi,
+                                                 CedarRequestContext c, String ifMatch,
+                                                 VersionedArtifact currentTemplateField, JsonFormat format)
+      throws CedarException {
     try {
-      JsonNode currentTemplateField = templateFieldService.findTemplateField(fieldId);
+      ModelUtil.ensureFieldIdsRecursively(updatedField, pi, provenanceUtil, linkedDataUtil);
+      CreateOrUpdate createOrUpdate;
       if (currentTemplateField != null) {
-        createOrUpdate = CreateOrUpdate.UPDATE;
-        outputTemplateField = templateFieldService.updateTemplateField(fieldId, updatedField);
+        createOrUpdate = updateArtifactIfUnchanged(templateFieldStore, fieldId,
+            currentTemplateField, updatedField);
+      } else if (ifMatch != null) {
+        createOrUpdate = saveArtifactIfMatch(templateFieldStore, fieldId, updatedField,
+            templateFieldStore.findVersioned(fieldId), ifMatch, format);
       } else {
-        c.must(fieldId).be(ValidId);
-        createOrUpdate = CreateOrUpdate.CREATE;
-        outputTemplateField = templateFieldService.createTemplateField(updatedField);
+        createOrUpdate = saveArtifact(c, templateFieldStore, fieldId, updatedField);
+      }
+      if (createOrUpdate == null) {
+        return preconditionFailed(fieldId, CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED);
       }
-      MongoUtils.removeIdField(outputTemplateField);
       CedarResponse.CedarResponseBuilder responseBuilder = null;
       if (createOrUpdate == CreateOrUpdate.UPDATE) {
         responseBuilder = CedarResponse.ok();
@@ -257,51 +387,55 @@ public class TemplateFieldsResource extends AbstractArtifactServerResource {
       }
       return responseBuilder
           .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_VALID)
-          .entity(outputTemplateField)
+          .header(HttpHeaders.ETAG, EntityTagUtil.of(updatedField, format).toString())
+          .entity(updatedField)
           .build();
-    } catch (IOException | ArtifactServerResourceNotFoundException e) {
-      CedarResponse.CedarResponseBuilder responseBuilder = CedarResponse.internalServerError()
+    } catch (IOException e) {
+      return CedarResponse.internalServerError()
           .id(fieldId)
-          .exception(e);
-      if (createOrUpdate == CreateOrUpdate.CREATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_CREATED)
-            .errorMessage("The artifact field can not be created using id:" + fieldId);
-      } else if (createOrUpdate == CreateOrUpdate.UPDATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED)
-            .errorMessage("The artifact field can not be updated by id:" + fieldId);
-      }
-      return responseBuilder.build();
+          .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_UPDATED)
+          .errorMessage("The artifact field can not be created or updated using id:" + fieldId)
+          .exception(e)
+          .build();
     }
   }
 
   @DELETE
   @Timed
   @Path("/{id}")
-  public Response deleteTemplateField(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_DELETE);
-    c.must(id).be(ValidUrl);
+  @ManagedAsync
+  public void deleteTemplateField(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                  @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                  @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_FIELD_DELETE);
+      c.must(id).be(ValidUrl);
 
-    try {
-      templateFieldService.deleteTemplateField(id);
-    } catch (ArtifactServerResourceNotFoundException e) {
-      return CedarResponse.notFound()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
-          .errorMessage("The artifact field can not be found by id:" + id)
-          .exception(e)
-          .build();
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_DELETED)
-          .errorMessage("The artifact field can not be deleted by id:" + id)
-          .exception(e)
-          .build();
-    }
-    return CedarResponse.noContent().build();
+      try {
+        if (ifMatch == null) {
+          templateFieldService.deleteTemplateField(id);
+        } else if (!deleteArtifactIfMatch(templateFieldStore, id, templateFieldStore.findVersioned(id), ifMatch,
+            JsonFormat.forAccept(accept))) {
+          return preconditionFailed(id, CedarErrorKey.TEMPLATE_FIELD_NOT_DELETED);
+        }
+      } catch (ArtifactServerResourceNotFoundException e) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_FOUND)
+            .errorMessage("The artifact field can not be found by id:" + id)
+            .exception(e)
+            .build();
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_FIELD_NOT_DELETED)
+            .errorMessage("The artifact field can not be deleted by id:" + id)
+            .exception(e)
+            .build();
+      }
+      return CedarResponse.noContent().build();
+    });
   }
 }
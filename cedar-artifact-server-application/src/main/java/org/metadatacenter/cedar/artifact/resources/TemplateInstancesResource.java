@@ -2,18 +2,48 @@ package org.metadatacenter.cedar.artifact.resources;
 
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.github.jsonldjava.core.DocumentLoader;
 import com.github.jsonldjava.core.JsonLdError;
+import com.mongodb.MongoException;
+import org.glassfish.jersey.server.ManagedAsync;
+import org.metadatacenter.cedar.artifact.bulk.BulkItemResult;
+import org.metadatacenter.cedar.artifact.bulk.BulkResult;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchema;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchemaCache;
+import org.metadatacenter.cedar.artifact.cache.ValidInstanceVersions;
+import org.metadatacenter.cedar.artifact.config.BulkConfig;
+import org.metadatacenter.cedar.artifact.config.IncrementalValidationConfig;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.http.EntityTagUtil;
+import org.metadatacenter.cedar.artifact.http.JsonFormat;
+import org.metadatacenter.cedar.artifact.http.PATCH;
+import org.metadatacenter.cedar.artifact.http.RequestExecutor;
+import org.metadatacenter.cedar.artifact.metrics.StageMetrics;
+import org.metadatacenter.cedar.artifact.metrics.StageTimings;
+import org.metadatacenter.cedar.artifact.paging.PageCursor;
+import org.metadatacenter.cedar.artifact.paging.TotalCounter;
+import org.metadatacenter.cedar.artifact.rdf.NQuadsStreamingOutput;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+import org.metadatacenter.cedar.artifact.store.BulkInsertResult;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.cedar.artifact.validation.InstanceChangeSet;
+import org.metadatacenter.cedar.artifact.validation.ModelValidatorPool;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.constant.CustomHttpConstants;
-import org.metadatacenter.constant.HttpConstants;
 import org.metadatacenter.constant.LinkedData;
 import org.metadatacenter.error.CedarErrorKey;
+import org.metadatacenter.error.CedarErrorPack;
 import org.metadatacenter.error.CedarErrorReasonKey;
 import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
+import org.metadatacenter.exception.CedarBadRequestException;
 import org.metadatacenter.exception.CedarException;
 import org.metadatacenter.exception.CedarProcessingException;
 import org.metadatacenter.model.CedarResourceType;
 import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.model.core.CedarModelVocabulary;
 import org.metadatacenter.model.request.OutputFormatType;
 import org.metadatacenter.model.request.OutputFormatTypeDetector;
 import org.metadatacenter.model.trimmer.JsonLdDocument;
@@ -26,94 +56,144 @@ import org.metadatacenter.server.model.provenance.ProvenanceInfo;
 import org.metadatacenter.server.security.model.auth.CedarPermission;
 import org.metadatacenter.server.service.FieldNameInEx;
 import org.metadatacenter.server.service.TemplateInstanceService;
-import org.metadatacenter.server.service.TemplateService;
 import org.metadatacenter.util.http.CedarResponse;
 import org.metadatacenter.util.http.CedarUrlUtil;
-import org.metadatacenter.util.http.LinkHeaderUtil;
 import org.metadatacenter.util.http.PagedQuery;
-import org.metadatacenter.util.mongo.MongoUtils;
+import org.metadatacenter.util.json.JsonMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_COUNT;
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_CURSOR;
 import static org.metadatacenter.constant.CedarPathParameters.PP_ID;
 import static org.metadatacenter.constant.CedarQueryParameters.*;
 import static org.metadatacenter.rest.assertion.GenericAssertions.*;
 
 @Path("/template-instances")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, ArtifactMediaTypes.APPLICATION_SMILE, ArtifactMediaTypes.APPLICATION_CBOR})
 public class TemplateInstancesResource extends AbstractArtifactServerResource {
 
   private static final Logger logger = LoggerFactory.getLogger(TemplateInstancesResource.class);
 
   private final TemplateInstanceService<String, JsonNode> templateInstanceService;
-  private final TemplateService<String, JsonNode> templateService;
+  private final ArtifactStore templateInstanceStore;
+  private final TotalCounter templateInstanceCounter;
+  private final InstanceSchemaCache instanceSchemaCache;
+  private final DocumentLoader documentLoader;
+  private final ExecutorService validationExecutor;
+  private final BulkConfig bulkConfig;
+  private final IncrementalValidationConfig incrementalValidationConfig;
+  private final ValidInstanceVersions validInstanceVersions;
+  private final StageMetrics stageMetrics;
 
   protected static List<String> FIELD_NAMES_SUMMARY_LIST;
 
-  public TemplateInstancesResource(CedarConfig cedarConfig, TemplateInstanceService<String, JsonNode> templateInstanceService,
-                                   TemplateService<String, JsonNode> templateService) {
-    super(cedarConfig);
+  public TemplateInstancesResource(CedarConfig cedarConfig, ModelValidatorPool validatorPool,
+                                   RequestExecutor requestExecutor,
+                                   TemplateInstanceService<String, JsonNode> templateInstanceService,
+                                   ArtifactStore templateInstanceStore,
+                                   TotalCounter templateInstanceCounter,
+                                   InstanceSchemaCache instanceSchemaCache,
+                                   DocumentLoader documentLoader,
+                                   ExecutorService validationExecutor,
+                                   BulkConfig bulkConfig,
+                                   IncrementalValidationConfig incrementalValidationConfig,
+                                   ValidInstanceVersions validInstanceVersions,
+                                   StageMetrics stageMetrics) {
+    super(cedarConfig, validatorPool, requestExecutor);
     this.templateInstanceService = templateInstanceService;
-    this.templateService = templateService;
+    this.templateInstanceStore = templateInstanceStore;
+    this.templateInstanceCounter = templateInstanceCounter;
+    this.instanceSchemaCache = instanceSchemaCache;
+    this.documentLoader = documentLoader;
+    this.validationExecutor = validationExecutor;
+    this.bulkConfig = bulkConfig;
+    this.incrementalValidationConfig = incrementalValidationConfig;
+    this.validInstanceVersions = validInstanceVersions;
+    this.stageMetrics = stageMetrics;
     FIELD_NAMES_SUMMARY_LIST = new ArrayList<>();
     FIELD_NAMES_SUMMARY_LIST.addAll(cedarConfig.getArtifactRESTAPI().getSummaries().getInstance().getFields());
   }
 
   @POST
   @Timed
-  public Response createTemplateInstance() throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_CREATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
-
-    JsonNode templateInstance = c.request().getRequestBody().asJson();
-
-    enforceMandatoryNullOrMissingId(templateInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
-    enforceMandatoryName(templateInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
-
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    setProvenanceAndId(CedarResourceType.INSTANCE, templateInstance, pi);
-
-    Response response = null;
-    if (cedarConfig.getValidationConfig().isEnabled()) {
-      ValidationReport validationReport = validateTemplateInstance(templateInstance);
-      ReportUtils.outputLogger(logger, validationReport, true);
-      String validationStatus = validationReport.getValidationStatus();
-      if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
-        response = storeTemplateInstanceInDatabase(templateInstance);
+  @ManagedAsync
+  public void createTemplateInstance(@Suspended AsyncResponse asyncResponse,
+                                     @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      StageTimings timings = stageMetrics.start(CedarResourceType.INSTANCE);
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_CREATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+      timings.mark(StageMetrics.AUTHORIZE);
+
+      JsonNode templateInstance = c.request().getRequestBody().asJson();
+      timings.mark(StageMetrics.PARSE);
+
+      enforceMandatoryNullOrMissingId(templateInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
+      enforceMandatoryName(templateInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
+      timings.mark(StageMetrics.ENFORCE);
+
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      setProvenanceAndId(CedarResourceType.INSTANCE, templateInstance, pi);
+      timings.mark(StageMetrics.PROVENANCE);
+
+      Response response = null;
+      if (cedarConfig.getValidationConfig().isEnabled()) {
+        InstanceSchema instanceSchema = getInstanceSchema(templateInstance);
+        timings.mark(StageMetrics.SCHEMA);
+        ValidationReport validationReport = validateTemplateInstance(templateInstance, instanceSchema.getSchema());
+        timings.mark(StageMetrics.VALIDATE);
+        ReportUtils.outputLogger(logger, validationReport, true);
+        String validationStatus = validationReport.getValidationStatus();
+        if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
+          response = storeTemplateInstanceInDatabase(templateInstance, JsonFormat.forAccept(accept));
+          timings.mark(StageMetrics.STORE);
+        } else {
+          response = CedarResponse.badRequest()
+              .errorMessage(concatenateValidationMessages(validationReport))
+              .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
+              .errorKey(CedarErrorKey.INVALID_DATA)
+              .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
+              .errorMessage("There was an error while validating the artifact")
+              .object("validationReport", validationReport)
+              .build();
+        }
       } else {
-        response = CedarResponse.badRequest()
-            .errorMessage(concatenateValidationMessages(validationReport))
-            .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
-            .errorKey(CedarErrorKey.INVALID_DATA)
-            .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
-            .errorMessage("There was an error while validating the artifact")
-            .object("validationReport", validationReport)
-            .build();
+        response = storeTemplateInstanceInDatabase(templateInstance, JsonFormat.forAccept(accept));
+        timings.mark(StageMetrics.STORE);
       }
-    } else {
-      response = storeTemplateInstanceInDatabase(templateInstance);
-    }
-    return response;
+      return timings.addServerTiming(response);
+    });
   }
 
-  private Response storeTemplateInstanceInDatabase(JsonNode templateInstance) {
+  private Response storeTemplateInstanceInDatabase(JsonNode templateInstance, JsonFormat format) {
     try {
-      JsonNode createdTemplateInstance = templateInstanceService.createTemplateInstance(templateInstance);
-      MongoUtils.removeIdField(createdTemplateInstance);
-      String id = createdTemplateInstance.get(LinkedData.ID).asText();
+      // Written through the store, so that the instance has a revision for the conditional writes from the start
+      templateInstanceStore.insert(templateInstance);
+      String id = templateInstance.get(LinkedData.ID).asText();
       URI uri = CedarUrlUtil.getIdURI(uriInfo, id);
       return CedarResponse.created(uri)
           .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_VALID)
-          .entity(createdTemplateInstance).build();
+          .header(HttpHeaders.ETAG, EntityTagUtil.of(templateInstance, format).toString())
+          .entity(templateInstance).build();
     } catch (IOException e) {
       return CedarResponse.internalServerError()
           .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED)
@@ -123,18 +203,206 @@ public class TemplateInstancesResource extends AbstractArtifactServerResource {
     }
   }
 
+  @POST
+  @Timed
+  @Path("/bulk")
+  @Consumes({MediaType.APPLICATION_JSON, ArtifactMediaTypes.APPLICATION_NDJSON})
+  @ManagedAsync
+  public void createTemplateInstances(@Suspended AsyncResponse asyncResponse, InputStream body) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_CREATE);
+
+      List<JsonNode> templateInstances = readBulkItems(body, bulkConfig.getMaximumItems());
+      BulkItemResult[] results = new BulkItemResult[templateInstances.size()];
+
+      // An item which fails a check gets its result, and is not processed further
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      boolean validationEnabled = cedarConfig.getValidationConfig().isEnabled();
+      for (int i = 0; i < templateInstances.size(); i++) {
+        JsonNode templateInstance = templateInstances.get(i);
+        if (!templateInstance.isObject()) {
+          results[i] = BulkItemResult.badRequest(i, "The artifact instance must be a JSON object");
+          continue;
+        }
+        try {
+          enforceMandatoryNullOrMissingId(templateInstance, CedarResourceType.INSTANCE,
+              CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
+          enforceMandatoryName(templateInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
+          if (validationEnabled) {
+            checkInstanceSchemaExists(templateInstance);
+          }
+        } catch (CedarException e) {
+          results[i] = BulkItemResult.badRequest(i, e.getMessage());
+          continue;
+        }
+        setProvenanceAndId(CedarResourceType.INSTANCE, templateInstance, pi);
+      }
+
+      if (validationEnabled) {
+        validateBulkItems(templateInstances, results);
+      }
+      storeBulkItems(templateInstances, results);
+      return Response.ok(new BulkResult(results, Response.Status.CREATED.getStatusCode())).build();
+    });
+  }
+
+  private static List<JsonNode> readBulkItems(InputStream body, int maximumItems) throws CedarException {
+    List<JsonNode> items = new ArrayList<>();
+    // A top-level array is unwrapped, otherwise the values are read one after the other, as in NDJSON
+    try (MappingIterator<JsonNode> iterator = JsonMapper.MAPPER.readerFor(JsonNode.class).readValues(body)) {
+      while (iterator.hasNextValue()) {
+        if (items.size() == maximumItems) {
+          throw new CedarBadRequestException(new CedarErrorPack()
+              .message("The request can not contain more than " + maximumItems + " artifact instances")
+              .parameter("maximumItems", maximumItems)
+              .errorKey(CedarErrorKey.INVALID_INPUT));
+        }
+        items.add(iterator.nextValue());
+      }
+    } catch (IOException e) {
+      throw new CedarBadRequestException(new CedarErrorPack()
+          .message("The request body must be a JSON array or newline-delimited JSON")
+          .errorKey(CedarErrorKey.INVALID_INPUT));
+    }
+    if (items.isEmpty()) {
+      throw new CedarBadRequestException(new CedarErrorPack()
+          .message("The request body does not contain any artifact instance")
+          .errorKey(CedarErrorKey.INVALID_INPUT));
+    }
+    return items;
+  }
+
+  private void validateBulkItems(List<JsonNode> templateInstances, BulkItemResult[] results) {
+    // Every template is resolved once for the whole batch, before the items are validated in parallel
+    Map<String, InstanceSchema> instanceSchemas = new HashMap<>();
+    Map<String, String> templateErrors = new HashMap<>();
+    List<Future<ValidationReport>> validations = new ArrayList<>(Collections.nCopies(templateInstances.size(), null));
+    for (int i = 0; i < templateInstances.size(); i++) {
+      if (results[i] != null) {
+        continue;
+      }
+      JsonNode templateInstance = templateInstances.get(i);
+      String templateId = templateInstance.get(CedarModelVocabulary.SCHEMA_IS_BASED_ON).asText();
+      if (!instanceSchemas.containsKey(templateId) && !templateErrors.containsKey(templateId)) {
+        try {
+          instanceSchemas.put(templateId, instanceSchemaCache.forTemplate(templateId));
+        } catch (IOException e) {
+          logger.error("The artifact can not be read: " + templateId, e);
+          templateErrors.put(templateId, e.getMessage());
+        }
+      }
+      InstanceSchema instanceSchema = instanceSchemas.get(templateId);
+      if (templateErrors.containsKey(templateId)) {
+        results[i] = BulkItemResult.failed(i, templateErrors.get(templateId));
+      } else if (instanceSchema == null) {
+        results[i] = BulkItemResult.badRequest(i, "The artifact that this instance is based on can not be found.");
+      } else {
+        validations.set(i, validationExecutor.submit(
+            () -> validateTemplateInstance(templateInstance, instanceSchema.getSchema())));
+      }
+    }
+    for (int i = 0; i < templateInstances.size(); i++) {
+      Future<ValidationReport> validation = validations.get(i);
+      if (validation == null) {
+        continue;
+      }
+      try {
+        ValidationReport validationReport = validation.get();
+        if (!CedarValidationReport.IS_VALID.equals(validationReport.getValidationStatus())) {
+          results[i] = BulkItemResult.invalid(i, concatenateValidationMessages(validationReport), validationReport);
+        }
+      } catch (ExecutionException e) {
+        results[i] = BulkItemResult.failed(i, e.getCause().getMessage());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        results[i] = BulkItemResult.failed(i, "The validation was interrupted");
+      }
+    }
+  }
+
+  private void storeBulkItems(List<JsonNode> templateInstances, BulkItemResult[] results) {
+    List<Integer> indexes = new ArrayList<>();
+    List<JsonNode> validInstances = new ArrayList<>();
+    for (int i = 0; i < templateInstances.size(); i++) {
+      if (results[i] == null) {
+        indexes.add(i);
+        validInstances.add(templateInstances.get(i));
+      }
+    }
+    try {
+      BulkInsertResult insertResult = templateInstanceStore.insertMany(validInstances);
+      for (int j = 0; j < indexes.size(); j++) {
+        int i = indexes.get(j);
+        if (insertResult.isInserted(j)) {
+          results[i] = BulkItemResult.created(i, validInstances.get(j).get(LinkedData.ID).asText());
+        } else {
+          results[i] = BulkItemResult.failed(i, insertResult.getFailures().get(j));
+        }
+      }
+    } catch (IOException | MongoException e) {
+      logger.error("The artifact instances can not be created", e);
+      for (int i : indexes) {
+        results[i] = BulkItemResult.failed(i, "The artifact instance can not be created");
+      }
+    }
+  }
+
   @GET
   @Timed
   @Path("/{id}")
-  public Response findTemplateInstance(@PathParam(PP_ID) String id, @QueryParam(QP_FORMAT) Optional<String> format) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(id).be(ValidUrl);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_READ);
+  @ManagedAsync
+  public void findTemplateInstance(@Suspended AsyncResponse asyncResponse,
+                                   @PathParam(PP_ID) String id, @QueryParam(QP_FORMAT) Optional<String> format,
+                                   @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                   @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_READ);
+
+      OutputFormatType formatType = OutputFormatTypeDetector.detectFormat(format);
+      // The JSON-LD representation is the stored document, which is sent as it is read
+      if (formatType == OutputFormatType.JSONLD) {
+        return findRawTemplateInstance(id, ifNoneMatch, JsonFormat.forAccept(accept));
+      }
+
+      JsonNode templateInstance = null;
+      try {
+        templateInstance = templateInstanceService.findTemplateInstance(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_FOUND)
+            .errorMessage("The artifact instance can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (templateInstance == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_FOUND)
+            .errorMessage("The artifact instance can not be found by id:" + id)
+            .build();
+      } else {
+        removeStorageFields(templateInstance);
+        // Every format has its own tag, and the formatting is skipped if the client has the current representation
+        EntityTag entityTag = new EntityTag(EntityTagUtil.of(templateInstance).getValue() + "-" + formatType.getValue());
+        if (EntityTagUtil.matchesWeakly(ifNoneMatch, entityTag)) {
+          return Response.notModified(entityTag).build();
+        }
+        Response response = sendFormattedTemplateInstance(templateInstance, formatType);
+        return Response.fromResponse(response).tag(entityTag).build();
+      }
+    });
+  }
 
-    JsonNode templateInstance = null;
+  private Response findRawTemplateInstance(String id, String ifNoneMatch, JsonFormat format) throws CedarException {
+    RawArtifact templateInstance;
     try {
-      templateInstance = templateInstanceService.findTemplateInstance(id);
+      templateInstance = templateInstanceStore.findRaw(id);
     } catch (IOException e) {
       return CedarResponse.internalServerError()
           .id(id)
@@ -149,119 +417,200 @@ public class TemplateInstancesResource extends AbstractArtifactServerResource {
           .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_FOUND)
           .errorMessage("The artifact instance can not be found by id:" + id)
           .build();
-    } else {
-      OutputFormatType formatType = OutputFormatTypeDetector.detectFormat(format);
-      MongoUtils.removeIdField(templateInstance);
-      Response response = sendFormattedTemplateInstance(templateInstance, formatType);
-      return response;
     }
+    // Every format has its own tag, so the response is sent in the format the tag is built for
+    EntityTag entityTag = EntityTagUtil.of(templateInstance, format);
+    if (EntityTagUtil.matchesWeakly(ifNoneMatch, entityTag)) {
+      return Response.notModified(entityTag).build();
+    }
+    return Response.ok(templateInstance, format.getMediaType()).tag(entityTag).build();
   }
 
+
   @GET
   @Timed
-  public Response findAllTemplateInstances(@QueryParam(QP_LIMIT) Optional<Integer> limitParam,
-                                           @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
-                                           @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
-                                           @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam) throws CedarException {
-
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_READ);
-
-    PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
-        .limit(limitParam)
-        .offset(offsetParam);
-    pagedQuery.validate();
-
-    Integer limit = pagedQuery.getLimit();
-    Integer offset = pagedQuery.getOffset();
-    Boolean summary = ensureSummary(summaryParam);
-
-    List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
-    Map<String, Object> r = new HashMap<>();
-    List<JsonNode> instances = null;
-    try {
-      if (summary) {
-        instances = templateInstanceService.findAllTemplateInstances(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
-      } else if (fieldNameList != null) {
-        instances = templateInstanceService.findAllTemplateInstances(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
-      } else {
-        instances = templateInstanceService.findAllTemplateInstances(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+  @ManagedAsync
+  public void findAllTemplateInstances(@Suspended AsyncResponse asyncResponse,
+                                       @QueryParam(QP_LIMIT) Optional<Integer> limitParam,
+                                       @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
+                                       @QueryParam(QP_CURSOR) Optional<String> cursorParam,
+                                       @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
+                                       @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam,
+                                       @QueryParam(QP_COUNT) Optional<Boolean> countParam) {
+    respond(asyncResponse, () -> {
+
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_READ);
+
+      PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
+          .limit(limitParam)
+          .offset(offsetParam);
+      pagedQuery.validate();
+      PageCursor cursor = getAndCheckCursor(cursorParam, offsetParam);
+
+      Integer limit = pagedQuery.getLimit();
+      Integer offset = pagedQuery.getOffset();
+      Boolean summary = ensureSummary(summaryParam);
+
+      List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
+      Map<String, Object> r = new HashMap<>();
+      List<JsonNode> instances = null;
+      ArtifactPage page = null;
+      try {
+        if (cursor != null) {
+          page = findPage(templateInstanceStore, cursor, limit, summary, FIELD_NAMES_SUMMARY_LIST, fieldNameList);
+        } else if (summary) {
+          instances = templateInstanceService.findAllTemplateInstances(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
+        } else if (fieldNameList != null) {
+          instances = templateInstanceService.findAllTemplateInstances(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
+        } else {
+          instances = templateInstanceService.findAllTemplateInstances(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+        }
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .errorKey(CedarErrorKey.TEMPLATE_INSTANCES_NOT_LISTED)
+            .errorMessage("The artifact instances can not be listed")
+            .exception(e)
+            .build();
       }
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .errorKey(CedarErrorKey.TEMPLATE_INSTANCES_NOT_LISTED)
-          .errorMessage("The artifact instances can not be listed")
-          .exception(e)
-          .build();
-    }
-    long total = templateInstanceService.count();
-    checkPagingParametersAgainstTotal(offset, total);
-
-    String absoluteUrl = uriInfo.getAbsolutePathBuilder().build().toString();
-    String linkHeader = LinkHeaderUtil.getPagingLinkHeader(absoluteUrl, total, limit, offset);
-    Response.ResponseBuilder responseBuilder = Response.ok().entity(instances);
-    responseBuilder.header(CustomHttpConstants.HEADER_TOTAL_COUNT, String.valueOf(total));
-    if (!linkHeader.isEmpty()) {
-      responseBuilder.header(HttpConstants.HTTP_HEADER_LINK, linkHeader);
-    }
-    return responseBuilder.build();
+      Long total = getTotalCount(templateInstanceCounter, countParam);
+      if (page != null) {
+        return buildCursorPagedResponse(page, limit, total);
+      }
+      return buildOffsetPagedResponse(instances, limit, offset, total, templateInstanceCounter.isExact());
+    });
   }
 
   @PUT
   @Timed
   @Path("/{id}")
-  public Response updateTemplateInstance(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(id).be(ValidUrl);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_UPDATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
+  @ManagedAsync
+  public void updateTemplateInstance(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                     @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                     @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode newInstance = c.request().getRequestBody().asJson();
+
+      enforceMandatoryFieldsInPut(id, newInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED);
+      enforceMandatoryName(newInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
+
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newInstance, pi);
+
+      return validateAndUpdateTemplateInstance(id, newInstance, c, ifMatch, null, JsonFormat.forAccept(accept));
+    });
+  }
 
-    JsonNode newInstance = c.request().getRequestBody().asJson();
+  @PATCH
+  @Timed
+  @Path("/{id}")
+  @Consumes({ArtifactMediaTypes.APPLICATION_MERGE_PATCH, ArtifactMediaTypes.APPLICATION_JSON_PATCH})
+  @ManagedAsync
+  public void patchTemplateInstance(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                    @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+                                    @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                    @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode patch = c.request().getRequestBody().asJson();
+
+      VersionedArtifact currentTemplateInstance;
+      try {
+        currentTemplateInstance = templateInstanceStore.findVersioned(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_FOUND)
+            .errorMessage("The artifact instance can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (currentTemplateInstance == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_FOUND)
+            .errorMessage("The artifact instance can not be found by id:" + id)
+            .build();
+      }
+      JsonFormat format = JsonFormat.forAccept(accept);
+      if (ifMatch != null && !matchesIfMatch(currentTemplateInstance, ifMatch, format)) {
+        return preconditionFailed(id, CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED);
+      }
 
-    enforceMandatoryFieldsInPut(id, newInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED);
-    enforceMandatoryName(newInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED);
+      JsonNode newInstance = applyPatch(contentType, currentTemplateInstance.getArtifact(), patch);
 
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    provenanceUtil.patchProvenanceInfo(newInstance, pi);
+      enforceMandatoryFieldsInPut(id, newInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED);
+      enforceMandatoryName(newInstance, CedarResourceType.INSTANCE, CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED);
 
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newInstance, pi);
+
+      return validateAndUpdateTemplateInstance(id, newInstance, c, null, currentTemplateInstance, format);
+    });
+  }
+
+  /**
+   * Validates the new version of the instance and stores it. A patched instance comes with the version it was patched
+   * from, so that only the differences are written. With incremental validation, the stored version is also used to
+   * validate only the changed values.
+   */
+  private Response validateAndUpdateTemplateInstance(String id, JsonNode newInstance, CedarRequestContext c,
+                                                     String ifMatch, VersionedArtifact currentTemplateInstance,
+                                                     JsonFormat format) throws CedarException {
     // add template-element-instance ids if needed. For instance, this may be needed if new items are added to an
     // array
     // of template-element instances
     linkedDataUtil.addElementInstanceIds(newInstance, CedarResourceType.INSTANCE);
 
-    ValidationReport validationReport = validateTemplateInstance(newInstance);
+    InstanceSchema instanceSchema = getInstanceSchema(newInstance);
+    VersionedArtifact storedTemplateInstance = currentTemplateInstance;
+    if (storedTemplateInstance == null && incrementalValidationConfig.isEnabled()) {
+      storedTemplateInstance = findStoredTemplateInstance(id);
+    }
+    ValidationReport validationReport = validateTemplateInstanceUpdate(id, newInstance,
+        storedTemplateInstance != null ? storedTemplateInstance.getArtifact() : null, instanceSchema);
     ReportUtils.outputLogger(logger, validationReport, true);
 
-    JsonNode outputTemplateInstance = null;
     CreateOrUpdate createOrUpdate = null;
     try {
-      JsonNode currentTemplateInstance = templateInstanceService.findTemplateInstance(id);
       if (currentTemplateInstance != null) {
-        outputTemplateInstance = templateInstanceService.updateTemplateInstance(id, newInstance);
-        createOrUpdate = CreateOrUpdate.UPDATE;
+        createOrUpdate = updateArtifactIfUnchanged(templateInstanceStore, id, currentTemplateInstance, newInstance);
+      } else if (ifMatch != null) {
+        createOrUpdate = saveArtifactIfMatch(templateInstanceStore, id, newInstance,
+            storedTemplateInstance != null ? storedTemplateInstance : templateInstanceStore.findVersioned(id), ifMatch,
+            format);
       } else {
-        c.must(id).be(ValidId);
-        outputTemplateInstance = templateInstanceService.createTemplateInstance(newInstance);
-        createOrUpdate = CreateOrUpdate.CREATE;
+        createOrUpdate = saveArtifact(c, templateInstanceStore, id, newInstance);
       }
-    } catch (IOException | ArtifactServerResourceNotFoundException e) {
-      CedarResponse.CedarResponseBuilder responseBuilder = CedarResponse.internalServerError()
-          .id(id)
-          .exception(e);
-      if (createOrUpdate == CreateOrUpdate.CREATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_CREATED)
-            .errorMessage("The artifact instance can not be created using id:" + id);
-      } else if (createOrUpdate == CreateOrUpdate.UPDATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED)
-            .errorMessage("The artifact instance can not be updated by id:" + id);
+      if (createOrUpdate == null) {
+        return preconditionFailed(id, CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED);
       }
-      return responseBuilder.build();
+    } catch (IOException e) {
+      return CedarResponse.internalServerError()
+          .id(id)
+          .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_UPDATED)
+          .errorMessage("The artifact instance can not be created or updated using id:" + id)
+          .exception(e)
+          .build();
+    }
+    EntityTag entityTag = EntityTagUtil.of(newInstance);
+    if (CedarValidationReport.IS_VALID.equals(validationReport.getValidationStatus())) {
+      validInstanceVersions.markValid(id, entityTag, instanceSchema.getKey());
+    } else {
+      validInstanceVersions.invalidate(id);
     }
-    MongoUtils.removeIdField(outputTemplateInstance);
     CedarResponse.CedarResponseBuilder responseBuilder = null;
     if (createOrUpdate == CreateOrUpdate.UPDATE) {
       responseBuilder = CedarResponse.ok();
@@ -271,36 +620,84 @@ public class TemplateInstancesResource extends AbstractArtifactServerResource {
     }
     responseBuilder
         .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, validationReport.getValidationStatus())
-        .entity(outputTemplateInstance);
+        .header(HttpHeaders.ETAG, EntityTagUtil.of(newInstance, format).toString())
+        .entity(newInstance);
     return responseBuilder.build();
   }
 
-  @DELETE
-  @Timed
-  @Path("/{id}")
-  public Response deleteTemplateInstance(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(id).be(ValidUrl);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_DELETE);
+  /**
+   * Validates an update of an instance. If the stored version is known to be valid and the update only changes
+   * values, only the changed values are validated. Any other update, and any update found invalid, is validated as a
+   * whole, so that the report lists all the errors of the instance.
+   */
+  private ValidationReport validateTemplateInstanceUpdate(String id, JsonNode newInstance,
+                                                          JsonNode storedTemplateInstance,
+                                                          InstanceSchema instanceSchema) throws CedarException {
+    if (incrementalValidationConfig.isEnabled() && storedTemplateInstance != null
+        && validInstanceVersions.isValid(id, EntityTagUtil.of(storedTemplateInstance), instanceSchema.getKey())) {
+      InstanceChangeSet changeSet = InstanceChangeSet.of(storedTemplateInstance, newInstance,
+          instanceSchema.getSchema());
+      if (changeSet != null) {
+        ValidationReport validationReport = validateTemplateInstance(changeSet.getInstance(), changeSet.getSchema());
+        if (CedarValidationReport.IS_VALID.equals(validationReport.getValidationStatus())) {
+          logger.debug("Validated the changed values of the instance {}: {}", id, changeSet.getChangedPaths());
+          return validationReport;
+        }
+      }
+    }
+    return validateTemplateInstance(newInstance, instanceSchema.getSchema());
+  }
+
+  /**
+   * Reads the stored version of an instance for an incremental validation. The validation does not depend on it, so
+   * an instance which can not be read is validated as a whole.
+   */
+  private VersionedArtifact findStoredTemplateInstance(String id) {
     try {
-      templateInstanceService.deleteTemplateInstance(id);
-    } catch (ArtifactServerResourceNotFoundException e) {
-      return CedarResponse.notFound()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_FOUND)
-          .errorMessage("The artifact instance can not be found by id:" + id)
-          .exception(e)
-          .build();
+      return templateInstanceStore.findVersioned(id);
     } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_DELETED)
-          .errorMessage("The artifact instance can not be deleted by id:" + id)
-          .exception(e)
-          .build();
+      logger.warn("The stored version of the instance {} can not be read, validating it as a whole", id, e);
+      return null;
     }
-    return CedarResponse.noContent().build();
+  }
+
+  @DELETE
+  @Timed
+  @Path("/{id}")
+  @ManagedAsync
+  public void deleteTemplateInstance(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                                     @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                                     @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_DELETE);
+      try {
+        if (ifMatch == null) {
+          templateInstanceService.deleteTemplateInstance(id);
+        } else if (!deleteArtifactIfMatch(templateInstanceStore, id, templateInstanceStore.findVersioned(id),
+            ifMatch, JsonFormat.forAccept(accept))) {
+          return preconditionFailed(id, CedarErrorKey.TEMPLATE_INSTANCE_NOT_DELETED);
+        }
+      } catch (ArtifactServerResourceNotFoundException e) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_FOUND)
+            .errorMessage("The artifact instance can not be found by id:" + id)
+            .exception(e)
+            .build();
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_INSTANCE_NOT_DELETED)
+            .errorMessage("The artifact instance can not be deleted by id:" + id)
+            .exception(e)
+            .build();
+      }
+      validInstanceVersions.invalidate(id);
+      return CedarResponse.noContent().build();
+    });
   }
 
   private Response sendFormattedTemplateInstance(JsonNode templateInstance, OutputFormatType formatType) throws CedarException {
@@ -314,8 +711,8 @@ public class TemplateInstancesResource extends AbstractArtifactServerResource {
       responseObject = getJsonString(templateInstance);
       mediaType = MediaType.APPLICATION_JSON;
     } else if (formatType == OutputFormatType.RDF_NQUAD) {
-      responseObject = getRdfString(templateInstance);
-      mediaType = "application/n-quads";
+      responseObject = getRdfStream(templateInstance);
+      mediaType = NQuadsStreamingOutput.MEDIA_TYPE;
     } else {
       throw new CedarException("Programming error: no handler is programmed for format type: " + formatType) {
       };
@@ -327,18 +724,21 @@ public class TemplateInstancesResource extends AbstractArtifactServerResource {
     return new JsonLdDocument(templateInstance).asJson();
   }
 
-  private String getRdfString(JsonNode templateInstance) throws CedarException {
+  private StreamingOutput getRdfStream(JsonNode templateInstance) throws CedarException {
     try {
-      return new JsonLdDocument(templateInstance).asRdf();
+      return NQuadsStreamingOutput.of(templateInstance, documentLoader);
     } catch (JsonLdError e) {
       throw new CedarProcessingException("Error while converting the instance to RDF", e);
     }
   }
 
   private ValidationReport validateTemplateInstance(JsonNode templateInstance) throws CedarException {
+    return validateTemplateInstance(templateInstance, getInstanceSchema(templateInstance).getSchema());
+  }
+
+  private InstanceSchema getInstanceSchema(JsonNode templateInstance) throws CedarException {
     try {
-      JsonNode instanceSchema = getSchemaSource(templateService, templateInstance);
-      return validateTemplateInstance(templateInstance, instanceSchema);
+      return getInstanceSchema(instanceSchemaCache, templateInstance);
     } catch (IOException e) {
       throw newCedarException(e.getMessage());
     }
@@ -1,10 +1,26 @@
 package org.metadatacenter.cedar.artifact.resources;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import org.glassfish.jersey.server.ManagedAsync;
+import org.metadatacenter.cedar.artifact.cache.InstanceSchemaCache;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.http.EntityTagUtil;
+import org.metadatacenter.cedar.artifact.http.JsonFormat;
+import org.metadatacenter.cedar.artifact.http.PATCH;
+import org.metadatacenter.cedar.artifact.http.RequestExecutor;
+import org.metadatacenter.cedar.artifact.metrics.StageMetrics;
+import org.metadatacenter.cedar.artifact.metrics.StageTimings;
+import org.metadatacenter.cedar.artifact.paging.PageCursor;
+import org.metadatacenter.cedar.artifact.paging.TotalCounter;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.cedar.artifact.validation.ModelValidatorPool;
 import org.metadatacenter.config.CedarConfig;
 import org.metadatacenter.constant.CustomHttpConstants;
-import org.metadatacenter.constant.HttpConstants;
 import org.metadatacenter.constant.LinkedData;
 import org.metadatacenter.error.CedarErrorKey;
 import org.metadatacenter.error.CedarErrorReasonKey;
@@ -12,6 +28,7 @@ import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
 import org.metadatacenter.exception.CedarException;
 import org.metadatacenter.model.CedarResourceType;
 import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.model.core.CedarModelVocabulary;
 import org.metadatacenter.model.validation.report.CedarValidationReport;
 import org.metadatacenter.model.validation.report.ReportUtils;
 import org.metadatacenter.model.validation.report.ValidationReport;
@@ -24,91 +41,129 @@ import org.metadatacenter.server.service.TemplateService;
 import org.metadatacenter.util.ModelUtil;
 import org.metadatacenter.util.http.CedarResponse;
 import org.metadatacenter.util.http.CedarUrlUtil;
-import org.metadatacenter.util.http.LinkHeaderUtil;
 import org.metadatacenter.util.http.PagedQuery;
-import org.metadatacenter.util.mongo.MongoUtils;
+import org.metadatacenter.util.json.JsonMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.ws.rs.*;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.io.IOException;
 import java.net.URI;
 import java.util.*;
 
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_COUNT;
+import static org.metadatacenter.cedar.artifact.constant.ArtifactQueryParameters.QP_CURSOR;
 import static org.metadatacenter.constant.CedarPathParameters.PP_ID;
 import static org.metadatacenter.constant.CedarQueryParameters.*;
 import static org.metadatacenter.rest.assertion.GenericAssertions.*;
 
 @Path("/templates")
-@Produces(MediaType.APPLICATION_JSON)
+@Produces({MediaType.APPLICATION_JSON, ArtifactMediaTypes.APPLICATION_SMILE, ArtifactMediaTypes.APPLICATION_CBOR})
 public class TemplatesResource extends AbstractArtifactServerResource {
 
   private static final Logger logger = LoggerFactory.getLogger(TemplatesResource.class);
 
   private final TemplateService<String, JsonNode> templateService;
+  private final ArtifactStore templateStore;
+  private final TotalCounter templateCounter;
   private final TemplateInstanceService<String, JsonNode> templateInstanceService;
+  private final ArtifactStore templateInstanceStore;
+  private final InstanceSchemaCache instanceSchemaCache;
+  private final StageMetrics stageMetrics;
 
   protected static List<String> FIELD_NAMES_SUMMARY_LIST;
 
-  public TemplatesResource(CedarConfig cedarConfig, TemplateService<String, JsonNode> templateService,
-                           TemplateInstanceService<String, JsonNode> templateInstanceService) {
-    super(cedarConfig);
+  public TemplatesResource(CedarConfig cedarConfig, ModelValidatorPool validatorPool,
+                           RequestExecutor requestExecutor,
+                           TemplateService<String, JsonNode> templateService,
+                           ArtifactStore templateStore,
+                           TotalCounter templateCounter,
+                           TemplateInstanceService<String, JsonNode> templateInstanceService,
+                           ArtifactStore templateInstanceStore,
+                           InstanceSchemaCache instanceSchemaCache,
+                           StageMetrics stageMetrics) {
+    super(cedarConfig, validatorPool, requestExecutor);
     this.templateService = templateService;
+    this.templateStore = templateStore;
+    this.templateCounter = templateCounter;
     this.templateInstanceService = templateInstanceService;
+    this.templateInstanceStore = templateInstanceStore;
+    this.instanceSchemaCache = instanceSchemaCache;
+    this.stageMetrics = stageMetrics;
     FIELD_NAMES_SUMMARY_LIST = new ArrayList<>();
     FIELD_NAMES_SUMMARY_LIST.addAll(cedarConfig.getArtifactRESTAPI().getSummaries().getTemplate().getFields());
   }
 
   @POST
   @Timed
-  public Response createTemplate() throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_CREATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
-
-    JsonNode template = c.request().getRequestBody().asJson();
-
-    enforceMandatoryNullOrMissingId(template, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_CREATED);
-    enforceMandatoryName(template, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_CREATED);
-
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    setProvenanceAndId(CedarResourceType.TEMPLATE, template, pi);
-
-    Response response = null;
-    if (cedarConfig.getValidationConfig().isEnabled()) {
-      ValidationReport validationReport = validateTemplate(template);
-      ReportUtils.outputLogger(logger, validationReport, true);
-      String validationStatus = validationReport.getValidationStatus();
-      if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
-        response = storeTemplateInDatabase(template, pi);
+  @ManagedAsync
+  public void createTemplate(@Suspended AsyncResponse asyncResponse,
+                             @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      StageTimings timings = stageMetrics.start(CedarResourceType.TEMPLATE);
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_CREATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+      timings.mark(StageMetrics.AUTHORIZE);
+
+      JsonNode template = c.request().getRequestBody().asJson();
+      timings.mark(StageMetrics.PARSE);
+
+      enforceMandatoryNullOrMissingId(template, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_CREATED);
+      enforceMandatoryName(template, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_CREATED);
+      timings.mark(StageMetrics.ENFORCE);
+
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      setProvenanceAndId(CedarResourceType.TEMPLATE, template, pi);
+      timings.mark(StageMetrics.PROVENANCE);
+
+      Response response = null;
+      if (cedarConfig.getValidationConfig().isEnabled()) {
+        ValidationReport validationReport = validateTemplate(template);
+        timings.mark(StageMetrics.VALIDATE);
+        ReportUtils.outputLogger(logger, validationReport, true);
+        String validationStatus = validationReport.getValidationStatus();
+        if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
+          response = storeTemplateInDatabase(template, pi, timings, JsonFormat.forAccept(accept));
+          timings.mark(StageMetrics.STORE);
+        } else {
+          response = CedarResponse.badRequest()
+              .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
+              .errorKey(CedarErrorKey.INVALID_DATA)
+              .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
+              .errorMessage(concatenateValidationMessages(validationReport))
+              .object("validationReport", validationReport)
+              .build();
+        }
       } else {
-        response = CedarResponse.badRequest()
-            .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
-            .errorKey(CedarErrorKey.INVALID_DATA)
-            .errorReasonKey(CedarErrorReasonKey.VALIDATION_ERROR)
-            .errorMessage(concatenateValidationMessages(validationReport))
-            .object("validationReport", validationReport)
-            .build();
+        response = storeTemplateInDatabase(template, pi, timings, JsonFormat.forAccept(accept));
+        timings.mark(StageMetrics.STORE);
       }
-    } else {
-      response = storeTemplateInDatabase(template, pi);
-    }
-    return response;
+      return timings.addServerTiming(response);
+    });
   }
 
-  private Response storeTemplateInDatabase(JsonNode template, ProvenanceInfo pi) {
+  private Response storeTemplateInDatabase(JsonNode template, ProvenanceInfo pi, StageTimings timings,
+                                           JsonFormat format) {
     try {
       ModelUtil.ensureFieldIdsRecursively(template, pi, provenanceUtil, linkedDataUtil);
-      JsonNode createdTemplate = templateService.createTemplate(template);
-      MongoUtils.removeIdField(createdTemplate);
-      String id = createdTemplate.get(LinkedData.ID).asText();
+      timings.mark(StageMetrics.FIELD_IDS);
+      // Written through the store, so that the template has a revision for the conditional writes from the start
+      templateStore.insert(template);
+      String id = template.get(LinkedData.ID).asText();
       URI createdTemplateUri = CedarUrlUtil.getIdURI(uriInfo, id);
       return CedarResponse.created(createdTemplateUri)
           .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_VALID)
-          .entity(createdTemplate)
+          .header(HttpHeaders.ETAG, EntityTagUtil.of(template, format).toString())
+          .entity(template)
           .build();
     } catch (IOException e) {
       return CedarResponse.internalServerError()
@@ -122,111 +177,242 @@ public class TemplatesResource extends AbstractArtifactServerResource {
   @GET
   @Timed
   @Path("/{id}")
-  public Response findTemplate(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_READ);
-    c.must(id).be(ValidUrl);
+  @ManagedAsync
+  public void findTemplate(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                           @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                           @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_READ);
+      c.must(id).be(ValidUrl);
+
+      RawArtifact template;
+      try {
+        template = templateStore.findRaw(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
+            .errorMessage("The artifact can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (template == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
+            .errorMessage("The artifact can not be found by id:" + id)
+            .build();
+      } else {
+        // Every format has its own tag, so the response is sent in the format the tag is built for
+        JsonFormat format = JsonFormat.forAccept(accept);
+        EntityTag entityTag = EntityTagUtil.of(template, format);
+        if (EntityTagUtil.matchesWeakly(ifNoneMatch, entityTag)) {
+          return Response.notModified(entityTag).build();
+        }
+        return Response.ok(template, format.getMediaType()).tag(entityTag).build();
+      }
+    });
+  }
 
-    JsonNode template;
-    try {
-      template = templateService.findTemplate(id);
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
-          .errorMessage("The artifact can not be found by id:" + id)
-          .exception(e)
-          .build();
-    }
-    if (template == null) {
-      return CedarResponse.notFound()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
-          .errorMessage("The artifact can not be found by id:" + id)
-          .build();
-    } else {
-      MongoUtils.removeIdField(template);
-      return Response.ok().entity(template).build();
-    }
+  @GET
+  @Timed
+  @Path("/{id}/instances/export")
+  @Produces(ArtifactMediaTypes.APPLICATION_NDJSON)
+  @ManagedAsync
+  public void exportTemplateInstances(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_READ);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_INSTANCE_READ);
+      c.must(id).be(ValidUrl);
+
+      JsonNode template;
+      try {
+        template = templateService.findTemplate(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
+            .errorMessage("The artifact can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (template == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
+            .errorMessage("The artifact can not be found by id:" + id)
+            .build();
+      }
+
+      // The instances are written one per line while the Mongo cursor is read, so the memory use does not depend on
+      // the number of instances. The compression filter compresses them on the fly.
+      StreamingOutput stream = output -> {
+        JsonGenerator generator = JsonMapper.MAPPER.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        templateInstanceStore.forEachByField(CedarModelVocabulary.SCHEMA_IS_BASED_ON, id, FIELD_NAMES_EXCLUSION_LIST,
+            FieldNameInEx.EXCLUDE, instance -> {
+              generator.writeTree(instance);
+              generator.writeRaw('\n');
+            });
+        generator.close();
+      };
+      return Response.ok(stream).build();
+    });
   }
 
   @GET
   @Timed
-  public Response findAllTemplates(@QueryParam(QP_LIMIT) Optional<Integer> limitParam,
-                                   @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
-                                   @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
-                                   @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam) throws CedarException {
-
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_READ);
-
-    PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
-        .limit(limitParam)
-        .offset(offsetParam);
-    pagedQuery.validate();
-
-    Integer limit = pagedQuery.getLimit();
-    Integer offset = pagedQuery.getOffset();
-    Boolean summary = ensureSummary(summaryParam);
-
-    List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
-    Map<String, Object> r = new HashMap<>();
-    List<JsonNode> templates = null;
-    try {
-      if (summary) {
-        templates = templateService.findAllTemplates(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
-      } else if (fieldNameList != null) {
-        templates = templateService.findAllTemplates(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
-      } else {
-        templates = templateService.findAllTemplates(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+  @ManagedAsync
+  public void findAllTemplates(@Suspended AsyncResponse asyncResponse,
+                               @QueryParam(QP_LIMIT) Optional<Integer> limitParam,
+                               @QueryParam(QP_OFFSET) Optional<Integer> offsetParam,
+                               @QueryParam(QP_CURSOR) Optional<String> cursorParam,
+                               @QueryParam(QP_SUMMARY) Optional<Boolean> summaryParam,
+                               @QueryParam(QP_FIELD_NAMES) Optional<String> fieldNamesParam,
+                               @QueryParam(QP_COUNT) Optional<Boolean> countParam) {
+    respond(asyncResponse, () -> {
+
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_READ);
+
+      PagedQuery pagedQuery = new PagedQuery(cedarConfig.getArtifactRESTAPI().getPagination())
+          .limit(limitParam)
+          .offset(offsetParam);
+      pagedQuery.validate();
+      PageCursor cursor = getAndCheckCursor(cursorParam, offsetParam);
+
+      Integer limit = pagedQuery.getLimit();
+      Integer offset = pagedQuery.getOffset();
+      Boolean summary = ensureSummary(summaryParam);
+
+      List<String> fieldNameList = getAndCheckFieldNames(fieldNamesParam, summary);
+      Map<String, Object> r = new HashMap<>();
+      List<JsonNode> templates = null;
+      ArtifactPage page = null;
+      try {
+        if (cursor != null) {
+          page = findPage(templateStore, cursor, limit, summary, FIELD_NAMES_SUMMARY_LIST, fieldNameList);
+        } else if (summary) {
+          templates = templateService.findAllTemplates(limit, offset, FIELD_NAMES_SUMMARY_LIST, FieldNameInEx.INCLUDE);
+        } else if (fieldNameList != null) {
+          templates = templateService.findAllTemplates(limit, offset, fieldNameList, FieldNameInEx.INCLUDE);
+        } else {
+          templates = templateService.findAllTemplates(limit, offset, FIELD_NAMES_EXCLUSION_LIST, FieldNameInEx.EXCLUDE);
+        }
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .errorKey(CedarErrorKey.TEMPLATES_NOT_LISTED)
+            .errorMessage("The templates can not be listed")
+            .exception(e)
+            .build();
       }
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .errorKey(CedarErrorKey.TEMPLATES_NOT_LISTED)
-          .errorMessage("The templates can not be listed")
-          .exception(e)
-          .build();
-    }
-    long total = templateService.count();
-    checkPagingParametersAgainstTotal(offset, total);
-
-    String absoluteUrl = uriInfo.getAbsolutePathBuilder().build().toString();
-    String linkHeader = LinkHeaderUtil.getPagingLinkHeader(absoluteUrl, total, limit, offset);
-    Response.ResponseBuilder responseBuilder = Response.ok().entity(templates);
-    responseBuilder.header(CustomHttpConstants.HEADER_TOTAL_COUNT, String.valueOf(total));
-    if (!linkHeader.isEmpty()) {
-      responseBuilder.header(HttpConstants.HTTP_HEADER_LINK, linkHeader);
-    }
-    return responseBuilder.build();
+      Long total = getTotalCount(templateCounter, countParam);
+      if (page != null) {
+        return buildCursorPagedResponse(page, limit, total);
+      }
+      return buildOffsetPagedResponse(templates, limit, offset, total, templateCounter.isExact());
+    });
   }
 
   @PUT
   @Timed
   @Path("/{id}")
-  public Response updateTemplate(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(id).be(ValidUrl);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_UPDATE);
-    c.must(c.request().getRequestBody()).be(NonEmpty);
+  @ManagedAsync
+  public void updateTemplate(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                             @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                             @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode newTemplate = c.request().getRequestBody().asJson();
+
+      enforceMandatoryFieldsInPut(id, newTemplate, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_UPDATED);
+      enforceMandatoryName(newTemplate, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_UPDATED);
+
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newTemplate, pi);
+
+      return validateAndUpdateTemplate(id, newTemplate, pi, c, ifMatch, null, JsonFormat.forAccept(accept));
+    });
+  }
 
-    JsonNode newTemplate = c.request().getRequestBody().asJson();
+  @PATCH
+  @Timed
+  @Path("/{id}")
+  @Consumes({ArtifactMediaTypes.APPLICATION_MERGE_PATCH, ArtifactMediaTypes.APPLICATION_JSON_PATCH})
+  @ManagedAsync
+  public void patchTemplate(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                            @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+                            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                            @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(id).be(ValidUrl);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_UPDATE);
+      c.must(c.request().getRequestBody()).be(NonEmpty);
+
+      JsonNode patch = c.request().getRequestBody().asJson();
+
+      VersionedArtifact currentTemplate;
+      try {
+        currentTemplate = templateStore.findVersioned(id);
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
+            .errorMessage("The artifact can not be found by id:" + id)
+            .exception(e)
+            .build();
+      }
+      if (currentTemplate == null) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
+            .errorMessage("The artifact can not be found by id:" + id)
+            .build();
+      }
+      JsonFormat format = JsonFormat.forAccept(accept);
+      if (ifMatch != null && !matchesIfMatch(currentTemplate, ifMatch, format)) {
+        return preconditionFailed(id, CedarErrorKey.TEMPLATE_NOT_UPDATED);
+      }
+
+      JsonNode newTemplate = applyPatch(contentType, currentTemplate.getArtifact(), patch);
 
-    enforceMandatoryFieldsInPut(id, newTemplate, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_UPDATED);
-    enforceMandatoryName(newTemplate, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_UPDATED);
+      enforceMandatoryFieldsInPut(id, newTemplate, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_UPDATED);
+      enforceMandatoryName(newTemplate, CedarResourceType.TEMPLATE, CedarErrorKey.TEMPLATE_NOT_UPDATED);
 
-    ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
-    provenanceUtil.patchProvenanceInfo(newTemplate, pi);
+      ProvenanceInfo pi = provenanceUtil.build(c.getCedarUser());
+      provenanceUtil.patchProvenanceInfo(newTemplate, pi);
 
+      return validateAndUpdateTemplate(id, newTemplate, pi, c, null, currentTemplate, format);
+    });
+  }
+
+  /**
+   * Validates the new version of the artifact and stores it. A patched artifact comes with the version it was patched
+   * from, so that only the differences are written.
+   */
+  private Response validateAndUpdateTemplate(String id, JsonNode newTemplate, ProvenanceInfo pi,
+                                             CedarRequestContext c, String ifMatch, VersionedArtifact currentTemplate,
+                                             JsonFormat format) throws CedarException {
     Response response = null;
     if (cedarConfig.getValidationConfig().isEnabled()) {
       ValidationReport validationReport = validateTemplate(newTemplate);
       ReportUtils.outputLogger(logger, validationReport, true);
       String validationStatus = validationReport.getValidationStatus();
       if (validationStatus.equals(CedarValidationReport.IS_VALID)) {
-        response = updateTemplateInDatabase(id, newTemplate, pi, c);
+        response = updateTemplateInDatabase(id, newTemplate, pi, c, ifMatch, currentTemplate, format);
       } else {
         response = CedarResponse.badRequest()
             .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_INVALID)
@@ -237,26 +423,30 @@ public class TemplatesResource extends AbstractArtifactServerResource {
             .build();
       }
     } else {
-      response = updateTemplateInDatabase(id, newTemplate, pi, c);
+      response = updateTemplateInDatabase(id, newTemplate, pi, c, ifMatch, currentTemplate, format);
     }
     return response;
   }
 
-  private Response updateTemplateInDatabase(String templateId, JsonNode updatedTemplate, ProvenanceInfo pi, CedarRequestContext c) throws CedarException {
-    JsonNode outputTemplate = null;
-    CreateOrUpdate createOrUpdate = null;
+  private Response updateTemplateInDatabase(String templateId, JsonNode updatedTemplate, ProvenanceInfo pi,
+                                            CedarRequestContext c, String ifMatch, VersionedArtifact currentTemplate,
+                                            JsonFormat format) throws CedarException {
     try {
-      JsonNode currentTemplate = templateService.findTemplate(templateId);
       ModelUtil.ensureFieldIdsRecursively(updatedTemplate, pi, provenanceUtil, linkedDataUtil);
+      CreateOrUpdate createOrUpdate;
       if (currentTemplate != null) {
-        createOrUpdate = CreateOrUpdate.UPDATE;
-        outputTemplate = templateService.updateTemplate(templateId, updatedTemplate);
+        createOrUpdate = updateArtifactIfUnchanged(templateStore, templateId,
+            currentTemplate, updatedTemplate);
+      } else if (ifMatch != null) {
+        createOrUpdate = saveArtifactIfMatch(templateStore, templateId, updatedTemplate,
+            templateStore.findVersioned(templateId), ifMatch, format);
       } else {
-        c.must(templateId).be(ValidId);
-        createOrUpdate = CreateOrUpdate.CREATE;
-        outputTemplate = templateService.createTemplate(updatedTemplate);
+        createOrUpdate = saveArtifact(c, templateStore, templateId, updatedTemplate);
+      }
+      if (createOrUpdate == null) {
+        return preconditionFailed(templateId, CedarErrorKey.TEMPLATE_NOT_UPDATED);
       }
-      MongoUtils.removeIdField(outputTemplate);
+      instanceSchemaCache.invalidate(templateId);
       CedarResponse.CedarResponseBuilder responseBuilder = null;
       if (createOrUpdate == CreateOrUpdate.UPDATE) {
         responseBuilder = CedarResponse.ok();
@@ -266,63 +456,68 @@ public class TemplatesResource extends AbstractArtifactServerResource {
       }
       return responseBuilder
           .header(CustomHttpConstants.HEADER_CEDAR_VALIDATION_STATUS, CedarValidationReport.IS_VALID)
-          .entity(outputTemplate)
+          .header(HttpHeaders.ETAG, EntityTagUtil.of(updatedTemplate, format).toString())
+          .entity(updatedTemplate)
           .build();
-    } catch (IOException | ArtifactServerResourceNotFoundException e) {
-      CedarResponse.CedarResponseBuilder responseBuilder = CedarResponse.internalServerError()
+    } catch (IOException e) {
+      return CedarResponse.internalServerError()
           .id(templateId)
-          .exception(e);
-      if (createOrUpdate == CreateOrUpdate.CREATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_NOT_CREATED)
-            .errorMessage("The artifact can not be created using id:" + templateId);
-      } else if (createOrUpdate == CreateOrUpdate.UPDATE) {
-        responseBuilder
-            .errorKey(CedarErrorKey.TEMPLATE_NOT_UPDATED)
-            .errorMessage("The artifact can not be updated by id:" + templateId);
-      }
-      return responseBuilder.build();
+          .errorKey(CedarErrorKey.TEMPLATE_NOT_UPDATED)
+          .errorMessage("The artifact can not be created or updated using id:" + templateId)
+          .exception(e)
+          .build();
     }
   }
 
   @DELETE
   @Timed
   @Path("/{id}")
-  public Response deleteTemplate(@PathParam(PP_ID) String id) throws CedarException {
-    CedarRequestContext c = buildRequestContext();
-    c.must(c.user()).be(LoggedIn);
-    c.must(c.user()).have(CedarPermission.TEMPLATE_DELETE);
-    c.must(id).be(ValidUrl);
-
-    long referenceCount = templateInstanceService.countReferencingTemplate(id);
-
-    if (referenceCount != 0) {
-      return CedarResponse.badRequest()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_NOT_DELETED)
-          .errorReasonKey(CedarErrorReasonKey.TEMPLATE_REFERENCED_IN_INSTANCES)
-          .errorMessage("The artifact can not be deleted since there are instances using it")
-          .parameter("referenceCount", referenceCount)
-          .build();
-    }
+  @ManagedAsync
+  public void deleteTemplate(@Suspended AsyncResponse asyncResponse, @PathParam(PP_ID) String id,
+                             @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
+                             @HeaderParam(HttpHeaders.ACCEPT) String accept) {
+    respond(asyncResponse, () -> {
+      CedarRequestContext c = buildRequestContext();
+      c.must(c.user()).be(LoggedIn);
+      c.must(c.user()).have(CedarPermission.TEMPLATE_DELETE);
+      c.must(id).be(ValidUrl);
+
+      long referenceCount = templateInstanceService.countReferencingTemplate(id);
+
+      if (referenceCount != 0) {
+        return CedarResponse.badRequest()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_DELETED)
+            .errorReasonKey(CedarErrorReasonKey.TEMPLATE_REFERENCED_IN_INSTANCES)
+            .errorMessage("The artifact can not be deleted since there are instances using it")
+            .parameter("referenceCount", referenceCount)
+            .build();
+      }
 
-    try {
-      templateService.deleteTemplate(id);
-    } catch (ArtifactServerResourceNotFoundException e) {
-      return CedarResponse.notFound()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
-          .errorMessage("The artifact can not be found by id:" + id)
-          .exception(e)
-          .build();
-    } catch (IOException e) {
-      return CedarResponse.internalServerError()
-          .id(id)
-          .errorKey(CedarErrorKey.TEMPLATE_NOT_DELETED)
-          .errorMessage("The artifact can not be deleted by id:" + id)
-          .exception(e)
-          .build();
-    }
-    return CedarResponse.noContent().build();
+      try {
+        if (ifMatch == null) {
+          templateService.deleteTemplate(id);
+        } else if (!deleteArtifactIfMatch(templateStore, id, templateStore.findVersioned(id), ifMatch,
+            JsonFormat.forAccept(accept))) {
+          return preconditionFailed(id, CedarErrorKey.TEMPLATE_NOT_DELETED);
+        }
+        instanceSchemaCache.invalidate(id);
+      } catch (ArtifactServerResourceNotFoundException e) {
+        return CedarResponse.notFound()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_FOUND)
+            .errorMessage("The artifact can not be found by id:" + id)
+            .exception(e)
+            .build();
+      } catch (IOException e) {
+        return CedarResponse.internalServerError()
+            .id(id)
+            .errorKey(CedarErrorKey.TEMPLATE_NOT_DELETED)
+            .errorMessage("The artifact can not be deleted by id:" + id)
+            .exception(e)
+            .build();
+      }
+      return CedarResponse.noContent().build();
+    });
   }
 }
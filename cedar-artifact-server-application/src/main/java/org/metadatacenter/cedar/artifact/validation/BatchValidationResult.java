@@ -0,0 +1,57 @@
+package org.metadatacenter.cedar.artifact.validation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.metadatacenter.model.validation.report.ValidationReport;
+
+/**
+ * Outcome of the validation of one item of a batch. Either the validation report or the error message is set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchValidationResult {
+
+  private final int index;
+  private final double durationMillis;
+  private final ValidationReport validationReport;
+  private final String errorMessage;
+
+  private BatchValidationResult(int index, double durationMillis, ValidationReport validationReport,
+                                String errorMessage) {
+    this.index = index;
+    this.durationMillis = durationMillis;
+    this.validationReport = validationReport;
+    this.errorMessage = errorMessage;
+  }
+
+  public static BatchValidationResult validated(int index, long durationNanos, ValidationReport validationReport) {
+    return new BatchValidationResult(index, toMillis(durationNanos), validationReport, null);
+  }
+
+  public static BatchValidationResult failed(int index, long durationNanos, String errorMessage) {
+    return new BatchValidationResult(index, toMillis(durationNanos), null, errorMessage);
+  }
+
+  private static double toMillis(long nanos) {
+    return Math.round(nanos / 1000.0) / 1000.0;
+  }
+
+  @JsonProperty
+  public int getIndex() {
+    return index;
+  }
+
+  @JsonProperty
+  public double getDurationMillis() {
+    return durationMillis;
+  }
+
+  @JsonProperty
+  public ValidationReport getValidationReport() {
+    return validationReport;
+  }
+
+  @JsonProperty
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+}
@@ -0,0 +1,238 @@
+package org.metadatacenter.cedar.artifact.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.model.ModelNodeNames;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The values changed by an update of a template instance, together with the parts of the instance schema which apply
+ * to them. Validating the pruned instance against the pruned schema checks the changed values only.
+ * <p>
+ * A change set is only built when the update keeps the structure of the instance: the same fields at every level and
+ * the same number of items in every array. Objects are pruned field by field, unless their schema has keywords which
+ * relate several fields to each other, in which case the changed object is kept as a whole.
+ */
+public final class InstanceChangeSet {
+
+  private static final String PROPERTIES = "properties";
+  private static final String REQUIRED = "required";
+
+  // Keywords whose outcome depends on more than one field of the object
+  private static final Set<String> OBJECT_LEVEL_KEYWORDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      "allOf", "anyOf", "oneOf", "not", "dependencies", "if", "then", "else", "patternProperties", "minProperties",
+      "maxProperties")));
+
+  // Fields which tie the instance to its template. A change of one of them changes the structure of the instance,
+  // and they are kept in the pruned instance so that it remains a well-formed instance.
+  private static final List<String> STRUCTURAL_FIELDS = Collections.unmodifiableList(Arrays.asList(
+      ModelNodeNames.JSON_LD_CONTEXT, ModelNodeNames.JSON_LD_ID, ModelNodeNames.JSON_LD_TYPE,
+      ModelNodeNames.SCHEMA_IS_BASED_ON));
+
+  private final ObjectNode instance;
+  private final ObjectNode schema;
+  private final List<String> changedPaths;
+
+  private InstanceChangeSet(ObjectNode instance, ObjectNode schema, List<String> changedPaths) {
+    this.instance = instance;
+    this.schema = schema;
+    this.changedPaths = changedPaths;
+  }
+
+  /**
+   * Builds the change set of an update.
+   *
+   * @return the change set, or null if the update changes the structure of the instance, or if it changes a value
+   * which the schema does not describe
+   */
+  public static InstanceChangeSet of(JsonNode storedInstance, JsonNode newInstance, JsonNode instanceSchema) {
+    if (!storedInstance.isObject() || !newInstance.isObject() || !isPrunable(instanceSchema)) {
+      return null;
+    }
+    for (String fieldName : STRUCTURAL_FIELDS) {
+      JsonNode value = newInstance.get(fieldName);
+      if (value != null && !value.equals(storedInstance.get(fieldName))) {
+        return null;
+      }
+    }
+    ObjectNode prunedInstance = JsonMapper.MAPPER.createObjectNode();
+    ObjectNode prunedSchema = JsonMapper.MAPPER.createObjectNode();
+    List<String> changedPaths = new ArrayList<>();
+    if (!prune("", storedInstance, newInstance, instanceSchema, prunedInstance, prunedSchema, changedPaths)) {
+      return null;
+    }
+    for (String fieldName : STRUCTURAL_FIELDS) {
+      JsonNode value = newInstance.get(fieldName);
+      JsonNode propertySchema = instanceSchema.path(PROPERTIES).get(fieldName);
+      if (value != null && propertySchema != null) {
+        prunedInstance.set(fieldName, value);
+        properties(prunedSchema).set(fieldName, propertySchema);
+      }
+    }
+    restrictRequired(instanceSchema, prunedSchema);
+    return new InstanceChangeSet(prunedInstance, prunedSchema, changedPaths);
+  }
+
+  public ObjectNode getInstance() {
+    return instance;
+  }
+
+  public ObjectNode getSchema() {
+    return schema;
+  }
+
+  /**
+   * The JSON Pointers of the changed values, empty if the update changes nothing.
+   */
+  public List<String> getChangedPaths() {
+    return changedPaths;
+  }
+
+  private static boolean prune(String path, JsonNode storedObject, JsonNode newObject, JsonNode objectSchema,
+                               ObjectNode prunedObject, ObjectNode prunedSchema, List<String> changedPaths) {
+    if (!sameFieldNames(storedObject, newObject)) {
+      return false;
+    }
+    copyKeywords(objectSchema, prunedSchema);
+    Iterator<Map.Entry<String, JsonNode>> fields = newObject.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JsonNode storedValue = storedObject.get(field.getKey());
+      JsonNode newValue = field.getValue();
+      if (newValue.equals(storedValue)) {
+        continue;
+      }
+      JsonNode propertySchema = objectSchema.path(PROPERTIES).get(field.getKey());
+      if (propertySchema == null || !propertySchema.isObject()) {
+        return false;
+      }
+      String fieldPath = path + "/" + escape(field.getKey());
+      if (newValue.isObject() && storedValue.isObject() && isPrunable(propertySchema)) {
+        ObjectNode prunedValue = JsonMapper.MAPPER.createObjectNode();
+        ObjectNode prunedPropertySchema = JsonMapper.MAPPER.createObjectNode();
+        if (!prune(fieldPath, storedValue, newValue, propertySchema, prunedValue, prunedPropertySchema,
+            changedPaths)) {
+          return false;
+        }
+        restrictRequired(propertySchema, prunedPropertySchema);
+        prunedObject.set(field.getKey(), prunedValue);
+        properties(prunedSchema).set(field.getKey(), prunedPropertySchema);
+      } else {
+        if (!sameStructure(storedValue, newValue)) {
+          return false;
+        }
+        changedPaths.add(fieldPath);
+        prunedObject.set(field.getKey(), newValue);
+        properties(prunedSchema).set(field.getKey(), propertySchema);
+      }
+    }
+    return true;
+  }
+
+  private static ObjectNode properties(ObjectNode prunedSchema) {
+    return (ObjectNode) prunedSchema.get(PROPERTIES);
+  }
+
+  private static boolean isPrunable(JsonNode objectSchema) {
+    if (!objectSchema.path(PROPERTIES).isObject()) {
+      return false;
+    }
+    for (String keyword : OBJECT_LEVEL_KEYWORDS) {
+      if (objectSchema.has(keyword)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Copies the keywords of the schema of an object, except the properties and the required fields, which are
+   * restricted to the kept fields.
+   */
+  private static void copyKeywords(JsonNode objectSchema, ObjectNode prunedSchema) {
+    Iterator<Map.Entry<String, JsonNode>> keywords = objectSchema.fields();
+    while (keywords.hasNext()) {
+      Map.Entry<String, JsonNode> keyword = keywords.next();
+      if (!PROPERTIES.equals(keyword.getKey()) && !REQUIRED.equals(keyword.getKey())) {
+        prunedSchema.set(keyword.getKey(), keyword.getValue());
+      }
+    }
+    prunedSchema.putObject(PROPERTIES);
+  }
+
+  private static void restrictRequired(JsonNode objectSchema, ObjectNode prunedSchema) {
+    JsonNode required = objectSchema.get(REQUIRED);
+    if (required == null || !required.isArray()) {
+      return;
+    }
+    JsonNode keptFields = prunedSchema.path(PROPERTIES);
+    ArrayNode prunedRequired = prunedSchema.putArray(REQUIRED);
+    for (JsonNode fieldName : required) {
+      if (keptFields.has(fieldName.asText())) {
+        prunedRequired.add(fieldName);
+      }
+    }
+  }
+
+  private static boolean sameFieldNames(JsonNode storedObject, JsonNode newObject) {
+    if (storedObject.size() != newObject.size()) {
+      return false;
+    }
+    Iterator<String> fieldNames = newObject.fieldNames();
+    while (fieldNames.hasNext()) {
+      if (!storedObject.has(fieldNames.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Tells whether two values have the same fields and the same number of items. Scalar values, null included, are
+   * interchangeable.
+   */
+  private static boolean sameStructure(JsonNode storedNode, JsonNode newNode) {
+    if (!storedNode.isContainerNode() && !newNode.isContainerNode()) {
+      return true;
+    }
+    if (storedNode.getNodeType() != newNode.getNodeType()) {
+      return false;
+    }
+    if (newNode.isObject()) {
+      if (!sameFieldNames(storedNode, newNode)) {
+        return false;
+      }
+      Iterator<Map.Entry<String, JsonNode>> fields = newNode.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        if (!sameStructure(storedNode.get(field.getKey()), field.getValue())) {
+          return false;
+        }
+      }
+    } else if (newNode.isArray()) {
+      if (storedNode.size() != newNode.size()) {
+        return false;
+      }
+      for (int i = 0; i < newNode.size(); i++) {
+        if (!sameStructure(storedNode.get(i), newNode.get(i))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static String escape(String fieldName) {
+    return fieldName.replace("~", "~0").replace("/", "~1");
+  }
+}
@@ -0,0 +1,136 @@
+package org.metadatacenter.cedar.artifact.validation;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.metadatacenter.cedar.artifact.config.ValidatorPoolConfig;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.model.validation.CedarValidator;
+import org.metadatacenter.model.validation.ModelValidator;
+import org.metadatacenter.model.validation.report.ValidationReport;
+import org.metadatacenter.util.http.CedarResponse;
+import org.metadatacenter.util.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size pool of model validators shared by all the resources. A validator is used by one request at a time, so
+ * the validators do not need to be thread-safe, but the schemas they load are kept between calls.
+ * <p>
+ * A request which does not get a validator within the acquire timeout is answered with 503, rather than waiting for a
+ * validator which may never be returned.
+ */
+public class ModelValidatorPool {
+
+  private static final Logger log = LoggerFactory.getLogger(ModelValidatorPool.class);
+
+  private static final CedarResourceType[] VALIDATED_TYPES = {CedarResourceType.TEMPLATE, CedarResourceType.ELEMENT,
+      CedarResourceType.FIELD, CedarResourceType.INSTANCE};
+  private static final String RETRY_AFTER_SECONDS = "1";
+
+  @FunctionalInterface
+  public interface ValidationCall {
+    ValidationReport validate(ModelValidator validator) throws Exception;
+  }
+
+  private final int size;
+  private final long acquireTimeoutMillis;
+  private final BlockingQueue<ModelValidator> validators;
+  private final Timer acquireTimer;
+  private final Map<CedarResourceType, Timer> validationTimers;
+
+  public ModelValidatorPool(ValidatorPoolConfig config, MetricRegistry metrics) {
+    this(config, metrics, CedarValidator::new);
+  }
+
+  ModelValidatorPool(ValidatorPoolConfig config, MetricRegistry metrics, Supplier<ModelValidator> validatorFactory) {
+    this.size = config.getSize() > 0 ? config.getSize() : Runtime.getRuntime().availableProcessors();
+    this.acquireTimeoutMillis = config.getAcquireTimeoutMillis();
+    this.validators = new ArrayBlockingQueue<>(size);
+    for (int i = 0; i < size; i++) {
+      validators.add(validatorFactory.get());
+    }
+    this.acquireTimer = metrics.timer(MetricRegistry.name(ModelValidatorPool.class, "acquire"));
+    this.validationTimers = new EnumMap<>(CedarResourceType.class);
+    for (CedarResourceType resourceType : VALIDATED_TYPES) {
+      validationTimers.put(resourceType,
+          metrics.timer(MetricRegistry.name(ModelValidatorPool.class, "validate", resourceType.getValue())));
+    }
+    metrics.register(MetricRegistry.name(ModelValidatorPool.class, "available"),
+        (Gauge<Integer>) this::getAvailable);
+    if (config.isWarmUp()) {
+      warmUp();
+    }
+  }
+
+  /**
+   * Runs the call with a validator of the pool, and returns the validator to the pool whatever the outcome.
+   *
+   * @throws WebApplicationException with 503 if no validator is available within the acquire timeout
+   */
+  public ValidationReport validate(CedarResourceType resourceType, ValidationCall call) throws Exception {
+    long acquireStart = System.nanoTime();
+    ModelValidator validator = validators.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+    acquireTimer.update(System.nanoTime() - acquireStart, TimeUnit.NANOSECONDS);
+    if (validator == null) {
+      throw new WebApplicationException("No validator is available", CedarResponse
+          .status(Response.Status.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+          .errorMessage("No validator became available within " + acquireTimeoutMillis + " ms")
+          .build());
+    }
+    try (Timer.Context ignored = validationTimers.get(resourceType).time()) {
+      return call.validate(validator);
+    } finally {
+      validators.offer(validator);
+    }
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public int getAvailable() {
+    return validators.size();
+  }
+
+  /**
+   * Validates an empty template, element and field on every validator of the pool, so that the first validation of
+   * each type on each validator, which reads its schema, is not paid by a request. The outcome of the validations is
+   * irrelevant. The instances are validated against the schemas of their templates, which are not known yet.
+   */
+  private void warmUp() {
+    long start = System.currentTimeMillis();
+    List<ModelValidator> all = new ArrayList<>(size);
+    validators.drainTo(all);
+    for (ModelValidator validator : all) {
+      warmUp(CedarResourceType.TEMPLATE, () -> validator.validateTemplate(JsonMapper.MAPPER.createObjectNode()));
+      warmUp(CedarResourceType.ELEMENT,
+          () -> validator.validateTemplateElement(JsonMapper.MAPPER.createObjectNode()));
+      warmUp(CedarResourceType.FIELD, () -> validator.validateTemplateField(JsonMapper.MAPPER.createObjectNode()));
+      validators.offer(validator);
+    }
+    log.info("Warmed up {} model validators in {} ms", size, System.currentTimeMillis() - start);
+  }
+
+  private static void warmUp(CedarResourceType resourceType, Callable<ValidationReport> validation) {
+    try {
+      validation.call();
+    } catch (Exception e) {
+      log.debug("Validator warm-up of the {} schema reported an error: {}", resourceType.getValue(), e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package org.metadatacenter.cedar.artifact.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.config.InstanceSchemaCacheConfig;
+import org.metadatacenter.cedar.artifact.config.TemplateCacheConfig;
+import org.metadatacenter.cedar.artifact.memory.InMemoryCollection;
+import org.metadatacenter.cedar.artifact.memory.InMemoryTemplateService;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TemplateCacheTest {
+
+  private static final String TEMPLATE_ID = "https://repo.metadatacenter.org/templates/1";
+
+  private CountingTemplateService templateService;
+  private TemplateCache templateCache;
+
+  @Before
+  public void setUp() throws IOException {
+    templateService = new CountingTemplateService();
+    templateService.createTemplate(template("First"));
+    templateCache = new TemplateCache(templateService, new TemplateCacheConfig());
+  }
+
+  @Test
+  public void shouldLoadATemplateOnce() throws IOException {
+    CachedTemplate first = templateCache.getCachedTemplate(TEMPLATE_ID);
+    CachedTemplate second = templateCache.getCachedTemplate(TEMPLATE_ID);
+
+    assertThat(second, is(sameInstance(first)));
+    assertThat(first.getTemplate().get("title").asText(), is("First"));
+    assertThat(first.getTemplate().has(LinkedData.ID), is(true));
+    assertThat(templateService.loads, is(1));
+  }
+
+  @Test
+  public void shouldNotCacheAMissingTemplate() throws IOException {
+    assertThat(templateCache.getCachedTemplate(TEMPLATE_ID + "/missing"), is(nullValue()));
+    assertThat(templateCache.getCachedTemplate(TEMPLATE_ID + "/missing"), is(nullValue()));
+    assertThat(templateService.loads, is(2));
+  }
+
+  @Test
+  public void shouldLoadTheNewVersionAfterAnUpdate() throws Exception {
+    CachedTemplate first = templateCache.getCachedTemplate(TEMPLATE_ID);
+
+    // As the template resource does on PUT
+    templateService.updateTemplate(TEMPLATE_ID, template("Second"));
+    templateCache.invalidate(TEMPLATE_ID);
+    CachedTemplate second = templateCache.getCachedTemplate(TEMPLATE_ID);
+
+    assertThat(second.getTemplate().get("title").asText(), is("Second"));
+    assertThat(second.getContentHash(), is(not(first.getContentHash())));
+  }
+
+  @Test
+  public void shouldForgetATemplateAfterADelete() throws Exception {
+    templateCache.getCachedTemplate(TEMPLATE_ID);
+
+    // As the template resource does on DELETE
+    templateService.deleteTemplate(TEMPLATE_ID);
+    templateCache.invalidate(TEMPLATE_ID);
+
+    assertThat(templateCache.getCachedTemplate(TEMPLATE_ID), is(nullValue()));
+  }
+
+  @Test
+  public void shouldNotKeepALoadOverlappingAnInvalidation() throws Exception {
+    templateService.duringNextLoad = () -> {
+      templateService.updateTemplate(TEMPLATE_ID, template("Second"));
+      templateCache.invalidate(TEMPLATE_ID);
+    };
+
+    templateCache.getCachedTemplate(TEMPLATE_ID);
+    CachedTemplate reloaded = templateCache.getCachedTemplate(TEMPLATE_ID);
+
+    assertThat(reloaded.getTemplate().get("title").asText(), is("Second"));
+    assertThat(templateService.loads, is(2));
+  }
+
+  @Test
+  public void shouldLoadEveryTimeWhenDisabled() throws IOException {
+    TemplateCacheConfig config = JsonMapper.MAPPER.convertValue(
+        JsonMapper.MAPPER.createObjectNode().put("enabled", false), TemplateCacheConfig.class);
+    TemplateCache disabledCache = new TemplateCache(templateService, config);
+
+    disabledCache.getCachedTemplate(TEMPLATE_ID);
+    disabledCache.getCachedTemplate(TEMPLATE_ID);
+
+    assertThat(templateService.loads, is(2));
+  }
+
+  @Test
+  public void shouldDropTheInstanceSchemasOfAnInvalidatedTemplate() throws Exception {
+    InstanceSchemaCache instanceSchemaCache = new InstanceSchemaCache(templateCache, new InstanceSchemaCacheConfig());
+    InstanceSchema first = instanceSchemaCache.forTemplate(TEMPLATE_ID);
+    assertThat(instanceSchemaCache.forTemplate(TEMPLATE_ID), is(sameInstance(first)));
+
+    templateService.updateTemplate(TEMPLATE_ID, template("Second"));
+    instanceSchemaCache.invalidate(TEMPLATE_ID);
+    InstanceSchema second = instanceSchemaCache.forTemplate(TEMPLATE_ID);
+
+    assertThat(second.getSchema().get("title").asText(), is("Second"));
+    assertThat(second.getKey(), is(not(first.getKey())));
+  }
+
+  @Test
+  public void shouldUseTheCachedTemplateAsTheInstanceSchema() throws Exception {
+    InstanceSchemaCache instanceSchemaCache = new InstanceSchemaCache(templateCache, new InstanceSchemaCacheConfig());
+    CachedTemplate cachedTemplate = templateCache.getCachedTemplate(TEMPLATE_ID);
+    InstanceSchema instanceSchema = instanceSchemaCache.forTemplate(TEMPLATE_ID);
+
+    assertThat(instanceSchema.getSchema(), is(sameInstance(cachedTemplate.getTemplate())));
+    assertThat(instanceSchema.getKey(), is(new InstanceSchemaKey(TEMPLATE_ID, cachedTemplate.getContentHash())));
+    assertThat(templateService.loads, is(1));
+  }
+
+  @Test
+  public void shouldCacheASchemaSentByTheClientByItsContent() throws Exception {
+    InstanceSchemaCache instanceSchemaCache = new InstanceSchemaCache(templateCache, new InstanceSchemaCacheConfig());
+    InstanceSchema first = instanceSchemaCache.forSchema(template("Sent"));
+
+    assertThat(instanceSchemaCache.forSchema(template("Sent")), is(sameInstance(first)));
+    assertThat(instanceSchemaCache.forSchema(template("Changed")), is(not(sameInstance(first))));
+  }
+
+  private static JsonNode template(String title) {
+    ObjectNode template = JsonMapper.MAPPER.createObjectNode();
+    template.put(LinkedData.ID, TEMPLATE_ID);
+    template.put("title", title);
+    return template;
+  }
+
+  private interface LoadAction {
+    void run() throws Exception;
+  }
+
+  private static class CountingTemplateService extends InMemoryTemplateService {
+
+    private int loads;
+    private LoadAction duringNextLoad;
+
+    CountingTemplateService() {
+      super(new InMemoryCollection());
+    }
+
+    @Override
+    public JsonNode findTemplate(String templateId) throws IOException {
+      loads++;
+      JsonNode template = super.findTemplate(templateId);
+      if (duringNextLoad != null) {
+        LoadAction action = duringNextLoad;
+        duringNextLoad = null;
+        try {
+          action.run();
+        } catch (Exception e) {
+          throw new IOException(e);
+        }
+      }
+      return template;
+    }
+  }
+}
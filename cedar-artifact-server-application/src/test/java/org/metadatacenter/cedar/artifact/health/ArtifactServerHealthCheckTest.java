@@ -0,0 +1,111 @@
+package org.metadatacenter.cedar.artifact.health;
+
+import com.codahale.metrics.health.HealthCheck;
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.config.MongoHealthCheckConfig;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ArtifactServerHealthCheckTest {
+
+  private static final ServerId SERVER_ID = new ServerId(new ClusterId(), new ServerAddress());
+
+  private final ExecutorService pingExecutor = Executors.newSingleThreadExecutor();
+  private final MongoPoolMonitor poolMonitor = new MongoPoolMonitor();
+  private final MongoHealthCheckConfig config = JsonMapper.MAPPER.convertValue(JsonMapper.MAPPER.createObjectNode()
+      .put("pingTimeoutMillis", 500)
+      .put("degradedLatencyMillis", 100)
+      .put("degradedWaitQueueSize", 1), MongoHealthCheckConfig.class);
+
+  @After
+  public void tearDown() {
+    pingExecutor.shutdownNow();
+  }
+
+  @Test
+  public void shouldBeUpWhenTheDatabaseAnswers() throws Exception {
+    HealthCheck.Result result = check(() -> new Document("ok", 1));
+
+    assertThat(result.isHealthy(), is(true));
+    assertThat(result.getDetails().get("status"), is("up"));
+  }
+
+  @Test
+  public void shouldBeDownWhenThePingTimesOut() throws Exception {
+    HealthCheck.Result result = check(() -> {
+      Thread.sleep(5000);
+      return new Document("ok", 1);
+    });
+
+    assertThat(result.isHealthy(), is(false));
+    assertThat(result.getDetails().get("status"), is("down"));
+  }
+
+  @Test
+  public void shouldBeDownWhenThePingFails() throws Exception {
+    MongoException exception = new MongoException("Connection refused");
+    HealthCheck.Result result = check(() -> {
+      throw exception;
+    });
+
+    assertThat(result.isHealthy(), is(false));
+    assertThat(result.getDetails().get("status"), is("down"));
+    assertThat(result.getError(), is(exception));
+  }
+
+  @Test
+  public void shouldBeDegradedWhenThePingIsSlow() throws Exception {
+    HealthCheck.Result result = check(() -> {
+      Thread.sleep(200);
+      return new Document("ok", 1);
+    });
+
+    assertThat(result.isHealthy(), is(false));
+    assertThat(result.getDetails().get("status"), is("degraded"));
+  }
+
+  @Test
+  public void shouldBeDegradedWhenTooManyThreadsWaitForAConnection() throws Exception {
+    ConnectionPoolSettings settings = ConnectionPoolSettings.builder().build();
+    poolMonitor.connectionPoolOpened(new ConnectionPoolOpenedEvent(SERVER_ID, settings));
+    poolMonitor.waitQueueEntered(new ConnectionPoolWaitQueueEnteredEvent(SERVER_ID));
+    poolMonitor.waitQueueEntered(new ConnectionPoolWaitQueueEnteredEvent(SERVER_ID));
+
+    HealthCheck.Result result = check(() -> new Document("ok", 1));
+    assertThat(result.isHealthy(), is(false));
+    assertThat(result.getDetails().get("status"), is("degraded"));
+    assertThat(result.getDetails().get("poolWaitQueueSize"), is(2));
+
+    poolMonitor.waitQueueExited(new ConnectionPoolWaitQueueExitedEvent(SERVER_ID));
+    assertThat(check(() -> new Document("ok", 1)).isHealthy(), is(true));
+  }
+
+  private HealthCheck.Result check(Callable<Document> ping) throws Exception {
+    MongoDatabase database = (MongoDatabase) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[]{MongoDatabase.class}, (proxy, method, args) -> {
+          if (method.getName().equals("runCommand")) {
+            return ping.call();
+          }
+          throw new UnsupportedOperationException(method.getName());
+        });
+    return new ArtifactServerHealthCheck(database, poolMonitor, pingExecutor, config).execute();
+  }
+}
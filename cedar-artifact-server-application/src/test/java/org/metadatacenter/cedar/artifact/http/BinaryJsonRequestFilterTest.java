@@ -0,0 +1,83 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BinaryJsonRequestFilterTest {
+
+  private final AtomicInteger errorStatus = new AtomicInteger();
+  private final AtomicReference<JsonNode> forwardedBody = new AtomicReference<>();
+  private final AtomicReference<String> forwardedContentType = new AtomicReference<>();
+
+  @Test
+  public void shouldTurnABinaryBodyIntoJsonText() throws IOException, ServletException {
+    JsonNode body = body(100);
+
+    filter(1024, JsonFormat.SMILE, body);
+
+    assertThat(errorStatus.get(), is(0));
+    assertThat(forwardedContentType.get(), is(MediaType.APPLICATION_JSON));
+    assertThat(forwardedBody.get(), is(body));
+  }
+
+  @Test
+  public void shouldRefuseABodyLargerThanTheLimitAsJson() throws IOException, ServletException {
+    filter(1024, JsonFormat.CBOR, body(2000));
+
+    assertThat(errorStatus.get(), is(Response.Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode()));
+    assertThat(forwardedBody.get(), is(nullValue()));
+  }
+
+  private void filter(long maximumJsonBytes, JsonFormat format, JsonNode body) throws IOException, ServletException {
+    byte[] encodedBody = new ObjectMapper(format.getFactory().copy()).writeValueAsBytes(body);
+    HttpServletRequest request = new ReplacedBodyRequest(stub(HttpServletRequest.class),
+        new ByteArrayInputStream(encodedBody), format.getMediaType().toString());
+    HttpServletResponse response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> {
+          if (method.getName().equals("sendError")) {
+            errorStatus.set((Integer) args[0]);
+          }
+          return null;
+        });
+
+    new BinaryJsonRequestFilter(maximumJsonBytes).doFilter(request, response, (filteredRequest, filteredResponse) -> {
+      forwardedContentType.set(filteredRequest.getContentType());
+      forwardedBody.set(JsonMapper.MAPPER.readTree(ByteStreams.toByteArray(filteredRequest.getInputStream())));
+    });
+  }
+
+  private static JsonNode body(int characters) {
+    ObjectNode body = JsonMapper.MAPPER.createObjectNode();
+    StringBuilder title = new StringBuilder();
+    for (int i = 0; i < characters; i++) {
+      title.append((char) ('a' + i % 26));
+    }
+    body.put("title", title.toString());
+    return body;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T stub(Class<T> type) {
+    return (T) Proxy.newProxyInstance(BinaryJsonRequestFilterTest.class.getClassLoader(), new Class<?>[]{type},
+        (proxy, method, args) -> null);
+  }
+}
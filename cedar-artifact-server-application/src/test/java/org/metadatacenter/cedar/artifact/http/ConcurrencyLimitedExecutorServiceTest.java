@@ -0,0 +1,62 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrencyLimitedExecutorServiceTest {
+
+  private final ExecutorService unbounded = Executors.newCachedThreadPool();
+  private final ConcurrencyLimitedExecutorService executor = new ConcurrencyLimitedExecutorService(unbounded, 2);
+
+  @After
+  public void tearDown() {
+    unbounded.shutdownNow();
+  }
+
+  @Test
+  public void shouldRejectTasksBeyondTheLimitUntilOneEnds() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch ended = new CountDownLatch(1);
+    executor.execute(() -> awaitQuietly(release));
+    executor.execute(() -> {
+      awaitQuietly(release);
+      ended.countDown();
+    });
+    try {
+      executor.execute(() -> { });
+      fail("A third task should be rejected");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+
+    release.countDown();
+    assertTrue(ended.await(10, TimeUnit.SECONDS));
+    CountDownLatch ran = new CountDownLatch(1);
+    // The permits are released after the tasks end, which may be just after the latch
+    for (int attempt = 0; attempt < 100 && ran.getCount() > 0; attempt++) {
+      try {
+        executor.execute(ran::countDown);
+      } catch (RejectedExecutionException e) {
+        Thread.sleep(10);
+      }
+    }
+    assertTrue(ran.await(10, TimeUnit.SECONDS));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.google.common.io.ByteStreams;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class GzipCompressingOutputStreamTest {
+
+  private final DeflaterPool deflaterPool = new DeflaterPool(6, 1);
+
+  @Test
+  public void shouldWriteGzipDataWithAReusedDeflater() throws IOException {
+    byte[] content = repeated("{\"@id\":\"https://repo.metadatacenter.org/template-fields/1\"}\n", 1000);
+
+    for (int i = 0; i < 2; i++) {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      GzipCompressingOutputStream gzip = new GzipCompressingOutputStream(compressed, deflaterPool.borrow());
+      gzip.write(content, 0, 10);
+      gzip.write(content[10]);
+      gzip.write(content, 11, content.length - 11);
+      gzip.finish();
+      deflaterPool.release(gzip.getDeflater());
+
+      assertThat(gunzip(compressed.toByteArray()), is(content));
+      assertThat(gzip.getUncompressedBytes(), is((long) content.length));
+      assertThat(gzip.getCompressedBytes(), is((long) compressed.size()));
+      assertTrue(gzip.getCompressedBytes() < content.length / 10);
+    }
+  }
+
+  @Test
+  public void shouldSendEverythingWrittenOnFlush() throws IOException {
+    byte[] content = repeated("line\n", 100);
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    GzipCompressingOutputStream gzip = new GzipCompressingOutputStream(compressed, deflaterPool.borrow());
+    gzip.write(content, 0, content.length);
+    gzip.flush();
+
+    // The data is complete up to the flush, only the trailer is missing
+    byte[] flushed = new byte[content.length];
+    GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()));
+    ByteStreams.readFully(in, flushed);
+    assertThat(flushed, is(content));
+  }
+
+  private static byte[] gunzip(byte[] compressed) throws IOException {
+    return ByteStreams.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+  }
+
+  private static byte[] repeated(String text, int times) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      builder.append(text);
+    }
+    return builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,74 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.jaxrs.cbor.JacksonCBORProvider;
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
+import io.dropwizard.jackson.Jackson;
+import org.junit.Test;
+import org.metadatacenter.util.http.CedarResponse;
+
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class JsonFormatTest {
+
+  private final ObjectMapper jsonMapper = Jackson.newObjectMapper()
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  @Test
+  public void shouldRoundTripAnErrorResponseInSmile() throws IOException {
+    JacksonSmileProvider provider = new JacksonSmileProvider(JsonFormat.SMILE.createMapper(jsonMapper));
+
+    assertRoundTrip(provider, provider, JsonFormat.SMILE, errorEntity());
+  }
+
+  @Test
+  public void shouldRoundTripAnErrorResponseInCbor() throws IOException {
+    JacksonCBORProvider provider = new JacksonCBORProvider(JsonFormat.CBOR.createMapper(jsonMapper));
+
+    assertRoundTrip(provider, provider, JsonFormat.CBOR, errorEntity());
+  }
+
+  @Test
+  public void shouldWriteWithTheConfigurationOfTheJsonMapper() throws IOException {
+    // Dates are written as text by the JSON mapper, and so in every format
+    Object entity = Collections.singletonMap("at", new Date(0));
+    JacksonSmileProvider smileProvider = new JacksonSmileProvider(JsonFormat.SMILE.createMapper(jsonMapper));
+    JacksonCBORProvider cborProvider = new JacksonCBORProvider(JsonFormat.CBOR.createMapper(jsonMapper));
+
+    assertRoundTrip(smileProvider, smileProvider, JsonFormat.SMILE, entity);
+    assertRoundTrip(cborProvider, cborProvider, JsonFormat.CBOR, entity);
+    assertThat(jsonMapper.valueToTree(entity).get("at").isTextual(), is(true));
+  }
+
+  private void assertRoundTrip(MessageBodyWriter<Object> writer, MessageBodyReader<Object> reader, JsonFormat format,
+                               Object entity) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writer.writeTo(entity, entity.getClass(), entity.getClass(), new Annotation[0], format.getMediaType(),
+        new MultivaluedHashMap<>(), out);
+    Object read = reader.readFrom(Object.class, JsonNode.class, new Annotation[0], format.getMediaType(),
+        new MultivaluedHashMap<>(), new ByteArrayInputStream(out.toByteArray()));
+
+    assertThat(format.name(), jsonMapper.valueToTree(read), is(jsonMapper.valueToTree(entity)));
+  }
+
+  private static Object errorEntity() {
+    Response response = CedarResponse.status(Response.Status.NOT_FOUND)
+        .errorMessage("The template has not been found")
+        .build();
+    return response.getEntity();
+  }
+}
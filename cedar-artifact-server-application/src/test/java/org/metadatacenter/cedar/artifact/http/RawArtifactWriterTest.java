@@ -0,0 +1,77 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.store.JsonNodeArtifact;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+import org.metadatacenter.cedar.test.util.SyntheticArtifactGenerator;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RawArtifactWriterTest {
+
+  @Test
+  public void shouldWriteTheSameStructureInEveryFormat() throws IOException {
+    JsonNode template = new SyntheticArtifactGenerator(1L).shape("5x2x2x2").template();
+    for (JsonFormat format : JsonFormat.values()) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new RawArtifactWriter().writeTo(new JsonNodeArtifact(template), RawArtifact.class, RawArtifact.class, null,
+          format.getMediaType(), new MultivaluedHashMap<>(), out);
+
+      assertThat(format.name(), new ObjectMapper(format.getFactory()).readTree(out.toByteArray()), is(template));
+    }
+  }
+
+  @Test
+  public void shouldFindTheFormatOfAMediaTypeWithParameters() {
+    assertThat(JsonFormat.forMediaType(MediaType.valueOf("application/x-jackson-smile; q=0.9")),
+        is(JsonFormat.SMILE));
+    assertThat(JsonFormat.forMediaType(MediaType.valueOf("application/CBOR")), is(JsonFormat.CBOR));
+    assertThat(JsonFormat.forMediaType(MediaType.valueOf("application/json;charset=UTF-8")), is(JsonFormat.JSON));
+    assertThat(JsonFormat.forMediaType(MediaType.valueOf("application/n-quads")), is(nullValue()));
+  }
+
+  @Test
+  public void shouldWriteInTheFormatOfTheMostPreferredMediaType() {
+    assertThat(JsonFormat.forAccept(null), is(JsonFormat.JSON));
+    assertThat(JsonFormat.forAccept("*/*"), is(JsonFormat.JSON));
+    assertThat(JsonFormat.forAccept("application/cbor"), is(JsonFormat.CBOR));
+    assertThat(JsonFormat.forAccept("application/json;q=0.5, application/x-jackson-smile"), is(JsonFormat.SMILE));
+    assertThat(JsonFormat.forAccept("*/*, application/cbor"), is(JsonFormat.CBOR));
+    assertThat(JsonFormat.forAccept("application/cbor;q=0, application/*"), is(JsonFormat.JSON));
+    assertThat(JsonFormat.forAccept("text/html, application/x-jackson-smile;q=0.1"), is(JsonFormat.SMILE));
+  }
+
+  @Test
+  public void shouldGiveEveryFormatItsOwnEntityTag() {
+    JsonNode template = new SyntheticArtifactGenerator(1L).shape("5x2x2x2").template();
+    RawArtifact artifact = new JsonNodeArtifact(template);
+    String tag = EntityTagUtil.of(template).getValue();
+
+    assertThat(EntityTagUtil.of(artifact, JsonFormat.JSON).getValue(), is(tag));
+    assertThat(EntityTagUtil.of(artifact, JsonFormat.SMILE).getValue(), is(tag + "-smile"));
+    assertThat(EntityTagUtil.of(template, JsonFormat.CBOR).getValue(), is(tag + "-cbor"));
+    assertThat(EntityTagUtil.matchesWeakly("\"" + tag + "\"", EntityTagUtil.of(artifact, JsonFormat.SMILE)), is(false));
+  }
+
+  @Test
+  public void shouldMatchTheEntityTagOfTheGzipEncoding() {
+    JsonNode template = new SyntheticArtifactGenerator(1L).shape("5x2x2x2").template();
+    EntityTag tag = EntityTagUtil.of(template);
+    EntityTag gzipTag = EntityTagUtil.forGzip(tag);
+
+    assertThat(gzipTag.getValue(), is(tag.getValue() + "-gzip"));
+    assertThat(EntityTagUtil.matchesStrongly(gzipTag.toString(), tag), is(true));
+    assertThat(EntityTagUtil.matchesWeakly("\"stale\", " + gzipTag, tag), is(true));
+    assertThat(EntityTagUtil.forGzip(new EntityTag(tag.getValue(), true)).getValue(), is(tag.getValue()));
+  }
+}
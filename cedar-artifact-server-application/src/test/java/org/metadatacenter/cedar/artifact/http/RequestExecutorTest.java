@@ -0,0 +1,213 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RequestExecutorTest {
+
+  private final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(1);
+  private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, queue);
+  private final MetricRegistry metrics = new MetricRegistry();
+  private final RequestExecutor requestExecutor = new RequestExecutor(pool, queue, 30, metrics);
+
+  @After
+  public void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void shouldResumeWithTheResponseOfTheProducer() throws InterruptedException {
+    RecordingAsyncResponse asyncResponse = new RecordingAsyncResponse();
+    requestExecutor.getExecutorService().execute(() -> requestExecutor.respond(asyncResponse,
+        () -> Response.ok("done").build()));
+
+    assertThat(asyncResponse.await().getStatus(), is(Response.Status.OK.getStatusCode()));
+    assertThat(asyncResponse.timeout > 0, is(true));
+  }
+
+  @Test
+  public void shouldAnswerWith503WhenThePoolAndTheQueueAreFull() throws InterruptedException {
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executorService = requestExecutor.getExecutorService();
+    executorService.execute(() -> awaitQuietly(release));
+    executorService.execute(() -> awaitQuietly(release));
+
+    RecordingAsyncResponse asyncResponse = new RecordingAsyncResponse();
+    executorService.execute(() -> requestExecutor.respond(asyncResponse, () -> Response.ok().build()));
+    release.countDown();
+
+    Response response = asyncResponse.await();
+    assertThat(response.getStatus(), is(Response.Status.SERVICE_UNAVAILABLE.getStatusCode()));
+    assertThat(response.getHeaderString(HttpHeaders.RETRY_AFTER), is("1"));
+    assertThat(metrics.meter(MetricRegistry.name(RequestExecutor.class, "rejected")).getCount(), is(1L));
+  }
+
+  @Test
+  public void shouldResumeWithTheExceptionOfTheProducer() throws InterruptedException {
+    RecordingAsyncResponse asyncResponse = new RecordingAsyncResponse();
+    IllegalStateException exception = new IllegalStateException();
+    requestExecutor.getExecutorService().execute(() -> requestExecutor.respond(asyncResponse, () -> {
+      throw exception;
+    }));
+
+    asyncResponse.done.await(10, TimeUnit.SECONDS);
+    assertThat(asyncResponse.throwable, is(exception));
+  }
+
+  @Test
+  public void shouldAnswerWith504WithoutRetryAfterWhenTheProducerTimesOut() throws InterruptedException {
+    RecordingAsyncResponse asyncResponse = new RecordingAsyncResponse();
+    requestExecutor.getExecutorService().execute(() -> requestExecutor.respond(asyncResponse, () -> {
+      // The timeout expires while the producer runs, which then goes on to write
+      asyncResponse.timeoutHandler.handleTimeout(asyncResponse);
+      return Response.ok("written").build();
+    }));
+
+    Response response = asyncResponse.await();
+    assertThat(response.getStatus(), is(Response.Status.GATEWAY_TIMEOUT.getStatusCode()));
+    assertThat(response.getHeaderString(HttpHeaders.RETRY_AFTER), is(nullValue()));
+    assertThat(metrics.meter(MetricRegistry.name(RequestExecutor.class, "timedOut")).getCount(), is(1L));
+  }
+
+  @Test
+  public void shouldAnswerWith503WithRetryAfterWhenTheRequestExpiresInTheQueue() throws InterruptedException {
+    RequestExecutor expiringRequestExecutor = new RequestExecutor(pool, queue, 1, new MetricRegistry());
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executorService = expiringRequestExecutor.getExecutorService();
+    executorService.execute(() -> awaitQuietly(release));
+
+    RecordingAsyncResponse asyncResponse = new RecordingAsyncResponse();
+    executorService.execute(() -> expiringRequestExecutor.respond(asyncResponse, () -> Response.ok().build()));
+    Thread.sleep(1100);
+    release.countDown();
+
+    Response response = asyncResponse.await();
+    assertThat(response.getStatus(), is(Response.Status.SERVICE_UNAVAILABLE.getStatusCode()));
+    assertThat(response.getHeaderString(HttpHeaders.RETRY_AFTER), is("1"));
+    assertThat(asyncResponse.timeoutHandler, is(nullValue()));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class RecordingAsyncResponse implements AsyncResponse {
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Object response;
+    private volatile Throwable throwable;
+    private volatile long timeout;
+    private volatile TimeoutHandler timeoutHandler;
+
+    private Response await() throws InterruptedException {
+      done.await(10, TimeUnit.SECONDS);
+      return (Response) response;
+    }
+
+    // Only the first resume answers the request, as with a real response
+    @Override
+    public synchronized boolean resume(Object response) {
+      if (isDone()) {
+        return false;
+      }
+      this.response = response;
+      done.countDown();
+      return true;
+    }
+
+    @Override
+    public synchronized boolean resume(Throwable response) {
+      if (isDone()) {
+        return false;
+      }
+      this.throwable = response;
+      done.countDown();
+      return true;
+    }
+
+    @Override
+    public boolean cancel() {
+      return false;
+    }
+
+    @Override
+    public boolean cancel(int retryAfter) {
+      return false;
+    }
+
+    @Override
+    public boolean cancel(Date retryAfter) {
+      return false;
+    }
+
+    @Override
+    public boolean isSuspended() {
+      return done.getCount() > 0;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return false;
+    }
+
+    @Override
+    public boolean isDone() {
+      return done.getCount() == 0;
+    }
+
+    @Override
+    public boolean setTimeout(long time, TimeUnit unit) {
+      this.timeout = unit.toNanos(time);
+      return true;
+    }
+
+    @Override
+    public void setTimeoutHandler(TimeoutHandler handler) {
+      this.timeoutHandler = handler;
+    }
+
+    @Override
+    public Collection<Class<?>> register(Class<?> callback) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+      return Collections.emptyMap();
+    }
+
+    @Override
+    public Collection<Class<?>> register(Object callback) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+      return Collections.emptyMap();
+    }
+  }
+}
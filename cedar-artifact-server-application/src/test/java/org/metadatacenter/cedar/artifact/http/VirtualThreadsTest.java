@@ -0,0 +1,28 @@
+package org.metadatacenter.cedar.artifact.http;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VirtualThreadsTest {
+
+  @Test
+  public void shouldNotUseThePreviewOfVirtualThreads() {
+    assertThat(VirtualThreads.isAvailable("1.8"), is(false));
+    assertThat(VirtualThreads.isAvailable("17"), is(false));
+    assertThat(VirtualThreads.isAvailable("19"), is(false));
+    assertThat(VirtualThreads.isAvailable("20"), is(false));
+  }
+
+  @Test
+  public void shouldUseTheVirtualThreadsOfJava21AndLater() {
+    assertThat(VirtualThreads.isAvailable("21"), is(true));
+    assertThat(VirtualThreads.isAvailable("25"), is(true));
+  }
+
+  @Test
+  public void shouldNotUseVirtualThreadsOfAnUnknownVersion() {
+    assertThat(VirtualThreads.isAvailable("unknown"), is(false));
+  }
+}
@@ -0,0 +1,54 @@
+package org.metadatacenter.cedar.artifact.jsonld;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.jsonldjava.core.JsonLdError;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.rdf.NQuadsStreamingOutput;
+import org.metadatacenter.cedar.artifact.resources.TestResourcesUtils;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PreloadedDocumentLoaderTest {
+
+  private static final String CONTEXT_URL = "https://example.org/contexts/company.jsonld";
+
+  private static PreloadedDocumentLoader documentLoader;
+
+  @BeforeClass
+  public static void loadContexts() throws Exception {
+    documentLoader = PreloadedDocumentLoader.fromClasspath("jsonld/test-contexts.properties", false);
+  }
+
+  @Test
+  public void shouldServePreloadedContext() throws Exception {
+    assertThat(documentLoader.size(), is(1));
+    assertThat(documentLoader.loadDocument(CONTEXT_URL).getDocument(), notNullValue());
+  }
+
+  @Test(expected = JsonLdError.class)
+  public void shouldRefuseContextWhichIsNotPreloaded() throws Exception {
+    documentLoader.loadDocument("https://example.org/contexts/unknown.jsonld");
+  }
+
+  @Test
+  public void shouldConvertInstanceWithRemoteContextToRdf() throws Exception {
+    JsonNode instance = JsonMapper.MAPPER.readTree(
+        TestResourcesUtils.getStringContent("jsonld/company-instance.jsonld"));
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NQuadsStreamingOutput.of(instance, documentLoader).write(output);
+    String nQuads = new String(output.toByteArray(), StandardCharsets.UTF_8);
+
+    assertThat(nQuads, containsString(
+        "<https://schema.metadatacenter.orgx/properties/7b426039-e270-41e4-b375-ca5aafcca85d> \"Cedar Inc.\""));
+    assertThat(nQuads, containsString("\"2014-09-01\"^^<http://www.w3.org/2001/XMLSchema#date>"));
+  }
+}
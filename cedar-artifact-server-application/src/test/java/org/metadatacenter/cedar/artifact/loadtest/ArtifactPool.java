@@ -0,0 +1,74 @@
+package org.metadatacenter.cedar.artifact.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The artifacts of one type which exist on the server, as returned when they were created, for the operations which
+ * need an existing artifact.
+ * <p>
+ * A picked artifact is in use until it is released, and is not taken for a delete meanwhile: an update of an artifact
+ * which is being deleted would fail, or, as a PUT creates a missing artifact, create it again outside the pool.
+ */
+public class ArtifactPool {
+
+  private final List<JsonNode> artifacts = new ArrayList<>();
+  // By identity, as the pool hands out its own instances
+  private final Map<JsonNode, Integer> useCounts = new IdentityHashMap<>();
+
+  public synchronized void add(JsonNode artifact) {
+    artifacts.add(artifact);
+  }
+
+  /**
+   * Returns a random artifact of the pool, which is in use until it is {@link #release released}, or null if the pool
+   * is empty.
+   */
+  public synchronized JsonNode pick() {
+    if (artifacts.isEmpty()) {
+      return null;
+    }
+    JsonNode artifact = artifacts.get(ThreadLocalRandom.current().nextInt(artifacts.size()));
+    useCounts.merge(artifact, 1, Integer::sum);
+    return artifact;
+  }
+
+  public synchronized void release(JsonNode artifact) {
+    if (artifact != null) {
+      useCounts.computeIfPresent(artifact, (released, count) -> count > 1 ? count - 1 : null);
+    }
+  }
+
+  /**
+   * Removes and returns a random artifact of the pool which is not in use, as long as more than the given number of
+   * artifacts remain, so that the deletes never leave the other operations without artifacts. Returns null otherwise.
+   */
+  public synchronized JsonNode takeIfMoreThan(int minimumSize) {
+    if (artifacts.size() <= minimumSize) {
+      return null;
+    }
+    int start = ThreadLocalRandom.current().nextInt(artifacts.size());
+    for (int i = 0; i < artifacts.size(); i++) {
+      int index = (start + i) % artifacts.size();
+      JsonNode artifact = artifacts.get(index);
+      if (!useCounts.containsKey(artifact)) {
+        // The order does not matter, so the last artifact fills the gap
+        artifacts.set(index, artifacts.get(artifacts.size() - 1));
+        artifacts.remove(artifacts.size() - 1);
+        return artifact;
+      }
+    }
+    return null;
+  }
+
+  public synchronized List<JsonNode> drain() {
+    List<JsonNode> drained = new ArrayList<>(artifacts);
+    artifacts.clear();
+    return drained;
+  }
+}
@@ -0,0 +1,359 @@
+package org.metadatacenter.cedar.artifact.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.dropwizard.testing.ConfigOverride;
+import io.dropwizard.testing.ResourceHelpers;
+import io.dropwizard.testing.junit.DropwizardAppRule;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.ArtifactServerApplication;
+import org.metadatacenter.cedar.artifact.ArtifactServerConfiguration;
+import org.metadatacenter.cedar.artifact.resources.utils.TestUtil;
+import org.metadatacenter.cedar.test.util.SyntheticArtifactGenerator;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.model.request.OutputFormatType;
+import org.metadatacenter.util.json.JsonMapper;
+import org.metadatacenter.util.test.TestUserUtil;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static javax.ws.rs.core.HttpHeaders.AUTHORIZATION;
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.BASE_URL;
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.TEST_CONFIG_FILE;
+
+/**
+ * Drives a mixed workload against a running artifact server and reports its throughput and latencies. It is not run
+ * with the tests, but with the load-test profile, and is configured by {@link LoadTestSettings}.
+ * <p>
+ * The workers run closed loops: each sends its next request when it has read the response to the previous one. The
+ * latencies are those of the server under the load it sustains, not under a fixed arrival rate, which is enough to
+ * compare two commits run with the same settings on the same machine.
+ * <p>
+ * Fields, elements, templates and instances are created, found, listed, updated and deleted, and instances are also
+ * exported as RDF. The artifacts are synthetic ones of the configured shape, and every artifact created is deleted at
+ * the end of the run.
+ */
+public class ArtifactServerLoadHarness {
+
+  private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+
+  @ClassRule
+  public static final DropwizardAppRule<ArtifactServerConfiguration> SERVER_APPLICATION =
+      new DropwizardAppRule<>(ArtifactServerApplication.class, ResourceHelpers.resourceFilePath(TEST_CONFIG_FILE),
+          ConfigOverride.config("storage.type", SETTINGS.getStorage()),
+          ConfigOverride.config("requestExecutor.threadType", SETTINGS.getThreadType()));
+
+  private static final CedarResourceType[] RESOURCE_TYPES = {CedarResourceType.FIELD, CedarResourceType.ELEMENT,
+      CedarResourceType.TEMPLATE, CedarResourceType.INSTANCE};
+  private static final String PROTOTYPE_FIELD = "Field 0";
+  private static final String PROTOTYPE_ELEMENT = "Element 0";
+  // The artifacts created before the run, which the deletes leave in place
+  private static final int SEED_ARTIFACTS = 20;
+  private static final int LIST_LIMIT = 20;
+  private static final int TIMEOUT_SECONDS = 60;
+  private static final long SEED = 20180129L;
+
+  private final Map<CedarResourceType, JsonNode> prototypes = new EnumMap<>(CedarResourceType.class);
+  private final Map<CedarResourceType, ArtifactPool> pools = new EnumMap<>(CedarResourceType.class);
+  private final List<Operation> operations = new ArrayList<>();
+  private int totalWeight;
+
+  private Client client;
+  private String authHeader;
+  private String baseTemplateId;
+  private volatile boolean running;
+
+  @Test
+  public void runLoadTest() throws Exception {
+    client = new ResteasyClientBuilder()
+        .connectionPoolSize(SETTINGS.getThreads())
+        .socketTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        .establishConnectionTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+        .build();
+    authHeader = TestUserUtil.getTestUser1AuthHeader(TestUtil.getCedarConfig());
+    try {
+      createPrototypes();
+      createOperations();
+      seed();
+      run();
+    } finally {
+      deleteCreatedArtifacts();
+      client.close();
+    }
+  }
+
+  private void createPrototypes() throws IOException {
+    SyntheticArtifactGenerator generator = new SyntheticArtifactGenerator(SEED).shape(SETTINGS.getShape());
+    ObjectNode template = generator.template();
+    JsonNode field = template.path("properties").get(PROTOTYPE_FIELD);
+    JsonNode element = template.path("properties").get(PROTOTYPE_ELEMENT);
+    if (field == null || element == null) {
+      throw new IllegalArgumentException("The shape " + SETTINGS.getShape() + " must have fields and elements");
+    }
+    prototypes.put(CedarResourceType.FIELD, withoutId(field));
+    prototypes.put(CedarResourceType.ELEMENT, withoutId(element));
+    prototypes.put(CedarResourceType.TEMPLATE, withoutId(template));
+
+    // The instances are all based on a template which is not deleted during the run
+    JsonNode baseTemplate = create(CedarResourceType.TEMPLATE, withoutId(template));
+    baseTemplateId = baseTemplate.get(LinkedData.ID).asText();
+    prototypes.put(CedarResourceType.INSTANCE, withoutId(generator.instance(baseTemplate)));
+  }
+
+  private void createOperations() {
+    for (CedarResourceType type : RESOURCE_TYPES) {
+      pools.put(type, new ArtifactPool());
+      addOperation(type, "create", () -> timedCreate(type));
+      addOperation(type, "find", () -> timedFind(type));
+      addOperation(type, "list", () -> timedList(type));
+      addOperation(type, "update", () -> timedUpdate(type));
+      addOperation(type, "delete", () -> timedDelete(type));
+    }
+    addOperation(CedarResourceType.INSTANCE, "rdf", this::timedRdfExport);
+  }
+
+  private void addOperation(CedarResourceType type, String kind, OperationBody body) {
+    Integer weight = SETTINGS.getMix().get(kind);
+    if (weight != null && weight > 0) {
+      OperationRecorder recorder = new OperationRecorder(type.getValue() + "." + kind);
+      operations.add(new Operation(recorder, weight, body));
+      totalWeight += weight;
+    }
+  }
+
+  private void seed() throws IOException {
+    for (CedarResourceType type : RESOURCE_TYPES) {
+      for (int i = 0; i < SEED_ARTIFACTS; i++) {
+        pools.get(type).add(create(type, prototypes.get(type)));
+      }
+    }
+  }
+
+  private void run() throws InterruptedException, IOException {
+    running = true;
+    ExecutorService workers = Executors.newFixedThreadPool(SETTINGS.getThreads());
+    for (int i = 0; i < SETTINGS.getThreads(); i++) {
+      workers.execute(this::work);
+    }
+    try {
+      TimeUnit.SECONDS.sleep(SETTINGS.getWarmupSeconds());
+      for (Operation operation : operations) {
+        operation.recorder.nextInterval();
+      }
+      long start = System.nanoTime();
+      TimeUnit.SECONDS.sleep(SETTINGS.getDurationSeconds());
+      List<OperationRecorder.Interval> intervals = new ArrayList<>();
+      for (Operation operation : operations) {
+        intervals.add(operation.recorder.nextInterval());
+      }
+      double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+      new LoadTestReport(SETTINGS, intervals, elapsedSeconds).write();
+    } finally {
+      running = false;
+      workers.shutdown();
+      workers.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  private void work() {
+    while (running) {
+      Operation operation = pickOperation();
+      try {
+        operation.body.run();
+      } catch (IOException | RuntimeException e) {
+        // Already recorded as an error, the run goes on
+      }
+    }
+  }
+
+  private Operation pickOperation() {
+    int point = ThreadLocalRandom.current().nextInt(totalWeight);
+    for (Operation operation : operations) {
+      point -= operation.weight;
+      if (point < 0) {
+        return operation;
+      }
+    }
+    throw new IllegalStateException("No operation at " + point);
+  }
+
+  private void timedCreate(CedarResourceType type) throws IOException {
+    String body = timed(type, "create", target(type).request().header(AUTHORIZATION, authHeader)
+        .buildPost(Entity.json(prototypes.get(type))), Response.Status.CREATED);
+    if (body != null) {
+      pools.get(type).add(JsonMapper.MAPPER.readTree(body));
+    }
+  }
+
+  private void timedFind(CedarResourceType type) throws IOException {
+    ArtifactPool pool = pools.get(type);
+    JsonNode artifact = pool.pick();
+    try {
+      timed(type, "find", target(type, artifact).request().header(AUTHORIZATION, authHeader).buildGet(),
+          Response.Status.OK);
+    } finally {
+      pool.release(artifact);
+    }
+  }
+
+  private void timedList(CedarResourceType type) throws IOException {
+    timed(type, "list", target(type).queryParam("limit", LIST_LIMIT).request().header(AUTHORIZATION, authHeader)
+        .buildGet(), Response.Status.OK);
+  }
+
+  // The artifact is held out of the deletes until the update is answered, as the PUT would create it again
+  private void timedUpdate(CedarResourceType type) throws IOException {
+    ArtifactPool pool = pools.get(type);
+    JsonNode artifact = pool.pick();
+    try {
+      timed(type, "update", target(type, artifact).request().header(AUTHORIZATION, authHeader)
+          .buildPut(Entity.json(artifact)), Response.Status.OK);
+    } finally {
+      pool.release(artifact);
+    }
+  }
+
+  private void timedDelete(CedarResourceType type) throws IOException {
+    JsonNode artifact = pools.get(type).takeIfMoreThan(SEED_ARTIFACTS);
+    if (artifact != null) {
+      timed(type, "delete", target(type, artifact).request().header(AUTHORIZATION, authHeader).buildDelete(),
+          Response.Status.NO_CONTENT);
+    }
+  }
+
+  private void timedRdfExport() throws IOException {
+    ArtifactPool pool = pools.get(CedarResourceType.INSTANCE);
+    JsonNode artifact = pool.pick();
+    try {
+      timed(CedarResourceType.INSTANCE, "rdf", target(CedarResourceType.INSTANCE, artifact)
+          .queryParam("format", OutputFormatType.RDF_NQUAD.getValue())
+          .request().header(AUTHORIZATION, authHeader).buildGet(), Response.Status.OK);
+    } finally {
+      pool.release(artifact);
+    }
+  }
+
+  /**
+   * Sends the request and records its latency, reading the whole response. Returns the response body if the status
+   * is the expected one, or null.
+   */
+  private String timed(CedarResourceType type, String kind, Invocation invocation, Response.Status expectedStatus) {
+    OperationRecorder recorder = recorder(type.getValue() + "." + kind);
+    long start = System.nanoTime();
+    try {
+      Response response = invocation.invoke();
+      String body = response.readEntity(String.class);
+      boolean success = response.getStatus() == expectedStatus.getStatusCode();
+      recorder.record(System.nanoTime() - start, success);
+      return success ? body : null;
+    } catch (ProcessingException e) {
+      recorder.record(System.nanoTime() - start, false);
+      return null;
+    }
+  }
+
+  private OperationRecorder recorder(String name) {
+    for (Operation operation : operations) {
+      if (operation.recorder.getName().equals(name)) {
+        return operation.recorder;
+      }
+    }
+    throw new IllegalArgumentException("No operation " + name);
+  }
+
+  private JsonNode create(CedarResourceType type, JsonNode artifact) throws IOException {
+    Response response = target(type).request().header(AUTHORIZATION, authHeader).post(Entity.json(artifact));
+    String body = response.readEntity(String.class);
+    if (response.getStatus() != Response.Status.CREATED.getStatusCode()) {
+      throw new IllegalStateException("The " + type.getValue() + " was not created: " + response.getStatus() + " "
+          + body);
+    }
+    return JsonMapper.MAPPER.readTree(body);
+  }
+
+  // The instances first, so that their template can be deleted
+  private void deleteCreatedArtifacts() {
+    for (int i = RESOURCE_TYPES.length - 1; i >= 0; i--) {
+      CedarResourceType type = RESOURCE_TYPES[i];
+      ArtifactPool pool = pools.get(type);
+      if (pool != null) {
+        for (JsonNode artifact : pool.drain()) {
+          delete(type, artifact);
+        }
+      }
+    }
+    if (baseTemplateId != null) {
+      delete(CedarResourceType.TEMPLATE, JsonMapper.MAPPER.createObjectNode().put(LinkedData.ID, baseTemplateId));
+    }
+  }
+
+  private void delete(CedarResourceType type, JsonNode artifact) {
+    try {
+      target(type, artifact).request().header(AUTHORIZATION, authHeader).delete().close();
+    } catch (ProcessingException e) {
+      // The artifact is left behind, the other ones are still deleted
+    }
+  }
+
+  private WebTarget target(CedarResourceType type) {
+    return client.target(TestUtil.getResourceUrlRoute(baseUrl(), type));
+  }
+
+  private WebTarget target(CedarResourceType type, JsonNode artifact) {
+    try {
+      String id = artifact.get(LinkedData.ID).asText();
+      return client.target(TestUtil.getResourceUrlRoute(baseUrl(), type) + "/" + URLEncoder.encode(id, "UTF-8"));
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String baseUrl() {
+    return BASE_URL + ":" + SERVER_APPLICATION.getLocalPort();
+  }
+
+  private static ObjectNode withoutId(JsonNode artifact) {
+    ObjectNode copy = artifact.deepCopy();
+    copy.remove(LinkedData.ID);
+    return copy;
+  }
+
+  @FunctionalInterface
+  private interface OperationBody {
+
+    void run() throws IOException;
+
+  }
+
+  private static final class Operation {
+
+    private final OperationRecorder recorder;
+    private final int weight;
+    private final OperationBody body;
+
+    private Operation(OperationRecorder recorder, int weight, OperationBody body) {
+      this.recorder = recorder;
+      this.weight = weight;
+      this.body = body;
+    }
+  }
+}
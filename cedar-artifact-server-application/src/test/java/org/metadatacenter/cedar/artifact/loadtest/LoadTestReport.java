@@ -0,0 +1,115 @@
+package org.metadatacenter.cedar.artifact.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes the results of a run to the report directory:
+ * <ul>
+ * <li>summary.csv: one line per operation and run, appended, so that the runs of several commits can be compared</li>
+ * <li>&lt;label&gt;/summary.txt: the same figures as a table</li>
+ * <li>&lt;label&gt;/&lt;operation&gt;.hgrm: the latency distribution of each operation, in milliseconds, which the
+ * HdrHistogram plotter can draw</li>
+ * </ul>
+ */
+public class LoadTestReport {
+
+  private static final String ALL_OPERATIONS = "all";
+  private static final String CSV_HEADER = "label,storage,threadType,threads,shape,operation,count,errors,"
+      + "throughputPerSecond,p50Millis,p90Millis,p99Millis,p999Millis,maxMillis";
+  private static final String TABLE_FORMAT = "%-28s %10s %8s %12s %10s %10s %10s %10s %10s%n";
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private final LoadTestSettings settings;
+  private final List<OperationRecorder.Interval> intervals;
+  private final double elapsedSeconds;
+
+  public LoadTestReport(LoadTestSettings settings, List<OperationRecorder.Interval> intervals,
+                        double elapsedSeconds) {
+    this.settings = settings;
+    this.intervals = intervals;
+    this.elapsedSeconds = elapsedSeconds;
+  }
+
+  public void write() throws IOException {
+    File directory = new File(settings.getReportDirectory());
+    File runDirectory = new File(directory, settings.getLabel());
+    if (!runDirectory.isDirectory() && !runDirectory.mkdirs()) {
+      throw new IOException("The report directory can not be created: " + runDirectory);
+    }
+
+    Histogram all = new Histogram(3);
+    long allErrors = 0;
+    for (OperationRecorder.Interval interval : intervals) {
+      all.add(interval.getHistogram());
+      allErrors += interval.getErrors();
+      try (PrintStream out = open(new File(runDirectory, interval.getName() + ".hgrm"), false)) {
+        interval.getHistogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+      }
+    }
+
+    File csv = new File(directory, "summary.csv");
+    boolean newCsv = !csv.exists();
+    try (PrintStream out = open(csv, true)) {
+      if (newCsv) {
+        out.println(CSV_HEADER);
+      }
+      for (OperationRecorder.Interval interval : intervals) {
+        out.println(csvLine(interval.getName(), interval.getHistogram(), interval.getErrors()));
+      }
+      out.println(csvLine(ALL_OPERATIONS, all, allErrors));
+    }
+
+    try (PrintStream out = open(new File(runDirectory, "summary.txt"), false)) {
+      writeTable(out, all, allErrors);
+    }
+    writeTable(System.out, all, allErrors);
+  }
+
+  private void writeTable(PrintStream out, Histogram all, long allErrors) {
+    out.printf(Locale.ROOT, "Run %s: %s storage, %s server threads, %d clients, shape %s, %.1f s measured%n",
+        settings.getLabel(), settings.getStorage(), settings.getThreadType(), settings.getThreads(),
+        settings.getShape(), elapsedSeconds);
+    out.printf(Locale.ROOT, TABLE_FORMAT, "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms",
+        "p99.9 ms", "max ms");
+    for (OperationRecorder.Interval interval : intervals) {
+      tableLine(out, interval.getName(), interval.getHistogram(), interval.getErrors());
+    }
+    tableLine(out, ALL_OPERATIONS, all, allErrors);
+  }
+
+  private void tableLine(PrintStream out, String name, Histogram histogram, long errors) {
+    out.printf(Locale.ROOT, TABLE_FORMAT, name, histogram.getTotalCount(), errors,
+        format(histogram.getTotalCount() / elapsedSeconds),
+        millis(histogram, 50.0), millis(histogram, 90.0), millis(histogram, 99.0), millis(histogram, 99.9),
+        format(histogram.getMaxValue() / MICROS_PER_MILLI));
+  }
+
+  private String csvLine(String name, Histogram histogram, long errors) {
+    return String.join(",", settings.getLabel(), settings.getStorage(), settings.getThreadType(),
+        String.valueOf(settings.getThreads()),
+        settings.getShape(), name, String.valueOf(histogram.getTotalCount()), String.valueOf(errors),
+        format(histogram.getTotalCount() / elapsedSeconds),
+        millis(histogram, 50.0), millis(histogram, 90.0), millis(histogram, 99.0), millis(histogram, 99.9),
+        format(histogram.getMaxValue() / MICROS_PER_MILLI));
+  }
+
+  private static String millis(Histogram histogram, double percentile) {
+    return format(histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI);
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.3f", value);
+  }
+
+  private static PrintStream open(File file, boolean append) throws IOException {
+    return new PrintStream(new FileOutputStream(file, append), false, StandardCharsets.UTF_8.name());
+  }
+}
@@ -0,0 +1,123 @@
+package org.metadatacenter.cedar.artifact.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The settings of a load test run, read from system properties so that they can be given on the Maven command line:
+ * <pre>
+ * mvn -P load-test test -Dloadtest.storage=MONGO -Dloadtest.threads=16 -Dloadtest.label=$(git rev-parse --short HEAD)
+ * </pre>
+ */
+public class LoadTestSettings {
+
+  private static final String PREFIX = "loadtest.";
+  private static final String DEFAULT_MIX = "create=2,find=4,list=1,update=2,delete=1,rdf=1";
+
+  private final String storage;
+  private final String threadType;
+  private final int threads;
+  private final int warmupSeconds;
+  private final int durationSeconds;
+  private final String shape;
+  private final String label;
+  private final String reportDirectory;
+  private final Map<String, Integer> mix;
+
+  private LoadTestSettings(String storage, String threadType, int threads, int warmupSeconds, int durationSeconds,
+                           String shape, String label, String reportDirectory, Map<String, Integer> mix) {
+    this.storage = storage;
+    this.threadType = threadType;
+    this.threads = threads;
+    this.warmupSeconds = warmupSeconds;
+    this.durationSeconds = durationSeconds;
+    this.shape = shape;
+    this.label = label;
+    this.reportDirectory = reportDirectory;
+    this.mix = mix;
+  }
+
+  public static LoadTestSettings fromSystemProperties() {
+    return new LoadTestSettings(
+        property("storage", "MEMORY"),
+        property("threadType", "PLATFORM"),
+        Integer.parseInt(property("threads", "8")),
+        Integer.parseInt(property("warmupSeconds", "10")),
+        Integer.parseInt(property("durationSeconds", "60")),
+        property("shape", "20x2x1x2"),
+        property("label", "unlabeled"),
+        property("reportDirectory", "target/load-test"),
+        parseMix(property("mix", DEFAULT_MIX)));
+  }
+
+  /**
+   * The storage of the server under test: MEMORY, or MONGO for the database of the CEDAR configuration.
+   */
+  public String getStorage() {
+    return storage;
+  }
+
+  /**
+   * The threads which run the resources of the server under test: PLATFORM, or VIRTUAL on Java 21 and later.
+   */
+  public String getThreadType() {
+    return threadType;
+  }
+
+  /**
+   * The number of clients, each of which sends its next request when it has the answer to the previous one.
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  public int getWarmupSeconds() {
+    return warmupSeconds;
+  }
+
+  public int getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  /**
+   * The shape of the synthetic templates and instances, as "WxExDxC": see the synthetic artifact generator.
+   */
+  public String getShape() {
+    return shape;
+  }
+
+  /**
+   * The name of the run in the reports, such as the commit under test.
+   */
+  public String getLabel() {
+    return label;
+  }
+
+  public String getReportDirectory() {
+    return reportDirectory;
+  }
+
+  /**
+   * The relative weight of each kind of operation: create, find, list, update and delete for every resource type, and
+   * rdf for the RDF export of instances.
+   */
+  public Map<String, Integer> getMix() {
+    return mix;
+  }
+
+  private static String property(String name, String defaultValue) {
+    return System.getProperty(PREFIX + name, defaultValue);
+  }
+
+  private static Map<String, Integer> parseMix(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split("=");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("The mix must be a list of operation=weight, not " + mix);
+      }
+      weights.put(parts[0], Integer.parseInt(parts[1]));
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,65 @@
+package org.metadatacenter.cedar.artifact.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The latencies and errors of one operation, recorded by all the workers. Latencies are recorded in microseconds, with
+ * three significant digits.
+ */
+public class OperationRecorder {
+
+  private final String name;
+  private final Recorder recorder = new Recorder(3);
+  private final AtomicLong errors = new AtomicLong();
+
+  public OperationRecorder(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void record(long latencyNanos, boolean success) {
+    recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+    if (!success) {
+      errors.incrementAndGet();
+    }
+  }
+
+  /**
+   * Returns what was recorded since the previous interval, and starts a new one.
+   */
+  public Interval nextInterval() {
+    return new Interval(name, recorder.getIntervalHistogram(), errors.getAndSet(0));
+  }
+
+  public static class Interval {
+
+    private final String name;
+    private final Histogram histogram;
+    private final long errors;
+
+    private Interval(String name, Histogram histogram, long errors) {
+      this.name = name;
+      this.histogram = histogram;
+      this.errors = errors;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public Histogram getHistogram() {
+      return histogram;
+    }
+
+    public long getErrors() {
+      return errors;
+    }
+  }
+}
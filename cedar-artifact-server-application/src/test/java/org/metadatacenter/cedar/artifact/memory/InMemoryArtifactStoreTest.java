@@ -0,0 +1,109 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.store.BulkInsertResult;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.metadatacenter.model.ModelNodeNames.PAV_LAST_UPDATED_ON;
+
+public class InMemoryArtifactStoreTest {
+
+  private static final String ID = "https://repo.metadatacenter.org/templates/1";
+  private static final String LAST_UPDATED_ON = "2020-01-01T00:00:00-08:00";
+
+  private InMemoryArtifactStore store;
+
+  @Before
+  public void setUp() throws IOException {
+    store = new InMemoryArtifactStore(new InMemoryCollection());
+    store.insertMany(Collections.singletonList(artifact("Initial")));
+  }
+
+  @Test
+  public void shouldChangeTheRevisionOnEveryWrite() throws IOException {
+    VersionedArtifact inserted = store.findVersioned(ID);
+    store.save(ID, artifact("Saved"), false);
+    VersionedArtifact saved = store.findVersioned(ID);
+
+    assertThat(inserted.getRevision(), is(not(nullValue())));
+    assertThat(saved.getRevision(), is(not(inserted.getRevision())));
+    assertThat(saved.getArtifact().get("title").asText(), is("Saved"));
+  }
+
+  @Test
+  public void shouldRejectTheSecondOfTwoWritesWithinTheSameSecond() throws IOException {
+    // Both writers read the same version; the writes do not change the last update time
+    VersionedArtifact read = store.findVersioned(ID);
+
+    assertThat(store.replaceIfRevision(ID, read.getRevision(), artifact("First")), is(true));
+    assertThat(store.replaceIfRevision(ID, read.getRevision(), artifact("Second")), is(false));
+    assertThat(store.updateIfRevision(ID, read.getRevision(), read.getArtifact(), artifact("Third")), is(false));
+    assertThat(store.deleteIfRevision(ID, read.getRevision()), is(false));
+    assertThat(store.findVersioned(ID).getArtifact().get("title").asText(), is("First"));
+  }
+
+  @Test
+  public void shouldWriteWithTheCurrentRevision() throws IOException {
+    VersionedArtifact read = store.findVersioned(ID);
+    assertThat(store.updateIfRevision(ID, read.getRevision(), read.getArtifact(), artifact("Updated")), is(true));
+
+    VersionedArtifact updated = store.findVersioned(ID);
+    assertThat(updated.getArtifact().get("title").asText(), is("Updated"));
+    assertThat(store.deleteIfRevision(ID, updated.getRevision()), is(true));
+    assertThat(store.findVersioned(ID), is(nullValue()));
+  }
+
+  @Test
+  public void shouldInsertAnArtifactWithARevision() throws IOException {
+    store.insert(JsonMapper.MAPPER.createObjectNode().put(LinkedData.ID, ID + "/inserted"));
+
+    assertThat(store.findVersioned(ID + "/inserted").getRevision(), is(not(nullValue())));
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldNotInsertADuplicate() throws IOException {
+    store.insert(artifact("Duplicate"));
+  }
+
+  @Test
+  public void shouldInsertAllButTheDuplicates() throws IOException {
+    ObjectNode other = JsonMapper.MAPPER.createObjectNode().put(LinkedData.ID, ID + "/other");
+    BulkInsertResult result = store.insertMany(Arrays.asList(other, artifact("Duplicate")));
+
+    assertThat(result.getInsertedCount(), is(1));
+    assertThat(result.isInserted(0), is(true));
+    assertThat(result.isInserted(1), is(false));
+    assertThat(store.findVersioned(ID).getArtifact().get("title").asText(), is("Initial"));
+    assertThat(store.count(), is(2L));
+  }
+
+  @Test
+  public void shouldCreateAMissingArtifactUnderTheIdItIsSavedUnder() throws IOException {
+    assertThat(store.save(ID + "/saved", artifact("Saved"), true), is(CreateOrUpdate.CREATE));
+
+    assertThat(store.findVersioned(ID + "/saved").getArtifact().get("title").asText(), is("Saved"));
+    assertThat(store.findVersioned(ID).getArtifact().get("title").asText(), is("Initial"));
+  }
+
+  private static JsonNode artifact(String title) {
+    ObjectNode artifact = JsonMapper.MAPPER.createObjectNode();
+    artifact.put(LinkedData.ID, ID);
+    artifact.put("title", title);
+    artifact.put(PAV_LAST_UPDATED_ON, LAST_UPDATED_ON);
+    return artifact;
+  }
+}
@@ -0,0 +1,179 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.server.service.FieldNameInEx;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InMemoryCollectionTest {
+
+  private static final String ID_PREFIX = "https://repo.metadatacenter.org/templates/";
+
+  private InMemoryCollection collection;
+
+  @Before
+  public void setUp() {
+    collection = new InMemoryCollection();
+  }
+
+  @Test
+  public void shouldFindAnInsertedArtifact() throws IOException {
+    collection.insert(artifact(1));
+
+    assertThat(collection.find(ID_PREFIX + 1), is(artifact(1)));
+    assertThat(collection.find(ID_PREFIX + 2), is(nullValue()));
+    assertThat(collection.count(), is(1L));
+  }
+
+  @Test(expected = IOException.class)
+  public void shouldRejectADuplicateId() throws IOException {
+    collection.insert(artifact(1));
+    collection.insert(artifact(1));
+  }
+
+  @Test
+  public void shouldNotShareTheStoredArtifactsWithTheCaller() throws IOException {
+    JsonNode inserted = artifact(1);
+    collection.insert(inserted);
+    ((ObjectNode) inserted).put("title", "Changed after the insert");
+    ((ObjectNode) collection.find(ID_PREFIX + 1)).put("title", "Changed after the find");
+
+    assertThat(collection.find(ID_PREFIX + 1), is(artifact(1)));
+  }
+
+  @Test
+  public void shouldCreateAMissingArtifactUnderTheIdItIsSavedUnder() throws IOException {
+    // The body carries another id, which the artifact is not found by
+    assertThat(collection.save(ID_PREFIX + 1, artifact(2), true), is(CreateOrUpdate.CREATE));
+
+    assertThat(collection.find(ID_PREFIX + 1), is(artifact(2)));
+    assertThat(collection.find(ID_PREFIX + 2), is(nullValue()));
+    assertThat(collection.save(ID_PREFIX + 1, artifact(3), true), is(CreateOrUpdate.UPDATE));
+    assertThat(collection.count(), is(1L));
+  }
+
+  @Test
+  public void shouldNotCreateAMissingArtifactUnlessAllowed() throws IOException {
+    assertThat(collection.save(ID_PREFIX + 1, artifact(1), false), is(nullValue()));
+    assertThat(collection.count(), is(0L));
+  }
+
+  @Test
+  public void shouldContinueAPageAfterItsLastArtifact() throws IOException {
+    for (int i = 1; i <= 5; i++) {
+      collection.insert(artifact(i));
+    }
+
+    List<String> titles = new ArrayList<>();
+    List<Integer> pageSizes = new ArrayList<>();
+    String afterKey = null;
+    do {
+      ArtifactPage page = collection.findPage(afterKey, 2, null, null);
+      for (JsonNode item : page.getItems()) {
+        titles.add(item.get("title").asText());
+      }
+      pageSizes.add(page.getItems().size());
+      afterKey = page.getNextKey();
+    } while (afterKey != null);
+
+    assertThat(titles, is(Arrays.asList("Title 1", "Title 2", "Title 3", "Title 4", "Title 5")));
+    assertThat(pageSizes, is(Arrays.asList(2, 2, 1)));
+  }
+
+  @Test
+  public void shouldContinueAPageAfterItsLastArtifactIsDeleted() throws IOException {
+    for (int i = 1; i <= 4; i++) {
+      collection.insert(artifact(i));
+    }
+    ArtifactPage firstPage = collection.findPage(null, 2, null, null);
+    collection.delete(ID_PREFIX + 2);
+
+    ArtifactPage secondPage = collection.findPage(firstPage.getNextKey(), 2, null, null);
+    assertThat(secondPage.getItems(), is(Arrays.asList(artifact(3), artifact(4))));
+    assertThat(secondPage.hasMore(), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAPageKeyItDidNotProduce() {
+    collection.findPage("not a key", 2, null, null);
+  }
+
+  @Test
+  public void shouldReplaceOnlyTheCurrentRevision() throws IOException {
+    collection.insert(artifact(1));
+    VersionedArtifact read = collection.findVersioned(ID_PREFIX + 1);
+
+    assertThat(collection.replaceIfRevision(ID_PREFIX + 1, read.getRevision(), artifact(1, "First")), is(true));
+    assertThat(collection.replaceIfRevision(ID_PREFIX + 1, read.getRevision(), artifact(1, "Second")), is(false));
+    assertThat(collection.replaceIfRevision(ID_PREFIX + 2, read.getRevision(), artifact(2)), is(false));
+    assertThat(collection.find(ID_PREFIX + 1).get("title").asText(), is("First"));
+  }
+
+  @Test
+  public void shouldDeleteOnlyTheCurrentRevision() throws IOException {
+    collection.insert(artifact(1));
+    VersionedArtifact read = collection.findVersioned(ID_PREFIX + 1);
+    collection.save(ID_PREFIX + 1, artifact(1, "Saved"), false);
+
+    assertThat(collection.deleteIfRevision(ID_PREFIX + 1, read.getRevision()), is(false));
+    assertThat(collection.count(), is(1L));
+    String currentRevision = collection.findVersioned(ID_PREFIX + 1).getRevision();
+    assertThat(collection.deleteIfRevision(ID_PREFIX + 1, currentRevision), is(true));
+    assertThat(collection.findVersioned(ID_PREFIX + 1), is(nullValue()));
+    assertThat(collection.count(), is(0L));
+  }
+
+  @Test
+  public void shouldIncludeOnlyTheGivenFields() throws IOException {
+    collection.insert(artifact(1));
+
+    List<JsonNode> artifacts = collection.findAll(10, 0, Collections.singletonList("title"), FieldNameInEx.INCLUDE);
+    assertThat(artifacts.size(), is(1));
+    assertThat(artifacts.get(0), is(JsonMapper.MAPPER.createObjectNode().put("title", "Title 1")));
+  }
+
+  @Test
+  public void shouldExcludeTheGivenFields() throws IOException {
+    collection.insert(artifact(1));
+
+    ArtifactPage page = collection.findPage(null, 10, Collections.singletonList("title"), FieldNameInEx.EXCLUDE);
+    assertThat(page.getItems().size(), is(1));
+    assertThat(page.getItems().get(0), is(JsonMapper.MAPPER.createObjectNode().put(LinkedData.ID, ID_PREFIX + 1)));
+  }
+
+  @Test
+  public void shouldSkipTheOffset() throws IOException {
+    for (int i = 1; i <= 3; i++) {
+      collection.insert(artifact(i));
+    }
+
+    assertThat(collection.findAll(10, 2, null, null), is(Collections.singletonList(artifact(3))));
+  }
+
+  private static JsonNode artifact(int number) {
+    return artifact(number, "Title " + number);
+  }
+
+  private static JsonNode artifact(int number, String title) {
+    ObjectNode artifact = JsonMapper.MAPPER.createObjectNode();
+    artifact.put(LinkedData.ID, ID_PREFIX + number);
+    artifact.put("title", title);
+    return artifact;
+  }
+}
@@ -0,0 +1,49 @@
+package org.metadatacenter.cedar.artifact.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.config.StageMetricsConfig;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StageTimingsTest {
+
+  @Test
+  public void shouldRecordEveryStageInItsTimer() throws IOException {
+    MetricRegistry metrics = new MetricRegistry();
+    StageMetrics stageMetrics = new StageMetrics(metrics, new StageMetricsConfig());
+
+    StageTimings timings = stageMetrics.start(CedarResourceType.INSTANCE);
+    timings.mark(StageMetrics.PARSE);
+    timings.mark(StageMetrics.VALIDATE);
+    stageMetrics.start(CedarResourceType.INSTANCE).mark(StageMetrics.PARSE);
+
+    String prefix = MetricRegistry.name(StageMetrics.class, CedarResourceType.INSTANCE.getValue());
+    assertThat(metrics.timer(MetricRegistry.name(prefix, StageMetrics.PARSE)).getCount(), is(2L));
+    assertThat(metrics.timer(MetricRegistry.name(prefix, StageMetrics.VALIDATE)).getCount(), is(1L));
+    // The header is disabled by default
+    Response response = timings.addServerTiming(Response.ok().build());
+    assertThat(response.getHeaderString(StageTimings.SERVER_TIMING), is(nullValue()));
+  }
+
+  @Test
+  public void shouldListTheStagesInTheServerTimingHeader() throws IOException {
+    StageMetricsConfig config = JsonMapper.MAPPER.readValue("{\"serverTimingHeader\":true}",
+        StageMetricsConfig.class);
+    StageTimings timings = new StageMetrics(new MetricRegistry(), config).start(CedarResourceType.TEMPLATE);
+    timings.mark(StageMetrics.PARSE);
+    timings.mark(StageMetrics.STORE);
+
+    Response response = timings.addServerTiming(Response.ok().build());
+
+    String serverTiming = response.getHeaderString(StageTimings.SERVER_TIMING);
+    assertThat(serverTiming.matches("parse;dur=\\d+\\.\\d{3}, store;dur=\\d+\\.\\d{3}"), is(true));
+  }
+}
@@ -0,0 +1,54 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+import org.junit.Test;
+
+import javax.ws.rs.core.UriBuilder;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CursorLinkHeaderUtilTest {
+
+  private static final String URL = "https://artifact.metadatacenter.org/templates";
+
+  @Test
+  public void shouldLinkTheNextPage() {
+    PageCursor next = PageCursor.afterKey("0000000000000002");
+
+    String header = CursorLinkHeaderUtil.getCursorLinkHeader(UriBuilder.fromUri(URL + "?summary=true"), 2, next);
+
+    String[] links = header.split(", ");
+    assertThat(links.length, is(2));
+    assertThat(links[0], endsWith("; rel=\"first\""));
+    assertThat(links[0], containsString("summary=true"));
+    assertThat(links[0], containsString("cursor="));
+    assertThat(links[0], not(containsString(next.encode())));
+    assertThat(links[1], endsWith("; rel=\"next\""));
+    assertThat(links[1], containsString("summary=true"));
+    assertThat(links[1], containsString("limit=2"));
+    assertThat(links[1], containsString("cursor=" + next.encode()));
+  }
+
+  @Test
+  public void shouldNotLinkANextPageAfterTheLastPage() {
+    String header = CursorLinkHeaderUtil.getCursorLinkHeader(UriBuilder.fromUri(URL + "?cursor=abc"), 2, null);
+
+    assertThat(header, startsWith("<" + URL + "?"));
+    assertThat(header, endsWith("; rel=\"first\""));
+    assertThat(header, not(containsString("cursor=abc")));
+    assertThat(header, not(containsString("rel=\"next\"")));
+  }
+
+  @Test
+  public void shouldDropTheOffset() {
+    String header = CursorLinkHeaderUtil.getCursorLinkHeader(UriBuilder.fromUri(URL + "?offset=4&limit=10"), 5,
+        null);
+
+    assertThat(header, not(containsString("offset")));
+    assertThat(header, containsString("limit=5"));
+  }
+}
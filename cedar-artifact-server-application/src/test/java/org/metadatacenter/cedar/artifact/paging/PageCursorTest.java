@@ -0,0 +1,65 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+import org.junit.Test;
+import org.metadatacenter.exception.CedarBadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PageCursorTest {
+
+  @Test
+  public void shouldDecodeTheEncodedKey() throws CedarBadRequestException {
+    PageCursor cursor = PageCursor.afterKey("5f1d7a2c9b3e4d0012345678");
+
+    PageCursor decoded = PageCursor.decode(cursor.encode());
+
+    assertThat(decoded.getKey(), is("5f1d7a2c9b3e4d0012345678"));
+    assertThat(decoded.encode(), is(cursor.encode()));
+  }
+
+  @Test
+  public void shouldEncodeAUrlSafeValue() {
+    String encoded = PageCursor.afterKey("??>>??>>").encode();
+
+    assertThat(encoded.matches("[A-Za-z0-9_-]+"), is(true));
+  }
+
+  @Test
+  public void shouldDecodeTheEmptyCursorAsTheFirstPage() throws CedarBadRequestException {
+    assertThat(PageCursor.decode(""), is(sameInstance(PageCursor.FIRST)));
+    assertThat(PageCursor.decode(null), is(sameInstance(PageCursor.FIRST)));
+    assertThat(PageCursor.FIRST.getKey(), is(nullValue()));
+    assertThat(PageCursor.FIRST.encode(), is(""));
+  }
+
+  @Test(expected = CedarBadRequestException.class)
+  public void shouldRejectAValueWhichIsNotBase64() throws CedarBadRequestException {
+    PageCursor.decode("not a cursor!");
+  }
+
+  @Test(expected = CedarBadRequestException.class)
+  public void shouldRejectAValueWithoutThePrefix() throws CedarBadRequestException {
+    PageCursor.decode(encode("x:5f1d7a2c"));
+  }
+
+  @Test(expected = CedarBadRequestException.class)
+  public void shouldRejectAValueWithoutAKey() throws CedarBadRequestException {
+    PageCursor.decode(encode("k:"));
+  }
+
+  @Test(expected = CedarBadRequestException.class)
+  public void shouldRejectATruncatedValue() throws CedarBadRequestException {
+    String encoded = PageCursor.afterKey("5f1d7a2c9b3e4d0012345678").encode();
+    PageCursor.decode(encoded.substring(0, 1));
+  }
+
+  private static String encode(String value) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,96 @@
+package org.metadatacenter.cedar.artifact.paging;
+
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.config.TotalCountConfig;
+import org.metadatacenter.cedar.artifact.memory.InMemoryArtifactStore;
+import org.metadatacenter.cedar.artifact.memory.InMemoryCollection;
+import org.metadatacenter.util.json.JsonMapper;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TotalCounterTest {
+
+  @Test
+  public void shouldCountExactlyOnEveryCall() {
+    CountingStore store = new CountingStore(42, 40);
+    TotalCounter counter = new TotalCounter(store, config(TotalCountStrategy.EXACT));
+
+    assertThat(counter.count(), is(42L));
+    store.count = 43;
+    assertThat(counter.count(), is(43L));
+    assertThat(store.countCalls, is(2));
+    assertThat(store.estimatedCountCalls, is(0));
+    assertThat(counter.isExact(), is(true));
+  }
+
+  @Test
+  public void shouldReturnTheEstimatedCount() {
+    CountingStore store = new CountingStore(42, 40);
+    TotalCounter counter = new TotalCounter(store, config(TotalCountStrategy.ESTIMATED));
+
+    assertThat(counter.count(), is(40L));
+    assertThat(store.countCalls, is(0));
+    assertThat(counter.isExact(), is(false));
+  }
+
+  @Test
+  public void shouldReuseTheCachedCountUntilItExpires() throws InterruptedException {
+    CountingStore store = new CountingStore(42, 40);
+    TotalCounter counter = new TotalCounter(store, config(TotalCountStrategy.CACHED));
+
+    assertThat(counter.count(), is(42L));
+    store.count = 43;
+    assertThat(counter.count(), is(42L));
+    assertThat(store.countCalls, is(1));
+    assertThat(counter.isExact(), is(false));
+
+    Thread.sleep(1100);
+    assertThat(counter.count(), is(43L));
+    assertThat(store.countCalls, is(2));
+  }
+
+  @Test
+  public void shouldNotCount() {
+    CountingStore store = new CountingStore(42, 40);
+    TotalCounter counter = new TotalCounter(store, config(TotalCountStrategy.NONE));
+
+    assertThat(counter.count(), is(nullValue()));
+    assertThat(store.countCalls, is(0));
+    assertThat(store.estimatedCountCalls, is(0));
+    assertThat(counter.isExact(), is(false));
+  }
+
+  private static TotalCountConfig config(TotalCountStrategy strategy) {
+    return JsonMapper.MAPPER.convertValue(JsonMapper.MAPPER.createObjectNode()
+        .put("strategy", strategy.name())
+        .put("cacheTtlSeconds", 1), TotalCountConfig.class);
+  }
+
+  private static class CountingStore extends InMemoryArtifactStore {
+
+    private long count;
+    private final long estimatedCount;
+    private int countCalls;
+    private int estimatedCountCalls;
+
+    CountingStore(long count, long estimatedCount) {
+      super(new InMemoryCollection());
+      this.count = count;
+      this.estimatedCount = estimatedCount;
+    }
+
+    @Override
+    public long count() {
+      countCalls++;
+      return count;
+    }
+
+    @Override
+    public long estimatedCount() {
+      estimatedCountCalls++;
+      return estimatedCount;
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package org.metadatacenter.cedar.artifact.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class JsonMergePatchTest {
+
+  @Test
+  public void shouldMergeObjectsAndRemoveNullMembers() throws IOException {
+    JsonNode target = json("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"},\"items\":[1,2]}");
+    JsonNode patch = json("{\"a\":\"z\",\"c\":{\"f\":null},\"items\":[3],\"h\":{\"i\":1}}");
+
+    JsonNode result = JsonMergePatch.apply(target, patch);
+
+    assertThat(result, is(json("{\"a\":\"z\",\"c\":{\"d\":\"e\"},\"items\":[3],\"h\":{\"i\":1}}")));
+    assertThat(target, is(json("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"},\"items\":[1,2]}")));
+  }
+
+  @Test
+  public void shouldReplaceTheTargetWithANonObjectPatch() throws IOException {
+    assertThat(JsonMergePatch.apply(json("{\"a\":1}"), json("[1]")), is(json("[1]")));
+  }
+
+  private static JsonNode json(String content) throws IOException {
+    return JsonMapper.MAPPER.readTree(content);
+  }
+}
@@ -0,0 +1,70 @@
+package org.metadatacenter.cedar.artifact.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class JsonPatchTest {
+
+  private static final String DOCUMENT = "{\"title\":\"A\",\"properties\":{\"a\":1,\"b\":2},\"items\":[1,2,3]}";
+
+  @Test
+  public void shouldApplyTheOperationsInOrder() throws IOException {
+    JsonNode patch = json("[" +
+        "{\"op\":\"replace\",\"path\":\"/title\",\"value\":\"B\"}," +
+        "{\"op\":\"add\",\"path\":\"/properties/c\",\"value\":3}," +
+        "{\"op\":\"remove\",\"path\":\"/properties/a\"}," +
+        "{\"op\":\"add\",\"path\":\"/items/1\",\"value\":9}," +
+        "{\"op\":\"add\",\"path\":\"/items/-\",\"value\":4}," +
+        "{\"op\":\"copy\",\"from\":\"/title\",\"path\":\"/name\"}," +
+        "{\"op\":\"move\",\"from\":\"/properties/b\",\"path\":\"/b\"}," +
+        "{\"op\":\"test\",\"path\":\"/b\",\"value\":2}" +
+        "]");
+
+    JsonNode result = JsonPatch.apply(json(DOCUMENT), patch);
+
+    assertThat(result, is(json("{\"title\":\"B\",\"properties\":{\"c\":3},\"items\":[1,9,2,3,4],\"name\":\"B\"," +
+        "\"b\":2}")));
+  }
+
+  @Test
+  public void shouldNotModifyTheTarget() throws IOException {
+    JsonNode target = json(DOCUMENT);
+
+    JsonPatch.apply(target, json("[{\"op\":\"remove\",\"path\":\"/title\"}]"));
+
+    assertThat(target, is(json(DOCUMENT)));
+  }
+
+  @Test
+  public void shouldDecodeEscapedPointers() throws IOException {
+    JsonNode result = JsonPatch.apply(json("{\"a/b\":1,\"m~n\":2}"),
+        json("[{\"op\":\"replace\",\"path\":\"/a~1b\",\"value\":3},{\"op\":\"remove\",\"path\":\"/m~0n\"}]"));
+
+    assertThat(result, is(json("{\"a/b\":3}")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldFailWhenATestFails() throws IOException {
+    JsonPatch.apply(json(DOCUMENT), json("[{\"op\":\"test\",\"path\":\"/title\",\"value\":\"B\"}]"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldFailWhenThePathDoesNotExist() throws IOException {
+    JsonPatch.apply(json(DOCUMENT), json("[{\"op\":\"replace\",\"path\":\"/missing/a\",\"value\":1}]"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectAPatchWhichIsNotAnArray() throws IOException {
+    JsonPatch.apply(json(DOCUMENT), json("{\"op\":\"remove\",\"path\":\"/title\"}"));
+  }
+
+  private static JsonNode json(String content) throws IOException {
+    return JsonMapper.MAPPER.readTree(content);
+  }
+}
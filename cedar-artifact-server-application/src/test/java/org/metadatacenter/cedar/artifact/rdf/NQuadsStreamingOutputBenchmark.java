@@ -0,0 +1,152 @@
+package org.metadatacenter.cedar.artifact.rdf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.jsonld.PreloadedDocumentLoader;
+import org.metadatacenter.cedar.artifact.resources.TestResourcesUtils;
+import org.metadatacenter.model.trimmer.JsonLdDocument;
+import org.metadatacenter.util.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compares the latency, the allocated bytes and the peak heap of the string-based and the streaming N-Quads
+ * conversion, for the use case instance scaled up to many fields.
+ * <p>
+ * The class name does not match the test includes, so it is only run on demand:
+ * {@code mvn test -Dtest=NQuadsStreamingOutputBenchmark}
+ */
+public class NQuadsStreamingOutputBenchmark {
+
+  private static final Logger logger = LoggerFactory.getLogger(NQuadsStreamingOutputBenchmark.class);
+
+  private static final String SCALED_FIELD = "Export Good";
+  private static final int SCALE = 5000;
+  private static final int WARM_UP_RUNS = 5;
+  private static final int MEASURED_RUNS = 20;
+
+  private static JsonNode scaledInstance;
+  private static PreloadedDocumentLoader documentLoader;
+
+  @BeforeClass
+  public static void loadTestPayload() throws Exception {
+    documentLoader = PreloadedDocumentLoader.fromClasspath(false);
+    JsonNode instance = JsonMapper.MAPPER.readTree(
+        TestResourcesUtils.getStringContent("instances/usecase-instance.jsonld"));
+    scaledInstance = scaleUp(instance, SCALE);
+  }
+
+  @Test
+  public void compareStringAndStreamingConversion() throws Exception {
+    measure("string", () -> {
+      String nQuads = new JsonLdDocument(scaledInstance).asRdf();
+      NullOutputStream output = new NullOutputStream();
+      output.write(nQuads.getBytes(StandardCharsets.UTF_8));
+      return output.count;
+    });
+    measure("streaming", () -> {
+      NullOutputStream output = new NullOutputStream();
+      NQuadsStreamingOutput.of(scaledInstance, documentLoader).write(output);
+      return output.count;
+    });
+  }
+
+  // Adds copies of one nested element, each with its own property and id
+  private static JsonNode scaleUp(JsonNode instance, int copies) {
+    ObjectNode scaled = instance.deepCopy();
+    ObjectNode context = (ObjectNode) scaled.get("@context");
+    JsonNode element = instance.get(SCALED_FIELD);
+    String elementId = element.get("@id").asText();
+    for (int i = 0; i < copies; i++) {
+      String fieldName = SCALED_FIELD + " " + i;
+      context.set(fieldName, context.get(SCALED_FIELD));
+      ObjectNode copy = element.deepCopy();
+      copy.put("@id", elementId + "-" + i);
+      scaled.set(fieldName, copy);
+    }
+    return scaled;
+  }
+
+  private static void measure(String name, Conversion conversion) throws Exception {
+    for (int i = 0; i < WARM_UP_RUNS; i++) {
+      conversion.run();
+    }
+    long[] nanos = new long[MEASURED_RUNS];
+    long allocatedBytes = 0;
+    long peakHeapBytes = 0;
+    long outputBytes = 0;
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      System.gc();
+      long baseHeapBytes = resetPeakHeapUsage();
+      long allocatedBefore = getAllocatedBytes();
+      long start = System.nanoTime();
+      outputBytes = conversion.run();
+      nanos[i] = System.nanoTime() - start;
+      allocatedBytes += getAllocatedBytes() - allocatedBefore;
+      peakHeapBytes = Math.max(peakHeapBytes, getPeakHeapUsage() - baseHeapBytes);
+    }
+    Arrays.sort(nanos);
+    logger.info("{}: output={} bytes, median={} ms, p90={} ms, allocated={} KB/op, peak heap growth={} KB", name,
+        outputBytes, nanos[MEASURED_RUNS / 2] / 1_000_000.0, nanos[MEASURED_RUNS * 9 / 10] / 1_000_000.0,
+        allocatedBytes / MEASURED_RUNS / 1024, peakHeapBytes / 1024);
+  }
+
+  private static long resetPeakHeapUsage() {
+    long used = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+        used += pool.getUsage().getUsed();
+      }
+    }
+    return used;
+  }
+
+  private static long getPeakHeapUsage() {
+    long peak = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+
+  private static long getAllocatedBytes() {
+    ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    if (threadBean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0;
+  }
+
+  @FunctionalInterface
+  private interface Conversion {
+    long run() throws Exception;
+  }
+
+  private static class NullOutputStream extends OutputStream {
+
+    private long count;
+
+    @Override
+    public void write(int b) {
+      count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      count += len;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package org.metadatacenter.cedar.artifact.rdf;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.jsonld.PreloadedDocumentLoader;
+import org.metadatacenter.cedar.artifact.resources.TestResourcesUtils;
+import org.metadatacenter.model.trimmer.JsonLdDocument;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class NQuadsStreamingOutputTest {
+
+  private static JsonNode instanceExample;
+  private static PreloadedDocumentLoader documentLoader;
+
+  @BeforeClass
+  public static void loadTestPayload() throws Exception {
+    documentLoader = PreloadedDocumentLoader.fromClasspath(false);
+    instanceExample = JsonMapper.MAPPER.readTree(
+        TestResourcesUtils.getStringContent("instances/usecase-instance.jsonld"));
+  }
+
+  @Test
+  public void shouldWriteTheSameQuadsAsTheStringConversion() throws Exception {
+    List<String> expected = sortedLines(new JsonLdDocument(instanceExample).asRdf());
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    NQuadsStreamingOutput.of(instanceExample, documentLoader).write(output);
+    List<String> actual = sortedLines(new String(output.toByteArray(), StandardCharsets.UTF_8));
+
+    assertThat(actual, is(expected));
+  }
+
+  private static List<String> sortedLines(String nQuads) {
+    List<String> lines = Arrays.asList(nQuads.split("\n"));
+    lines.sort(String::compareTo);
+    return lines;
+  }
+}
@@ -0,0 +1,106 @@
+package org.metadatacenter.cedar.artifact.resources;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.config.TotalCountConfig;
+import org.metadatacenter.cedar.artifact.memory.InMemoryArtifactStore;
+import org.metadatacenter.cedar.artifact.memory.InMemoryCollection;
+import org.metadatacenter.cedar.artifact.paging.TotalCounter;
+import org.metadatacenter.constant.CustomHttpConstants;
+import org.metadatacenter.constant.HttpConstants;
+import org.metadatacenter.exception.CedarException;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * The total count and Link headers of offset-paged listings, when the total is exact, inexact or not computed.
+ */
+public class OffsetPagedResponseTest {
+
+  private static final String URL = "https://artifact.metadatacenter.org/templates";
+
+  @Test
+  public void shouldLinkTheNextPageOfAFullPage() throws CedarException {
+    Response response = build(items(10), 10, 20, 25L, false);
+
+    String linkHeader = response.getHeaderString(HttpConstants.HTTP_HEADER_LINK);
+    assertThat(linkHeader, containsString("rel=\"first\""));
+    assertThat(linkHeader, containsString("rel=\"prev\""));
+    assertThat(linkHeader, containsString("rel=\"next\""));
+    assertThat(linkHeader, containsString("offset=30"));
+    assertThat(linkHeader, not(containsString("rel=\"last\"")));
+    assertThat(response.getHeaderString(CustomHttpConstants.HEADER_TOTAL_COUNT), is("25"));
+  }
+
+  @Test
+  public void shouldNotLinkTheNextPageOfAPartialPage() throws CedarException {
+    Response response = build(items(3), 10, 0, 20L, false);
+
+    String linkHeader = response.getHeaderString(HttpConstants.HTTP_HEADER_LINK);
+    assertThat(linkHeader, containsString("rel=\"first\""));
+    assertThat(linkHeader, not(containsString("rel=\"prev\"")));
+    assertThat(linkHeader, not(containsString("rel=\"next\"")));
+  }
+
+  @Test
+  public void shouldAcceptAnOffsetBeyondAnInexactTotal() throws CedarException {
+    // A stale estimate must not reject a page which exists
+    Response response = build(items(10), 10, 30, 25L, false);
+
+    assertThat(response.getStatus(), is(Response.Status.OK.getStatusCode()));
+    assertThat(response.getHeaderString(HttpConstants.HTTP_HEADER_LINK), containsString("rel=\"next\""));
+  }
+
+  @Test
+  public void shouldLinkPagesWithoutATotal() throws CedarException {
+    Response response = build(items(10), 10, 0, null, false);
+
+    assertThat(response.getHeaderString(CustomHttpConstants.HEADER_TOTAL_COUNT), is(nullValue()));
+    assertThat(response.getHeaderString(HttpConstants.HTTP_HEADER_LINK), containsString("rel=\"next\""));
+  }
+
+  @Test(expected = CedarException.class)
+  public void shouldRejectAnOffsetBeyondAnExactTotal() throws CedarException {
+    build(items(0), 10, 30, 25L, true);
+  }
+
+  @Test
+  public void shouldNotCountWhenTheClientOptsOut() {
+    TotalCounter counter = new TotalCounter(new InMemoryArtifactStore(new InMemoryCollection()) {
+      @Override
+      public long count() {
+        return 7;
+      }
+    }, new TotalCountConfig());
+
+    assertThat(AbstractArtifactServerResource.getTotalCount(counter, Optional.of(false)), is(nullValue()));
+    assertThat(AbstractArtifactServerResource.getTotalCount(counter, Optional.of(true)), is(7L));
+    assertThat(AbstractArtifactServerResource.getTotalCount(counter, Optional.empty()), is(7L));
+  }
+
+  private static Response build(List<JsonNode> items, int limit, int offset, Long total, boolean exactTotal)
+      throws CedarException {
+    return AbstractArtifactServerResource.buildOffsetPagedResponse(UriBuilder.fromUri(URL),
+        UriBuilder.fromUri(URL + "?limit=" + limit + "&offset=" + offset), items, limit, offset, total, exactTotal);
+  }
+
+  private static List<JsonNode> items(int count) {
+    List<JsonNode> items = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      items.add(JsonMapper.MAPPER.createObjectNode().put("title", "Item " + i));
+    }
+    return items;
+  }
+
+}
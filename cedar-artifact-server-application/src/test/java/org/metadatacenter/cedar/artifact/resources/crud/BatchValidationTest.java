@@ -0,0 +1,60 @@
+package org.metadatacenter.cedar.artifact.resources.crud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+
+public class BatchValidationTest extends AbstractResourceCrudTest {
+
+  @Test
+  public void validateBatchTest() {
+    ArrayNode items = JsonMapper.MAPPER.createArrayNode();
+    items.add(buildItem("template", sampleTemplate));
+    items.add(buildItem("element", sampleElement));
+    // An item without a resource can not be validated
+    items.add(JsonMapper.MAPPER.createObjectNode().put("resourceType", "template"));
+
+    // Service invocation - Batch validation
+    Response response = testClient.target(getBatchValidationUrl()).request().header("Authorization", authHeader)
+        .post(Entity.json(items));
+    // Check response is OK
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    // Check the result of every item, in the order of the request
+    JsonNode results = response.readEntity(JsonNode.class);
+    Assert.assertEquals(3, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      Assert.assertEquals(i, results.get(i).get("index").asInt());
+      Assert.assertTrue(results.get(i).has("durationMillis"));
+    }
+    Assert.assertEquals("true", results.get(0).get("validationReport").get("validates").asText());
+    Assert.assertEquals("true", results.get(1).get("validationReport").get("validates").asText());
+    Assert.assertTrue(results.get(2).has("errorMessage"));
+  }
+
+  @Test
+  public void validateBatchNotArrayTest() {
+    // Service invocation - Batch validation
+    Response response = testClient.target(getBatchValidationUrl()).request().header("Authorization", authHeader)
+        .post(Entity.json(buildItem("template", sampleTemplate)));
+    // Check response
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+  }
+
+  private static ObjectNode buildItem(String resourceType, JsonNode resource) {
+    ObjectNode item = JsonMapper.MAPPER.createObjectNode();
+    item.put("resourceType", resourceType);
+    item.set("resource", resource);
+    return item;
+  }
+
+  private static String getBatchValidationUrl() {
+    return baseTestUrl + "/command/validate-batch";
+  }
+
+}
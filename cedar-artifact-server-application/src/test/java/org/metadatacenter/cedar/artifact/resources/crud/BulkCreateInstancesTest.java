@@ -0,0 +1,110 @@
+package org.metadatacenter.cedar.artifact.resources.crud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.resources.utils.TestUtil;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.NON_EXISTENT_INSTANCE_ID;
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.NON_EXISTENT_TEMPLATE_ID;
+import static org.metadatacenter.model.ModelNodeNames.SCHEMA_IS_BASED_ON;
+
+public class BulkCreateInstancesTest extends AbstractResourceCrudTest {
+
+  @Test
+  public void createInstancesFromArrayTest() throws IOException {
+    String templateId = createTemplate();
+    ArrayNode instances = JsonMapper.MAPPER.createArrayNode();
+    instances.add(buildInstance(templateId));
+    instances.add(buildInstance(templateId));
+    // An instance with an id can not be created
+    instances.add(buildInstance(templateId).put(LinkedData.ID, NON_EXISTENT_INSTANCE_ID));
+    // An instance based on a template which does not exist is not valid
+    instances.add(buildInstance(NON_EXISTENT_TEMPLATE_ID));
+
+    // Service invocation - Bulk create
+    Response response = testClient.target(getBulkUrl()).request().header("Authorization", authHeader)
+        .post(Entity.json(instances));
+    // Check response is OK
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    // Check the status of every item
+    JsonNode result = response.readEntity(JsonNode.class);
+    JsonNode items = rememberCreatedInstances(result);
+    Assert.assertEquals(4, items.size());
+    Assert.assertEquals(Response.Status.CREATED.getStatusCode(), items.get(0).get("status").asInt());
+    Assert.assertEquals(Response.Status.CREATED.getStatusCode(), items.get(1).get("status").asInt());
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), items.get(2).get("status").asInt());
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), items.get(3).get("status").asInt());
+    Assert.assertEquals(2, result.get("succeeded").asInt());
+    Assert.assertEquals(2, result.get("failed").asInt());
+    // Check that the created instances can be found
+    for (int i = 0; i < 2; i++) {
+      String id = items.get(i).get(LinkedData.ID).asText();
+      Assert.assertNotNull(TestUtil.templateInstanceService.findTemplateInstance(id));
+    }
+  }
+
+  @Test
+  public void createInstancesFromNdjsonTest() throws IOException {
+    String templateId = createTemplate();
+    String body = JsonMapper.MAPPER.writeValueAsString(buildInstance(templateId)) + "\n"
+        + JsonMapper.MAPPER.writeValueAsString(buildInstance(templateId)) + "\n";
+
+    // Service invocation - Bulk create
+    Response response = testClient.target(getBulkUrl()).request().header("Authorization", authHeader)
+        .post(Entity.entity(body, ArtifactMediaTypes.APPLICATION_NDJSON));
+    // Check response is OK
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+    JsonNode result = response.readEntity(JsonNode.class);
+    rememberCreatedInstances(result);
+    Assert.assertEquals(2, result.get("succeeded").asInt());
+    Assert.assertEquals(0, result.get("failed").asInt());
+  }
+
+  @Test
+  public void createInstancesFromEmptyArrayTest() {
+    // Service invocation - Bulk create
+    Response response = testClient.target(getBulkUrl()).request().header("Authorization", authHeader)
+        .post(Entity.json(JsonMapper.MAPPER.createArrayNode()));
+    // Check response
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+  }
+
+  private String createTemplate() throws IOException {
+    JsonNode createdTemplate = createResource(sampleTemplate, CedarResourceType.TEMPLATE);
+    String templateId = createdTemplate.get(LinkedData.ID).asText();
+    createdResources.put(templateId, CedarResourceType.TEMPLATE);
+    return templateId;
+  }
+
+  private static ObjectNode buildInstance(String templateId) {
+    ObjectNode instance = sampleInstance.deepCopy();
+    instance.put(SCHEMA_IS_BASED_ON, templateId);
+    return instance;
+  }
+
+  private static JsonNode rememberCreatedInstances(JsonNode result) {
+    JsonNode items = result.get("items");
+    for (JsonNode item : items) {
+      if (item.has(LinkedData.ID)) {
+        createdResources.put(item.get(LinkedData.ID).asText(), CedarResourceType.INSTANCE);
+      }
+    }
+    return items;
+  }
+
+  private static String getBulkUrl() {
+    return TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.INSTANCE) + "/bulk";
+  }
+
+}
@@ -0,0 +1,126 @@
+package org.metadatacenter.cedar.artifact.resources.crud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.metadatacenter.cedar.artifact.resources.utils.TestUtil;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.TEST_NAME_PATTERN_INDEX_METHOD;
+
+@RunWith(JUnitParamsRunner.class)
+public class CompressedRequestTest extends AbstractResourceCrudTest {
+
+  private static final String GZIP = "gzip";
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void createFromGzipBodyTest(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, resourceType);
+    sampleResource = setSchemaIsBasedOn(sampleTemplate, sampleResource, resourceType);
+    // Service invocation - Create with a gzip body
+    byte[] body = JsonMapper.MAPPER.writeValueAsBytes(sampleResource);
+    Response response = testClient.target(url).request().header("Authorization", authHeader)
+        .header(HttpHeaders.CONTENT_ENCODING, GZIP).post(gzipEntity(body));
+    Assert.assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+    JsonNode createdResource = response.readEntity(JsonNode.class);
+    createdResources.put(createdResource.get(LinkedData.ID).asText(), resourceType);
+    Assert.assertEquals(sampleResource.get("title"), createdResource.get("title"));
+  }
+
+  @Test
+  public void createFromTooLargeGzipBodyTest() throws IOException {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE);
+    // Leading whitespace is read by the JSON parser until the limit of the test configuration is reached
+    byte[] body = new byte[2 * 1048576];
+    Arrays.fill(body, (byte) ' ');
+    body[body.length - 2] = '{';
+    body[body.length - 1] = '}';
+    Response response = testClient.target(url).request().header("Authorization", authHeader)
+        .header(HttpHeaders.CONTENT_ENCODING, GZIP).post(gzipEntity(body));
+    Assert.assertEquals(Response.Status.REQUEST_ENTITY_TOO_LARGE.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void createWithUnsupportedEncodingTest() throws IOException {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE);
+    Response response = testClient.target(url).request().header("Authorization", authHeader)
+        .header(HttpHeaders.CONTENT_ENCODING, "br").post(Entity.json(sampleTemplate));
+    Assert.assertEquals(Response.Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void createFromMalformedGzipBodyTest() throws IOException {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE);
+    // Plain JSON, labelled as gzip
+    Response response = testClient.target(url).request().header("Authorization", authHeader)
+        .header(HttpHeaders.CONTENT_ENCODING, GZIP).post(Entity.json(sampleTemplate));
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void deleteWithEmptyGzipBodyTest() throws IOException {
+    JsonNode createdResource = createResource(sampleTemplate, CedarResourceType.TEMPLATE);
+    String id = createdResource.get(LinkedData.ID).asText();
+    createdResources.put(id, CedarResourceType.TEMPLATE);
+    String resourceUrl = TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE) + "/" +
+        URLEncoder.encode(id, "UTF-8");
+    // Service invocation - A request without a body, labelled as gzip, is passed on
+    Response response = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.CONTENT_ENCODING, GZIP).delete();
+    Assert.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void conditionalReadOfGzipResponseTest() throws IOException {
+    // The sample template is larger than the minimum size of the compressed responses
+    JsonNode createdResource = createResource(sampleTemplate, CedarResourceType.TEMPLATE);
+    String id = createdResource.get(LinkedData.ID).asText();
+    createdResources.put(id, CedarResourceType.TEMPLATE);
+    String resourceUrl = TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE) + "/" +
+        URLEncoder.encode(id, "UTF-8");
+    Response responseIdentity = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    String identityEtag = responseIdentity.getHeaderString(HttpHeaders.ETAG);
+    // Service invocation - Find with gzip
+    Response responseGzip = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.ACCEPT_ENCODING, GZIP).get();
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseGzip.getStatus());
+    Assert.assertEquals(GZIP, responseGzip.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+    String gzipEtag = responseGzip.getHeaderString(HttpHeaders.ETAG);
+    Assert.assertEquals(identityEtag.substring(0, identityEtag.length() - 1) + "-gzip\"", gzipEtag);
+    // Service invocation - Find with the tag of the gzip representation
+    Response responseNotModified = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.ACCEPT_ENCODING, GZIP).header(HttpHeaders.IF_NONE_MATCH, gzipEtag).get();
+    Assert.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), responseNotModified.getStatus());
+    // Service invocation - Delete with the tag of the gzip representation
+    Response responseDelete = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, gzipEtag).delete();
+    Assert.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), responseDelete.getStatus());
+  }
+
+  private static Entity<byte[]> gzipEntity(byte[] body) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(body);
+    }
+    return Entity.entity(out.toByteArray(), MediaType.APPLICATION_JSON_TYPE);
+  }
+
+}
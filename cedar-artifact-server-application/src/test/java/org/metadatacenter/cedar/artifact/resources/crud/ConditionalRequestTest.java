@@ -0,0 +1,178 @@
+package org.metadatacenter.cedar.artifact.resources.crud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.resources.utils.TestUtil;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CedarResourceType;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.TEST_NAME_PATTERN_INDEX_METHOD;
+
+@RunWith(JUnitParamsRunner.class)
+public class ConditionalRequestTest extends AbstractResourceCrudTest {
+
+  private static final String STALE_ETAG = "\"stale\"";
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void conditionalReadTest(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    String resourceUrl = createAndGetUrl(sampleResource, resourceType);
+    // Service invocation - Find
+    Response responseFind = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseFind.getStatus());
+    String etag = responseFind.getHeaderString(HttpHeaders.ETAG);
+    Assert.assertNotNull(etag);
+    // Service invocation - Find with the current tag
+    Response responseNotModified = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_NONE_MATCH, etag).get();
+    Assert.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), responseNotModified.getStatus());
+    // Service invocation - Find with a stale tag
+    Response responseModified = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_NONE_MATCH, STALE_ETAG).get();
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseModified.getStatus());
+  }
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void conditionalReadInAnotherFormatTest(JsonNode sampleResource, CedarResourceType resourceType)
+      throws IOException {
+    String resourceUrl = createAndGetUrl(sampleResource, resourceType);
+    Response responseJson = testClient.target(resourceUrl).request(MediaType.APPLICATION_JSON)
+        .header("Authorization", authHeader).get();
+    String jsonEtag = responseJson.getHeaderString(HttpHeaders.ETAG);
+    // Service invocation - Find in Smile
+    Response responseSmile = testClient.target(resourceUrl).request(ArtifactMediaTypes.APPLICATION_SMILE)
+        .header("Authorization", authHeader).get();
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseSmile.getStatus());
+    Assert.assertEquals(ArtifactMediaTypes.APPLICATION_SMILE, responseSmile.getMediaType().toString());
+    String smileEtag = responseSmile.getHeaderString(HttpHeaders.ETAG);
+    Assert.assertNotEquals(jsonEtag, smileEtag);
+    // Service invocation - Find in Smile with the tag of the JSON representation
+    Response responseModified = testClient.target(resourceUrl).request(ArtifactMediaTypes.APPLICATION_SMILE)
+        .header("Authorization", authHeader).header(HttpHeaders.IF_NONE_MATCH, jsonEtag).get();
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseModified.getStatus());
+    // Service invocation - Find in Smile with the tag of the Smile representation
+    Response responseNotModified = testClient.target(resourceUrl).request(ArtifactMediaTypes.APPLICATION_SMILE)
+        .header("Authorization", authHeader).header(HttpHeaders.IF_NONE_MATCH, smileEtag).get();
+    Assert.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), responseNotModified.getStatus());
+    // Service invocation - Delete in Smile with the tag of the Smile representation
+    Response responseDelete = testClient.target(resourceUrl).request(ArtifactMediaTypes.APPLICATION_SMILE)
+        .header("Authorization", authHeader).header(HttpHeaders.IF_MATCH, smileEtag).delete();
+    Assert.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), responseDelete.getStatus());
+  }
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void conditionalUpdateTest(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    String resourceUrl = createAndGetUrl(sampleResource, resourceType);
+    Response responseFind = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    String etag = responseFind.getHeaderString(HttpHeaders.ETAG);
+    JsonNode updatedResource = ((ObjectNode) responseFind.readEntity(JsonNode.class)).put("title", "A new title");
+    // Service invocation - Update with a stale tag
+    Response responseStale = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, STALE_ETAG).put(Entity.json(updatedResource));
+    Assert.assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), responseStale.getStatus());
+    // Service invocation - Update with the current tag
+    Response responseUpdate = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, etag).put(Entity.json(updatedResource));
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseUpdate.getStatus());
+    String newEtag = responseUpdate.getHeaderString(HttpHeaders.ETAG);
+    Assert.assertNotNull(newEtag);
+    Assert.assertNotEquals(etag, newEtag);
+    // Service invocation - Delete with the tag of the previous version
+    Response responseDelete = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, etag).delete();
+    Assert.assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), responseDelete.getStatus());
+  }
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void conditionalUpdateAfterCreateTest(JsonNode sampleResource, CedarResourceType resourceType)
+      throws IOException {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, resourceType);
+    sampleResource = setSchemaIsBasedOn(sampleTemplate, sampleResource, resourceType);
+    // Service invocation - Create
+    Response responseCreate = testClient.target(url).request().header("Authorization", authHeader)
+        .post(Entity.json(sampleResource));
+    Assert.assertEquals(Response.Status.CREATED.getStatusCode(), responseCreate.getStatus());
+    String etag = responseCreate.getHeaderString(HttpHeaders.ETAG);
+    Assert.assertNotNull(etag);
+    JsonNode createdResource = responseCreate.readEntity(JsonNode.class);
+    String id = createdResource.get(LinkedData.ID).asText();
+    createdResources.put(id, resourceType);
+    String resourceUrl = url + "/" + URLEncoder.encode(id, "UTF-8");
+    // The tag of the creation is the tag of the stored artifact
+    Response responseFind = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    Assert.assertEquals(etag, responseFind.getHeaderString(HttpHeaders.ETAG));
+    // Service invocation - Update with the tag of the creation
+    JsonNode updatedResource = ((ObjectNode) createdResource).put("title", "A new title");
+    Response responseUpdate = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, etag).put(Entity.json(updatedResource));
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseUpdate.getStatus());
+  }
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void concurrentConditionalUpdatesTest(JsonNode sampleResource, CedarResourceType resourceType)
+      throws Exception {
+    String resourceUrl = createAndGetUrl(sampleResource, resourceType);
+    Response responseFind = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    String etag = responseFind.getHeaderString(HttpHeaders.ETAG);
+    JsonNode resource = responseFind.readEntity(JsonNode.class);
+    JsonNode firstUpdate = ((ObjectNode) resource.deepCopy()).put("title", "A first title");
+    JsonNode secondUpdate = ((ObjectNode) resource.deepCopy()).put("title", "A second title");
+    // Service invocation - Two concurrent updates of the same version, within the same second, so that the last update
+    // time of the artifact does not tell them apart
+    Future<Response> first = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, etag).async().put(Entity.json(firstUpdate));
+    Future<Response> second = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, etag).async().put(Entity.json(secondUpdate));
+    int firstStatus = first.get(30, TimeUnit.SECONDS).getStatus();
+    int secondStatus = second.get(30, TimeUnit.SECONDS).getStatus();
+    // Exactly one of them is written
+    List<Integer> statuses = Arrays.asList(firstStatus, secondStatus);
+    Collections.sort(statuses);
+    Assert.assertEquals(Arrays.asList(Response.Status.OK.getStatusCode(),
+        Response.Status.PRECONDITION_FAILED.getStatusCode()), statuses);
+    String expectedTitle = firstStatus == Response.Status.OK.getStatusCode() ? "A first title" : "A second title";
+    Response responseFindUpdated = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    Assert.assertEquals(expectedTitle, responseFindUpdated.readEntity(JsonNode.class).get("title").asText());
+    // Service invocation - Another update with the tag both were based on
+    Response responseStale = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .header(HttpHeaders.IF_MATCH, etag).put(Entity.json(secondUpdate));
+    Assert.assertEquals(Response.Status.PRECONDITION_FAILED.getStatusCode(), responseStale.getStatus());
+  }
+
+  private String createAndGetUrl(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    sampleResource = setSchemaIsBasedOn(sampleTemplate, sampleResource, resourceType);
+    JsonNode createdResource = createResource(sampleResource, resourceType);
+    String id = createdResource.get(LinkedData.ID).asText();
+    createdResources.put(id, resourceType);
+    return TestUtil.getResourceUrlRoute(baseTestUrl, resourceType) + "/" + URLEncoder.encode(id, "UTF-8");
+  }
+
+}
@@ -0,0 +1,106 @@
+package org.metadatacenter.cedar.artifact.resources.crud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.apache.http.client.utils.URIBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.metadatacenter.cedar.artifact.paging.PageCursor;
+import org.metadatacenter.cedar.artifact.resources.utils.TestUtil;
+import org.metadatacenter.constant.HttpConstants;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CedarResourceType;
+
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.TEST_NAME_PATTERN_INDEX_METHOD;
+
+@RunWith(JUnitParamsRunner.class)
+public class CursorPagingTest extends AbstractResourceCrudTest {
+
+  private static final int CREATE_RESOURCES_COUNT = 5;
+  private static final int PAGE_SIZE = 2;
+  private static final Pattern NEXT_LINK = Pattern.compile("<([^>]*)>; rel=\"next\"");
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void walkAllPagesTest(JsonNode sampleResource, CedarResourceType resourceType)
+      throws IOException, URISyntaxException {
+    Set<String> createdIds = new HashSet<>();
+    for (int i = 0; i < CREATE_RESOURCES_COUNT; i++) {
+      sampleResource = setSchemaIsBasedOn(sampleTemplate, sampleResource, resourceType);
+      JsonNode createdResource = createResource(sampleResource, resourceType);
+      String id = createdResource.get(LinkedData.ID).asText();
+      createdResources.put(id, resourceType);
+      createdIds.add(id);
+    }
+    String url = new URIBuilder(TestUtil.getResourceUrlRoute(baseTestUrl, resourceType))
+        .addParameter("limit", String.valueOf(PAGE_SIZE))
+        .addParameter("cursor", "")
+        .build().toString();
+    Set<String> listedIds = new HashSet<>();
+    int pages = 0;
+    while (url != null) {
+      // Service invocation - Find a page
+      Response response = testClient.target(url).request().header("Authorization", authHeader).get();
+      Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+      JsonNode page = response.readEntity(JsonNode.class);
+      Assert.assertTrue("A page is larger than the limit", page.size() <= PAGE_SIZE);
+      for (JsonNode resource : page) {
+        String id = resource.get(LinkedData.ID).asText();
+        Assert.assertTrue("An artifact is listed twice: " + id, listedIds.add(id));
+      }
+      url = getNextLink(response);
+      if (url != null) {
+        Assert.assertEquals(PAGE_SIZE, page.size());
+        Assert.assertTrue(url.contains("cursor="));
+        Assert.assertFalse(url.contains("offset="));
+      }
+      pages++;
+    }
+    Assert.assertTrue("Not all the created artifacts were listed", listedIds.containsAll(createdIds));
+    Assert.assertTrue(pages >= (CREATE_RESOURCES_COUNT + PAGE_SIZE - 1) / PAGE_SIZE);
+  }
+
+  @Test
+  public void cursorAndOffsetTest() throws URISyntaxException {
+    String url = new URIBuilder(TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE))
+        .addParameter("cursor", "")
+        .addParameter("offset", "0")
+        .build().toString();
+    // Service invocation - Find with both paging modes
+    Response response = testClient.target(url).request().header("Authorization", authHeader).get();
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void invalidCursorTest() throws URISyntaxException {
+    // Not a cursor at all, and a well-formed cursor carrying a key the store does not know how to read
+    for (String cursor : new String[]{"not a cursor!", PageCursor.afterKey("tampered").encode()}) {
+      String url = new URIBuilder(TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE))
+          .addParameter("cursor", cursor)
+          .build().toString();
+      // Service invocation - Find with an invalid cursor
+      Response response = testClient.target(url).request().header("Authorization", authHeader).get();
+      Assert.assertEquals(cursor, Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+  }
+
+  private static String getNextLink(Response response) {
+    String linkHeader = response.getHeaderString(HttpConstants.HTTP_HEADER_LINK);
+    Assert.assertNotNull(linkHeader);
+    Matcher matcher = NEXT_LINK.matcher(linkHeader);
+    return matcher.find() ? matcher.group(1) : null;
+  }
+
+}
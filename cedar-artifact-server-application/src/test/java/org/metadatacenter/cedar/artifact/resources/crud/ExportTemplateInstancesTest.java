@@ -0,0 +1,74 @@
+package org.metadatacenter.cedar.artifact.resources.crud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.Assert;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.resources.utils.TestUtil;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.NON_EXISTENT_TEMPLATE_ID;
+import static org.metadatacenter.model.ModelNodeNames.SCHEMA_IS_BASED_ON;
+
+public class ExportTemplateInstancesTest extends AbstractResourceCrudTest {
+
+  @Test
+  public void exportTemplateInstancesTest() throws IOException {
+    final int CREATE_INSTANCES_COUNT = 3; // number of instances to be created
+    // Create a template and the instances based on it
+    JsonNode createdTemplate = createResource(sampleTemplate, CedarResourceType.TEMPLATE);
+    String templateId = createdTemplate.get(LinkedData.ID).asText();
+    createdResources.put(templateId, CedarResourceType.TEMPLATE);
+    Set<String> expectedIds = new HashSet<>();
+    for (int i = 0; i < CREATE_INSTANCES_COUNT; i++) {
+      JsonNode instance = sampleInstance.deepCopy();
+      ((ObjectNode) instance).put(SCHEMA_IS_BASED_ON, templateId);
+      JsonNode createdInstance = createResource(instance, CedarResourceType.INSTANCE);
+      String instanceId = createdInstance.get(LinkedData.ID).asText();
+      createdResources.put(instanceId, CedarResourceType.INSTANCE);
+      expectedIds.add(instanceId);
+    }
+    // Service invocation - Export
+    Response exportResponse = testClient.target(getExportUrl(templateId)).request()
+        .header("Authorization", authHeader).get();
+    // Check response is OK
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), exportResponse.getStatus());
+    // Check that there is one line per instance
+    String body = exportResponse.readEntity(String.class);
+    Set<String> actualIds = new HashSet<>();
+    for (String line : body.split("\n")) {
+      JsonNode instance = JsonMapper.MAPPER.readTree(line);
+      Assert.assertEquals(templateId, instance.get(SCHEMA_IS_BASED_ON).asText());
+      actualIds.add(instance.get(LinkedData.ID).asText());
+    }
+    Assert.assertEquals(expectedIds, actualIds);
+  }
+
+  @Test
+  public void exportInstancesOfNonExistentTemplateTest() {
+    // Service invocation - Export
+    Response exportResponse = testClient.target(getExportUrl(NON_EXISTENT_TEMPLATE_ID)).request()
+        .header("Authorization", authHeader).get();
+    // Check response
+    Assert.assertEquals(Response.Status.NOT_FOUND.getStatusCode(), exportResponse.getStatus());
+  }
+
+  private static String getExportUrl(String templateId) {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, CedarResourceType.TEMPLATE);
+    try {
+      return url + "/" + URLEncoder.encode(templateId, "UTF-8") + "/instances/export";
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
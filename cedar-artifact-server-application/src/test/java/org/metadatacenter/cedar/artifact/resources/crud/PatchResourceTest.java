@@ -0,0 +1,102 @@
+package org.metadatacenter.cedar.artifact.resources.crud;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import junitparams.JUnitParamsRunner;
+import junitparams.Parameters;
+import junitparams.naming.TestCaseName;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.metadatacenter.cedar.artifact.constant.ArtifactMediaTypes;
+import org.metadatacenter.cedar.artifact.resources.utils.TestUtil;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Response;
+import java.io.IOException;
+import java.net.URLEncoder;
+
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.LAST_UPDATED_ON_FIELD;
+import static org.metadatacenter.cedar.artifact.resources.utils.TestConstants.TEST_NAME_PATTERN_INDEX_METHOD;
+
+@RunWith(JUnitParamsRunner.class)
+public class PatchResourceTest extends AbstractResourceCrudTest {
+
+  private static final String PATCH = "PATCH";
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void mergePatchResourceTest(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    JsonNode createdResource = createSampleResource(sampleResource, resourceType);
+    String resourceUrl = getResourceUrl(createdResource, resourceType);
+    ObjectNode patch = JsonMapper.MAPPER.createObjectNode().put("title", "A merged title");
+    // Service invocation - Patch
+    Response responsePatch = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .method(PATCH, Entity.entity(patch, ArtifactMediaTypes.APPLICATION_MERGE_PATCH));
+    // Check HTTP response
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responsePatch.getStatus());
+    // Check that only the patched field changed
+    assertPatched(resourceUrl, createdResource, "title", "A merged title");
+  }
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void jsonPatchResourceTest(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    JsonNode createdResource = createSampleResource(sampleResource, resourceType);
+    String resourceUrl = getResourceUrl(createdResource, resourceType);
+    String patch = "[{\"op\":\"replace\",\"path\":\"/title\",\"value\":\"A patched title\"}]";
+    // Service invocation - Patch
+    Response responsePatch = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .method(PATCH, Entity.entity(patch, ArtifactMediaTypes.APPLICATION_JSON_PATCH));
+    // Check HTTP response
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responsePatch.getStatus());
+    // Check that only the patched field changed
+    assertPatched(resourceUrl, createdResource, "title", "A patched title");
+  }
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void invalidJsonPatchResourceTest(JsonNode sampleResource, CedarResourceType resourceType)
+      throws IOException {
+    JsonNode createdResource = createSampleResource(sampleResource, resourceType);
+    String resourceUrl = getResourceUrl(createdResource, resourceType);
+    String patch = "[{\"op\":\"remove\",\"path\":\"/missing\"}]";
+    // Service invocation - Patch
+    Response responsePatch = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .method(PATCH, Entity.entity(patch, ArtifactMediaTypes.APPLICATION_JSON_PATCH));
+    // Check HTTP response
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), responsePatch.getStatus());
+  }
+
+  private JsonNode createSampleResource(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    sampleResource = setSchemaIsBasedOn(sampleTemplate, sampleResource, resourceType);
+    JsonNode createdResource = createResource(sampleResource, resourceType);
+    createdResources.put(createdResource.get(LinkedData.ID).asText(), resourceType);
+    return createdResource;
+  }
+
+  private static String getResourceUrl(JsonNode createdResource, CedarResourceType resourceType) throws IOException {
+    return TestUtil.getResourceUrlRoute(baseTestUrl, resourceType) + "/"
+        + URLEncoder.encode(createdResource.get(LinkedData.ID).asText(), "UTF-8");
+  }
+
+  private static void assertPatched(String resourceUrl, JsonNode createdResource, String fieldName,
+                                    String fieldValue) {
+    Response responseFind = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    JsonNode actual = responseFind.readEntity(JsonNode.class);
+    Assert.assertEquals(fieldValue, actual.get(fieldName).asText());
+    ObjectNode expected = ((ObjectNode) createdResource).deepCopy();
+    expected.remove(fieldName);
+    expected.remove(LAST_UPDATED_ON_FIELD);
+    ((ObjectNode) actual).remove(fieldName);
+    ((ObjectNode) actual).remove(LAST_UPDATED_ON_FIELD);
+    Assert.assertEquals(expected, actual);
+  }
+
+}
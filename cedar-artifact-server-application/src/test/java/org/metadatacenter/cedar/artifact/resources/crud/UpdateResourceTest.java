@@ -13,6 +13,7 @@ import org.metadatacenter.constant.LinkedData;
 import org.metadatacenter.model.CedarResourceType;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.net.URLEncoder;
@@ -66,4 +67,58 @@ public class UpdateResourceTest extends AbstractResourceCrudTest {
     }
   }
 
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void createMissingResourceTest(JsonNode sampleResource, CedarResourceType resourceType) throws IOException {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, resourceType);
+    sampleResource = setSchemaIsBasedOn(sampleTemplate, sampleResource, resourceType);
+    // Create a artifact, and delete it, so that its id is a valid id which is not in use
+    JsonNode createdResource = createResource(sampleResource, resourceType);
+    String createdResourceId = createdResource.get(LinkedData.ID).asText();
+    createdResources.put(createdResourceId, resourceType);
+    String resourceUrl = url + "/" + URLEncoder.encode(createdResourceId, "UTF-8");
+    Response responseDelete = testClient.target(resourceUrl).request().header("Authorization", authHeader).delete();
+    Assert.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), responseDelete.getStatus());
+    // Service invocation - Update the missing artifact
+    Response responseUpdate = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .put(Entity.json(createdResource));
+    Assert.assertEquals(Response.Status.CREATED.getStatusCode(), responseUpdate.getStatus());
+    Assert.assertNotNull(responseUpdate.getHeaderString(HttpHeaders.ETAG));
+    // Retrieve the created artifact by the id in the URL
+    Response responseFind = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseFind.getStatus());
+    Assert.assertEquals(createdResourceId, responseFind.readEntity(JsonNode.class).get(LinkedData.ID).asText());
+    // Service invocation - Update it again, which updates it
+    Response responseUpdateAgain = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .put(Entity.json(createdResource));
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), responseUpdateAgain.getStatus());
+  }
+
+  @Test
+  @TestCaseName(TEST_NAME_PATTERN_INDEX_METHOD)
+  @Parameters(method = "getCommonParams1")
+  public void updateResourceWithAnotherIdTest(JsonNode sampleResource, CedarResourceType resourceType)
+      throws IOException {
+    String url = TestUtil.getResourceUrlRoute(baseTestUrl, resourceType);
+    sampleResource = setSchemaIsBasedOn(sampleTemplate, sampleResource, resourceType);
+    JsonNode createdResource = createResource(sampleResource, resourceType);
+    String createdResourceId = createdResource.get(LinkedData.ID).asText();
+    createdResources.put(createdResourceId, resourceType);
+    String otherId = createdResourceId + "-other";
+    JsonNode otherResource = ((ObjectNode) createdResource.deepCopy()).put(LinkedData.ID, otherId)
+        .put("title", "This is a new title");
+    // Service invocation - Update with another @id in the body
+    String resourceUrl = url + "/" + URLEncoder.encode(createdResourceId, "UTF-8");
+    Response responseUpdate = testClient.target(resourceUrl).request().header("Authorization", authHeader)
+        .put(Entity.json(otherResource));
+    Assert.assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), responseUpdate.getStatus());
+    // Neither the artifact of the URL nor the one of the body has been written
+    Response responseFind = testClient.target(resourceUrl).request().header("Authorization", authHeader).get();
+    Assert.assertEquals(createdResource.get("title"), responseFind.readEntity(JsonNode.class).get("title"));
+    Response responseFindOther = testClient.target(url + "/" + URLEncoder.encode(otherId, "UTF-8")).request()
+        .header("Authorization", authHeader).get();
+    Assert.assertEquals(Response.Status.NOT_FOUND.getStatusCode(), responseFindOther.getStatus());
+  }
+
 }
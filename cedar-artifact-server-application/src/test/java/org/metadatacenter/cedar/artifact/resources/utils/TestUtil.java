@@ -80,6 +80,8 @@ public class TestUtil {
       url += TEMPLATE_ROUTE;
     } else if (resourceType.equals(CedarResourceType.ELEMENT)) {
       url += ELEMENT_ROUTE;
+    } else if (resourceType.equals(CedarResourceType.FIELD)) {
+      url += FIELD_ROUTE;
     } else if (resourceType.equals(CedarResourceType.INSTANCE)) {
       url += INSTANCE_ROUTE;
     }
@@ -0,0 +1,63 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.http.EntityTagUtil;
+import org.metadatacenter.cedar.test.util.SyntheticArtifactGenerator;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BsonArtifactTest {
+
+  private static final String VALUES = "{\"$schema\":\"http://json-schema.org/draft-04/schema#\",\"b\":true,"
+      + "\"a\":null,\"n\":[1,1.5,10000000000,2.0],\"o\":{\"$ref\":\"x\",\"s\":\"\\u00e9t\\u00e9\",\"e\":[]}}";
+
+  @Test
+  public void shouldWriteTheSameJsonAsTheDocumentConversion() throws IOException {
+    assertSameAsDocumentConversion(JsonMapper.MAPPER.readTree(VALUES));
+    assertSameAsDocumentConversion(new SyntheticArtifactGenerator(1L).shape("5x2x2x2").template());
+  }
+
+  @Test
+  public void shouldHaveTheEntityTagOfTheJsonArtifact() throws IOException {
+    JsonNode template = new SyntheticArtifactGenerator(1L).shape("5x2x2x2").template();
+    BsonArtifact raw = new BsonArtifact(toRawBson(template));
+
+    assertThat(EntityTagUtil.of(raw), is(EntityTagUtil.of(template)));
+  }
+
+  @Test
+  public void shouldSortTheFieldsOfNestedObjects() throws IOException {
+    JsonNode artifact = JsonMapper.MAPPER.readTree(VALUES);
+    JsonNode reordered = JsonMapper.MAPPER.readTree("{\"o\":{\"e\":[],\"s\":\"\\u00e9t\\u00e9\",\"$ref\":\"x\"},"
+        + "\"n\":[1,1.5,10000000000,2],\"a\":null,\"b\":true,\"$schema\":\"http://json-schema.org/draft-04/schema#\"}");
+
+    assertThat(EntityTagUtil.of(new BsonArtifact(toRawBson(artifact))), is(EntityTagUtil.of(reordered)));
+  }
+
+  private static void assertSameAsDocumentConversion(JsonNode artifact) throws IOException {
+    RawBsonDocument document = toRawBson(artifact);
+    StringWriter json = new StringWriter();
+    try (JsonGenerator generator = JsonMapper.MAPPER.getFactory().createGenerator(json)) {
+      new BsonArtifact(document).writeJson(generator);
+    }
+
+    JsonNode expected = MongoDocuments.toJson(MongoDocuments.toDocument(artifact));
+    assertThat(JsonMapper.MAPPER.readTree(json.toString()), is(expected));
+    assertThat(expected, is(artifact));
+  }
+
+  private static RawBsonDocument toRawBson(JsonNode artifact) throws IOException {
+    Document document = MongoDocuments.toDocument(artifact);
+    return new RawBsonDocument(document, new DocumentCodec());
+  }
+}
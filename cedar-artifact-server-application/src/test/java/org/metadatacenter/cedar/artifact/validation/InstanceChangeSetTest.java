@@ -0,0 +1,96 @@
+package org.metadatacenter.cedar.artifact.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InstanceChangeSetTest {
+
+  private static final String SCHEMA = "{\"type\":\"object\",\"additionalProperties\":false,"
+      + "\"required\":[\"schema:isBasedOn\",\"Title\",\"Study\"],"
+      + "\"properties\":{"
+      + "\"schema:isBasedOn\":{\"type\":\"string\"},"
+      + "\"Title\":{\"type\":\"object\",\"required\":[\"@value\"],"
+      + "\"properties\":{\"@value\":{\"type\":[\"string\",\"null\"]}}},"
+      + "\"Study\":{\"type\":\"object\",\"required\":[\"Name\",\"Keywords\"],\"properties\":{"
+      + "\"Name\":{\"type\":\"object\",\"anyOf\":[{\"required\":[\"@value\"]},{\"required\":[\"@id\"]}],"
+      + "\"properties\":{\"@value\":{\"type\":\"string\"},\"@id\":{\"type\":\"string\"}}},"
+      + "\"Keywords\":{\"type\":\"array\",\"items\":{\"type\":\"object\"}}}}}}";
+
+  private static final String STORED_INSTANCE = "{\"schema:isBasedOn\":\"https://repo.metadatacenter.org/t/1\","
+      + "\"Title\":{\"@value\":null},"
+      + "\"Study\":{\"Name\":{\"@value\":\"a\"},\"Keywords\":[{\"@value\":\"k1\"},{\"@value\":\"k2\"}]}}";
+
+  @Test
+  public void shouldKeepOnlyTheChangedValuesAndTheirSchemas() throws IOException {
+    JsonNode newInstance = json(STORED_INSTANCE.replace("\"@value\":null", "\"@value\":\"A title\""));
+
+    InstanceChangeSet changeSet = InstanceChangeSet.of(json(STORED_INSTANCE), newInstance, json(SCHEMA));
+
+    assertThat(changeSet, is(notNullValue()));
+    assertThat(changeSet.getChangedPaths(), is(Collections.singletonList("/Title/@value")));
+    assertThat(changeSet.getInstance(), is(json("{\"Title\":{\"@value\":\"A title\"},"
+        + "\"schema:isBasedOn\":\"https://repo.metadatacenter.org/t/1\"}")));
+    assertThat(changeSet.getSchema().get("required"), is(json("[\"schema:isBasedOn\",\"Title\"]")));
+    assertThat(changeSet.getSchema().get("additionalProperties").asBoolean(), is(false));
+    assertThat(changeSet.getSchema().path("properties").has("Study"), is(false));
+  }
+
+  @Test
+  public void shouldKeepObjectsWithRelatedFieldsAsAWhole() throws IOException {
+    JsonNode newInstance = json(STORED_INSTANCE.replace("\"@value\":\"a\"", "\"@value\":\"b\""));
+
+    InstanceChangeSet changeSet = InstanceChangeSet.of(json(STORED_INSTANCE), newInstance, json(SCHEMA));
+
+    assertThat(changeSet, is(notNullValue()));
+    assertThat(changeSet.getChangedPaths(), is(Collections.singletonList("/Study/Name")));
+    assertThat(changeSet.getInstance().path("Study"), is(json("{\"Name\":{\"@value\":\"b\"}}")));
+    assertThat(changeSet.getSchema().path("properties").path("Study").get("required"), is(json("[\"Name\"]")));
+  }
+
+  @Test
+  public void shouldAcceptChangedArrayItems() throws IOException {
+    JsonNode newInstance = json(STORED_INSTANCE.replace("k2", "k3"));
+
+    InstanceChangeSet changeSet = InstanceChangeSet.of(json(STORED_INSTANCE), newInstance, json(SCHEMA));
+
+    assertThat(changeSet, is(notNullValue()));
+    assertThat(changeSet.getChangedPaths(), is(Collections.singletonList("/Study/Keywords")));
+  }
+
+  @Test
+  public void shouldRejectStructuralChanges() throws IOException {
+    JsonNode stored = json(STORED_INSTANCE);
+    JsonNode schema = json(SCHEMA);
+
+    // An item added to an array
+    assertThat(InstanceChangeSet.of(stored, json(STORED_INSTANCE.replace("{\"@value\":\"k2\"}",
+        "{\"@value\":\"k2\"},{\"@value\":\"k3\"}")), schema), is(nullValue()));
+    // A field added to an object
+    assertThat(InstanceChangeSet.of(stored, json(STORED_INSTANCE.replace("\"@value\":\"a\"",
+        "\"@value\":\"a\",\"@id\":\"https://example.org/a\"")), schema), is(nullValue()));
+    // Another template
+    assertThat(InstanceChangeSet.of(stored, json(STORED_INSTANCE.replace("t/1", "t/2")), schema), is(nullValue()));
+  }
+
+  @Test
+  public void shouldRejectChangesOfValuesWithoutSchema() throws IOException {
+    JsonNode schema = json(SCHEMA.replace("\"Title\":{\"type\":\"object\"", "\"Subtitle\":{\"type\":\"object\""));
+
+    JsonNode newInstance = json(STORED_INSTANCE.replace("\"@value\":null", "\"@value\":\"A title\""));
+
+    assertThat(InstanceChangeSet.of(json(STORED_INSTANCE), newInstance, schema), is(nullValue()));
+  }
+
+  private static JsonNode json(String content) throws IOException {
+    return JsonMapper.MAPPER.readTree(content);
+  }
+}
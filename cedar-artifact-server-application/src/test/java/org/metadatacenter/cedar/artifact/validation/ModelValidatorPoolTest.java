@@ -0,0 +1,156 @@
+package org.metadatacenter.cedar.artifact.validation;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.metadatacenter.cedar.artifact.config.ValidatorPoolConfig;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.model.validation.ModelValidator;
+import org.metadatacenter.util.json.JsonMapper;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ModelValidatorPoolTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+  private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldHaveTheConfiguredSize() {
+    assertThat(pool(3, 1000, false).getSize(), is(3));
+    assertThat(pool(3, 1000, false).getAvailable(), is(3));
+  }
+
+  @Test
+  public void shouldHaveOneValidatorPerProcessorByDefault() {
+    assertThat(pool(0, 1000, false).getSize(), is(Runtime.getRuntime().availableProcessors()));
+  }
+
+  @Test
+  public void shouldNeverHandAValidatorToTwoCallsAtOnce() throws Exception {
+    ModelValidatorPool pool = pool(2, 10000, false);
+    Set<ModelValidator> inUse = ConcurrentHashMap.newKeySet();
+    AtomicInteger maximumInUse = new AtomicInteger();
+    AtomicInteger conflicts = new AtomicInteger();
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      futures.add(executor.submit(() -> {
+        for (int j = 0; j < 50; j++) {
+          pool.validate(CedarResourceType.TEMPLATE, validator -> {
+            if (!inUse.add(validator)) {
+              conflicts.incrementAndGet();
+            }
+            maximumInUse.accumulateAndGet(inUse.size(), Math::max);
+            Thread.sleep(1);
+            inUse.remove(validator);
+            return null;
+          });
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+
+    assertThat(conflicts.get(), is(0));
+    assertThat(maximumInUse.get() <= 2, is(true));
+    assertThat(pool.getAvailable(), is(2));
+  }
+
+  @Test
+  public void shouldReturnTheValidatorWhenTheValidationFails() throws Exception {
+    ModelValidatorPool pool = pool(1, 100, false);
+    try {
+      pool.validate(CedarResourceType.FIELD, validator -> {
+        throw new IllegalStateException("The validation failed");
+      });
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+
+    assertThat(pool.getAvailable(), is(1));
+    assertThat(pool.validate(CedarResourceType.FIELD, validator -> null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldAnswerWith503WhenNoValidatorBecomesAvailable() throws Exception {
+    ModelValidatorPool pool = pool(1, 100, false);
+    CountDownLatch acquired = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?> holder = executor.submit(() -> pool.validate(CedarResourceType.TEMPLATE, validator -> {
+      acquired.countDown();
+      release.await(10, TimeUnit.SECONDS);
+      return null;
+    }));
+    acquired.await(10, TimeUnit.SECONDS);
+
+    try {
+      pool.validate(CedarResourceType.TEMPLATE, validator -> null);
+      throw new AssertionError("A validator was acquired from an empty pool");
+    } catch (WebApplicationException e) {
+      assertThat(e.getResponse().getStatus(), is(Response.Status.SERVICE_UNAVAILABLE.getStatusCode()));
+    } finally {
+      release.countDown();
+    }
+    holder.get(10, TimeUnit.SECONDS);
+    assertThat(pool.getAvailable(), is(1));
+  }
+
+  @Test
+  public void shouldWarmUpTheSchemasOfEveryValidator() {
+    ModelValidatorPool pool = pool(2, 1000, true);
+
+    assertThat(pool.getAvailable(), is(2));
+    assertThat(calls.size(), is(6));
+    for (String method : new String[]{"validateTemplate", "validateTemplateElement", "validateTemplateField"}) {
+      assertThat(method, Collections.frequency(calls, method), is(2));
+    }
+  }
+
+  private ModelValidatorPool pool(int size, long acquireTimeoutMillis, boolean warmUp) {
+    ValidatorPoolConfig config = JsonMapper.MAPPER.convertValue(JsonMapper.MAPPER.createObjectNode()
+        .put("size", size)
+        .put("acquireTimeoutMillis", acquireTimeoutMillis)
+        .put("warmUp", warmUp), ValidatorPoolConfig.class);
+    return new ModelValidatorPool(config, new MetricRegistry(), this::validator);
+  }
+
+  // Records the validations, which report nothing
+  private ModelValidator validator() {
+    return (ModelValidator) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ModelValidator.class},
+        (proxy, method, args) -> {
+          if (method.getName().equals("equals")) {
+            return proxy == args[0];
+          } else if (method.getName().equals("hashCode")) {
+            return System.identityHashCode(proxy);
+          } else if (method.getName().equals("toString")) {
+            return "validator";
+          }
+          calls.add(method.getName());
+          return null;
+        });
+  }
+}
@@ -0,0 +1,277 @@
+package org.metadatacenter.cedar.test.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates large templates, and instances of them, of a given shape:
+ * <ul>
+ * <li>width: the number of fields of the template and of every element</li>
+ * <li>elements: the number of elements of the template and of every element above the last level</li>
+ * <li>depth: the number of levels of nested elements</li>
+ * <li>cardinality: the number of values of the multi-valued fields and elements. Every second field and element
+ * is multi-valued if the cardinality is greater than one.</li>
+ * </ul>
+ * The fields and elements are copies of the "Company Name" field and of the "Export Good" element of the use case
+ * template, so the generated templates are as valid as the use case template is, and the generated instances are
+ * valid against them. Generation is deterministic: the same seed and shape always give the same artifacts, ids
+ * included.
+ * <p>
+ * The template and the instance have a top-level id, so that they can be validated as they are. It has to be removed
+ * before they are posted.
+ */
+public class SyntheticArtifactGenerator {
+
+  public static final String USE_CASE_TEMPLATE = "instances/usecase-template.json";
+  public static final String USE_CASE_INSTANCE = "instances/usecase-instance.jsonld";
+
+  private static final String PROTOTYPE_FIELD = "Company Name";
+  private static final String PROTOTYPE_ELEMENT = "Export Good";
+  private static final String[] USE_CASE_ARTIFACTS = {"Company Name", "Export Good", "Import Good"};
+  private static final String[] PROTOTYPE_ELEMENT_FIELDS = {"Product Name", "Quantity"};
+
+  private static final String TEMPLATE_IRI = "https://repo.metadatacenter.orgx/templates/";
+  private static final String FIELD_IRI = "https://repo.metadatacenter.orgx/template-fields/";
+  private static final String ELEMENT_IRI = "https://repo.metadatacenter.orgx/template-elements/";
+  private static final String INSTANCE_IRI = "https://repo.metadatacenter.orgx/template-instances/";
+  private static final String ELEMENT_INSTANCE_IRI = "https://repo.metadatacenter.orgx/template-element-instances/";
+  private static final String PROPERTY_IRI = "https://schema.metadatacenter.orgx/properties/";
+
+  private static final String[] WORDS = {"cedar", "metadata", "sample", "study", "assay", "tissue", "organism",
+      "protocol", "instrument", "analysis", "donor", "cell", "gene", "sequence", "biomaterial", "investigation"};
+
+  private final long seed;
+  private int width = 10;
+  private int elements = 2;
+  private int depth = 1;
+  private int cardinality = 1;
+
+  public SyntheticArtifactGenerator(long seed) {
+    this.seed = seed;
+  }
+
+  public SyntheticArtifactGenerator width(int width) {
+    this.width = checkNotNegative(width, "width");
+    return this;
+  }
+
+  public SyntheticArtifactGenerator elements(int elements) {
+    this.elements = checkNotNegative(elements, "elements");
+    return this;
+  }
+
+  public SyntheticArtifactGenerator depth(int depth) {
+    this.depth = checkNotNegative(depth, "depth");
+    return this;
+  }
+
+  public SyntheticArtifactGenerator cardinality(int cardinality) {
+    if (cardinality < 1) {
+      throw new IllegalArgumentException("The cardinality must be at least 1, not " + cardinality);
+    }
+    this.cardinality = cardinality;
+    return this;
+  }
+
+  /**
+   * Sets the width, elements, depth and cardinality from a shape "WxExDxC", as returned by {@link #shape()}.
+   */
+  public SyntheticArtifactGenerator shape(String shape) {
+    String[] parts = shape.split("x");
+    if (parts.length != 4) {
+      throw new IllegalArgumentException("The shape must be 'WxExDxC', not " + shape);
+    }
+    return width(Integer.parseInt(parts[0]))
+        .elements(Integer.parseInt(parts[1]))
+        .depth(Integer.parseInt(parts[2]))
+        .cardinality(Integer.parseInt(parts[3]));
+  }
+
+  /**
+   * The number of fields of the generated template, nested ones included.
+   */
+  public int getFieldCount() {
+    int fields = 0;
+    int elementsOfLevel = 1;
+    for (int level = 0; level <= depth; level++) {
+      fields += elementsOfLevel * width;
+      elementsOfLevel *= elements;
+    }
+    return fields;
+  }
+
+  public ObjectNode template() {
+    Random random = new Random(seed);
+    ObjectNode template = (ObjectNode) readFixture(USE_CASE_TEMPLATE);
+    ObjectNode fieldPrototype = (ObjectNode) template.get("properties").get(PROTOTYPE_FIELD);
+    ObjectNode elementPrototype = (ObjectNode) template.get("properties").get(PROTOTYPE_ELEMENT);
+    for (String name : USE_CASE_ARTIFACTS) {
+      removeChild(template, name);
+    }
+    for (String name : PROTOTYPE_ELEMENT_FIELDS) {
+      removeChild(elementPrototype, name);
+    }
+    template.put("@id", TEMPLATE_IRI + uuid(random));
+    template.put("schema:name", "Synthetic template " + shape());
+    addChildren(template, fieldPrototype, elementPrototype, 0, random);
+    return template;
+  }
+
+  /**
+   * An instance of a template made by this generator, filling every field and element of it.
+   */
+  public ObjectNode instance(JsonNode template) {
+    // Another sequence than the template's, so that the instance does not get the ids of the template
+    Random random = new Random(~seed);
+    ObjectNode instance = (ObjectNode) readFixture(USE_CASE_INSTANCE);
+    ObjectNode context = (ObjectNode) instance.get("@context");
+    for (String name : USE_CASE_ARTIFACTS) {
+      instance.remove(name);
+      context.remove(name);
+    }
+    instance.put("@id", INSTANCE_IRI + uuid(random));
+    instance.put("schema:isBasedOn", template.path("@id").asText());
+    instance.put("schema:name", "Synthetic instance " + shape());
+    fillChildren(instance, template, random);
+    return instance;
+  }
+
+  public String shape() {
+    return width + "x" + elements + "x" + depth + "x" + cardinality;
+  }
+
+  private void addChildren(ObjectNode parent, ObjectNode fieldPrototype, ObjectNode elementPrototype, int level,
+                           Random random) {
+    for (int i = 0; i < width; i++) {
+      ObjectNode field = fieldPrototype.deepCopy();
+      field.put("@id", FIELD_IRI + uuid(random));
+      field.put("schema:name", "Field " + i);
+      addChild(parent, "Field " + i, field, i, random);
+    }
+    if (level < depth) {
+      for (int i = 0; i < elements; i++) {
+        ObjectNode element = elementPrototype.deepCopy();
+        element.put("@id", ELEMENT_IRI + uuid(random));
+        element.put("schema:name", "Element " + i);
+        addChildren(element, fieldPrototype, elementPrototype, level + 1, random);
+        addChild(parent, "Element " + i, element, i, random);
+      }
+    }
+  }
+
+  private void addChild(ObjectNode parent, String name, ObjectNode child, int index, Random random) {
+    ObjectNode properties = (ObjectNode) parent.get("properties");
+    ObjectNode context = (ObjectNode) properties.get("@context");
+    if (isMultiValued(index)) {
+      ObjectNode array = properties.putObject(name);
+      array.put("type", "array");
+      array.put("minItems", 1);
+      array.set("items", child);
+    } else {
+      properties.set(name, child);
+    }
+    ((ObjectNode) context.get("properties")).putObject(name).putArray("enum").add(PROPERTY_IRI + uuid(random));
+    ((ArrayNode) context.get("required")).add(name);
+    ((ArrayNode) parent.get("required")).add(name);
+    ObjectNode ui = (ObjectNode) parent.get("_ui");
+    ((ArrayNode) ui.get("order")).add(name);
+    ((ObjectNode) ui.get("propertyLabels")).put(name, name);
+  }
+
+  // The instance follows the order of the template, so that the values drawn from the random generator do not
+  // depend on how the template was read
+  private void fillChildren(ObjectNode instance, JsonNode schema, Random random) {
+    JsonNode properties = schema.get("properties");
+    JsonNode contextProperties = properties.get("@context").get("properties");
+    ObjectNode context = (ObjectNode) instance.get("@context");
+    for (JsonNode nameNode : schema.get("_ui").get("order")) {
+      String name = nameNode.asText();
+      context.put(name, contextProperties.get(name).get("enum").get(0).asText());
+      JsonNode childSchema = properties.get(name);
+      if ("array".equals(childSchema.path("type").asText())) {
+        ArrayNode values = instance.putArray(name);
+        for (int i = 0; i < cardinality; i++) {
+          values.add(value(childSchema.get("items"), random));
+        }
+      } else {
+        instance.set(name, value(childSchema, random));
+      }
+    }
+  }
+
+  private ObjectNode value(JsonNode schema, Random random) {
+    ObjectNode value = JsonMapper.MAPPER.createObjectNode();
+    if (schema.get("_ui").has("order")) {
+      value.putObject("@context");
+      fillChildren(value, schema, random);
+      value.put("@id", ELEMENT_INSTANCE_IRI + uuid(random));
+    } else {
+      value.put("@value", text(random));
+    }
+    return value;
+  }
+
+  private boolean isMultiValued(int index) {
+    return cardinality > 1 && index % 2 == 1;
+  }
+
+  private static void removeChild(ObjectNode parent, String name) {
+    ((ObjectNode) parent.get("properties")).remove(name);
+    ((ObjectNode) parent.get("properties").get("@context").get("properties")).remove(name);
+    removeValue((ArrayNode) parent.get("properties").get("@context").get("required"), name);
+    removeValue((ArrayNode) parent.get("required"), name);
+    ObjectNode ui = (ObjectNode) parent.get("_ui");
+    removeValue((ArrayNode) ui.get("order"), name);
+    ((ObjectNode) ui.get("propertyLabels")).remove(name);
+  }
+
+  private static void removeValue(ArrayNode array, String value) {
+    for (int i = array.size() - 1; i >= 0; i--) {
+      if (value.equals(array.get(i).asText())) {
+        array.remove(i);
+      }
+    }
+  }
+
+  private static String text(Random random) {
+    StringBuilder text = new StringBuilder();
+    int words = 1 + random.nextInt(4);
+    for (int i = 0; i < words; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      text.append(WORDS[random.nextInt(WORDS.length)]);
+    }
+    return text.toString();
+  }
+
+  private static String uuid(Random random) {
+    return new UUID(random.nextLong(), random.nextLong()).toString();
+  }
+
+  private static int checkNotNegative(int value, String name) {
+    if (value < 0) {
+      throw new IllegalArgumentException("The " + name + " must not be negative, not " + value);
+    }
+    return value;
+  }
+
+  private static JsonNode readFixture(String path) {
+    try (InputStream in = SyntheticArtifactGenerator.class.getClassLoader().getResourceAsStream(path)) {
+      if (in == null) {
+        throw new IllegalArgumentException("No fixture " + path);
+      }
+      return JsonMapper.MAPPER.readTree(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.metadatacenter.cedar.test.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Test;
+import org.metadatacenter.model.validation.CedarValidator;
+import org.metadatacenter.model.validation.report.CedarValidationReport;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SyntheticArtifactGeneratorTest {
+
+  @Test
+  public void shouldGenerateTheSameArtifactsFromTheSameSeed() {
+    SyntheticArtifactGenerator generator = new SyntheticArtifactGenerator(42).width(5).elements(2).depth(2)
+        .cardinality(3);
+
+    JsonNode template = generator.template();
+
+    assertThat(template, is(new SyntheticArtifactGenerator(42).width(5).elements(2).depth(2).cardinality(3)
+        .template()));
+    assertThat(generator.instance(template), is(generator.instance(template)));
+    assertThat(template, is(not(new SyntheticArtifactGenerator(43).width(5).elements(2).depth(2).cardinality(3)
+        .template())));
+  }
+
+  @Test
+  public void shouldGenerateTheShapeAskedFor() {
+    SyntheticArtifactGenerator generator = new SyntheticArtifactGenerator(1).width(4).elements(3).depth(2)
+        .cardinality(2);
+
+    JsonNode template = generator.template();
+    JsonNode instance = generator.instance(template);
+
+    assertThat(generator.getFieldCount(), is(4 + 3 * 4 + 9 * 4));
+    assertThat(countFields(template), is(generator.getFieldCount()));
+    assertThat(template.path("properties").path("Field 0").path("type").asText(), is("object"));
+    assertThat(template.path("properties").path("Field 1").path("type").asText(), is("array"));
+    assertThat(instance.path("Field 1").size(), is(2));
+    assertThat(instance.path("Element 1").size(), is(2));
+    assertThat(instance.path("Element 0").path("Element 2").path("Field 3").size(), is(2));
+    assertThat(instance.path("schema:isBasedOn"), is(template.path("@id")));
+  }
+
+  @Test
+  public void shouldGenerateValidArtifacts() throws Exception {
+    SyntheticArtifactGenerator generator = new SyntheticArtifactGenerator(7).width(3).elements(2).depth(2)
+        .cardinality(2);
+    CedarValidator validator = new CedarValidator();
+
+    JsonNode template = generator.template();
+    JsonNode instance = generator.instance(template);
+
+    assertThat(validator.validateTemplate(template).getValidationStatus(), is(CedarValidationReport.IS_VALID));
+    assertThat(validator.validateTemplateInstance(instance, template).getValidationStatus(),
+        is(CedarValidationReport.IS_VALID));
+  }
+
+  private static int countFields(JsonNode schema) {
+    int fields = 0;
+    for (JsonNode name : schema.path("_ui").path("order")) {
+      JsonNode child = schema.path("properties").path(name.asText());
+      if (child.has("items")) {
+        child = child.get("items");
+      }
+      fields += child.path("_ui").has("order") ? countFields(child) : 1;
+    }
+    return fields;
+  }
+}
@@ -0,0 +1,48 @@
+package org.metadatacenter.cedar.test.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.UncheckedIOException;
+
+/**
+ * The content of a synthetic template, ready to be posted: without its top-level id.
+ */
+public class TestValueSyntheticTemplateGenerator extends AbstractTestValueGenerator<String> {
+
+  private final SyntheticArtifactGenerator artifactGenerator;
+
+  private String value;
+
+  public TestValueSyntheticTemplateGenerator(SyntheticArtifactGenerator artifactGenerator) {
+    this.artifactGenerator = artifactGenerator;
+  }
+
+  @Override
+  public void generateValue(TestDataGenerationContext tdctx, TestParameterArrayGenerator arrayGenerator) {
+    ObjectNode template = artifactGenerator.template();
+    template.remove("@id");
+    try {
+      value = JsonMapper.MAPPER.writeValueAsString(template);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public SyntheticArtifactGenerator getArtifactGenerator() {
+    return artifactGenerator;
+  }
+
+  @Override
+  public String getValue() {
+    return value;
+  }
+
+  @Override
+  public TestValueSyntheticTemplateGenerator clone() {
+    TestValueSyntheticTemplateGenerator c = new TestValueSyntheticTemplateGenerator(artifactGenerator);
+    return c;
+  }
+
+}
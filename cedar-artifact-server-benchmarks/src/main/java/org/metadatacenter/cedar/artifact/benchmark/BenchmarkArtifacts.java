@@ -0,0 +1,101 @@
+package org.metadatacenter.cedar.artifact.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.test.util.SyntheticArtifactGenerator;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+/**
+ * The artifacts the benchmarks run on: the fixtures of the application tests, and the synthetic templates and
+ * instances of the application test utilities, generated from a fixed seed so that every run measures the same
+ * artifacts.
+ */
+public final class BenchmarkArtifacts {
+
+  public static final String SAMPLE = "sample";
+  public static final String USE_CASE = "usecase";
+
+  public static final String USE_CASE_TEMPLATE = "instances/usecase-template.json";
+  public static final String USE_CASE_INSTANCE = "instances/usecase-instance.jsonld";
+  public static final String SAMPLE_TEMPLATE = "crud/SampleTemplate.json";
+  public static final String SAMPLE_INSTANCE = "crud/SampleTemplateInstance.json";
+
+  private static final String FIXTURES = "fixtures/";
+  private static final long SEED = 20180129L;
+
+  private BenchmarkArtifacts() {
+  }
+
+  /**
+   * The template of a benchmark shape: "sample" and "usecase" for the fixtures, or "WxExDxC" for a synthetic
+   * template.
+   */
+  public static JsonNode template(String shape) {
+    if (SAMPLE.equals(shape)) {
+      return fixture(SAMPLE_TEMPLATE);
+    } else if (USE_CASE.equals(shape)) {
+      return fixture(USE_CASE_TEMPLATE);
+    }
+    return generator(shape).template();
+  }
+
+  /**
+   * The instance of a benchmark shape, based on the template of the same shape.
+   */
+  public static JsonNode instance(String shape) {
+    if (SAMPLE.equals(shape)) {
+      return fixture(SAMPLE_INSTANCE);
+    } else if (USE_CASE.equals(shape)) {
+      return fixture(USE_CASE_INSTANCE);
+    }
+    SyntheticArtifactGenerator generator = generator(shape);
+    return generator.instance(generator.template());
+  }
+
+  public static JsonNode fixture(String path) {
+    try (InputStream in = BenchmarkArtifacts.class.getClassLoader().getResourceAsStream(FIXTURES + path)) {
+      if (in == null) {
+        throw new IllegalArgumentException("No fixture " + path);
+      }
+      return JsonMapper.MAPPER.readTree(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * The generator of a shape "WxExDxC": a template of W fields and E elements per level, with D levels of nested
+   * elements, and C values for the multi-valued fields and elements.
+   */
+  public static SyntheticArtifactGenerator generator(String shape) {
+    return new SyntheticArtifactGenerator(SEED).shape(shape);
+  }
+
+  /**
+   * Removes the ids of the nested fields and elements, or of the element instances, which the id assignment then
+   * has to add back.
+   */
+  public static <T extends JsonNode> T withoutNestedIds(T artifact) {
+    Iterator<JsonNode> values = artifact.elements();
+    while (values.hasNext()) {
+      removeIds(values.next());
+    }
+    return artifact;
+  }
+
+  // Nested fields and elements, and element instances, have their own context. Values of controlled terms also
+  // have an id, but no context, and are left as they are.
+  private static void removeIds(JsonNode node) {
+    if (node.isObject() && node.has("@context") && node.path("@id").isTextual()) {
+      ((ObjectNode) node).remove("@id");
+    }
+    for (JsonNode child : node) {
+      removeIds(child);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+package org.metadatacenter.cedar.artifact.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of templates in the JSON text, Smile and CBOR formats served by the artifact endpoints. The
+ * size of each encoding, and its ratio to the JSON text, is printed when a trial starts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryJsonBenchmark {
+
+  @Param({"sample", "usecase", "10x0x0x1", "100x10x1x1", "20x4x3x3"})
+  private String shape;
+
+  @Param({"json", "smile", "cbor"})
+  private String format;
+
+  private ObjectMapper mapper;
+  private JsonNode template;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    mapper = new ObjectMapper(factory(format));
+    template = BenchmarkArtifacts.template(shape);
+    encoded = mapper.writeValueAsBytes(template);
+    int jsonLength = new ObjectMapper().writeValueAsBytes(template).length;
+    System.out.printf(Locale.ROOT, "%n%s %s: %d bytes, %.1f%% of JSON%n", shape, format, encoded.length,
+        encoded.length * 100.0 / jsonLength);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return mapper.writeValueAsBytes(template);
+  }
+
+  @Benchmark
+  public JsonNode decode() throws IOException {
+    return mapper.readTree(encoded);
+  }
+
+  private static JsonFactory factory(String format) {
+    switch (format) {
+      case "json":
+        return new JsonFactory();
+      case "smile":
+        return new SmileFactory();
+      case "cbor":
+        return new CBORFactory();
+      default:
+        throw new IllegalArgumentException("Unknown format " + format);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package org.metadatacenter.cedar.artifact.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.config.CedarConfig;
+import org.metadatacenter.config.environment.CedarEnvironmentVariableProvider;
+import org.metadatacenter.model.CedarResourceType;
+import org.metadatacenter.model.SystemComponent;
+import org.metadatacenter.server.jsonld.LinkedDataUtil;
+import org.metadatacenter.server.model.provenance.ProvenanceInfo;
+import org.metadatacenter.server.security.model.user.CedarUser;
+import org.metadatacenter.util.ModelUtil;
+import org.metadatacenter.util.provenance.ProvenanceUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assignment of ids to the nested fields and elements of new templates, and to the element instances of new
+ * instances. The artifacts are copied, without their nested ids, before every invocation.
+ * <p>
+ * The ids are built from the linked data configuration, so the CEDAR environment variables must be set, as for the
+ * application tests.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IdAssignmentBenchmark {
+
+  private static final String BENCHMARK_USER_ID = "https://metadatacenter.org/users/benchmark";
+
+  @Param({"usecase", "10x0x0x1", "100x10x1x1", "20x4x3x3"})
+  private String shape;
+
+  private LinkedDataUtil linkedDataUtil;
+  private ProvenanceUtil provenanceUtil;
+  private ProvenanceInfo provenanceInfo;
+  private JsonNode template;
+  private JsonNode instance;
+  private JsonNode templateCopy;
+  private JsonNode instanceCopy;
+
+  @Setup
+  public void setUp() {
+    CedarConfig cedarConfig = CedarConfig.getInstance(
+        CedarEnvironmentVariableProvider.getFor(SystemComponent.SERVER_ARTIFACT));
+    linkedDataUtil = new LinkedDataUtil(cedarConfig.getLinkedDataConfig());
+    provenanceUtil = new ProvenanceUtil();
+    CedarUser user = new CedarUser();
+    user.setId(BENCHMARK_USER_ID);
+    provenanceInfo = provenanceUtil.build(user);
+    template = BenchmarkArtifacts.withoutNestedIds(BenchmarkArtifacts.template(shape));
+    instance = BenchmarkArtifacts.withoutNestedIds(BenchmarkArtifacts.instance(shape));
+  }
+
+  @Setup(Level.Invocation)
+  public void copyArtifacts() {
+    templateCopy = template.deepCopy();
+    instanceCopy = instance.deepCopy();
+  }
+
+  @Benchmark
+  public JsonNode ensureFieldIdsRecursively() throws Exception {
+    ModelUtil.ensureFieldIdsRecursively(templateCopy, provenanceInfo, provenanceUtil, linkedDataUtil);
+    return templateCopy;
+  }
+
+  @Benchmark
+  public JsonNode addElementInstanceIds() throws Exception {
+    linkedDataUtil.addElementInstanceIds(instanceCopy, CedarResourceType.INSTANCE);
+    return instanceCopy;
+  }
+}
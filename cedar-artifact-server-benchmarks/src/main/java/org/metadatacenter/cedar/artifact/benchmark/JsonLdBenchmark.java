@@ -0,0 +1,49 @@
+package org.metadatacenter.cedar.artifact.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.model.trimmer.JsonLdDocument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions of instances to the RDF and plain JSON formats served by the instance endpoints.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonLdBenchmark {
+
+  @Param({"sample", "usecase", "10x0x0x1", "100x10x1x1", "20x4x3x3"})
+  private String shape;
+
+  private JsonNode instance;
+
+  @Setup
+  public void setUp() {
+    instance = BenchmarkArtifacts.instance(shape);
+  }
+
+  @Benchmark
+  public String asRdf() throws Exception {
+    return new JsonLdDocument(instance).asRdf();
+  }
+
+  @Benchmark
+  public JsonNode asJson() {
+    return new JsonLdDocument(instance).asJson();
+  }
+}
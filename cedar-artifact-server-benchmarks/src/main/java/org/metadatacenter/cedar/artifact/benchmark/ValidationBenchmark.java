@@ -0,0 +1,54 @@
+package org.metadatacenter.cedar.artifact.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.model.validation.CedarValidator;
+import org.metadatacenter.model.validation.report.ValidationReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of templates and of instances against their template, as done on every write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+  @Param({"sample", "usecase", "10x0x0x1", "100x10x1x1", "20x4x3x3"})
+  private String shape;
+
+  private CedarValidator validator;
+  private JsonNode template;
+  private JsonNode instance;
+
+  @Setup
+  public void setUp() {
+    validator = new CedarValidator();
+    template = BenchmarkArtifacts.template(shape);
+    instance = BenchmarkArtifacts.instance(shape);
+  }
+
+  @Benchmark
+  public ValidationReport validateTemplate() throws Exception {
+    return validator.validateTemplate(template);
+  }
+
+  @Benchmark
+  public ValidationReport validateTemplateInstance() throws Exception {
+    return validator.validateTemplateInstance(instance, template);
+  }
+}
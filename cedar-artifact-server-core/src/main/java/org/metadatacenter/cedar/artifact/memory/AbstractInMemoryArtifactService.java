@@ -0,0 +1,51 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
+import org.metadatacenter.server.service.FieldNameInEx;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The operations shared by the in-memory artifact services, on the collection of their artifact type. They behave as
+ * the MongoDB services do: an update or a delete of a missing artifact fails as not found, a find returns null.
+ */
+public abstract class AbstractInMemoryArtifactService {
+
+  protected final InMemoryCollection collection;
+
+  protected AbstractInMemoryArtifactService(InMemoryCollection collection) {
+    this.collection = checkNotNull(collection);
+  }
+
+  protected JsonNode create(JsonNode artifact) throws IOException {
+    return collection.insert(artifact);
+  }
+
+  protected JsonNode find(String id) {
+    return collection.find(id);
+  }
+
+  protected List<JsonNode> findAll(Integer limit, Integer offset, List<String> fieldNames,
+                                   FieldNameInEx fieldNameInEx) {
+    return collection.findAll(limit == null ? Integer.MAX_VALUE : limit, offset == null ? 0 : offset, fieldNames,
+        fieldNameInEx);
+  }
+
+  protected JsonNode update(String id, JsonNode artifact) throws ArtifactServerResourceNotFoundException,
+      IOException {
+    if (collection.save(id, artifact, false) == null) {
+      throw new ArtifactServerResourceNotFoundException("Artifact not found: " + id);
+    }
+    return collection.find(id);
+  }
+
+  protected void delete(String id) throws ArtifactServerResourceNotFoundException {
+    if (!collection.delete(id)) {
+      throw new ArtifactServerResourceNotFoundException("Artifact not found: " + id);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.cedar.artifact.store.ArtifactConsumer;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.ArtifactStore;
+import org.metadatacenter.cedar.artifact.store.BulkInsertResult;
+import org.metadatacenter.cedar.artifact.store.JsonNodeArtifact;
+import org.metadatacenter.cedar.artifact.store.RawArtifact;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.server.service.FieldNameInEx;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+public class InMemoryArtifactStore implements ArtifactStore {
+
+  private final InMemoryCollection collection;
+
+  public InMemoryArtifactStore(InMemoryCollection collection) {
+    this.collection = checkNotNull(collection);
+  }
+
+  @Override
+  public RawArtifact findRaw(String id) {
+    JsonNode artifact = collection.find(id);
+    return artifact != null ? new JsonNodeArtifact(artifact) : null;
+  }
+
+  @Override
+  public ArtifactPage findPage(String afterKey, int limit, List<String> fieldNames, FieldNameInEx fieldNameInEx)
+      throws IOException {
+    return collection.findPage(afterKey, limit, fieldNames, fieldNameInEx);
+  }
+
+  @Override
+  public void forEachByField(String fieldName, String value, List<String> fieldNames, FieldNameInEx fieldNameInEx,
+                             ArtifactConsumer consumer) throws IOException {
+    collection.forEachByField(fieldName, value, fieldNames, fieldNameInEx, consumer);
+  }
+
+  @Override
+  public void insert(JsonNode artifact) throws IOException {
+    collection.insert(artifact);
+  }
+
+  @Override
+  public BulkInsertResult insertMany(List<JsonNode> artifacts) throws IOException {
+    int insertedCount = 0;
+    Map<Integer, String> failures = new HashMap<>();
+    for (int i = 0; i < artifacts.size(); i++) {
+      try {
+        collection.insert(artifacts.get(i));
+        insertedCount++;
+      } catch (IOException e) {
+        failures.put(i, e.getMessage());
+      }
+    }
+    return new BulkInsertResult(insertedCount, failures);
+  }
+
+  @Override
+  public CreateOrUpdate save(String id, JsonNode artifact, boolean createIfMissing) throws IOException {
+    return collection.save(id, artifact, createIfMissing);
+  }
+
+  @Override
+  public VersionedArtifact findVersioned(String id) {
+    return collection.findVersioned(id);
+  }
+
+  @Override
+  public boolean replaceIfRevision(String id, String expectedRevision, JsonNode artifact) {
+    return collection.replaceIfRevision(id, expectedRevision, artifact);
+  }
+
+  // There is no write to save by sending only the differences
+  @Override
+  public boolean updateIfRevision(String id, String expectedRevision, JsonNode currentArtifact,
+                                  JsonNode newArtifact) {
+    return collection.replaceIfRevision(id, expectedRevision, newArtifact);
+  }
+
+  @Override
+  public boolean deleteIfRevision(String id, String expectedRevision) {
+    return collection.deleteIfRevision(id, expectedRevision);
+  }
+
+  @Override
+  public long count() {
+    return collection.count();
+  }
+
+  @Override
+  public long estimatedCount() {
+    return collection.count();
+  }
+}
@@ -0,0 +1,250 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.metadatacenter.cedar.artifact.store.ArtifactConsumer;
+import org.metadatacenter.cedar.artifact.store.ArtifactPage;
+import org.metadatacenter.cedar.artifact.store.VersionedArtifact;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.server.service.FieldNameInEx;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A collection of artifacts held in memory, in place of a MongoDB collection. The artifacts are kept in insertion
+ * order under a storage key, and are unique by id, as in the MongoDB collections.
+ * <p>
+ * The collection is thread-safe. Reads do not lock; writes are serialized, so that the conditional writes check and
+ * write atomically. Every write gives the artifact a new revision, as the MongoDB store does. Artifacts are copied on
+ * the way in and on the way out, so that a caller never changes a stored artifact, as it could not with a database
+ * either.
+ */
+public class InMemoryCollection {
+
+  private static final String KEY_FORMAT = "%016x";
+
+  private final ConcurrentNavigableMap<Long, JsonNode> artifactsByKey = new ConcurrentSkipListMap<>();
+  private final Map<String, Long> keysById = new ConcurrentHashMap<>();
+  private final Map<Long, String> revisionsByKey = new ConcurrentHashMap<>();
+  private final Object writeLock = new Object();
+  private long lastAssignedKey;
+  private long lastAssignedRevision;
+
+  public JsonNode insert(JsonNode artifact) throws IOException {
+    synchronized (writeLock) {
+      add(getId(artifact), artifact);
+    }
+    return artifact.deepCopy();
+  }
+
+  public JsonNode find(String id) {
+    JsonNode artifact = findStored(id);
+    return artifact == null ? null : artifact.deepCopy();
+  }
+
+  public VersionedArtifact findVersioned(String id) {
+    synchronized (writeLock) {
+      Long key = keysById.get(id);
+      if (key == null) {
+        return null;
+      }
+      return new VersionedArtifact(artifactsByKey.get(key).deepCopy(), revisionsByKey.get(key));
+    }
+  }
+
+  /**
+   * Lists the artifacts in insertion order, skipping the first {@code offset} ones.
+   */
+  public List<JsonNode> findAll(int limit, int offset, List<String> fieldNames, FieldNameInEx fieldNameInEx) {
+    List<JsonNode> artifacts = new ArrayList<>(Math.min(limit, artifactsByKey.size()));
+    Iterator<JsonNode> stored = artifactsByKey.values().iterator();
+    for (int i = 0; i < offset && stored.hasNext(); i++) {
+      stored.next();
+    }
+    while (stored.hasNext() && artifacts.size() < limit) {
+      artifacts.add(project(stored.next(), fieldNames, fieldNameInEx));
+    }
+    return artifacts;
+  }
+
+  /**
+   * Lists the artifacts stored after the given key, in insertion order.
+   *
+   * @throws IllegalArgumentException if the key was not produced by this collection
+   */
+  public ArtifactPage findPage(String afterKey, int limit, List<String> fieldNames, FieldNameInEx fieldNameInEx) {
+    NavigableMap<Long, JsonNode> tail = afterKey == null ? artifactsByKey
+        : artifactsByKey.tailMap(parseKey(afterKey), false);
+    List<JsonNode> items = new ArrayList<>(Math.min(limit, tail.size()));
+    Long lastKey = null;
+    boolean hasMore = false;
+    for (Map.Entry<Long, JsonNode> entry : tail.entrySet()) {
+      if (items.size() == limit) {
+        hasMore = true;
+        break;
+      }
+      lastKey = entry.getKey();
+      items.add(project(entry.getValue(), fieldNames, fieldNameInEx));
+    }
+    return new ArtifactPage(items, hasMore ? formatKey(lastKey) : null);
+  }
+
+  public void forEachByField(String fieldName, String value, List<String> fieldNames, FieldNameInEx fieldNameInEx,
+                             ArtifactConsumer consumer) throws IOException {
+    for (JsonNode artifact : artifactsByKey.values()) {
+      if (matches(artifact, fieldName, value)) {
+        consumer.accept(project(artifact, fieldNames, fieldNameInEx));
+      }
+    }
+  }
+
+  public long countByField(String fieldName, String value) {
+    long count = 0;
+    for (JsonNode artifact : artifactsByKey.values()) {
+      if (matches(artifact, fieldName, value)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Replaces the artifact with the given id, or inserts it if there is none and creating is allowed.
+   *
+   * @return whether the artifact was updated or created, or null if it did not exist and was not created
+   */
+  public CreateOrUpdate save(String id, JsonNode artifact, boolean createIfMissing) throws IOException {
+    synchronized (writeLock) {
+      Long key = keysById.get(id);
+      if (key != null) {
+        write(key, artifact);
+        return CreateOrUpdate.UPDATE;
+      }
+      if (!createIfMissing) {
+        return null;
+      }
+      // Found by the id it is saved under, as the MongoDB upserts are, whatever the id in the body
+      add(id, artifact);
+      return CreateOrUpdate.CREATE;
+    }
+  }
+
+  public boolean replaceIfRevision(String id, String expectedRevision, JsonNode artifact) {
+    synchronized (writeLock) {
+      Long key = keysById.get(id);
+      if (key == null || !revisionsByKey.get(key).equals(expectedRevision)) {
+        return false;
+      }
+      write(key, artifact);
+      return true;
+    }
+  }
+
+  public boolean delete(String id) {
+    synchronized (writeLock) {
+      Long key = keysById.remove(id);
+      if (key == null) {
+        return false;
+      }
+      revisionsByKey.remove(key);
+      return artifactsByKey.remove(key) != null;
+    }
+  }
+
+  public boolean deleteIfRevision(String id, String expectedRevision) {
+    synchronized (writeLock) {
+      Long key = keysById.get(id);
+      if (key == null || !revisionsByKey.get(key).equals(expectedRevision)) {
+        return false;
+      }
+      keysById.remove(id);
+      revisionsByKey.remove(key);
+      artifactsByKey.remove(key);
+      return true;
+    }
+  }
+
+  public void deleteAll() {
+    synchronized (writeLock) {
+      keysById.clear();
+      revisionsByKey.clear();
+      artifactsByKey.clear();
+    }
+  }
+
+  public long count() {
+    return artifactsByKey.size();
+  }
+
+  private void add(String id, JsonNode artifact) throws IOException {
+    if (id != null && keysById.containsKey(id)) {
+      throw new IOException("Duplicate id: " + id);
+    }
+    long key = ++lastAssignedKey;
+    write(key, artifact);
+    if (id != null) {
+      keysById.put(id, key);
+    }
+  }
+
+  private void write(long key, JsonNode artifact) {
+    artifactsByKey.put(key, artifact.deepCopy());
+    revisionsByKey.put(key, Long.toString(++lastAssignedRevision));
+  }
+
+  private JsonNode findStored(String id) {
+    Long key = keysById.get(id);
+    return key == null ? null : artifactsByKey.get(key);
+  }
+
+  private static boolean matches(JsonNode artifact, String fieldName, String expectedValue) {
+    JsonNode field = artifact.get(fieldName);
+    return field != null && field.isTextual() && field.asText().equals(expectedValue);
+  }
+
+  private static String getId(JsonNode artifact) {
+    JsonNode id = artifact.get(LinkedData.ID);
+    return id != null && id.isTextual() ? id.asText() : null;
+  }
+
+  private static JsonNode project(JsonNode artifact, List<String> fieldNames, FieldNameInEx fieldNameInEx) {
+    if (fieldNames == null || fieldNames.isEmpty()) {
+      return artifact.deepCopy();
+    }
+    if (fieldNameInEx == FieldNameInEx.INCLUDE) {
+      ObjectNode projected = JsonMapper.MAPPER.createObjectNode();
+      for (String fieldName : fieldNames) {
+        JsonNode field = artifact.get(fieldName);
+        if (field != null) {
+          projected.set(fieldName, field.deepCopy());
+        }
+      }
+      return projected;
+    }
+    ObjectNode projected = artifact.deepCopy();
+    projected.remove(fieldNames);
+    return projected;
+  }
+
+  private static String formatKey(long key) {
+    return String.format(KEY_FORMAT, key);
+  }
+
+  private static long parseKey(String key) {
+    try {
+      return Long.parseLong(key, 16);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid page key: " + key);
+    }
+  }
+}
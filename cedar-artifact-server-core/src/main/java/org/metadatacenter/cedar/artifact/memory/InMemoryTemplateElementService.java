@@ -0,0 +1,50 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
+import org.metadatacenter.server.service.FieldNameInEx;
+import org.metadatacenter.server.service.TemplateElementService;
+
+import java.io.IOException;
+import java.util.List;
+
+public class InMemoryTemplateElementService extends AbstractInMemoryArtifactService
+    implements TemplateElementService<String, JsonNode> {
+
+  public InMemoryTemplateElementService(InMemoryCollection collection) {
+    super(collection);
+  }
+
+  @Override
+  public JsonNode createTemplateElement(JsonNode templateElement) throws IOException {
+    return create(templateElement);
+  }
+
+  @Override
+  public List<JsonNode> findAllTemplateElements(Integer limit, Integer offset, List<String> fieldNames,
+                                                FieldNameInEx includeExclude) throws IOException {
+    return findAll(limit, offset, fieldNames, includeExclude);
+  }
+
+  @Override
+  public JsonNode findTemplateElement(String templateElementId) throws IOException {
+    return find(templateElementId);
+  }
+
+  @Override
+  public JsonNode updateTemplateElement(String templateElementId, JsonNode content)
+      throws ArtifactServerResourceNotFoundException, IOException {
+    return update(templateElementId, content);
+  }
+
+  @Override
+  public void deleteTemplateElement(String templateElementId)
+      throws ArtifactServerResourceNotFoundException, IOException {
+    delete(templateElementId);
+  }
+
+  @Override
+  public long count() {
+    return collection.count();
+  }
+}
@@ -0,0 +1,49 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
+import org.metadatacenter.server.service.FieldNameInEx;
+import org.metadatacenter.server.service.TemplateFieldService;
+
+import java.io.IOException;
+import java.util.List;
+
+public class InMemoryTemplateFieldService extends AbstractInMemoryArtifactService
+    implements TemplateFieldService<String, JsonNode> {
+
+  public InMemoryTemplateFieldService(InMemoryCollection collection) {
+    super(collection);
+  }
+
+  @Override
+  public JsonNode createTemplateField(JsonNode templateField) throws IOException {
+    return create(templateField);
+  }
+
+  @Override
+  public List<JsonNode> findAllTemplateFields(Integer limit, Integer offset, List<String> fieldNames,
+                                              FieldNameInEx includeExclude) throws IOException {
+    return findAll(limit, offset, fieldNames, includeExclude);
+  }
+
+  @Override
+  public JsonNode findTemplateField(String templateFieldId) throws IOException {
+    return find(templateFieldId);
+  }
+
+  @Override
+  public JsonNode updateTemplateField(String templateFieldId, JsonNode content)
+      throws ArtifactServerResourceNotFoundException, IOException {
+    return update(templateFieldId, content);
+  }
+
+  @Override
+  public void deleteTemplateField(String templateFieldId) throws ArtifactServerResourceNotFoundException, IOException {
+    delete(templateFieldId);
+  }
+
+  @Override
+  public long count() {
+    return collection.count();
+  }
+}
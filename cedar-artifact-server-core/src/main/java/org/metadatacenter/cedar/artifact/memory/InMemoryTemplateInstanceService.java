@@ -0,0 +1,56 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
+import org.metadatacenter.model.core.CedarModelVocabulary;
+import org.metadatacenter.server.service.FieldNameInEx;
+import org.metadatacenter.server.service.TemplateInstanceService;
+
+import java.io.IOException;
+import java.util.List;
+
+public class InMemoryTemplateInstanceService extends AbstractInMemoryArtifactService
+    implements TemplateInstanceService<String, JsonNode> {
+
+  public InMemoryTemplateInstanceService(InMemoryCollection collection) {
+    super(collection);
+  }
+
+  @Override
+  public JsonNode createTemplateInstance(JsonNode templateInstance) throws IOException {
+    return create(templateInstance);
+  }
+
+  @Override
+  public List<JsonNode> findAllTemplateInstances(Integer limit, Integer offset, List<String> fieldNames,
+                                                 FieldNameInEx includeExclude) throws IOException {
+    return findAll(limit, offset, fieldNames, includeExclude);
+  }
+
+  @Override
+  public JsonNode findTemplateInstance(String templateInstanceId) throws IOException {
+    return find(templateInstanceId);
+  }
+
+  @Override
+  public JsonNode updateTemplateInstance(String templateInstanceId, JsonNode content)
+      throws ArtifactServerResourceNotFoundException, IOException {
+    return update(templateInstanceId, content);
+  }
+
+  @Override
+  public void deleteTemplateInstance(String templateInstanceId)
+      throws ArtifactServerResourceNotFoundException, IOException {
+    delete(templateInstanceId);
+  }
+
+  @Override
+  public long count() {
+    return collection.count();
+  }
+
+  @Override
+  public long countReferencingTemplate(String templateId) {
+    return collection.countByField(CedarModelVocabulary.SCHEMA_IS_BASED_ON, templateId);
+  }
+}
@@ -0,0 +1,49 @@
+package org.metadatacenter.cedar.artifact.memory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.exception.ArtifactServerResourceNotFoundException;
+import org.metadatacenter.server.service.FieldNameInEx;
+import org.metadatacenter.server.service.TemplateService;
+
+import java.io.IOException;
+import java.util.List;
+
+public class InMemoryTemplateService extends AbstractInMemoryArtifactService
+    implements TemplateService<String, JsonNode> {
+
+  public InMemoryTemplateService(InMemoryCollection collection) {
+    super(collection);
+  }
+
+  @Override
+  public JsonNode createTemplate(JsonNode template) throws IOException {
+    return create(template);
+  }
+
+  @Override
+  public List<JsonNode> findAllTemplates(Integer limit, Integer offset, List<String> fieldNames,
+                                         FieldNameInEx includeExclude) throws IOException {
+    return findAll(limit, offset, fieldNames, includeExclude);
+  }
+
+  @Override
+  public JsonNode findTemplate(String templateId) throws IOException {
+    return find(templateId);
+  }
+
+  @Override
+  public JsonNode updateTemplate(String templateId, JsonNode content)
+      throws ArtifactServerResourceNotFoundException, IOException {
+    return update(templateId, content);
+  }
+
+  @Override
+  public void deleteTemplate(String templateId) throws ArtifactServerResourceNotFoundException, IOException {
+    delete(templateId);
+  }
+
+  @Override
+  public long count() {
+    return collection.count();
+  }
+}
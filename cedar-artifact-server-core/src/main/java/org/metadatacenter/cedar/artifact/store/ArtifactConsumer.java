@@ -0,0 +1,12 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface ArtifactConsumer {
+
+  void accept(JsonNode artifact) throws IOException;
+
+}
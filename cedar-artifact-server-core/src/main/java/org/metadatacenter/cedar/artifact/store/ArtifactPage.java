@@ -0,0 +1,31 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * One page of artifacts read in key order, with the key to continue after, if there are more artifacts.
+ */
+public class ArtifactPage {
+
+  private final List<JsonNode> items;
+  private final String nextKey;
+
+  public ArtifactPage(List<JsonNode> items, String nextKey) {
+    this.items = items;
+    this.nextKey = nextKey;
+  }
+
+  public List<JsonNode> getItems() {
+    return items;
+  }
+
+  public String getNextKey() {
+    return nextKey;
+  }
+
+  public boolean hasMore() {
+    return nextKey != null;
+  }
+}
@@ -0,0 +1,112 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.server.service.FieldNameInEx;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Direct access to the documents of one artifact collection, for the operations which are not covered by the
+ * artifact services.
+ * <p>
+ * Every write through a store gives the artifact a new revision. Unlike 'pav:lastUpdatedOn', which only has a
+ * resolution of one second, the revision tells apart any two writes, so the conditional writes are based on it.
+ */
+public interface ArtifactStore {
+
+  /**
+   * Reads the artifact with the given id as it is stored, without its storage key, for the reads which return it
+   * unchanged.
+   *
+   * @return the artifact, or null if there is no artifact with that id
+   */
+  RawArtifact findRaw(String id) throws IOException;
+
+  /**
+   * Reads the artifacts in the order of their storage key, starting after the given key.
+   *
+   * @param afterKey       the key returned as next key by the previous page, or null to start with the first artifact
+   * @param limit          the maximum number of artifacts to return
+   * @param fieldNames     the field names to include or exclude, may be null
+   * @param fieldNameInEx  whether the field names are included or excluded
+   * @throws IllegalArgumentException if the key was not produced by this store
+   */
+  ArtifactPage findPage(String afterKey, int limit, List<String> fieldNames, FieldNameInEx fieldNameInEx)
+      throws IOException;
+
+  /**
+   * Reads every artifact which has the given value in the given field, and hands them over one by one, so that they
+   * are never all held in memory.
+   */
+  void forEachByField(String fieldName, String value, List<String> fieldNames, FieldNameInEx fieldNameInEx,
+                      ArtifactConsumer consumer) throws IOException;
+
+  /**
+   * Inserts a new artifact, with its first revision, so that it can be written conditionally from the start.
+   *
+   * @throws IOException if the artifact can not be inserted
+   */
+  void insert(JsonNode artifact) throws IOException;
+
+  /**
+   * Inserts the artifacts in as few round trips as possible. The insert does not stop at the first failure, so every
+   * artifact which can be inserted is inserted.
+   */
+  BulkInsertResult insertMany(List<JsonNode> artifacts) throws IOException;
+
+  /**
+   * Replaces the artifact with the given id, in a single round trip. If there is no artifact with that id, the
+   * artifact is inserted when creating is allowed, otherwise nothing is written.
+   *
+   * @return whether the artifact was updated or created, or null if it did not exist and was not created
+   */
+  CreateOrUpdate save(String id, JsonNode artifact, boolean createIfMissing) throws IOException;
+
+  /**
+   * Reads the artifact with the given id, without its storage key, together with the revision to pass to the
+   * conditional writes.
+   *
+   * @return the artifact, or null if there is no artifact with that id
+   */
+  VersionedArtifact findVersioned(String id) throws IOException;
+
+  /**
+   * Replaces the artifact with the given id only if it still has the expected revision, so that a change made since
+   * the artifact was read is not overwritten.
+   *
+   * @param expectedRevision the revision read with the artifact, may be null
+   * @return whether the artifact was replaced
+   */
+  boolean replaceIfRevision(String id, String expectedRevision, JsonNode artifact) throws IOException;
+
+  /**
+   * Writes only the differences between the current and the new version of the artifact, if it still has the expected
+   * revision. When the differences can not be written as targeted field updates, the artifact is replaced.
+   *
+   * @param expectedRevision the revision read with the current version, may be null
+   * @return whether the artifact was updated
+   */
+  boolean updateIfRevision(String id, String expectedRevision, JsonNode currentArtifact, JsonNode newArtifact)
+      throws IOException;
+
+  /**
+   * Deletes the artifact with the given id only if it still has the expected revision.
+   *
+   * @param expectedRevision the revision read with the artifact, may be null
+   * @return whether the artifact was deleted
+   */
+  boolean deleteIfRevision(String id, String expectedRevision) throws IOException;
+
+  /**
+   * Counts the artifacts exactly. This reads the whole collection index.
+   */
+  long count();
+
+  /**
+   * Returns the number of artifacts from the collection metadata, which is cheap but may be stale.
+   */
+  long estimatedCount();
+
+}
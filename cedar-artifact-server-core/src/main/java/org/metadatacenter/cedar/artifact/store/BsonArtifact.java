@@ -0,0 +1,183 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonType;
+import org.bson.RawBsonDocument;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An artifact read from MongoDB as raw BSON, without its '_id' field. The BSON is read in place: no document or JSON
+ * tree is built from it. Artifacts are stored from JSON, so only the BSON types which JSON values map to are
+ * expected.
+ */
+final class BsonArtifact implements RawArtifact {
+
+  private static final Comparator<Element> BY_NAME = Comparator.comparing(element -> element.name);
+
+  private final ByteBuffer bson;
+
+  BsonArtifact(RawBsonDocument document) {
+    this.bson = document.getByteBuffer().asNIO().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  @Override
+  public void writeJson(JsonGenerator generator) throws IOException {
+    try (BsonBinaryReader reader = new BsonBinaryReader(bson.duplicate())) {
+      writeDocument(reader, generator);
+    }
+  }
+
+  @Override
+  public void accept(CanonicalJsonVisitor visitor) {
+    acceptDocument(bson.position(), false, visitor);
+  }
+
+  private static void writeDocument(BsonBinaryReader reader, JsonGenerator generator) throws IOException {
+    reader.readStartDocument();
+    generator.writeStartObject();
+    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+      generator.writeFieldName(MongoDocuments.unescapeFieldName(reader.readName()));
+      writeValue(reader, generator);
+    }
+    reader.readEndDocument();
+    generator.writeEndObject();
+  }
+
+  private static void writeValue(BsonBinaryReader reader, JsonGenerator generator) throws IOException {
+    BsonType type = reader.getCurrentBsonType();
+    switch (type) {
+      case DOCUMENT:
+        writeDocument(reader, generator);
+        break;
+      case ARRAY:
+        reader.readStartArray();
+        generator.writeStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+          writeValue(reader, generator);
+        }
+        reader.readEndArray();
+        generator.writeEndArray();
+        break;
+      case STRING:
+        generator.writeString(reader.readString());
+        break;
+      case INT32:
+        generator.writeNumber(reader.readInt32());
+        break;
+      case INT64:
+        generator.writeNumber(reader.readInt64());
+        break;
+      case DOUBLE:
+        generator.writeNumber(reader.readDouble());
+        break;
+      case BOOLEAN:
+        generator.writeBoolean(reader.readBoolean());
+        break;
+      case NULL:
+        reader.readNull();
+        generator.writeNull();
+        break;
+      default:
+        throw new IOException("Unexpected BSON type in an artifact: " + type);
+    }
+  }
+
+  /**
+   * Visits the document or array starting at the given position. The elements of a document are first listed with
+   * the position of their value, and then visited in name order.
+   */
+  private void acceptDocument(int position, boolean array, CanonicalJsonVisitor visitor) {
+    ByteBuffer view = bson.duplicate();
+    view.position(position);
+    List<Element> elements = new ArrayList<>();
+    try (BsonBinaryReader reader = new BsonBinaryReader(view)) {
+      reader.readStartDocument();
+      while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+        String name = MongoDocuments.unescapeFieldName(reader.readName());
+        elements.add(new Element(name, reader.getCurrentBsonType(), reader.getBsonInput().getPosition()));
+        reader.skipValue();
+      }
+      reader.readEndDocument();
+    }
+    if (array) {
+      visitor.startArray();
+    } else {
+      elements.sort(BY_NAME);
+      visitor.startObject();
+    }
+    for (Element element : elements) {
+      if (!array) {
+        visitor.fieldName(element.name);
+      }
+      acceptValue(element, visitor);
+    }
+    if (array) {
+      visitor.endArray();
+    } else {
+      visitor.endObject();
+    }
+  }
+
+  private void acceptValue(Element element, CanonicalJsonVisitor visitor) {
+    int position = element.valuePosition;
+    switch (element.type) {
+      case DOCUMENT:
+        acceptDocument(position, false, visitor);
+        break;
+      case ARRAY:
+        acceptDocument(position, true, visitor);
+        break;
+      case STRING:
+        visitor.text(readString(position));
+        break;
+      case INT32:
+        visitor.number(BigDecimal.valueOf(bson.getInt(position)));
+        break;
+      case INT64:
+        visitor.number(BigDecimal.valueOf(bson.getLong(position)));
+        break;
+      case DOUBLE:
+        visitor.number(BigDecimal.valueOf(bson.getDouble(position)));
+        break;
+      case BOOLEAN:
+        visitor.literal(String.valueOf(bson.get(position) != 0));
+        break;
+      case NULL:
+        visitor.literal("null");
+        break;
+      default:
+        throw new IllegalStateException("Unexpected BSON type in an artifact: " + element.type);
+    }
+  }
+
+  // A BSON string is its length, including the terminating zero, followed by its UTF-8 bytes and the zero
+  private String readString(int position) {
+    int length = bson.getInt(position) - 1;
+    ByteBuffer bytes = bson.duplicate();
+    bytes.position(position + 4);
+    bytes.limit(position + 4 + length);
+    return StandardCharsets.UTF_8.decode(bytes).toString();
+  }
+
+  private static final class Element {
+
+    private final String name;
+    private final BsonType type;
+    private final int valuePosition;
+
+    private Element(String name, BsonType type, int valuePosition) {
+      this.name = name;
+      this.type = type;
+      this.valuePosition = valuePosition;
+    }
+  }
+}
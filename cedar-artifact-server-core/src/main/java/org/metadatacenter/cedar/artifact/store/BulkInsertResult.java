@@ -0,0 +1,33 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of an unordered bulk insert. The artifacts which are not listed as failed were inserted.
+ */
+public class BulkInsertResult {
+
+  private final int insertedCount;
+  private final Map<Integer, String> failures;
+
+  public BulkInsertResult(int insertedCount, Map<Integer, String> failures) {
+    this.insertedCount = insertedCount;
+    this.failures = Collections.unmodifiableMap(failures);
+  }
+
+  public int getInsertedCount() {
+    return insertedCount;
+  }
+
+  /**
+   * Returns the error message of the artifacts which were not inserted, by their index in the inserted list.
+   */
+  public Map<Integer, String> getFailures() {
+    return failures;
+  }
+
+  public boolean isInserted(int index) {
+    return !failures.containsKey(index);
+  }
+}
@@ -0,0 +1,30 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import java.math.BigDecimal;
+
+/**
+ * Receives the content of an artifact in canonical order, whatever its storage: the fields of every object sorted by
+ * name, and all numbers as decimals.
+ */
+public interface CanonicalJsonVisitor {
+
+  void startObject();
+
+  void fieldName(String name);
+
+  void endObject();
+
+  void startArray();
+
+  void endArray();
+
+  void number(BigDecimal value);
+
+  void text(String value);
+
+  /**
+   * A boolean or null, as its JSON literal.
+   */
+  void literal(String value);
+
+}
@@ -0,0 +1,59 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An artifact already held as a JSON tree.
+ */
+public final class JsonNodeArtifact implements RawArtifact {
+
+  private final JsonNode artifact;
+
+  public JsonNodeArtifact(JsonNode artifact) {
+    this.artifact = checkNotNull(artifact);
+  }
+
+  @Override
+  public void writeJson(JsonGenerator generator) throws IOException {
+    generator.writeTree(artifact);
+  }
+
+  @Override
+  public void accept(CanonicalJsonVisitor visitor) {
+    accept(artifact, visitor);
+  }
+
+  private static void accept(JsonNode node, CanonicalJsonVisitor visitor) {
+    if (node.isObject()) {
+      List<String> fieldNames = new ArrayList<>();
+      node.fieldNames().forEachRemaining(fieldNames::add);
+      Collections.sort(fieldNames);
+      visitor.startObject();
+      for (String fieldName : fieldNames) {
+        visitor.fieldName(fieldName);
+        accept(node.get(fieldName), visitor);
+      }
+      visitor.endObject();
+    } else if (node.isArray()) {
+      visitor.startArray();
+      for (JsonNode item : node) {
+        accept(item, visitor);
+      }
+      visitor.endArray();
+    } else if (node.isNumber()) {
+      visitor.number(node.decimalValue());
+    } else if (node.isTextual()) {
+      visitor.text(node.textValue());
+    } else {
+      visitor.literal(node.asText());
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.metadatacenter.constant.LinkedData;
+import org.metadatacenter.model.CreateOrUpdate;
+import org.metadatacenter.server.service.FieldNameInEx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.metadatacenter.cedar.artifact.store.MongoDocuments.MONGO_ID;
+import static org.metadatacenter.cedar.artifact.store.MongoDocuments.REVISION;
+
+public class MongoArtifactStore implements ArtifactStore {
+
+  private final MongoCollection<Document> collection;
+  private final MongoCollection<RawBsonDocument> rawCollection;
+
+  public MongoArtifactStore(MongoCollection<Document> collection) {
+    this.collection = checkNotNull(collection);
+    this.rawCollection = collection.withDocumentClass(RawBsonDocument.class);
+  }
+
+  @Override
+  public RawArtifact findRaw(String id) throws IOException {
+    RawBsonDocument document = rawCollection.find(Filters.eq(LinkedData.ID, id))
+        .projection(Projections.exclude(MONGO_ID, REVISION))
+        .first();
+    return document != null ? new BsonArtifact(document) : null;
+  }
+
+  @Override
+  public VersionedArtifact findVersioned(String id) throws IOException {
+    Document document = collection.find(Filters.eq(LinkedData.ID, id)).first();
+    if (document == null) {
+      return null;
+    }
+    String revision = document.getString(REVISION);
+    return new VersionedArtifact(MongoDocuments.toJson(document), revision);
+  }
+
+  @Override
+  public ArtifactPage findPage(String afterKey, int limit, List<String> fieldNames, FieldNameInEx fieldNameInEx)
+      throws IOException {
+    Bson filter = new Document();
+    if (afterKey != null) {
+      if (!ObjectId.isValid(afterKey)) {
+        throw new IllegalArgumentException("Invalid page key: " + afterKey);
+      }
+      filter = Filters.gt(MONGO_ID, new ObjectId(afterKey));
+    }
+    List<JsonNode> items = new ArrayList<>(limit);
+    String lastKey = null;
+    boolean hasMore = false;
+    // One extra document is read to find out whether there is a next page
+    try (MongoCursor<Document> cursor = collection.find(filter)
+        .projection(buildProjection(fieldNames, fieldNameInEx))
+        .sort(Sorts.ascending(MONGO_ID))
+        .limit(limit + 1)
+        .iterator()) {
+      while (cursor.hasNext()) {
+        Document document = cursor.next();
+        if (items.size() == limit) {
+          hasMore = true;
+          break;
+        }
+        lastKey = document.getObjectId(MONGO_ID).toHexString();
+        items.add(MongoDocuments.toJson(document));
+      }
+    }
+    return new ArtifactPage(items, hasMore ? lastKey : null);
+  }
+
+  @Override
+  public void forEachByField(String fieldName, String value, List<String> fieldNames, FieldNameInEx fieldNameInEx,
+                             ArtifactConsumer consumer) throws IOException {
+    try (MongoCursor<Document> cursor = collection.find(Filters.eq(MongoDocuments.escapeFieldName(fieldName), value))
+        .projection(buildProjection(fieldNames, fieldNameInEx))
+        .iterator()) {
+      while (cursor.hasNext()) {
+        consumer.accept(MongoDocuments.toJson(cursor.next()));
+      }
+    }
+  }
+
+  @Override
+  public void insert(JsonNode artifact) throws IOException {
+    collection.insertOne(MongoDocuments.toDocument(artifact, MongoDocuments.newRevision()));
+  }
+
+  @Override
+  public BulkInsertResult insertMany(List<JsonNode> artifacts) throws IOException {
+    if (artifacts.isEmpty()) {
+      return new BulkInsertResult(0, Collections.emptyMap());
+    }
+    List<Document> documents = new ArrayList<>(artifacts.size());
+    for (JsonNode artifact : artifacts) {
+      documents.add(MongoDocuments.toDocument(artifact, MongoDocuments.newRevision()));
+    }
+    try {
+      collection.insertMany(documents, new InsertManyOptions().ordered(false));
+      return new BulkInsertResult(documents.size(), Collections.emptyMap());
+    } catch (MongoBulkWriteException e) {
+      Map<Integer, String> failures = new HashMap<>();
+      for (BulkWriteError error : e.getWriteErrors()) {
+        failures.put(error.getIndex(), error.getMessage());
+      }
+      return new BulkInsertResult(e.getWriteResult().getInsertedCount(), failures);
+    }
+  }
+
+  @Override
+  public CreateOrUpdate save(String id, JsonNode artifact, boolean createIfMissing) throws IOException {
+    Document document = MongoDocuments.toDocument(artifact, MongoDocuments.newRevision());
+    UpdateResult result = collection.replaceOne(Filters.eq(LinkedData.ID, id), document,
+        new ReplaceOptions().upsert(createIfMissing));
+    if (result.getMatchedCount() > 0) {
+      return CreateOrUpdate.UPDATE;
+    }
+    return result.getUpsertedId() != null ? CreateOrUpdate.CREATE : null;
+  }
+
+  @Override
+  public boolean replaceIfRevision(String id, String expectedRevision, JsonNode artifact) throws IOException {
+    UpdateResult result = collection.replaceOne(buildRevisionFilter(id, expectedRevision),
+        MongoDocuments.toDocument(artifact, MongoDocuments.newRevision()));
+    return result.getMatchedCount() > 0;
+  }
+
+  @Override
+  public boolean updateIfRevision(String id, String expectedRevision, JsonNode currentArtifact, JsonNode newArtifact)
+      throws IOException {
+    Document update = MongoUpdates.diff(currentArtifact, newArtifact);
+    if (update == null) {
+      return replaceIfRevision(id, expectedRevision, newArtifact);
+    }
+    // Also written when nothing else changed, so that a concurrent write is detected all the same
+    MongoUpdates.appendSet(update, REVISION, MongoDocuments.newRevision());
+    UpdateResult result = collection.updateOne(buildRevisionFilter(id, expectedRevision), update);
+    return result.getMatchedCount() > 0;
+  }
+
+  @Override
+  public boolean deleteIfRevision(String id, String expectedRevision) throws IOException {
+    DeleteResult result = collection.deleteOne(buildRevisionFilter(id, expectedRevision));
+    return result.getDeletedCount() > 0;
+  }
+
+  @Override
+  public long count() {
+    return collection.countDocuments();
+  }
+
+  @Override
+  public long estimatedCount() {
+    return collection.estimatedDocumentCount();
+  }
+
+  /**
+   * Matches the artifact only if it has the expected revision. A null revision matches the artifacts created by the
+   * artifact services, which have no revision field until they are written through the store.
+   */
+  private static Bson buildRevisionFilter(String id, String expectedRevision) {
+    return Filters.and(Filters.eq(LinkedData.ID, id), Filters.eq(REVISION, expectedRevision));
+  }
+
+  private static Bson buildProjection(List<String> fieldNames, FieldNameInEx fieldNameInEx) {
+    if (fieldNames == null || fieldNames.isEmpty()) {
+      return null;
+    }
+    List<String> escapedFieldNames = MongoDocuments.escapeFieldNames(fieldNames);
+    // The key is always needed to continue the paging
+    escapedFieldNames.remove(MONGO_ID);
+    if (fieldNameInEx == FieldNameInEx.INCLUDE) {
+      escapedFieldNames.add(MONGO_ID);
+      return Projections.include(escapedFieldNames);
+    } else {
+      return escapedFieldNames.isEmpty() ? null : Projections.exclude(escapedFieldNames);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversion between the JSON documents of the REST API and their MongoDB representation. MongoDB does not accept
+ * field names starting with '$', so those are stored with a '_' prefix, the same way the artifact services do it.
+ * <p>
+ * Besides the '_id' key, the documents written by the {@link MongoArtifactStore} hold their revision in a
+ * '_revision' field. Neither is part of the artifact.
+ */
+public final class MongoDocuments {
+
+  public static final String MONGO_ID = "_id";
+  public static final String REVISION = "_revision";
+
+  private static final String ESCAPE_PREFIX = "_";
+  private static final String RESERVED_PREFIX = "$";
+
+  private static final JsonWriterSettings JSON_WRITER_SETTINGS = JsonWriterSettings.builder()
+      .outputMode(JsonMode.RELAXED)
+      .build();
+
+  private MongoDocuments() {
+  }
+
+  /**
+   * Converts a document read from MongoDB to JSON, without the '_id' and '_revision' fields.
+   */
+  public static JsonNode toJson(Document document) throws IOException {
+    document.remove(MONGO_ID);
+    document.remove(REVISION);
+    JsonNode node = JsonMapper.MAPPER.readTree(document.toJson(JSON_WRITER_SETTINGS));
+    unescapeFieldNames(node);
+    return node;
+  }
+
+  /**
+   * Converts a JSON document to its MongoDB representation. The given document is not modified.
+   */
+  public static Document toDocument(JsonNode node) throws IOException {
+    JsonNode escaped = node.deepCopy();
+    escapeFieldNames(escaped);
+    return Document.parse(JsonMapper.MAPPER.writeValueAsString(escaped));
+  }
+
+  /**
+   * Converts a JSON document to its MongoDB representation, with a new revision.
+   */
+  public static Document toDocument(JsonNode node, String revision) throws IOException {
+    return toDocument(node).append(REVISION, revision);
+  }
+
+  /**
+   * Returns a revision which no other write uses.
+   */
+  public static String newRevision() {
+    return new ObjectId().toHexString();
+  }
+
+  public static String escapeFieldName(String fieldName) {
+    return fieldName.startsWith(RESERVED_PREFIX) ? ESCAPE_PREFIX + fieldName : fieldName;
+  }
+
+  public static String unescapeFieldName(String fieldName) {
+    return fieldName.startsWith(ESCAPE_PREFIX + RESERVED_PREFIX) ? fieldName.substring(1) : fieldName;
+  }
+
+  public static List<String> escapeFieldNames(List<String> fieldNames) {
+    List<String> escaped = new ArrayList<>(fieldNames.size());
+    for (String fieldName : fieldNames) {
+      escaped.add(escapeFieldName(fieldName));
+    }
+    return escaped;
+  }
+
+  private static void escapeFieldNames(JsonNode node) {
+    renameFieldNames(node, true);
+  }
+
+  private static void unescapeFieldNames(JsonNode node) {
+    renameFieldNames(node, false);
+  }
+
+  private static void renameFieldNames(JsonNode node, boolean escape) {
+    if (node.isObject()) {
+      ObjectNode objectNode = (ObjectNode) node;
+      List<String> renamed = null;
+      Iterator<Map.Entry<String, JsonNode>> fields = objectNode.fields();
+      while (fields.hasNext()) {
+        Map.Entry<String, JsonNode> field = fields.next();
+        renameFieldNames(field.getValue(), escape);
+        if (!field.getKey().equals(rename(field.getKey(), escape))) {
+          if (renamed == null) {
+            renamed = new ArrayList<>();
+          }
+          renamed.add(field.getKey());
+        }
+      }
+      if (renamed != null) {
+        for (String fieldName : renamed) {
+          objectNode.set(rename(fieldName, escape), objectNode.remove(fieldName));
+        }
+      }
+    } else if (node.isArray()) {
+      for (JsonNode item : (ArrayNode) node) {
+        renameFieldNames(item, escape);
+      }
+    }
+  }
+
+  private static String rename(String fieldName, boolean escape) {
+    return escape ? escapeFieldName(fieldName) : unescapeFieldName(fieldName);
+  }
+}
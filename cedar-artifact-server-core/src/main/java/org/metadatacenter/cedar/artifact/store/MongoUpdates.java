@@ -0,0 +1,119 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.bson.Document;
+import org.metadatacenter.util.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.metadatacenter.cedar.artifact.store.MongoDocuments.MONGO_ID;
+
+/**
+ * Turns the differences between two versions of a document into a targeted MongoDB update, so that only the changed
+ * fields are sent and written. Objects are compared field by field; any other changed value, arrays included, is set
+ * as a whole.
+ */
+final class MongoUpdates {
+
+  private static final String SET = "$set";
+  private static final String UNSET = "$unset";
+  private static final String PATH_SEPARATOR = ".";
+
+  private MongoUpdates() {
+  }
+
+  /**
+   * Builds the update which turns the current document into the new one.
+   *
+   * @return the update, an empty document if there is nothing to change, or null if a changed top-level field name
+   * can not be used in an update and the document has to be replaced
+   */
+  static Document diff(JsonNode currentDocument, JsonNode newDocument) throws IOException {
+    ObjectNode set = JsonMapper.MAPPER.createObjectNode();
+    List<String> unset = new ArrayList<>();
+    if (!diff(null, currentDocument, newDocument, set, unset)) {
+      return null;
+    }
+    Document update = new Document();
+    if (set.size() > 0) {
+      update.append(SET, MongoDocuments.toDocument(set));
+    }
+    if (!unset.isEmpty()) {
+      Document unsetFields = new Document();
+      for (String path : unset) {
+        unsetFields.append(path, "");
+      }
+      update.append(UNSET, unsetFields);
+    }
+    return update;
+  }
+
+  /**
+   * Adds the setting of a top-level field to an update built by {@link #diff}.
+   */
+  static void appendSet(Document update, String fieldName, Object value) {
+    Document set = (Document) update.get(SET);
+    if (set == null) {
+      set = new Document();
+      update.append(SET, set);
+    }
+    set.append(fieldName, value);
+  }
+
+  private static boolean diff(String path, JsonNode currentNode, JsonNode newNode, ObjectNode set,
+                              List<String> unset) {
+    Iterator<Map.Entry<String, JsonNode>> fields = newNode.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      if (MONGO_ID.equals(field.getKey())) {
+        continue;
+      }
+      JsonNode currentValue = currentNode.get(field.getKey());
+      JsonNode newValue = field.getValue();
+      if (newValue.equals(currentValue)) {
+        continue;
+      }
+      if (!isAddressable(field.getKey())) {
+        return false;
+      }
+      String fieldPath = buildPath(path, field.getKey());
+      if (currentValue != null && currentValue.isObject() && newValue.isObject()) {
+        // The nested changes are kept only if all of them can be addressed, otherwise the object is set as a whole
+        ObjectNode nestedSet = JsonMapper.MAPPER.createObjectNode();
+        List<String> nestedUnset = new ArrayList<>();
+        if (diff(fieldPath, currentValue, newValue, nestedSet, nestedUnset)) {
+          set.setAll(nestedSet);
+          unset.addAll(nestedUnset);
+          continue;
+        }
+      }
+      set.set(fieldPath, newValue);
+    }
+    Iterator<String> currentFieldNames = currentNode.fieldNames();
+    while (currentFieldNames.hasNext()) {
+      String fieldName = currentFieldNames.next();
+      if (MONGO_ID.equals(fieldName) || newNode.has(fieldName)) {
+        continue;
+      }
+      if (!isAddressable(fieldName)) {
+        return false;
+      }
+      unset.add(buildPath(path, fieldName));
+    }
+    return true;
+  }
+
+  private static boolean isAddressable(String fieldName) {
+    return !fieldName.isEmpty() && !fieldName.contains(PATH_SEPARATOR);
+  }
+
+  private static String buildPath(String path, String fieldName) {
+    String escaped = MongoDocuments.escapeFieldName(fieldName);
+    return path == null ? escaped : path + PATH_SEPARATOR + escaped;
+  }
+}
@@ -0,0 +1,23 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * An artifact as it is stored, for the reads which return it unchanged. It is written to the response without being
+ * turned into a JSON tree first.
+ */
+public interface RawArtifact {
+
+  /**
+   * Writes the artifact as JSON, with its fields in their stored order.
+   */
+  void writeJson(JsonGenerator generator) throws IOException;
+
+  /**
+   * Walks the content of the artifact in canonical order: the fields of every object sorted by name.
+   */
+  void accept(CanonicalJsonVisitor visitor);
+
+}
@@ -0,0 +1,29 @@
+package org.metadatacenter.cedar.artifact.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * An artifact as read from its store, with the revision of the stored version. The revision is not part of the
+ * artifact; it changes on every write through the store, and is what the conditional writes check.
+ */
+public class VersionedArtifact {
+
+  private final JsonNode artifact;
+  private final String revision;
+
+  public VersionedArtifact(JsonNode artifact, String revision) {
+    this.artifact = artifact;
+    this.revision = revision;
+  }
+
+  public JsonNode getArtifact() {
+    return artifact;
+  }
+
+  /**
+   * @return the revision, or null if the artifact was not written through a store yet
+   */
+  public String getRevision() {
+    return revision;
+  }
+}